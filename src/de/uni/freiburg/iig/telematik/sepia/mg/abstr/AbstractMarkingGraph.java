@@ -2,10 +2,12 @@ package de.uni.freiburg.iig.telematik.sepia.mg.abstr;
 
 import java.util.Collection;
 
+import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.jagal.ts.Event;
 import de.uni.freiburg.iig.telematik.jagal.ts.labeled.abstr.AbstractLabeledTransitionRelation;
 import de.uni.freiburg.iig.telematik.jagal.ts.labeled.abstr.AbstractLabeledTransitionSystem;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceReduction;
 
 
 
@@ -19,6 +21,8 @@ public abstract class AbstractMarkingGraph<M extends AbstractMarking<O>,
 	
 	private S initialState = null;
 	
+	private StateSpaceReduction reduction = StateSpaceReduction.NONE;
+	
 	public AbstractMarkingGraph() {
 		super();
 	}
@@ -51,6 +55,19 @@ public abstract class AbstractMarkingGraph<M extends AbstractMarking<O>,
 		this.initialState = getState(name);
 	}
 	
+	/**
+	 * Returns the reduction which was applied when the marking graph was constructed.<br>
+	 * Reduced marking graphs do in general not contain all reachable markings.
+	 */
+	public StateSpaceReduction getReduction() {
+		return reduction;
+	}
+
+	public void setReduction(StateSpaceReduction reduction) {
+		Validate.notNull(reduction);
+		this.reduction = reduction;
+	}
+	
 	@Override
 	public String toString(){
 		StringBuilder relations = new StringBuilder();
@@ -1,6 +1,7 @@
 package de.uni.freiburg.iig.telematik.sepia.overlap;
 
 import de.invation.code.toval.thread.ExecutorListener;
+import de.uni.freiburg.iig.telematik.sepia.overlap.OverlapCallable.OverlapMode;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
@@ -9,6 +10,8 @@ import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
 
 public class Overlap {
 	
+	public static final OverlapMode DEFAULT_OVERLAP_MODE = OverlapMode.SEQUENCE_ENUMERATION;
+	
 	public static <	P extends AbstractPlace<F,S>, 
 					T extends AbstractTransition<F,S>, 
 					F extends AbstractFlowRelation<P,T,S>, 
@@ -6,6 +6,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.MGTraversalResult;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.SequenceAutomaton;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.SequenceGenerationCallable;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.SequenceGenerationCallableGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
@@ -33,12 +34,19 @@ public class OverlapCallable< 	P extends AbstractPlace<F,S>,
 
 	@Override
 	protected OverlapResult<E> callRoutine() throws OverlapException, InterruptedException {
-		// Generate Sequences
+		// Generate or count sequences
 		MGTraversalResult traversalResult = null;
+		long completeSequenceCount = 0;
 		try {
 			SequenceGenerationCallable<P,T,F,M,S> sequenceGeneratorCallable = new SequenceGenerationCallable<P,T,F,M,S>(new SequenceGenerationCallableGenerator<P,T,F,M,S>(getGenerator()));
-			traversalResult = sequenceGeneratorCallable.callRoutine();
+			if(getGenerator().getOverlapMode() == OverlapMode.SEQUENCE_AUTOMATON){
+				completeSequenceCount = sequenceGeneratorCallable.createSequenceAutomaton().countCompleteSequences();
+			} else {
+				traversalResult = sequenceGeneratorCallable.callRoutine();
+			}
 			getGenerator().setMarkingGraph(sequenceGeneratorCallable.getMarkingGraph());
+		} catch(InterruptedException e){
+			throw e;
 		} catch(Exception e){
 			// Abort when Petri net is unbounded
 			if(e.getCause() != null && e.getCause() instanceof StateSpaceException){
@@ -52,11 +60,27 @@ public class OverlapCallable< 	P extends AbstractPlace<F,S>,
 		try {
 			ReplayCallable<P,T,F,M,S,E> replayingCallable = new ReplayCallable<P,T,F,M,S,E>(new ReplayCallableGenerator<P,T,F,M,S,E>(getGenerator()));
 			replayResult = replayingCallable.callRoutine();
+		} catch(InterruptedException e){
+			throw e;
 		} catch(Exception e){
 			throw new OverlapException("Exception during replay", e);
 		}
 		
+		if(traversalResult == null)
+			return new OverlapResult<E>(completeSequenceCount, replayResult);
 		return new OverlapResult<E>(traversalResult, replayResult);
 	}
 	
+	public enum OverlapMode {
+		/**
+		 * All sequences of the net are generated (see {@link SequenceGenerationCallable}).
+		 */
+		SEQUENCE_ENUMERATION,
+		/**
+		 * Complete sequences are only counted on a deterministic automaton of the marking graph (see {@link SequenceAutomaton}),
+		 * the overlap result does not contain a traversal result.
+		 */
+		SEQUENCE_AUTOMATON;
+	}
+	
 }
@@ -1,8 +1,12 @@
 package de.uni.freiburg.iig.telematik.sepia.overlap;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
+import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.overlap.OverlapCallable.OverlapMode;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
@@ -13,6 +17,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.Abstract
 import de.uni.freiburg.iig.telematik.sepia.replay.Replay;
 import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.TerminationCriteria;
 import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
+import de.uni.freiburg.iig.telematik.sewol.log.LogTrace;
 
 public class OverlapCallableGenerator< 	P extends AbstractPlace<F,S>, 
 										T extends AbstractTransition<F,S>, 
@@ -25,6 +30,9 @@ public class OverlapCallableGenerator< 	P extends AbstractPlace<F,S>,
 	private boolean includeSilentTransitions = SequenceGeneration.DEFAULT_INCLUDE_SILENT_TRANSITIONS;
 	private Map<String, String> transitionLabelRelation = null;
 	private TerminationCriteria terminationCriteria = null;
+	private OverlapMode overlapMode = Overlap.DEFAULT_OVERLAP_MODE;
+	private Collection<LogTrace<E>> logTraces = null;
+	private Collection<List<String>> logSequences = null;
 	
 	public OverlapCallableGenerator(AbstractPetriNet<P,T,F,M,S> petriNet) {
 		super(petriNet);
@@ -63,4 +71,38 @@ public class OverlapCallableGenerator< 	P extends AbstractPlace<F,S>,
 		this.terminationCriteria = terminationCriteria;
 	}
 
+	public OverlapMode getOverlapMode() {
+		return overlapMode;
+	}
+	
+	/**
+	 * Sets how the complete sequences of the net are determined.<br>
+	 * With {@link OverlapMode#SEQUENCE_AUTOMATON}, the sequences are counted without enumerating them,
+	 * which also works for nets with a large number of sequences.
+	 */
+	public void setOverlapMode(OverlapMode overlapMode) {
+		Validate.notNull(overlapMode);
+		this.overlapMode = overlapMode;
+	}
+	
+	public Collection<LogTrace<E>> getLogTraces() {
+		return logTraces;
+	}
+	
+	public void setLogTraces(Collection<LogTrace<E>> logTraces) {
+		Validate.notNull(logTraces);
+		this.logTraces = logTraces;
+		this.logSequences = null;
+	}
+	
+	public Collection<List<String>> getLogSequences() {
+		return logSequences;
+	}
+	
+	public void setLogSequences(Collection<List<String>> logSequences) {
+		Validate.notNull(logSequences);
+		this.logSequences = logSequences;
+		this.logTraces = null;
+	}
+
 }
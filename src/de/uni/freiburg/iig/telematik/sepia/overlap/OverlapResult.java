@@ -8,12 +8,22 @@ public class OverlapResult<E extends LogEntry> {
 	
 	private double fitness = 0.0;
 	private double precision = 0.0;
+	private long completeSequenceCount = 0;
 	private MGTraversalResult traversalResult = null;
 	private ReplayResult<E> replayResult = null;
 	
 	public OverlapResult(MGTraversalResult traversalResult, ReplayResult<E> replayResult) {
-		super();
+		this(traversalResult.getCompleteSequenceCount(), replayResult);
 		this.traversalResult = traversalResult;
+	}
+	
+	/**
+	 * Creates an overlap result for the given number of complete sequences of the net, without traversal result.
+	 * @param completeSequenceCount 模型完整序列数
+	 */
+	public OverlapResult(long completeSequenceCount, ReplayResult<E> replayResult) {
+		super();
+		this.completeSequenceCount = completeSequenceCount;
 		this.replayResult = replayResult;
 //		System.out.println("Log sequences:");
 //		for(Object logSequence: logSequences){
@@ -46,9 +56,9 @@ public class OverlapResult<E extends LogEntry> {
 //		for(List<String> modelSequence: traversalResult.getCompleteSequences())
 //			System.out.println(modelSequence);
 		
-		int nonFittingCompleteSequences = traversalResult.getCompleteSequences().size() - replayResult.getNonFittingSequences().size();
+		long nonFittingCompleteSequences = completeSequenceCount - replayResult.getNonFittingSequences().size();
 		
-		precision = 1.0 - (nonFittingCompleteSequences / (traversalResult.getCompleteSequences().size() + 0.0));
+		precision = 1.0 - (nonFittingCompleteSequences / (completeSequenceCount + 0.0));
 //		if(precision != 1){
 //			System.out.println("Difference sequences (precision):");
 //			for(Object differenceSequence: nonFittingCompleteSequences){
@@ -65,6 +75,14 @@ public class OverlapResult<E extends LogEntry> {
 		return precision;
 	}
 
+	public long getCompleteSequenceCount() {
+		return completeSequenceCount;
+	}
+
+	/**
+	 * Returns the generated sequences of the net,
+	 * or <code>null</code> if the complete sequences were only counted (see {@link OverlapCallable.OverlapMode#SEQUENCE_AUTOMATON}).
+	 */
 	public MGTraversalResult getTraversalResult() {
 		return traversalResult;
 	}
@@ -24,7 +24,24 @@ public abstract class AbstractMarking<S extends Object> implements Serializable{
 	 * Map for place states, indexed with place-names.<br>
 	 * Each place state is defined with a token representation of type M.
 	 */
-	protected Map<String,S> placeStates = new HashMap<String,S>(); 
+	protected Map<String,S> placeStates;
+	
+	/**
+	 * Creates a new marking which stores place states in a {@link HashMap}.
+	 */
+	public AbstractMarking(){
+		this(new HashMap<String,S>());
+	}
+	
+	/**
+	 * Creates a new marking which uses the given map for place states.<br>
+	 * Subclasses with an own state representation may pass <code>null</code>,<br>
+	 * in which case they have to override all methods accessing {@link #placeStates}.
+	 * @param placeStates Map for place states.
+	 */
+	protected AbstractMarking(Map<String,S> placeStates){
+		this.placeStates = placeStates;
+	}
 	
 	
 	//------- Basic properties -----------------------------------------------------------------------
@@ -57,6 +57,11 @@ public abstract class AbstractPlace<E extends AbstractFlowRelation<? extends Abs
 	 * The state of the place, i.e. the number and kind of tokens that reside in the place.
 	 */
 	protected S state = null;
+	/**
+	 * Scheduler for state checks of connected transitions, assigned by the Petri net containing the place.<br>
+	 * If <code>null</code>, transitions are checked immediately.
+	 */
+	private StateCheckScheduler stateCheckScheduler = null;
 
 	// ------- Constructors --------------------------------------------------------------------------
 
@@ -208,7 +213,7 @@ public abstract class AbstractPlace<E extends AbstractFlowRelation<? extends Abs
 		S oldState = this.state;
 		this.state = state;
 		// Tell outgoing transitions to update their state.
-		initiateStateChecks();
+		initiateStateChecks(oldState, state);
 		// Call state-change method
 		stateChange(oldState, state);
 		return true;
@@ -276,7 +281,7 @@ public abstract class AbstractPlace<E extends AbstractFlowRelation<? extends Abs
 		S oldState = getState();
 		this.state = emptyState;
 		// Tell outgoing transitions to update their state.
-		initiateStateChecks();
+		initiateStateChecks(oldState, emptyState);
 		// Call state-change method
 		stateChange(oldState, emptyState);
 		return true;
@@ -306,13 +311,45 @@ public abstract class AbstractPlace<E extends AbstractFlowRelation<? extends Abs
 
 		for (AbstractFlowRelation<? extends AbstractPlace<E, S>, ? extends AbstractTransition<E, S>, S> r : outgoingRelations.values()) {
 
-			r.getTransition().checkState();
+			requestStateCheck(r.getTransition());
 		}
 		for (AbstractFlowRelation<? extends AbstractPlace<E, S>, ? extends AbstractTransition<E, S>, S> r : incomingRelations.values()) {
 
-			r.getTransition().checkState();
+			requestStateCheck(r.getTransition());
+		}
+	}
+	
+	/**
+	 * Tells connected transitions to update their state after the place state changed from <code>oldState</code> to <code>newState</code>.<br>
+	 * Subclasses can override this method to restrict state checks to transitions whose enabling may actually be affected.
+	 * 
+	 * @param oldState
+	 *            Old place state before change.
+	 * @param newState
+	 *            New place state after change.
+	 */
+	protected void initiateStateChecks(S oldState, S newState) {
+		initiateStateChecks();
+	}
+	
+	/**
+	 * Requests a state check for the given transition,<br>
+	 * which is deferred if the net containing the place currently fires a transition.
+	 * 
+	 * @param transition
+	 *            The transition to check.
+	 */
+	protected void requestStateCheck(AbstractTransition<?, ?> transition) {
+		if (stateCheckScheduler != null) {
+			stateCheckScheduler.requestStateCheck(transition);
+		} else {
+			transition.checkState();
 		}
 	}
+	
+	void setStateCheckScheduler(StateCheckScheduler stateCheckScheduler) {
+		this.stateCheckScheduler = stateCheckScheduler;
+	}
 
 	// ------- Validity -------------------------------------------------------------------------------
 
@@ -71,6 +71,11 @@ public abstract class AbstractTransition<	E extends AbstractFlowRelation<? exten
 	 * Support class for {@link TransitionListener} handling.
 	 */
 	protected TransitionListenerSupport<AbstractTransition<E,S>> listenerSupport = new TransitionListenerSupport<>();
+	/**
+	 * Scheduler for state checks, assigned by the Petri net containing the transition.<br>
+	 * Used to check each affected transition only once after firing.
+	 */
+	private StateCheckScheduler stateCheckScheduler = null;
 	/**
 	 * Indicates the silent-state of the transition.<br>
 	 * If <code>true</code>, the transition is treated as silent transition.
@@ -288,15 +293,26 @@ public abstract class AbstractTransition<	E extends AbstractFlowRelation<? exten
 			throw new PNException("Cannot fire transition "+this+": not in valid state ["+e.getMessage()+"]");
 		}
 		
-		for (E r : incomingRelations.values()) {
-			r.getPlace().removeTokens(r.getConstraint());
-		}
-		for (E r : outgoingRelations.values()) {
-			r.getPlace().addTokens(r.getConstraint());
+		if(stateCheckScheduler != null)
+			stateCheckScheduler.begin();
+		try {
+			for (E r : incomingRelations.values()) {
+				r.getPlace().removeTokens(r.getConstraint());
+			}
+			for (E r : outgoingRelations.values()) {
+				r.getPlace().addTokens(r.getConstraint());
+			}
+		} finally {
+			if(stateCheckScheduler != null)
+				stateCheckScheduler.end();
 		}
 		notifyFiring();
 	}
 	
+	void setStateCheckScheduler(StateCheckScheduler stateCheckScheduler) {
+		this.stateCheckScheduler = stateCheckScheduler;
+	}
+	
 	protected void notifyFiring(){
 		listenerSupport.notifyFiring(new TransitionEvent<>(this));
 	}
@@ -0,0 +1,117 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.abstr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 使能变迁集合（indexed set of enabled transitions）<br>
+ * Each transition gets a dense index on its first insertion.
+ * Membership is kept in a {@link BitSet}, the members themselves in a dense list
+ * with a position table, so that adding, removing and membership tests take constant time.<br>
+ * Removal swaps the last member into the freed position, i.e. the list order is not the insertion order.
+ * 
+ * @author Administrator
+ *
+ * @param <T>  Transition类型
+ */
+public class EnabledTransitionSet<T extends AbstractTransition<?,?>> implements Serializable {
+
+	private static final long serialVersionUID = 3716120391209435870L;
+	
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** 变迁名称 -> 索引 */
+	private Map<String, Integer> indices = new HashMap<String, Integer>();
+	/** 以变迁索引为下标的成员位 */
+	private BitSet members = new BitSet();
+	/** 变迁索引 -> 在列表中的位置 */
+	private int[] positions = new int[DEFAULT_CAPACITY];
+	private ArrayList<T> transitions = new ArrayList<T>();
+	private List<T> transitionsView = Collections.unmodifiableList(transitions);
+	
+	private int getIndex(T transition){
+		Integer index = indices.get(transition.getName());
+		if(index == null){
+			index = indices.size();
+			indices.put(transition.getName(), index);
+			if(index >= positions.length){
+				positions = Arrays.copyOf(positions, positions.length * 2);
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Adds the given transition to the set.
+	 * @param transition 变迁
+	 * @return <code>true</code> if the transition was not yet contained.
+	 */
+	public boolean add(T transition){
+		Validate.notNull(transition);
+		int index = getIndex(transition);
+		if(members.get(index))
+			return false;
+		members.set(index);
+		positions[index] = transitions.size();
+		transitions.add(transition);
+		return true;
+	}
+	
+	/**
+	 * Removes the given transition from the set.
+	 * @param transition 变迁
+	 * @return <code>true</code> if the transition was contained.
+	 */
+	public boolean remove(AbstractTransition<?,?> transition){
+		Integer index = indices.get(transition.getName());
+		if(index == null || !members.get(index))
+			return false;
+		members.clear(index);
+		int position = positions[index];
+		T last = transitions.remove(transitions.size() - 1);
+		if(position < transitions.size()){
+			transitions.set(position, last);
+			positions[indices.get(last.getName())] = position;
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if the given transition is contained in the set.
+	 * @param transition 变迁
+	 */
+	public boolean contains(AbstractTransition<?,?> transition){
+		Integer index = indices.get(transition.getName());
+		return index != null && members.get(index);
+	}
+	
+	public int size(){
+		return transitions.size();
+	}
+	
+	public boolean isEmpty(){
+		return transitions.isEmpty();
+	}
+	
+	public void clear(){
+		members.clear();
+		transitions.clear();
+	}
+	
+	/**
+	 * Returns an unmodifiable live view of the contained transitions.<br>
+	 * The view is unordered, see the class description.
+	 */
+	public List<T> asList(){
+		return transitionsView;
+	}
+
+}
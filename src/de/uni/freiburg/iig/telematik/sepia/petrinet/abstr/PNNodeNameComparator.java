@@ -0,0 +1,16 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.abstr;
+
+import java.util.Comparator;
+
+/**
+ * Orders Petri net nodes by name, e.g. to choose among enabled transitions independently of the order in which they were enabled.
+ */
+@SuppressWarnings("rawtypes")
+public class PNNodeNameComparator implements Comparator<AbstractPNNode>{
+
+	@Override
+	public int compare(AbstractPNNode o1, AbstractPNNode o2) {
+		return o1.getName().compareTo(o2.getName());
+	}
+
+}
@@ -0,0 +1,74 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.abstr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Schedules state checks ({@link AbstractTransition#checkState()}) of transitions.<br>
+ * Places request state checks of connected transitions on every state change.
+ * Within a batch (between {@link #begin()} and {@link #end()}), requests are collected
+ * and every affected transition is checked exactly once when the outermost batch ends.<br>
+ * Outside a batch, transitions are checked immediately.<br>
+ * <br>
+ * Each Petri net owns one scheduler which it assigns to its places and transitions
+ * (see {@link AbstractPetriNet#getStateCheckScheduler()}).
+ * 
+ * @author Administrator
+ */
+public class StateCheckScheduler implements Serializable {
+
+	private static final long serialVersionUID = -6107939917478265018L;
+	
+	private int batchDepth = 0;
+	
+	private Set<AbstractTransition<?,?>> pendingChecks = new LinkedHashSet<AbstractTransition<?,?>>();
+	
+	/**
+	 * Starts a new batch. Batches can be nested.
+	 */
+	public void begin(){
+		batchDepth++;
+	}
+	
+	/**
+	 * Ends the current batch.<br>
+	 * When the outermost batch ends, all pending state checks are executed.
+	 */
+	public void end(){
+		if(batchDepth == 0)
+			return;
+		if(--batchDepth > 0)
+			return;
+		while(!pendingChecks.isEmpty()){
+			List<AbstractTransition<?,?>> transitions = new ArrayList<AbstractTransition<?,?>>(pendingChecks);
+			pendingChecks.clear();
+			for(AbstractTransition<?,?> transition: transitions){
+				transition.checkState();
+			}
+		}
+	}
+	
+	/**
+	 * Indicates if the scheduler currently collects state check requests.
+	 */
+	public boolean isBatching(){
+		return batchDepth > 0;
+	}
+	
+	/**
+	 * Requests a state check for the given transition.<br>
+	 * The check is executed immediately if there is no active batch.
+	 * @param transition 需要检查状态的变迁
+	 */
+	public void requestStateCheck(AbstractTransition<?,?> transition){
+		if(batchDepth > 0){
+			pendingChecks.add(transition);
+		} else {
+			transition.checkState();
+		}
+	}
+
+}
@@ -4,6 +4,7 @@ import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.NetCheckingProperties;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PNProperties.InOutPlaces;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PropertyCheckingResult;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessWitness;
 
 public class CWNProperties extends NetCheckingProperties {
 
@@ -18,6 +19,7 @@ public class CWNProperties extends NetCheckingProperties {
 	public PropertyCheckingResult isSoundCWN = PropertyCheckingResult.UNKNOWN;
 	public InOutPlaces inOutPlaces = null;
 	public AbstractMarkingGraph markingGraph = null;
+	public SoundnessWitness witness = null;
 	
 	public boolean hasCWNStructure(){
 		return hasCWNStructure.equals(PropertyCheckingResult.TRUE);
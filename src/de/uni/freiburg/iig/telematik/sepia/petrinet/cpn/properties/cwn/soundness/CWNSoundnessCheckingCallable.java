@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import de.invation.code.toval.types.Multiset;
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
 import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphState;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNFlowRelation;
@@ -20,12 +21,18 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PropertyCheckingR
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessCheckGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessCheckResult;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.CoverabilityGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.ThreadedBoundednessChecker;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckCallableGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckResult;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckingCallable;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallableGenerator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ThreadedMGCalculator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.OnTheFlySoundnessChecker;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessViolationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessWitness;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
 
 public class CWNSoundnessCheckingCallable<P extends AbstractCPNPlace<F>,
@@ -74,11 +81,21 @@ public class CWNSoundnessCheckingCallable<P extends AbstractCPNPlace<F>,
 				throw new InterruptedException();
 			}
 			
+			if(getGenerator().isOnTheFly() && getGenerator().getMarkingGraph() == null){
+				if(getGenerator().isCheckBoundedness()){
+					checkBoundednessOnCoverabilityGraph(result);
+				}
+				checkSoundnessOnTheFly(result);
+				result.isSoundCWN = PropertyCheckingResult.TRUE;
+				return result;
+			}
+			
 			if(getGenerator().isCheckBoundedness()){
 				if(getGenerator().getMarkingGraph() != null){
 					result.isBounded = PropertyCheckingResult.TRUE;
 				} else {
 					BoundednessCheckGenerator<P,T,F,M,Multiset<String>> generator = new BoundednessCheckGenerator<P,T,F,M,Multiset<String>>(getGenerator().getPetriNet());
+					generator.setExplorationBudget(getGenerator().getExplorationBudget());
 					ThreadedBoundednessChecker<P,T,F,M,Multiset<String>> checker = new ThreadedBoundednessChecker<P,T,F,M,Multiset<String>>(generator);
 					checker.runCalculation();
 					
@@ -94,7 +111,7 @@ public class CWNSoundnessCheckingCallable<P extends AbstractCPNPlace<F>,
 						break;
 					case UNBOUNDED:
 						result.isBounded = PropertyCheckingResult.FALSE;
-						throw new CWNException("Net is unbounded.", result);
+						throw new CWNException("Net is unbounded." + (boundednessCheckResult.getUnboundedPlaces().isEmpty() ? "" : " Unbounded places: " + boundednessCheckResult.getUnboundedPlaces()), result);
 					default:
 						result.isBounded = PropertyCheckingResult.UNKNOWN;
 						throw new CWNException("Unknown boundedness of net, calculation cancelled?.", result);
@@ -136,7 +153,11 @@ public class CWNSoundnessCheckingCallable<P extends AbstractCPNPlace<F>,
 				throw new CWNException("Exception during dead transition check.", e, result);
 			}
 			
-			result.noDeadTransitions = deadTransitionCheckResult.existDeadTransitions() ? PropertyCheckingResult.FALSE : PropertyCheckingResult.TRUE;
+			if(deadTransitionCheckResult.existDeadTransitions()){
+				result.noDeadTransitions = PropertyCheckingResult.FALSE;
+				throw new CWNException("Net contains dead transitions: " + deadTransitionCheckResult.getDeadTransitions(), result);
+			}
+			result.noDeadTransitions = PropertyCheckingResult.TRUE;
 			
 			result.isSoundCWN = PropertyCheckingResult.TRUE;
 
@@ -148,12 +169,71 @@ public class CWNSoundnessCheckingCallable<P extends AbstractCPNPlace<F>,
 		return result;
 	}
 	
+	/**
+	 * 在可覆盖图上检查有界性（见{@link CoverabilityGraph}）<br>
+	 * Used before the on-the-fly check, which does not need the marking graph of the net.
+	 */
+	private void checkBoundednessOnCoverabilityGraph(CWNProperties result) throws CWNException, InterruptedException {
+		CoverabilityGraph coverabilityGraph = null;
+		try {
+			coverabilityGraph = CoverabilityGraph.build(getGenerator().getPetriNet(), getGenerator().getExplorationBudget());
+		} catch(StateSpaceException e){
+			result.isBounded = PropertyCheckingResult.UNKNOWN;
+			result.isSoundCWN = PropertyCheckingResult.UNKNOWN;
+			throw new CWNException("Exploration budget exceeded during boundedness check.", e, result);
+		} catch(BoundednessException e){
+			throw new CWNException("Exception during boundedness check.", e, result);
+		}
+		if(!coverabilityGraph.isBounded()){
+			result.isBounded = PropertyCheckingResult.FALSE;
+			throw new CWNException("Net is unbounded. Unbounded places: " + coverabilityGraph.getUnboundedPlaces(), result);
+		}
+		result.isBounded = PropertyCheckingResult.TRUE;
+	}
+	
+	/**
+	 * 即时检查可靠性，不构建标识图（见{@link OnTheFlySoundnessChecker}）<br>
+	 * A counterexample is stored in the result properties.
+	 */
+	private void checkSoundnessOnTheFly(CWNProperties result) throws CWNException, InterruptedException {
+		String outputPlaceName = result.inOutPlaces.getOutput();
+		OnTheFlySoundnessChecker<P,T,F,M,Multiset<String>> checker = new OnTheFlySoundnessChecker<P,T,F,M,Multiset<String>>(getGenerator().getPetriNet(), marking -> checkEndStateProperty(marking, outputPlaceName), getGenerator().getExplorationBudget());
+		try {
+			checker.check();
+		} catch(SoundnessViolationException e){
+			result.witness = e.getWitness();
+			result.exception = e;
+			if(e.getWitness().getViolation() == SoundnessWitness.Violation.DEAD_TRANSITIONS){
+				result.isBounded = PropertyCheckingResult.TRUE;
+				result.optionToCompleteAndProperCompletion = PropertyCheckingResult.TRUE;
+				result.noDeadTransitions = PropertyCheckingResult.FALSE;
+				throw new CWNException("Exception during dead transition check.", e, result);
+			}
+			result.optionToCompleteAndProperCompletion = PropertyCheckingResult.FALSE;
+			throw new CWNException("Exception during option to complete and proper completion check.", e, result);
+		} catch(StateSpaceException e){
+			// 无法区分无界的网与超出预算的有界网
+			if(result.isBounded != PropertyCheckingResult.TRUE)
+				result.isBounded = PropertyCheckingResult.UNKNOWN;
+			result.isSoundCWN = PropertyCheckingResult.UNKNOWN;
+			throw new CWNException("Exploration budget exceeded during on-the-fly soundness check.", e, result);
+		} catch(PNException e){
+			throw new CWNException("Exception during on-the-fly soundness check.", e, result);
+		}
+		// 状态空间已完全探索，因此网是有界的
+		result.isBounded = PropertyCheckingResult.TRUE;
+		result.optionToCompleteAndProperCompletion = PropertyCheckingResult.TRUE;
+		result.noDeadTransitions = PropertyCheckingResult.TRUE;
+	}
+	
 	private void checkValidCompletion(String outputPlaceName) throws PNValidationException, InterruptedException {
 		if (!getGenerator().getPetriNet().containsPlace(outputPlaceName))
 			throw new PNValidationException("CPN does not contain a place with name \"" + outputPlaceName + "\"");
 
 		if(getGenerator().getMarkingGraph() == null){
-			ThreadedMGCalculator<P,T,F,M,Multiset<String>> checker = new ThreadedMGCalculator<P,T,F,M,Multiset<String>>(getGenerator().getPetriNet());
+			MGConstructorCallableGenerator<P,T,F,M,Multiset<String>> generator = new MGConstructorCallableGenerator<P,T,F,M,Multiset<String>>(getGenerator().getPetriNet());
+			generator.setExplorationBudget(getGenerator().getExplorationBudget());
+			ThreadedMGCalculator<P,T,F,M,Multiset<String>> checker = new ThreadedMGCalculator<P,T,F,M,Multiset<String>>(generator);
 			checker.runCalculation();
 			try{
 				getGenerator().setMarkingGraph(checker.getMarkingGraph());
@@ -12,6 +12,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNFlowRel
 import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.OnTheFlySoundnessChecker;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractCallableGenerator;
 
 public class CWNSoundnessCheckingCallableGenerator<P extends AbstractCPNPlace<F>,
@@ -21,9 +22,11 @@ public class CWNSoundnessCheckingCallableGenerator<P extends AbstractCPNPlace<F>
 
 	public static final boolean DEFAULT_CHECK_CWN_STRUCTURE = true;
 	public static final boolean DEFAULT_CHECK_BOUNDEDNESS = true;
+	public static final boolean DEFAULT_ON_THE_FLY = false;
 	
 	private boolean checkCWNStructure = DEFAULT_CHECK_CWN_STRUCTURE;
 	private boolean checkBoundedness = DEFAULT_CHECK_BOUNDEDNESS;
+	private boolean onTheFly = DEFAULT_ON_THE_FLY;
 	
 	private Set<CWNSoundnessPropertyFlag> propertyFlags = new HashSet<CWNSoundnessPropertyFlag>();
 	private AbstractMarkingGraph<M,Multiset<String>,?,?> markingGraph = null;
@@ -53,6 +56,24 @@ public class CWNSoundnessCheckingCallableGenerator<P extends AbstractCPNPlace<F>
 		this.checkBoundedness = checkBoundedness;
 	}
 	
+	/**
+	 * Indicates if soundness is checked on-the-fly (see {@link OnTheFlySoundnessChecker}) instead of on the marking graph.
+	 */
+	public boolean isOnTheFly() {
+		return onTheFly;
+	}
+	
+	/**
+	 * Sets if soundness is checked on-the-fly (see {@link OnTheFlySoundnessChecker}) instead of on the marking graph.<br>
+	 * The on-the-fly check stops at the first counterexample, but does not provide a marking graph.
+	 * It is only used if no marking graph is set.
+	 * If boundedness is checked, it is decided on the coverability graph before.
+	 * @param onTheFly 是否即时检查
+	 */
+	public void setOnTheFly(boolean onTheFly) {
+		this.onTheFly = onTheFly;
+	}
+	
 	public void addPropertyFlag(CWNSoundnessPropertyFlag flag){
 		Validate.notNull(flag);
 		propertyFlags.add(flag);
@@ -6,7 +6,6 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
-import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstruction;
 
 public class BoundednessCheck {
 	
@@ -33,8 +32,9 @@ public class BoundednessCheck {
 	
 	/**
 	 * Checks if the Petri net is bounded.<br>
-	 * In case the marking graph of the net cannot be constructed with the maximum number of elements (see {@link MGConstruction#MAX_RG_CALCULATION_STEPS}),<br>
-	 * it is assumed to be unbounded; otherwise bounded.<br>
+	 * For P/T-nets and CPNs, boundedness is decided with a {@link CoverabilityGraph}.<br>
+	 * For other nets, the marking graph is constructed; in case this exceeds the exploration budget,<br>
+	 * boundedness is not decided and a {@link BoundednessException} is thrown.<br>
 	 * @param petriNet The basic Petri net for operation.
 	 * @throws BoundednessException
 	 */
@@ -50,8 +50,9 @@ public class BoundednessCheck {
 
 	/**
 	 * Checks if the Petri net is bounded.<br>
-	 * In case the marking graph of the net cannot be constructed with the maximum number of elements (see {@link MGConstruction#MAX_RG_CALCULATION_STEPS}),<br>
-	 * it is assumed to be unbounded; otherwise bounded.<br>
+	 * For P/T-nets and CPNs, boundedness is decided with a {@link CoverabilityGraph}.<br>
+	 * For other nets, the marking graph is constructed; in case this exceeds the exploration budget,<br>
+	 * boundedness is not decided and a {@link BoundednessException} is thrown.<br>
 	 * @param generator The boundedness check generator.
 	 * @throws BoundednessException
 	 */
@@ -71,8 +72,9 @@ public class BoundednessCheck {
 	
 	/**
 	 * Checks if the Petri net is bounded.<br>
-	 * In case the marking graph of the net cannot be constructed with the maximum number of elements (see {@link MGConstruction#MAX_RG_CALCULATION_STEPS}),<br>
-	 * it is assumed to be unbounded; otherwise bounded.<br>
+	 * For P/T-nets and CPNs, boundedness is decided with a {@link CoverabilityGraph}.<br>
+	 * For other nets, the marking graph is constructed; in case this exceeds the exploration budget,<br>
+	 * boundedness is not decided and a {@link BoundednessException} is thrown.<br>
 	 * @param petriNet The basic Petri net for operation.
 	 * @return The marking graph of the given Petri net.
 	 * @throws BoundednessException
@@ -89,8 +91,9 @@ public class BoundednessCheck {
 	
 	/**
 	 * Checks if the Petri net is bounded.<br>
-	 * In case the marking graph of the net cannot be constructed with the maximum number of elements (see {@link MGConstruction#MAX_RG_CALCULATION_STEPS}),<br>
-	 * it is assumed to be unbounded; otherwise bounded.<br>
+	 * For P/T-nets and CPNs, boundedness is decided with a {@link CoverabilityGraph}.<br>
+	 * For other nets, the marking graph is constructed; in case this exceeds the exploration budget,<br>
+	 * boundedness is not decided and a {@link BoundednessException} is thrown.<br>
 	 * @param generator The boundedness check generator.
 	 * @return The marking graph of the given Petri net.
 	 * @throws BoundednessException
@@ -1,20 +1,69 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
 
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet.Boundedness;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallable;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallableGenerator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MarkingGraphException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
 
+/**
+ * 有界性检查<br>
+ * For P/T-nets and CPNs, boundedness is decided with a {@link CoverabilityGraph},
+ * which terminates also for unbounded nets.
+ * If the net is bounded, the coverability graph is the marking graph of the net.<br>
+ * For other nets, the marking graph is constructed, which does not terminate for unbounded nets.
+ * In case it cannot be constructed within the {@link ExplorationBudget} of the generator, boundedness is not decided
+ * and a {@link BoundednessException} is thrown, as for the coverability graph.
+ */
 public class BoundednessCheckCallable<P extends AbstractPlace<F,S>, 
 									  T extends AbstractTransition<F,S>, 
 									  F extends AbstractFlowRelation<P,T,S>, 
 									  M extends AbstractMarking<S>, 
-									  S extends Object> extends MGConstructorCallable<P,T,F,M,S> {
+									  S extends Object> extends AbstractPNPropertyCheckerCallable<P,T,F,M,S,BoundednessCheckResult<P,T,F,M,S>> {
 
 	public BoundednessCheckCallable(BoundednessCheckGenerator<P,T,F,M,S> generator) {
-		super(new MGConstructorCallableGenerator<P,T,F,M,S>(generator));
+		super(generator);
+	}
+	
+	@Override
+	protected BoundednessCheckGenerator<P,T,F,M,S> getGenerator() {
+		return (BoundednessCheckGenerator<P,T,F,M,S>) super.getGenerator();
+	}
+
+	@Override
+	public BoundednessCheckResult<P,T,F,M,S> callRoutine() throws BoundednessException, InterruptedException {
+		if(CoverabilityGraph.isSupported(getGenerator().getPetriNet())){
+			CoverabilityGraph coverabilityGraph = null;
+			try {
+				coverabilityGraph = CoverabilityGraph.build(getGenerator().getPetriNet(), getGenerator().getExplorationBudget());
+			} catch (StateSpaceException e) {
+				throw new BoundednessException("Exploration budget exceeded during coverability graph construction.", e);
+			}
+			if(!coverabilityGraph.isBounded())
+				return new BoundednessCheckResult<P,T,F,M,S>(Boundedness.UNBOUNDED, null, coverabilityGraph.getUnboundedPlaces());
+			try {
+				return new BoundednessCheckResult<P,T,F,M,S>(Boundedness.BOUNDED, coverabilityGraph.toMarkingGraph(getGenerator().getPetriNet()));
+			} catch (MarkingGraphException e) {
+				throw new BoundednessException("Exception during marking graph construction.", e);
+			}
+		}
+		
+		try {
+			AbstractMarkingGraph<M,S,?,?> markingGraph = new MGConstructorCallable<P,T,F,M,S>(new MGConstructorCallableGenerator<P,T,F,M,S>(getGenerator())).callRoutine();
+			return new BoundednessCheckResult<P,T,F,M,S>(Boundedness.BOUNDED, markingGraph);
+		} catch (MarkingGraphException e) {
+			// 超出预算不能证明网是无界的
+			if(e.getCause() instanceof StateSpaceException)
+				throw new BoundednessException("Exploration budget exceeded during marking graph construction.", e);
+			throw new BoundednessException("Exception during marking graph construction.", e);
+		}
 	}
 
 }
@@ -1,5 +1,9 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
@@ -15,23 +19,44 @@ public class BoundednessCheckResult<P extends AbstractPlace<F,S>,
 	
 	private Boundedness boundedness = null;
 	private AbstractMarkingGraph<M,S,?,?> markingGraph = null;
+	private Set<String> unboundedPlaces = new HashSet<String>();
 	
 	public BoundednessCheckResult(Boundedness boundedness, AbstractMarkingGraph<M,S,?,?> markingGraph) {
 		super();
 		this.boundedness = boundedness;
 		this.markingGraph = markingGraph;
 	}
+	
+	public BoundednessCheckResult(Boundedness boundedness, AbstractMarkingGraph<M,S,?,?> markingGraph, Set<String> unboundedPlaces) {
+		this(boundedness, markingGraph);
+		if(unboundedPlaces != null)
+			this.unboundedPlaces.addAll(unboundedPlaces);
+	}
 
 	public Boundedness getBoundedness() {
 		return boundedness;
 	}
 
+	/**
+	 * Returns the marking graph of the net.<br>
+	 * For unbounded nets, the marking graph is not available (<code>null</code>).
+	 */
 	public AbstractMarkingGraph<M,S,?,?> getMarkingGraph() {
 		return markingGraph;
 	}
 
+	/**
+	 * Returns the names of all places which can contain an unbounded number of tokens.<br>
+	 * The set is only known if boundedness was decided with a {@link CoverabilityGraph}, otherwise it is empty.
+	 */
+	public Set<String> getUnboundedPlaces() {
+		return Collections.unmodifiableSet(unboundedPlaces);
+	}
+
 	@Override
 	public String toString() {
+		if(boundedness == Boundedness.UNBOUNDED && !unboundedPlaces.isEmpty())
+			return boundedness.toString() + " " + unboundedPlaces;
 		return boundedness.toString();
 	}
 }
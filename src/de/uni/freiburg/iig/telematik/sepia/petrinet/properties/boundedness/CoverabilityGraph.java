@@ -0,0 +1,253 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationMonitor;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MarkingGraphException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.MarkingKey;
+
+/**
+ * 可覆盖图（Karp–Miller coverability graph）<br>
+ * Graph of &omega;-markings of a P/T-net or CPN, which is finite for every net.<br>
+ * Whenever a new marking strictly covers a marking on the path from the initial marking,
+ * all strictly increased entries are set to &omega;.
+ * The net is bounded iff no &omega;-marking occurs; in this case the graph coincides with the marking graph.<br>
+ * <br>
+ * For CPNs, entries are counted per place and token color.
+ * Entries with a capacity restriction are never accelerated,
+ * since the capacity prevents the covering firing sequence from being repeated arbitrarily often.
+ */
+public class CoverabilityGraph {
+
+	private static final String stateNameFormat = "s%s";
+
+	private OmegaVectorNet vectorNet = null;
+
+	private List<int[]> markings = new ArrayList<int[]>();
+	/** 生成树中的父节点，用于查找祖先标识 */
+	private List<Integer> parents = new ArrayList<Integer>();
+	/** 每个节点的出边：{变迁索引, 目标节点} */
+	private List<List<int[]>> successors = new ArrayList<List<int[]>>();
+	private Map<MarkingKey, Integer> markingIndices = new HashMap<MarkingKey, Integer>();
+	private long edgeCount = 0;
+
+	private Set<String> unboundedPlaces = new TreeSet<String>();
+
+	private CoverabilityGraph(OmegaVectorNet vectorNet){
+		this.vectorNet = vectorNet;
+	}
+
+	/**
+	 * Checks if the coverability graph can be constructed for the given net.<br>
+	 * This is the case for P/T-nets and CPNs,
+	 * but not for timed nets and IF-nets with transition guards, whose behavior depends on more than the marking.
+	 * @param petriNet 网
+	 */
+	public static boolean isSupported(AbstractPetriNet<?,?,?,?,?> petriNet) {
+		Validate.notNull(petriNet);
+		return OmegaVectorNet.create(petriNet) != null;
+	}
+
+	/**
+	 * Builds the coverability graph of the given net.
+	 * @param petriNet 网
+	 * @return 可覆盖图
+	 * @throws BoundednessException If the coverability graph is not supported for the given net (see {@link #isSupported(AbstractPetriNet)}).
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 */
+	public static CoverabilityGraph build(AbstractPetriNet<?,?,?,?,?> petriNet) throws BoundednessException, InterruptedException {
+		try {
+			return build(petriNet, new ExplorationBudget());
+		} catch (StateSpaceException e) {
+			// Cannot happen, since the budget is unlimited.
+			throw new BoundednessException(e);
+		}
+	}
+
+	/**
+	 * Builds the coverability graph of the given net within the given budget.
+	 * @param petriNet 网
+	 * @param budget 状态空间探索的预算
+	 * @return 可覆盖图
+	 * @throws BoundednessException If the coverability graph is not supported for the given net (see {@link #isSupported(AbstractPetriNet)}).
+	 * @throws StateSpaceException If the construction exceeds the given budget.
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 */
+	public static CoverabilityGraph build(AbstractPetriNet<?,?,?,?,?> petriNet, ExplorationBudget budget) throws BoundednessException, StateSpaceException, InterruptedException {
+		Validate.notNull(petriNet);
+		Validate.notNull(budget);
+		OmegaVectorNet vectorNet = OmegaVectorNet.create(petriNet);
+		if(vectorNet == null)
+			throw new BoundednessException("Coverability graph is not supported for nets of type " + petriNet.getClass().getSimpleName());
+		CoverabilityGraph graph = new CoverabilityGraph(vectorNet);
+		graph.construct(new ExplorationMonitor(budget));
+		return graph;
+	}
+
+	private void construct(ExplorationMonitor monitor) throws BoundednessException, StateSpaceException, InterruptedException {
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		queue.offer(addNode(vectorNet.getInitialMarking(), -1));
+
+		while(!queue.isEmpty()){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			monitor.check(markings.size(), edgeCount, queue.size());
+			int node = queue.poll();
+			int[] marking = markings.get(node);
+			for(int t=0; t<vectorNet.getTransitionCount(); t++){
+				if(!vectorNet.isEnabled(marking, t))
+					continue;
+				int[] newMarking = vectorNet.fire(marking, t);
+				accelerate(newMarking, node);
+				Integer target = markingIndices.get(new MarkingKey(newMarking));
+				if(target == null){
+					target = addNode(newMarking, node);
+					queue.offer(target);
+				}
+				successors.get(node).add(new int[]{t, target});
+				edgeCount++;
+			}
+		}
+	}
+
+	private int addNode(int[] marking, int parent){
+		int node = markings.size();
+		markings.add(marking);
+		parents.add(parent);
+		successors.add(new ArrayList<int[]>());
+		markingIndices.put(new MarkingKey(marking), node);
+		for(int d=0; d<marking.length; d++){
+			if(marking[d] == OmegaVectorNet.OMEGA)
+				unboundedPlaces.add(vectorNet.getPlaceName(d));
+		}
+		return node;
+	}
+
+	/**
+	 * Sets all entries of the given marking to &omega;, which are strictly increased compared to a covered ancestor marking.
+	 */
+	private void accelerate(int[] marking, int node){
+		for(int ancestor = node; ancestor != -1; ancestor = parents.get(ancestor)){
+			int[] ancestorMarking = markings.get(ancestor);
+			if(!covers(marking, ancestorMarking))
+				continue;
+			for(int d=0; d<marking.length; d++){
+				if(marking[d] > ancestorMarking[d])
+					marking[d] = OmegaVectorNet.OMEGA;
+			}
+		}
+	}
+
+	/**
+	 * Checks if <code>marking</code> strictly covers <code>ancestorMarking</code> without changing entries with a capacity restriction.
+	 */
+	private boolean covers(int[] marking, int[] ancestorMarking){
+		boolean strictlyGreater = false;
+		for(int d=0; d<marking.length; d++){
+			if(marking[d] < ancestorMarking[d])
+				return false;
+			if(marking[d] > ancestorMarking[d]){
+				if(vectorNet.hasCapacityRestriction(d))
+					return false;
+				strictlyGreater = true;
+			}
+		}
+		return strictlyGreater;
+	}
+
+	//------- Results ------------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of nodes (&omega;-markings) of the coverability graph.
+	 */
+	public int getStateCount() {
+		return markings.size();
+	}
+
+	/**
+	 * Checks if the net is bounded, i.e. if no &omega;-marking occurs in the coverability graph.
+	 */
+	public boolean isBounded() {
+		return unboundedPlaces.isEmpty();
+	}
+
+	/**
+	 * Returns the names of all places which can contain an unbounded number of tokens (of some color).
+	 */
+	public Set<String> getUnboundedPlaces() {
+		return Collections.unmodifiableSet(unboundedPlaces);
+	}
+
+	/**
+	 * Converts the coverability graph of a bounded net into the marking graph of the net.<br>
+	 * States are named <code>s0</code> (initial marking), <code>s1</code>, ... in breadth-first order.
+	 * @param petriNet 网（即用于构建可覆盖图的网）
+	 * @return 标识图
+	 * @throws MarkingGraphException If the net is unbounded or the marking graph cannot be created.
+	 */
+	@SuppressWarnings("unchecked")
+	public <P extends AbstractPlace<F,S>,
+			T extends AbstractTransition<F,S>,
+			F extends AbstractFlowRelation<P,T,S>,
+			M extends AbstractMarking<S>,
+			S extends Object>
+
+	AbstractMarkingGraph<M,S,?,?> toMarkingGraph(AbstractPetriNet<P,T,F,M,S> petriNet) throws MarkingGraphException {
+		Validate.notNull(petriNet);
+		if(!isBounded())
+			throw new MarkingGraphException("Cannot create marking graph of an unbounded net.");
+		AbstractMarkingGraph<M,S,?,?> markingGraph = null;
+		try{
+			markingGraph = (AbstractMarkingGraph<M,S,?,?>) petriNet.getMarkingGraphClass().newInstance();
+		} catch (Exception e) {
+			throw new MarkingGraphException("Cannot create new instance of marking graph class", e);
+		}
+		try {
+			for(int node=0; node<markings.size(); node++){
+				markingGraph.addState(String.format(stateNameFormat, node), (M) vectorNet.toMarking(markings.get(node)));
+			}
+			markingGraph.setInitialState(String.format(stateNameFormat, 0));
+			markingGraph.addStartState(String.format(stateNameFormat, 0));
+			for(int node=0; node<markings.size(); node++){
+				if(successors.get(node).isEmpty()){
+					markingGraph.addEndState(String.format(stateNameFormat, node));
+					continue;
+				}
+				for(int[] edge: successors.get(node)){
+					String transitionName = vectorNet.getTransitionName(edge[0]);
+					if (!markingGraph.containsEvent(transitionName)) {
+						markingGraph.addEvent(transitionName, vectorNet.getTransitionLabel(edge[0]));
+					}
+					markingGraph.addRelation(String.format(stateNameFormat, node), String.format(stateNameFormat, edge[1]), transitionName);
+				}
+			}
+		} catch (Exception e) {
+			throw new MarkingGraphException("Exception during marking graph construction.<br>Reason: " + e.getMessage(), e);
+		}
+		return markingGraph;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Coverability graph: %s states, unbounded places: %s", getStateCount(), unboundedPlaces);
+	}
+
+}
@@ -0,0 +1,325 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.invation.code.toval.types.Multiset;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPN;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.abstr.AbstractCPNTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.abstr.AbstractRegularIFNetTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.AbstractTimedNet;
+
+/**
+ * 向量形式的网（vector addition system view of a net）<br>
+ * Every dimension of a marking vector is a place (P/T-nets) or a pair of place and token color (CPNs).
+ * Vector entries may be {@link #OMEGA}, which stands for an arbitrarily large number of tokens.<br>
+ * <br>
+ * Enabling follows the semantics of the net:
+ * <ul>
+ * <li>P/T-nets: a transition is enabled if all input dimensions contain enough tokens
+ * and the resulting marking does not exceed the capacity of an output place (see {@link AbstractPTTransition#checkState()}).</li>
+ * <li>CPNs: a transition is enabled if all input dimensions contain enough tokens
+ * and no output dimension with a capacity restriction exceeds its capacity when adding the produced tokens,
+ * regardless of consumed tokens (see {@link AbstractTransition#checkState()}).</li>
+ * </ul>
+ */
+class OmegaVectorNet {
+
+	/** 任意多的托肯（&omega;） */
+	static final int OMEGA = Integer.MAX_VALUE;
+
+	private AbstractPetriNet<?,?,?,?,?> net = null;
+	private boolean colored = false;
+
+	private List<String> dimensionPlaces = new ArrayList<String>();
+	private List<String> dimensionColors = new ArrayList<String>();
+	private Map<String, Integer> dimensions = new HashMap<String, Integer>();
+	/** 容量，-1表示无界 */
+	private int[] capacities = null;
+
+	private String[] transitionNames = null;
+	private String[] transitionLabels = null;
+	private int[][] preDimensions = null;
+	private int[][] preWeights = null;
+	private int[][] postDimensions = null;
+	private int[][] postWeights = null;
+	/** 检查容量时输出维度增加的托肯数 */
+	private int[][] capacityWeights = null;
+
+	private int[] initialMarking = null;
+
+	private OmegaVectorNet(AbstractPetriNet<?,?,?,?,?> net, boolean colored){
+		this.net = net;
+		this.colored = colored;
+		int transitionCount = net.getTransitions().size();
+		transitionNames = new String[transitionCount];
+		transitionLabels = new String[transitionCount];
+		preDimensions = new int[transitionCount][];
+		preWeights = new int[transitionCount][];
+		postDimensions = new int[transitionCount][];
+		postWeights = new int[transitionCount][];
+		capacityWeights = new int[transitionCount][];
+	}
+
+	/**
+	 * Creates the vector view of the given net.
+	 * @param net 网
+	 * @return 向量网；若网的行为不能由向量表示（例如带有守卫的IF-net或时间网）则返回<code>null</code>
+	 */
+	static OmegaVectorNet create(AbstractPetriNet<?,?,?,?,?> net) {
+		if(net instanceof AbstractTimedNet)
+			return null;
+		if(net instanceof AbstractPTNet)
+			return createPTNet((AbstractPTNet<?,?,?,?>) net);
+		if(net instanceof AbstractCPN){
+			for(AbstractTransition<?,?> transition: net.getTransitions()){
+				if(transition instanceof AbstractRegularIFNetTransition && !((AbstractRegularIFNetTransition<?>) transition).getGuards().isEmpty())
+					return null;
+			}
+			return createCPN((AbstractCPN<?,?,?,?>) net);
+		}
+		return null;
+	}
+
+	private static OmegaVectorNet createPTNet(AbstractPTNet<?,?,?,?> net) {
+		OmegaVectorNet vectorNet = new OmegaVectorNet(net, false);
+		List<Integer> capacities = new ArrayList<Integer>();
+		for(AbstractPTPlace<?> place: net.getPlaces()){
+			vectorNet.addDimension(place.getName(), null);
+			capacities.add(place.getCapacity());
+		}
+		vectorNet.setCapacities(capacities);
+
+		int t = 0;
+		for(AbstractPTTransition<?> transition: net.getTransitions()){
+			vectorNet.transitionNames[t] = transition.getName();
+			vectorNet.transitionLabels[t] = transition.getLabel();
+			List<int[]> pre = new ArrayList<int[]>();
+			for(AbstractPTFlowRelation<?,?> relation: transition.getIncomingRelations()){
+				pre.add(new int[]{vectorNet.getDimension(relation.getPlace().getName(), null), relation.getWeight()});
+			}
+			List<int[]> post = new ArrayList<int[]>();
+			for(AbstractPTFlowRelation<?,?> relation: transition.getOutgoingRelations()){
+				post.add(new int[]{vectorNet.getDimension(relation.getPlace().getName(), null), relation.getWeight()});
+			}
+			vectorNet.setRelations(t++, pre, post);
+		}
+
+		vectorNet.initialMarking = new int[vectorNet.getDimensionCount()];
+		AbstractMarking<Integer> initialMarking = net.getInitialMarking();
+		for(String placeName: initialMarking.places()){
+			vectorNet.initialMarking[vectorNet.getDimension(placeName, null)] = initialMarking.get(placeName);
+		}
+		return vectorNet;
+	}
+
+	private static OmegaVectorNet createCPN(AbstractCPN<?,?,?,?> net) {
+		OmegaVectorNet vectorNet = new OmegaVectorNet(net, true);
+		// 每个库所的维度：初始标识和弧上出现的所有颜色
+		AbstractMarking<Multiset<String>> initialMarking = net.getInitialMarking();
+		for(String placeName: initialMarking.places()){
+			for(String color: initialMarking.get(placeName).support()){
+				vectorNet.addDimension(placeName, color);
+			}
+		}
+		for(AbstractCPNFlowRelation<?,?> relation: net.getFlowRelations()){
+			for(String color: relation.getConstraint().support()){
+				vectorNet.addDimension(relation.getPlace().getName(), color);
+			}
+		}
+		List<Integer> capacities = new ArrayList<Integer>();
+		for(int d=0; d<vectorNet.getDimensionCount(); d++){
+			AbstractCPNPlace<?> place = net.getPlace(vectorNet.dimensionPlaces.get(d));
+			capacities.add(place.getColorCapacity(vectorNet.dimensionColors.get(d)));
+		}
+		vectorNet.setCapacities(capacities);
+
+		int t = 0;
+		for(AbstractCPNTransition<?> transition: net.getTransitions()){
+			vectorNet.transitionNames[t] = transition.getName();
+			vectorNet.transitionLabels[t] = transition.getLabel();
+			List<int[]> pre = new ArrayList<int[]>();
+			for(AbstractCPNFlowRelation<?,?> relation: transition.getIncomingRelations()){
+				Multiset<String> constraint = relation.getConstraint();
+				for(String color: constraint.support()){
+					pre.add(new int[]{vectorNet.getDimension(relation.getPlace().getName(), color), constraint.multiplicity(color)});
+				}
+			}
+			List<int[]> post = new ArrayList<int[]>();
+			for(AbstractCPNFlowRelation<?,?> relation: transition.getOutgoingRelations()){
+				Multiset<String> constraint = relation.getConstraint();
+				for(String color: constraint.support()){
+					post.add(new int[]{vectorNet.getDimension(relation.getPlace().getName(), color), constraint.multiplicity(color)});
+				}
+			}
+			vectorNet.setRelations(t++, pre, post);
+		}
+
+		vectorNet.initialMarking = new int[vectorNet.getDimensionCount()];
+		for(String placeName: initialMarking.places()){
+			Multiset<String> state = initialMarking.get(placeName);
+			for(String color: state.support()){
+				vectorNet.initialMarking[vectorNet.getDimension(placeName, color)] = state.multiplicity(color);
+			}
+		}
+		return vectorNet;
+	}
+
+	private static String dimensionKey(String placeName, String color){
+		return color == null ? placeName : placeName + '\u0000' + color;
+	}
+
+	private void addDimension(String placeName, String color){
+		String key = dimensionKey(placeName, color);
+		if(!dimensions.containsKey(key)){
+			dimensions.put(key, dimensionPlaces.size());
+			dimensionPlaces.add(placeName);
+			dimensionColors.add(color);
+		}
+	}
+
+	private int getDimension(String placeName, String color){
+		return dimensions.get(dimensionKey(placeName, color));
+	}
+
+	private void setCapacities(List<Integer> capacities){
+		this.capacities = new int[capacities.size()];
+		for(int d=0; d<capacities.size(); d++){
+			this.capacities[d] = capacities.get(d);
+		}
+	}
+
+	private void setRelations(int transition, List<int[]> pre, List<int[]> post){
+		preDimensions[transition] = new int[pre.size()];
+		preWeights[transition] = new int[pre.size()];
+		for(int i=0; i<pre.size(); i++){
+			preDimensions[transition][i] = pre.get(i)[0];
+			preWeights[transition][i] = pre.get(i)[1];
+		}
+		postDimensions[transition] = new int[post.size()];
+		postWeights[transition] = new int[post.size()];
+		capacityWeights[transition] = new int[post.size()];
+		for(int i=0; i<post.size(); i++){
+			postDimensions[transition][i] = post.get(i)[0];
+			postWeights[transition][i] = post.get(i)[1];
+			capacityWeights[transition][i] = post.get(i)[1];
+			// P/T-网考虑同一库所上消耗的托肯
+			for(int j=0; !colored && j<pre.size(); j++){
+				if(pre.get(j)[0] == post.get(i)[0])
+					capacityWeights[transition][i] -= pre.get(j)[1];
+			}
+		}
+	}
+
+	//------- Dimensions and transitions -----------------------------------------------------------
+
+	int getDimensionCount() {
+		return dimensionPlaces.size();
+	}
+
+	String getPlaceName(int dimension) {
+		return dimensionPlaces.get(dimension);
+	}
+
+	boolean hasCapacityRestriction(int dimension) {
+		return capacities[dimension] > -1;
+	}
+
+	int getTransitionCount() {
+		return transitionNames.length;
+	}
+
+	String getTransitionName(int transition) {
+		return transitionNames[transition];
+	}
+
+	String getTransitionLabel(int transition) {
+		return transitionLabels[transition];
+	}
+
+	int[] getInitialMarking() {
+		return initialMarking.clone();
+	}
+
+	//------- Enabling and firing ------------------------------------------------------------------
+
+	boolean isEnabled(int[] marking, int transition) {
+		int[] dimensions = preDimensions[transition];
+		int[] weights = preWeights[transition];
+		for(int i=0; i<dimensions.length; i++){
+			if(marking[dimensions[i]] < weights[i])
+				return false;
+		}
+		dimensions = postDimensions[transition];
+		weights = capacityWeights[transition];
+		for(int i=0; i<dimensions.length; i++){
+			int d = dimensions[i];
+			if(capacities[d] > -1 && marking[d] != OMEGA && marking[d] + weights[i] > capacities[d])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the marking which results from firing the given (enabled) transition.<br>
+	 * {@link #OMEGA}-entries remain unchanged.
+	 */
+	int[] fire(int[] marking, int transition) {
+		int[] newMarking = marking.clone();
+		int[] dimensions = preDimensions[transition];
+		int[] weights = preWeights[transition];
+		for(int i=0; i<dimensions.length; i++){
+			if(newMarking[dimensions[i]] != OMEGA)
+				newMarking[dimensions[i]] -= weights[i];
+		}
+		dimensions = postDimensions[transition];
+		weights = postWeights[transition];
+		for(int i=0; i<dimensions.length; i++){
+			if(newMarking[dimensions[i]] != OMEGA)
+				newMarking[dimensions[i]] += weights[i];
+		}
+		return newMarking;
+	}
+
+	/**
+	 * Converts the given marking vector (without {@link #OMEGA}-entries) into a marking of the net.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	AbstractMarking<?> toMarking(int[] vector) {
+		AbstractMarking marking = net.createNewMarking();
+		if(!colored){
+			for(int d=0; d<vector.length; d++){
+				if(vector[d] > 0)
+					marking.set(dimensionPlaces.get(d), vector[d]);
+			}
+			return marking;
+		}
+		Map<String, Multiset<String>> placeStates = new HashMap<String, Multiset<String>>();
+		for(int d=0; d<vector.length; d++){
+			if(vector[d] > 0){
+				Multiset<String> state = placeStates.get(dimensionPlaces.get(d));
+				if(state == null){
+					state = new Multiset<String>();
+					placeStates.put(dimensionPlaces.get(d), state);
+				}
+				state.setMultiplicity(dimensionColors.get(d), vector[d]);
+			}
+		}
+		for(Map.Entry<String, Multiset<String>> placeState: placeStates.entrySet()){
+			marking.set(placeState.getKey(), placeState.getValue());
+		}
+		return marking;
+	}
+
+}
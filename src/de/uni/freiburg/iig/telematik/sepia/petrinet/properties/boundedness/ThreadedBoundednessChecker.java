@@ -3,13 +3,10 @@ package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
 import java.util.concurrent.ExecutionException;
 
 import de.invation.code.toval.thread.AbstractCallable;
-import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
-import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet.Boundedness;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
-import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractThreadedPNPropertyChecker;
 
 public class ThreadedBoundednessChecker<P extends AbstractPlace<F,S>, 
@@ -19,12 +16,10 @@ public class ThreadedBoundednessChecker<P extends AbstractPlace<F,S>,
 										S extends Object> 
 
 										extends AbstractThreadedPNPropertyChecker<P,T,F,M,S,
-																				  AbstractMarkingGraph<M,S,?,?>,
+																				  BoundednessCheckResult<P,T,F,M,S>,
 																				  BoundednessCheckResult<P,T,F,M,S>,
 																				  BoundednessException>{
 	
-	private Boundedness boundedness = Boundedness.UNKNOWN;
-	
 	public ThreadedBoundednessChecker(BoundednessCheckGenerator<P,T,F,M,S> generator){
 		super(generator);
 	}
@@ -35,7 +30,7 @@ public class ThreadedBoundednessChecker<P extends AbstractPlace<F,S>,
 	}
 	
 	@Override
-	protected AbstractCallable<AbstractMarkingGraph<M,S,?,?>> createCallable() {
+	protected AbstractCallable<BoundednessCheckResult<P,T,F,M,S>> createCallable() {
 		return new BoundednessCheckCallable<>(getGenerator());
 	}
 
@@ -52,22 +47,8 @@ public class ThreadedBoundednessChecker<P extends AbstractPlace<F,S>,
 	}
 
 	@Override
-	public void callableException(Exception e) {
-		if(e.getCause() != null && e.getCause() instanceof StateSpaceException){
-			boundedness = Boundedness.UNBOUNDED;
-		}
-	}
-
-
-	@Override
-	public void callableFinished(AbstractMarkingGraph<M,S,?,?> result) {
-		boundedness = Boundedness.BOUNDED;
-		super.callableFinished(result);
-	}
-
-	@Override
-	protected BoundednessCheckResult<P,T,F,M,S> getResultFromCallableResult(AbstractMarkingGraph<M,S,?,?> callableResult) throws Exception {
-		return new BoundednessCheckResult<>(boundedness, callableResult);
+	protected BoundednessCheckResult<P,T,F,M,S> getResultFromCallableResult(BoundednessCheckResult<P,T,F,M,S> callableResult) throws Exception {
+		return callableResult;
 	}
 	
 }
@@ -9,8 +9,8 @@ public class DeadTransitionCheckResult {
 	private Set<String> deadTransitions = new HashSet<String>();
 	
 	public void setDeadTransitions(Set<String> deadTransitions){
-		deadTransitions.clear();
-		deadTransitions.addAll(deadTransitions);
+		this.deadTransitions.clear();
+		this.deadTransitions.addAll(deadTransitions);
 	}
 	
 	public boolean isDead(String transition){
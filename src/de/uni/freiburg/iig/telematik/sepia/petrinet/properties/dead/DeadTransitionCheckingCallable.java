@@ -13,6 +13,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorC
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallableGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MarkingGraphException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceReduction;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
 import de.uni.freiburg.iig.telematik.sepia.util.PNUtils;
 
@@ -36,8 +37,10 @@ public class DeadTransitionCheckingCallable<P extends AbstractPlace<F,S>,
 	@Override
 	public DeadTransitionCheckResult callRoutine() throws DeadTransitionCheckException, InterruptedException {
 		// Check if marking graph is available and construct it in case it is not
-		if(getGenerator().getMarkingGraph() == null){
+		// Reduced marking graphs do not preserve dead transitions
+		if(getGenerator().getMarkingGraph() == null || getGenerator().getMarkingGraph().getReduction() != StateSpaceReduction.NONE){
 			MGConstructorCallableGenerator<P,T,F,M,S> generator = new MGConstructorCallableGenerator<P,T,F,M,S>(getGenerator().getPetriNet());
+			generator.setExplorationBudget(getGenerator().getExplorationBudget());
 			MGConstructorCallable<P,T,F,M,S> mgConstructionCallable = new MGConstructorCallable<P,T,F,M,S>(generator);
 			try {
 				getGenerator().setMarkingGraph(mgConstructionCallable.callRoutine());
@@ -0,0 +1,70 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+
+/**
+ * 线程安全的已访问状态存储，用于并行标识图构建<br>
+ * Visited-state store based on a {@link ConcurrentHashMap}.<br>
+ * Besides the operations of {@link MGStateStore},
+ * it allows several threads to atomically look up or register a marking (see {@link #addStateIfAbsent(AbstractMarking, Function)}).
+ *
+ * @param <M>  Marking类型
+ */
+public class ConcurrentMGStateStore<M extends AbstractMarking<?>> implements MGStateStore<M> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+	private ConcurrentHashMap<M, String> stateNames = null;
+
+	public ConcurrentMGStateStore(){
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public ConcurrentMGStateStore(int initialCapacity){
+		Validate.notNegative(initialCapacity);
+		stateNames = new ConcurrentHashMap<M, String>(initialCapacity);
+	}
+
+	@Override
+	public String getStateName(M marking) {
+		return stateNames.get(marking);
+	}
+
+	@Override
+	public void addState(M marking, String stateName) {
+		Validate.notNull(marking);
+		Validate.notNull(stateName);
+		stateNames.put(marking, stateName);
+	}
+
+	/**
+	 * Returns the name of the state that belongs to the given marking.<br>
+	 * If the marking is unknown, it is added to the store under the name computed by the given function.
+	 * The function is called at most once and only for unknown markings,
+	 * i.e. if several threads add equal markings concurrently, exactly one of them creates the new state.<br>
+	 * The store takes ownership of an added marking object, i.e. callers must not modify it afterwards.
+	 * @param marking 标识
+	 * @param stateNameFunction 为新标识生成状态名称
+	 * @return 标识对应的状态名称
+	 */
+	public String addStateIfAbsent(M marking, Function<? super M, String> stateNameFunction) {
+		Validate.notNull(marking);
+		Validate.notNull(stateNameFunction);
+		return stateNames.computeIfAbsent(marking, stateNameFunction);
+	}
+
+	@Override
+	public int size() {
+		return stateNames.size();
+	}
+
+	@Override
+	public void clear() {
+		stateNames.clear();
+	}
+
+}
@@ -0,0 +1,109 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 状态空间探索的预算（exploration budget）<br>
+ * Limits the size of state spaces explored during property checks.
+ * Each limit can be set independently, a value of {@link #UNLIMITED} disables the limit:
+ * <ul>
+ * <li>maximum number of states</li>
+ * <li>maximum number of edges (relations between states)</li>
+ * <li>maximum wall-clock time in milliseconds</li>
+ * <li>maximum estimated heap growth in bytes, measured as the increase of used heap memory since the exploration started</li>
+ * </ul>
+ * When a limit is exceeded, the exploration is aborted with a {@link StateSpaceException}
+ * that contains the {@link ExplorationStatistics} reached so far.<br>
+ * Default: all limits disabled.
+ *
+ * @see ExplorationMonitor
+ */
+public class ExplorationBudget {
+
+	/** 不限制 */
+	public static final long UNLIMITED = -1;
+
+	private long maxStates = UNLIMITED;
+	private long maxEdges = UNLIMITED;
+	private long maxTime = UNLIMITED;
+	private long maxHeapBytes = UNLIMITED;
+
+	public ExplorationBudget() {}
+
+	public ExplorationBudget(ExplorationBudget budget) {
+		Validate.notNull(budget);
+		this.maxStates = budget.maxStates;
+		this.maxEdges = budget.maxEdges;
+		this.maxTime = budget.maxTime;
+		this.maxHeapBytes = budget.maxHeapBytes;
+	}
+
+	public long getMaxStates() {
+		return maxStates;
+	}
+
+	/**
+	 * Sets the maximum number of states.
+	 * @param maxStates 最大状态数，或{@link #UNLIMITED}
+	 */
+	public void setMaxStates(long maxStates) {
+		validateLimit(maxStates);
+		this.maxStates = maxStates;
+	}
+
+	public long getMaxEdges() {
+		return maxEdges;
+	}
+
+	/**
+	 * Sets the maximum number of edges.
+	 * @param maxEdges 最大边数，或{@link #UNLIMITED}
+	 */
+	public void setMaxEdges(long maxEdges) {
+		validateLimit(maxEdges);
+		this.maxEdges = maxEdges;
+	}
+
+	public long getMaxTime() {
+		return maxTime;
+	}
+
+	/**
+	 * Sets the maximum wall-clock time.
+	 * @param maxTime 最长时间（毫秒），或{@link #UNLIMITED}
+	 */
+	public void setMaxTime(long maxTime) {
+		validateLimit(maxTime);
+		this.maxTime = maxTime;
+	}
+
+	public long getMaxHeapBytes() {
+		return maxHeapBytes;
+	}
+
+	/**
+	 * Sets the maximum estimated heap growth.
+	 * @param maxHeapBytes 最大堆内存增长（字节），或{@link #UNLIMITED}
+	 */
+	public void setMaxHeapBytes(long maxHeapBytes) {
+		validateLimit(maxHeapBytes);
+		this.maxHeapBytes = maxHeapBytes;
+	}
+
+	/**
+	 * Checks if no limit is set.
+	 */
+	public boolean isUnlimited() {
+		return maxStates == UNLIMITED && maxEdges == UNLIMITED && maxTime == UNLIMITED && maxHeapBytes == UNLIMITED;
+	}
+
+	private void validateLimit(long limit) {
+		Validate.biggerEqual(limit, UNLIMITED);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ExplorationBudget[maxStates=%s, maxEdges=%s, maxTime=%sms, maxHeapBytes=%s]", maxStates, maxEdges, maxTime, maxHeapBytes);
+	}
+
+}
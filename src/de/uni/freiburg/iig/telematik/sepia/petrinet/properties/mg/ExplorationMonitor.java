@@ -0,0 +1,83 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 检查状态空间探索是否超出预算<br>
+ * A monitor is created at the beginning of an exploration, which is the reference point for time and heap measurements.
+ * Explorations call {@link #check(long, long, long)} regularly, e.g. once per expanded state.
+ * Time and heap usage are only sampled every {@value #SAMPLE_INTERVAL} calls.<br>
+ * <br>
+ * A monitor counts its calls without synchronization, so it must only be used by one thread.
+ * Parallel explorations give every worker thread its own monitor (see {@link #forWorker()}).
+ */
+public class ExplorationMonitor {
+
+	/** 每隔多少次检查采样一次时间和堆内存 */
+	private static final int SAMPLE_INTERVAL = 256;
+
+	private final ExplorationBudget budget;
+	private final long startTime;
+	private final long startHeapBytes;
+	private int checks = 0;
+
+	public ExplorationMonitor(ExplorationBudget budget) {
+		Validate.notNull(budget);
+		this.budget = new ExplorationBudget(budget);
+		this.startTime = System.currentTimeMillis();
+		this.startHeapBytes = budget.getMaxHeapBytes() != ExplorationBudget.UNLIMITED ? usedHeapBytes() : 0;
+	}
+
+	private ExplorationMonitor(ExplorationMonitor monitor) {
+		this.budget = monitor.budget;
+		this.startTime = monitor.startTime;
+		this.startHeapBytes = monitor.startHeapBytes;
+	}
+
+	/**
+	 * Returns a monitor for another thread of the same exploration.
+	 * It has the same budget and reference point for time and heap measurements, but counts its own calls.
+	 */
+	public ExplorationMonitor forWorker() {
+		return new ExplorationMonitor(this);
+	}
+
+	/**
+	 * Checks if the exploration exceeds the budget.
+	 * @param states 已发现的状态数
+	 * @param edges 已发现的边数
+	 * @param frontierSize 尚未展开的状态数
+	 * @throws StateSpaceException If a limit of the budget is exceeded.
+	 */
+	public void check(long states, long edges, long frontierSize) throws StateSpaceException {
+		if(budget.getMaxStates() != ExplorationBudget.UNLIMITED && states > budget.getMaxStates())
+			throw exception("Exceeded maximum number of states (" + budget.getMaxStates() + ").", states, edges, frontierSize);
+		if(budget.getMaxEdges() != ExplorationBudget.UNLIMITED && edges > budget.getMaxEdges())
+			throw exception("Exceeded maximum number of edges (" + budget.getMaxEdges() + ").", states, edges, frontierSize);
+		if(++checks % SAMPLE_INTERVAL != 0)
+			return;
+		if(budget.getMaxTime() != ExplorationBudget.UNLIMITED && System.currentTimeMillis() - startTime > budget.getMaxTime())
+			throw exception("Exceeded maximum exploration time (" + budget.getMaxTime() + "ms).", states, edges, frontierSize);
+		if(budget.getMaxHeapBytes() != ExplorationBudget.UNLIMITED && usedHeapBytes() - startHeapBytes > budget.getMaxHeapBytes())
+			throw exception("Exceeded maximum heap usage (" + budget.getMaxHeapBytes() + " bytes).", states, edges, frontierSize);
+	}
+
+	/**
+	 * Returns the statistics of the exploration for the given counts.
+	 */
+	public ExplorationStatistics getStatistics(long states, long edges, long frontierSize) {
+		long heapBytes = budget.getMaxHeapBytes() != ExplorationBudget.UNLIMITED ? Math.max(0, usedHeapBytes() - startHeapBytes) : 0;
+		return new ExplorationStatistics(states, edges, frontierSize, System.currentTimeMillis() - startTime, heapBytes);
+	}
+
+	private StateSpaceException exception(String message, long states, long edges, long frontierSize) {
+		ExplorationStatistics statistics = getStatistics(states, edges, frontierSize);
+		return new StateSpaceException(message + " Statistics: " + statistics, statistics);
+	}
+
+	private static long usedHeapBytes() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,76 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import java.io.Serializable;
+
+/**
+ * 状态空间探索的统计信息（snapshot of an exploration）<br>
+ * Attached to a {@link StateSpaceException} when an {@link ExplorationBudget} is exceeded.
+ */
+public class ExplorationStatistics implements Serializable {
+
+	private static final long serialVersionUID = -2185137482019475211L;
+
+	private long states = 0;
+	private long edges = 0;
+	private long frontierSize = 0;
+	private long elapsedTime = 0;
+	private long heapBytes = 0;
+
+	public ExplorationStatistics(long states, long edges, long frontierSize, long elapsedTime, long heapBytes) {
+		this.states = states;
+		this.edges = edges;
+		this.frontierSize = frontierSize;
+		this.elapsedTime = elapsedTime;
+		this.heapBytes = heapBytes;
+	}
+
+	/**
+	 * Returns the number of states discovered so far.
+	 */
+	public long getStates() {
+		return states;
+	}
+
+	/**
+	 * Returns the number of edges discovered so far.
+	 */
+	public long getEdges() {
+		return edges;
+	}
+
+	/**
+	 * Returns the number of discovered states which were not yet expanded.
+	 */
+	public long getFrontierSize() {
+		return frontierSize;
+	}
+
+	/**
+	 * Returns the elapsed wall-clock time in milliseconds.
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * Returns the estimated heap growth in bytes (see {@link ExplorationBudget#setMaxHeapBytes(long)}).
+	 */
+	public long getHeapBytes() {
+		return heapBytes;
+	}
+
+	/**
+	 * Returns the exploration rate in states per second.
+	 */
+	public double getStatesPerSecond() {
+		if(elapsedTime == 0)
+			return 0;
+		return states * 1000.0 / elapsedTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s states, %s edges, frontier size %s, %sms (%.1f states/s), ~%s heap bytes", states, edges, frontierSize, elapsedTime, getStatesPerSecond(), heapBytes);
+	}
+
+}
@@ -0,0 +1,53 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+
+/**
+ * 基于散列表的已访问状态存储，查找时间为O(1)<br>
+ * Visited-state store based on a {@link HashMap},
+ * using the content-based {@link AbstractMarking#hashCode()} and {@link AbstractMarking#equals(Object)} of markings.
+ * 
+ * @param <M>  Marking类型
+ */
+public class HashMGStateStore<M extends AbstractMarking<?>> implements MGStateStore<M> {
+	
+	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+	
+	private Map<M, String> stateNames = null;
+	
+	public HashMGStateStore(){
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	public HashMGStateStore(int initialCapacity){
+		Validate.notNegative(initialCapacity);
+		stateNames = new HashMap<M, String>(initialCapacity);
+	}
+
+	@Override
+	public String getStateName(M marking) {
+		return stateNames.get(marking);
+	}
+
+	@Override
+	public void addState(M marking, String stateName) {
+		Validate.notNull(marking);
+		Validate.notNull(stateName);
+		stateNames.put(marking, stateName);
+	}
+
+	@Override
+	public int size() {
+		return stateNames.size();
+	}
+
+	@Override
+	public void clear() {
+		stateNames.clear();
+	}
+
+}
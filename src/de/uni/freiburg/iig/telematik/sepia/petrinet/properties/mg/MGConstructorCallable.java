@@ -1,10 +1,9 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
@@ -12,6 +11,10 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.StubbornSets;
 
 /**
  * 封装计算标识图(MarkingGraph)的Callable
@@ -38,38 +41,57 @@ public class MGConstructorCallable< P extends AbstractPlace<F,S>,
 		super(generator);
 	}
 	
+	@Override
+	protected MGConstructorCallableGenerator<P,T,F,M,S> getGenerator() {
+		return (MGConstructorCallableGenerator<P,T,F,M,S>) super.getGenerator();
+	}
+	
 	/**
 	 * 计算标识图（MarkingGraph）
 	 */
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Override
 	public AbstractMarkingGraph<M,S,?,?> callRoutine() throws MarkingGraphException, InterruptedException {
-		// 保存当前网标识(Marking)
-		M savedMarking = (M) getGenerator().getPetriNet().getMarking().clone();
-		// 保存标识的队列
-		ArrayBlockingQueue<M> queue = new ArrayBlockingQueue<M>(10);
-		// 已知标识集（状态集）
-		Set<M> allKnownStates = new HashSet<M>();  
-
-		allKnownStates.add(getGenerator().getPetriNet().getInitialMarking()); // add 初始标识 至已知标识集
 		AbstractMarkingGraph<M,S,?,?> markingGraph = null;  
 		try{
 			markingGraph = (AbstractMarkingGraph<M,S,?,?>) getGenerator().getPetriNet().getMarkingGraphClass().newInstance();
 		} catch (Exception e) {
 			throw new MarkingGraphException("Cannot create new instance of marking graph class", e);
 		}
+		markingGraph.setReduction(getGenerator().getReduction());
+		if(getGenerator().getParallelism() > 1){
+			return callRoutineParallel(markingGraph);
+		}
+		if(getGenerator().isCompiledExecution()){
+			return callRoutineCompiled(markingGraph);
+		}
+		
+		// 保存当前网标识(Marking)
+		M savedMarking = (M) getGenerator().getPetriNet().getMarking().clone();
+		// 保存标识的队列
+		Queue<M> queue = new ArrayDeque<M>();
+		// 已知标识集（状态集），<标识,状态名称>，状态名称：即图的顶点名称，每一标识Marking对应一个状态State
+		MGStateStore<M> stateStore = getGenerator().getStateStore();
+		stateStore.clear();
+
 		int stateCount = 0;
-		// <标识.toString(),状态名称>，状态名称：即图的顶点名称，每一标识Marking对应一个状态State
-		Map<String, String> stateNames = new HashMap<String, String>(); 
-		M initialMarking = getGenerator().getPetriNet().getInitialMarking(); // 初始状态，标识
+		M initialMarking = (M) getGenerator().getPetriNet().getInitialMarking().clone(); // 初始状态，标识
 		queue.offer(initialMarking); // 初始标识进入队列
 		String stateName = String.format(rgGraphNodeFormat, stateCount++); // 状态名称，s0(初始标识),s1,s2...
 		markingGraph.addState(stateName, (M) initialMarking.clone());
 		markingGraph.setInitialState(stateName);
 		markingGraph.addStartState(stateName);
-		stateNames.put(initialMarking.toString(), stateName);
-		allKnownStates.add((M) initialMarking.clone());
+		stateStore.addState(initialMarking, stateName);
+		
+		StubbornSets stubbornSets = null;
+		int[] enabledTransitions = null;
+		if(getGenerator().getReduction() == StateSpaceReduction.STUBBORN_SETS){
+			stubbornSets = new StubbornSets(new CompiledPTNet((AbstractPTNet) getGenerator().getPetriNet()));
+			enabledTransitions = new int[stubbornSets.getCompiledNet().getTransitionCount()];
+		}
 		
+		ExplorationMonitor monitor = new ExplorationMonitor(getGenerator().getExplorationBudget());
+		long edgeCount = 0;
 		int calculationSteps = 0;
 		try {
 			while (!queue.isEmpty()) {
@@ -78,50 +100,33 @@ public class MGConstructorCallable< P extends AbstractPlace<F,S>,
 				}
 				calculationSteps++;
 				if((calculationSteps >= MGConstruction.MAX_RG_CALCULATION_STEPS)){
-					getGenerator().getPetriNet().setMarking(savedMarking);
-					throw new StateSpaceException("Reached maximum calculation steps for building marking graph.");
+					throw new StateSpaceException("Reached maximum calculation steps for building marking graph.", monitor.getStatistics(stateCount, edgeCount, queue.size()));
 				}
+				monitor.check(stateCount, edgeCount, queue.size());
 				M nextMarking = queue.poll(); // 出队列
 				getGenerator().getPetriNet().setMarking(nextMarking);
-//				M marking = (M) nextMarking.clone();
-				String nextStateName = stateNames.get(nextMarking.toString());
-//				System.out.println("Next marking (" + nextStateName + "): " + nextMarking);
+				String nextStateName = stateStore.getStateName(nextMarking);
 
 				if(getGenerator().getPetriNet().hasEnabledTransitions()){ // 如果有使能变迁
 					String newStateName = null;
-					for (T enabledTransition : getGenerator().getPetriNet().getEnabledTransitions()) {
-
-//						System.out.println("   enabled: " + enabledTransition.getName());
+					List<T> transitionsToFire = stubbornSets == null ? getGenerator().getPetriNet().getEnabledTransitions() : getStubbornTransitions(stubbornSets, nextMarking, enabledTransitions);
+					for (T enabledTransition : transitionsToFire) {
 						M newMarking = getGenerator().getPetriNet().fireCheck(enabledTransition.getName());
 						
-						// Check if this marking is already known
-						M equalMarking = null;
-						for(M storedMarking: allKnownStates){
-							if(storedMarking.equals(newMarking)){
-								equalMarking = storedMarking;
-								break;
-							}
-						}
-
-//						System.out.println("   new marking: " + newMarking);
-						if(equalMarking == null) {
+						// Check if this marking is already known (hashed lookup)
+						newStateName = stateStore.getStateName(newMarking);
+						if(newStateName == null) {
 							// This is a new marking
-//							System.out.println("   -> New marking");
 							queue.offer(newMarking); // 入列
-							allKnownStates.add((M) newMarking.clone());
 							newStateName = String.format(rgGraphNodeFormat, stateCount++);
 							markingGraph.addState(newStateName, (M) newMarking.clone());
-							stateNames.put(newMarking.toString(), newStateName);
-						} else {
-							// This marking is already known
-//							System.out.println("   -> Known marking");
-							newStateName = stateNames.get(newMarking.toString());
+							stateStore.addState(newMarking, newStateName);
 						}
 						if (!markingGraph.containsEvent(enabledTransition.getName())) {
 							markingGraph.addEvent(enabledTransition.getName(), enabledTransition.getLabel());
 						}
-//						System.out.println("   add relation: " + nextStateName + " to " + newStateName + " via " + enabledTransition.getName());
 						markingGraph.addRelation(nextStateName, newStateName, enabledTransition.getName());
+						edgeCount++;
 					}
 				} else { // 没有使能变迁
 					markingGraph.addEndState(nextStateName);
@@ -131,10 +136,114 @@ public class MGConstructorCallable< P extends AbstractPlace<F,S>,
 			throw e;
 		} catch (Exception e) {
 			throw new MarkingGraphException("Exception during marking graph construction.<br>Reason: " + e.getMessage(), e);
+		} finally {
+			stateStore.clear();
+			// 恢复网标识到原来的状态
+			getGenerator().getPetriNet().setMarking(savedMarking);
+		}
+		return markingGraph;
+	}
+	
+	/**
+	 * 返回顽固集中的使能变迁（见{@link StubbornSets}）
+	 */
+	private List<T> getStubbornTransitions(StubbornSets stubbornSets, M marking, int[] enabledTransitions) {
+		CompiledPTNet<?> compiledNet = stubbornSets.getCompiledNet();
+		int[] vector = compiledNet.toVector((AbstractPTMarking) marking);
+		int enabledCount = stubbornSets.reduce(vector, enabledTransitions, compiledNet.getEnabledTransitions(vector, enabledTransitions));
+		List<T> stubbornTransitions = new ArrayList<T>(enabledCount);
+		for(int i=0; i<enabledCount; i++){
+			stubbornTransitions.add(getGenerator().getPetriNet().getTransition(compiledNet.getTransitionName(enabledTransitions[i])));
 		}
+		return stubbornTransitions;
+	}
+	
+	/**
+	 * 多线程并行计算标识图（见{@link ParallelMGExplorer}）<br>
+	 * The net marking remains untouched.
+	 */
+	private AbstractMarkingGraph<M,S,?,?> callRoutineParallel(AbstractMarkingGraph<M,S,?,?> markingGraph) throws MarkingGraphException, InterruptedException {
+		try {
+			return new ParallelMGExplorer<P,T,F,M,S>(getGenerator(), rgGraphNodeFormat).explore(markingGraph);
+		} catch(InterruptedException e){
+			throw e;
+		} catch (Exception e) {
+			throw new MarkingGraphException("Exception during marking graph construction.<br>Reason: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 在编译后的P/T网（{@link CompiledPTNet}）上计算标识图<br>
+	 * Transitions are not fired on the net, the net marking remains untouched.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private AbstractMarkingGraph<M,S,?,?> callRoutineCompiled(AbstractMarkingGraph<M,S,?,?> markingGraph) throws MarkingGraphException, InterruptedException {
+		CompiledPTNet<?> compiledNet = new CompiledPTNet((AbstractPTNet) getGenerator().getPetriNet());
+		StubbornSets stubbornSets = getGenerator().getReduction() == StateSpaceReduction.STUBBORN_SETS ? new StubbornSets(compiledNet) : null;
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		Queue<M> queue = new ArrayDeque<M>();
+		MGStateStore<M> stateStore = getGenerator().getStateStore();
+		stateStore.clear();
+		
+		int stateCount = 0;
+		M initialMarking = (M) compiledNet.toMarking(compiledNet.getInitialMarking());
+		queue.offer(initialMarking);
+		String stateName = String.format(rgGraphNodeFormat, stateCount++);
+		markingGraph.addState(stateName, (M) initialMarking.clone());
+		markingGraph.setInitialState(stateName);
+		markingGraph.addStartState(stateName);
+		stateStore.addState(initialMarking, stateName);
 		
-		// 恢复网标识到原来的状态
-		getGenerator().getPetriNet().setMarking(savedMarking);
+		ExplorationMonitor monitor = new ExplorationMonitor(getGenerator().getExplorationBudget());
+		long edgeCount = 0;
+		int calculationSteps = 0;
+		try {
+			while (!queue.isEmpty()) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				calculationSteps++;
+				if((calculationSteps >= MGConstruction.MAX_RG_CALCULATION_STEPS)){
+					throw new StateSpaceException("Reached maximum calculation steps for building marking graph.", monitor.getStatistics(stateCount, edgeCount, queue.size()));
+				}
+				monitor.check(stateCount, edgeCount, queue.size());
+				M nextMarking = queue.poll();
+				String nextStateName = stateStore.getStateName(nextMarking);
+				int[] nextVector = compiledNet.toVector((AbstractPTMarking) nextMarking);
+				
+				int enabledCount = compiledNet.getEnabledTransitions(nextVector, enabledTransitions);
+				if(enabledCount == 0){
+					markingGraph.addEndState(nextStateName);
+					continue;
+				}
+				if(stubbornSets != null){
+					enabledCount = stubbornSets.reduce(nextVector, enabledTransitions, enabledCount);
+				}
+				for(int i=0; i<enabledCount; i++){
+					int transition = enabledTransitions[i];
+					M newMarking = (M) compiledNet.toMarking(compiledNet.fire(nextVector, transition));
+					String newStateName = stateStore.getStateName(newMarking);
+					if(newStateName == null) {
+						queue.offer(newMarking);
+						newStateName = String.format(rgGraphNodeFormat, stateCount++);
+						markingGraph.addState(newStateName, (M) newMarking.clone());
+						stateStore.addState(newMarking, newStateName);
+					}
+					String transitionName = compiledNet.getTransitionName(transition);
+					if (!markingGraph.containsEvent(transitionName)) {
+						markingGraph.addEvent(transitionName, compiledNet.getTransitionLabel(transition));
+					}
+					markingGraph.addRelation(nextStateName, newStateName, transitionName);
+					edgeCount++;
+				}
+			}
+		} catch(InterruptedException e){
+			throw e;
+		} catch (Exception e) {
+			throw new MarkingGraphException("Exception during marking graph construction.<br>Reason: " + e.getMessage(), e);
+		} finally {
+			stateStore.clear();
+		}
 		return markingGraph;
 	}
 
@@ -1,5 +1,8 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
 
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
@@ -7,6 +10,8 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessCheckGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractCallableGenerator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
 
 /**
  * 
@@ -25,12 +30,102 @@ public class MGConstructorCallableGenerator<P extends AbstractPlace<F,S>,
 											S extends Object> 
                                           extends AbstractCallableGenerator<P,T,F,M,S> {
 
+	private MGStateStore<M> stateStore = new HashMGStateStore<M>();
+	
+	private boolean compiledExecution = false;
+	
+	private int parallelism = 1;
+	
+	private StateSpaceReduction reduction = StateSpaceReduction.NONE;
+
 	public MGConstructorCallableGenerator(AbstractPetriNet<P,T,F,M,S> petriNet) {
 		super(petriNet);
 	}
 	
 	public MGConstructorCallableGenerator(BoundednessCheckGenerator<P,T,F,M,S> generator){
-		super(generator.getPetriNet());
+		super(generator);
+	}
+	
+	/**
+	 * Returns the store used to keep track of already visited markings.<br>
+	 * Default: {@link HashMGStateStore}.
+	 */
+	public MGStateStore<M> getStateStore() {
+		return stateStore;
+	}
+
+	/**
+	 * Sets the store used to keep track of already visited markings.<br>
+	 * The store is cleared at the beginning of each marking graph construction.
+	 * @param stateStore 已访问状态存储
+	 */
+	public void setStateStore(MGStateStore<M> stateStore) {
+		Validate.notNull(stateStore);
+		this.stateStore = stateStore;
+	}
+
+	
+	/**
+	 * Indicates if the marking graph is built on a {@link CompiledPTNet} instead of firing net transitions.
+	 */
+	public boolean isCompiledExecution() {
+		return compiledExecution;
+	}
+
+	/**
+	 * Sets if the marking graph is built on a {@link CompiledPTNet} instead of firing net transitions.<br>
+	 * Compiled execution is only available for P/T-nets.
+	 * @param compiledExecution 是否使用编译执行模式
+	 * @throws ParameterException If compiled execution is requested for a net which is not a P/T-net.
+	 */
+	public void setCompiledExecution(boolean compiledExecution) {
+		if(compiledExecution && !(getPetriNet() instanceof AbstractPTNet))
+			throw new ParameterException("Compiled execution is only supported for P/T-nets.");
+		this.compiledExecution = compiledExecution;
+	}
+	
+	/**
+	 * Returns the number of worker threads used for marking graph construction.<br>
+	 * Default: 1, i.e. sequential construction.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of worker threads used for marking graph construction.<br>
+	 * For values &gt; 1, the state space is explored in parallel (see {@link ParallelMGExplorer})
+	 * and the net of this generator is not modified during construction.
+	 * A concurrent visited-state store is used in this case,
+	 * unless the store of this generator is already a {@link ConcurrentMGStateStore}.
+	 * @param parallelism 工作线程数，例如<code>Runtime.getRuntime().availableProcessors()</code>
+	 */
+	public void setParallelism(int parallelism) {
+		Validate.bigger(parallelism, 0);
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Returns the reduction applied during marking graph construction.<br>
+	 * Default: {@link StateSpaceReduction#NONE}.
+	 */
+	public StateSpaceReduction getReduction() {
+		return reduction;
+	}
+
+	/**
+	 * Sets the reduction applied during marking graph construction.<br>
+	 * The reduction is recorded in the resulting marking graph (see {@link AbstractMarkingGraph#getReduction()}).
+	 * Reduced marking graphs only preserve the properties of the respective reduction,
+	 * e.g. {@link StateSpaceReduction#STUBBORN_SETS} only preserves dead markings.
+	 * @param reduction 状态空间约简
+	 * @throws ParameterException If stubborn sets are requested for a net which is not a P/T-net.
+	 */
+	public void setReduction(StateSpaceReduction reduction) {
+		Validate.notNull(reduction);
+		if(reduction == StateSpaceReduction.STUBBORN_SETS && !(getPetriNet() instanceof AbstractPTNet))
+			throw new ParameterException("Stubborn set reduction is only supported for P/T-nets.");
+		this.reduction = reduction;
 	}
 
 }
@@ -0,0 +1,40 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+
+/**
+ * 标识图构建过程中的已访问状态存储（visited-state store）<br>
+ * Stores all markings already discovered during marking graph construction
+ * together with the name of the marking graph state they belong to.<br>
+ * Implementations are expected to support (amortised) constant-time lookup.
+ * 
+ * @param <M>  Marking类型
+ */
+public interface MGStateStore<M extends AbstractMarking<?>> {
+	
+	/**
+	 * Returns the name of the state that belongs to the given marking.
+	 * @param marking 标识
+	 * @return 状态名称，若该标识未知则返回<code>null</code>
+	 */
+	public String getStateName(M marking);
+	
+	/**
+	 * Adds a new marking to the store.<br>
+	 * The store takes ownership of the given marking object, i.e. callers must not modify it afterwards.
+	 * @param marking 新标识
+	 * @param stateName 标识对应的状态名称
+	 */
+	public void addState(M marking, String stateName);
+	
+	/**
+	 * Returns the number of stored markings.
+	 */
+	public int size();
+	
+	/**
+	 * Removes all stored markings.
+	 */
+	public void clear();
+
+}
@@ -0,0 +1,342 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.StubbornSets;
+
+/**
+ * 并行计算标识图（parallel breadth-first exploration）<br>
+ * The state space is explored level by level.
+ * The markings of a level are distributed in small chunks among a fixed number of worker threads,
+ * which compute successor markings without touching the net of the generator:
+ * <ul>
+ * <li>In compiled execution mode all workers share one {@link CompiledPTNet}, markings are fired as <code>int</code>-vectors.</li>
+ * <li>Otherwise every worker fires transitions on its own clone of the Petri net.</li>
+ * </ul>
+ * With {@link StateSpaceReduction#STUBBORN_SETS}, the workers share one {@link StubbornSets} instance.
+ * New markings are deduplicated by a {@link ConcurrentMGStateStore}.
+ * The {@link ExplorationBudget} of the generator is checked by the workers and after each level.
+ * The marking graph itself is not thread-safe and is assembled by the calling thread after each level.<br>
+ * <br>
+ * The resulting graph is isomorphic to the one of the sequential construction,
+ * but state names (except the initial state <code>s0</code>) depend on thread scheduling.
+ *
+ * @param <P>  Place类型
+ * @param <T>  Transition类型
+ * @param <F>  FlowRelation类型
+ * @param <M>  Marking类型
+ * @param <S>  Token或FlowRelation类型
+ */
+class ParallelMGExplorer<	P extends AbstractPlace<F,S>,
+							T extends AbstractTransition<F,S>,
+							F extends AbstractFlowRelation<P,T,S>,
+							M extends AbstractMarking<S>,
+							S extends Object> {
+
+	/** 工作线程每次从当前层取出的标识个数 */
+	private static final int CHUNK_SIZE = 32;
+
+	private MGConstructorCallableGenerator<P,T,F,M,S> generator = null;
+	private String stateNameFormat = null;
+
+	private ConcurrentMGStateStore<M> stateStore = null;
+	private AtomicInteger stateCount = new AtomicInteger();
+	private CompiledPTNet<?> compiledNet = null;
+	/** 仅在使用顽固集约简时不为null，由所有工作线程共享 */
+	private StubbornSets stubbornSets = null;
+
+	private ExplorationMonitor monitor = null;
+	/** 已合并到标识图中的边数 */
+	private long edgeCount = 0;
+
+	ParallelMGExplorer(MGConstructorCallableGenerator<P,T,F,M,S> generator, String stateNameFormat){
+		this.generator = generator;
+		this.stateNameFormat = stateNameFormat;
+		this.monitor = new ExplorationMonitor(generator.getExplorationBudget());
+		if(generator.getStateStore() instanceof ConcurrentMGStateStore){
+			stateStore = (ConcurrentMGStateStore<M>) generator.getStateStore();
+		} else {
+			stateStore = new ConcurrentMGStateStore<M>();
+		}
+	}
+
+	/**
+	 * 并行计算标识图，结果写入给定的（空）标识图
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	AbstractMarkingGraph<M,S,?,?> explore(AbstractMarkingGraph<M,S,?,?> markingGraph) throws Exception {
+		int parallelism = generator.getParallelism();
+		List<Worker> workers = new ArrayList<Worker>(parallelism);
+		M initialMarking = null;
+		if(generator.isCompiledExecution() || generator.getReduction() == StateSpaceReduction.STUBBORN_SETS){
+			compiledNet = new CompiledPTNet((AbstractPTNet) generator.getPetriNet());
+		}
+		if(generator.getReduction() == StateSpaceReduction.STUBBORN_SETS){
+			stubbornSets = new StubbornSets(compiledNet);
+		}
+		if(generator.isCompiledExecution()){
+			initialMarking = (M) compiledNet.toMarking(compiledNet.getInitialMarking());
+			for(int i=0; i<parallelism; i++){
+				workers.add(new CompiledWorker());
+			}
+		} else {
+			initialMarking = (M) generator.getPetriNet().getInitialMarking().clone();
+			for(int i=0; i<parallelism; i++){
+				workers.add(new NetWorker());
+			}
+		}
+
+		stateStore.clear();
+		String initialStateName = String.format(stateNameFormat, stateCount.getAndIncrement());
+		markingGraph.addState(initialStateName, (M) initialMarking.clone());
+		markingGraph.setInitialState(initialStateName);
+		markingGraph.addStartState(initialStateName);
+		stateStore.addState(initialMarking, initialStateName);
+
+		List<M> level = new ArrayList<M>();
+		List<String> levelStateNames = new ArrayList<String>();
+		level.add(initialMarking);
+		levelStateNames.add(initialStateName);
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		long calculationSteps = 0;
+		try {
+			while(!level.isEmpty()){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				calculationSteps += level.size();
+				if(calculationSteps >= MGConstruction.MAX_RG_CALCULATION_STEPS){
+					throw new StateSpaceException("Reached maximum calculation steps for building marking graph.", monitor.getStatistics(stateCount.get(), edgeCount, level.size()));
+				}
+				monitor.check(stateCount.get(), edgeCount, level.size());
+
+				AtomicInteger cursor = new AtomicInteger();
+				List<Future<LevelResult>> futures = new ArrayList<Future<LevelResult>>(parallelism);
+				for(Worker worker: workers){
+					futures.add(executor.submit(new LevelTask(worker, level, levelStateNames, cursor)));
+				}
+				List<LevelResult> results = new ArrayList<LevelResult>(parallelism);
+				for(Future<LevelResult> future: futures){
+					results.add(getResult(future));
+				}
+
+				// 标识图不是线程安全的，由调用线程合并各工作线程的结果
+				level = new ArrayList<M>();
+				levelStateNames = new ArrayList<String>();
+				for(LevelResult result: results){
+					for(int i=0; i<result.newStates.size(); i++){
+						M newMarking = result.newStates.get(i);
+						markingGraph.addState(result.newStateNames.get(i), (M) newMarking.clone());
+						level.add(newMarking);
+						levelStateNames.add(result.newStateNames.get(i));
+					}
+				}
+				for(LevelResult result: results){
+					for(Map.Entry<String, String> event: result.events.entrySet()){
+						if (!markingGraph.containsEvent(event.getKey())) {
+							markingGraph.addEvent(event.getKey(), event.getValue());
+						}
+					}
+					for(String[] relation: result.relations){
+						markingGraph.addRelation(relation[0], relation[1], relation[2]);
+					}
+					edgeCount += result.relations.size();
+					for(String endState: result.endStates){
+						markingGraph.addEndState(endState);
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			stateStore.clear();
+		}
+		return markingGraph;
+	}
+
+	private LevelResult getResult(Future<LevelResult> future) throws PNException, InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof PNException)
+				throw (PNException) cause;
+			if(cause instanceof InterruptedException)
+				throw (InterruptedException) cause;
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new MarkingGraphException("Exception in marking graph worker thread.", cause);
+		}
+	}
+
+	//------- Workers ------------------------------------------------------------------------------
+
+	/**
+	 * 后继标识：变迁名称、变迁标签与发生后得到的标识
+	 */
+	private class Successor {
+		private String transitionName;
+		private String transitionLabel;
+		private M marking;
+
+		private Successor(String transitionName, String transitionLabel, M marking){
+			this.transitionName = transitionName;
+			this.transitionLabel = transitionLabel;
+			this.marking = marking;
+		}
+	}
+
+	/**
+	 * 工作线程的发生状态（firing state），每个工作线程一个实例
+	 */
+	private abstract class Worker {
+		/** 每个工作线程使用自己的监视器 */
+		ExplorationMonitor monitor = ParallelMGExplorer.this.monitor.forWorker();
+
+		/**
+		 * Adds all successors of the given marking to the given list.
+		 */
+		abstract void addSuccessors(M marking, List<Successor> successors) throws PNException;
+	}
+
+	/**
+	 * 在网的克隆上发生变迁
+	 */
+	private class NetWorker extends Worker {
+		private AbstractPetriNet<P,T,F,M,S> net = generator.getPetriNet().clone();
+		private int[] enabledTransitions = stubbornSets == null ? null : new int[compiledNet.getTransitionCount()];
+
+		@Override
+		void addSuccessors(M marking, List<Successor> successors) throws PNException {
+			net.setMarking(marking);
+			if(stubbornSets == null){
+				for(T enabledTransition: net.getEnabledTransitions()){
+					successors.add(new Successor(enabledTransition.getName(), enabledTransition.getLabel(), net.fireCheck(enabledTransition.getName())));
+				}
+				return;
+			}
+			int[] vector = compiledNet.toVector((AbstractPTMarking) marking);
+			int enabledCount = stubbornSets.reduce(vector, enabledTransitions, compiledNet.getEnabledTransitions(vector, enabledTransitions));
+			for(int i=0; i<enabledCount; i++){
+				T enabledTransition = net.getTransition(compiledNet.getTransitionName(enabledTransitions[i]));
+				successors.add(new Successor(enabledTransition.getName(), enabledTransition.getLabel(), net.fireCheck(enabledTransition.getName())));
+			}
+		}
+	}
+
+	/**
+	 * 在共享的编译网上以标识向量发生变迁
+	 */
+	private class CompiledWorker extends Worker {
+		private int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+
+		@SuppressWarnings("unchecked")
+		@Override
+		void addSuccessors(M marking, List<Successor> successors) {
+			int[] vector = compiledNet.toVector((AbstractPTMarking) marking);
+			int enabledCount = compiledNet.getEnabledTransitions(vector, enabledTransitions);
+			if(stubbornSets != null){
+				enabledCount = stubbornSets.reduce(vector, enabledTransitions, enabledCount);
+			}
+			for(int i=0; i<enabledCount; i++){
+				int transition = enabledTransitions[i];
+				successors.add(new Successor(compiledNet.getTransitionName(transition),
+											 compiledNet.getTransitionLabel(transition),
+											 (M) compiledNet.toMarking(compiledNet.fire(vector, transition))));
+			}
+		}
+	}
+
+	/**
+	 * 一个工作线程在当前层上的计算结果
+	 */
+	private class LevelResult {
+		private List<String> newStateNames = new ArrayList<String>();
+		private List<M> newStates = new ArrayList<M>();
+		/** 变迁名称 -&gt; 变迁标签 */
+		private Map<String, String> events = new LinkedHashMap<String, String>();
+		/** {源状态, 目标状态, 变迁名称} */
+		private List<String[]> relations = new ArrayList<String[]>();
+		private List<String> endStates = new ArrayList<String>();
+	}
+
+	/**
+	 * Expands chunks of the current level until all markings of the level are taken.
+	 */
+	private class LevelTask implements Callable<LevelResult> {
+		private Worker worker;
+		private List<M> level;
+		private List<String> levelStateNames;
+		private AtomicInteger cursor;
+
+		private boolean stateCreated = false;
+
+		private LevelTask(Worker worker, List<M> level, List<String> levelStateNames, AtomicInteger cursor){
+			this.worker = worker;
+			this.level = level;
+			this.levelStateNames = levelStateNames;
+			this.cursor = cursor;
+		}
+
+		private String newStateName(M marking){
+			stateCreated = true;
+			return String.format(stateNameFormat, stateCount.getAndIncrement());
+		}
+
+		@Override
+		public LevelResult call() throws Exception {
+			LevelResult result = new LevelResult();
+			List<Successor> successors = new ArrayList<Successor>();
+			int start;
+			while((start = cursor.getAndAdd(CHUNK_SIZE)) < level.size()){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				int end = Math.min(start + CHUNK_SIZE, level.size());
+				for(int i=start; i<end; i++){
+					worker.monitor.check(stateCount.get(), edgeCount + result.relations.size(), level.size() - i);
+					String stateName = levelStateNames.get(i);
+					successors.clear();
+					worker.addSuccessors(level.get(i), successors);
+					if(successors.isEmpty()){
+						result.endStates.add(stateName);
+						continue;
+					}
+					for(Successor successor: successors){
+						stateCreated = false;
+						String newStateName = stateStore.addStateIfAbsent(successor.marking, this::newStateName);
+						if(stateCreated){
+							result.newStateNames.add(newStateName);
+							result.newStates.add(successor.marking);
+						}
+						if(!result.events.containsKey(successor.transitionName)){
+							result.events.put(successor.transitionName, successor.transitionLabel);
+						}
+						result.relations.add(new String[]{stateName, newStateName, successor.transitionName});
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+}
@@ -5,6 +5,8 @@ import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
 public class StateSpaceException extends PNException {
 
 	private static final long serialVersionUID = 4677058392850492167L;
+	
+	private ExplorationStatistics statistics = null;
 
 	public StateSpaceException() {
 		super();
@@ -21,4 +23,17 @@ public class StateSpaceException extends PNException {
 	public StateSpaceException(Throwable cause) {
 		super(cause);
 	}
+	
+	public StateSpaceException(String message, ExplorationStatistics statistics) {
+		super(message);
+		this.statistics = statistics;
+	}
+	
+	/**
+	 * Returns the statistics of the aborted exploration.
+	 * @return 统计信息，若不可用则返回<code>null</code>
+	 */
+	public ExplorationStatistics getStatistics() {
+		return statistics;
+	}
 }
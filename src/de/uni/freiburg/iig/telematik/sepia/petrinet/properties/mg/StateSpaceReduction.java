@@ -0,0 +1,17 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.StubbornSets;
+
+/**
+ * 状态空间约简<br>
+ * Reduction applied when exploring the state space of a net.
+ */
+public enum StateSpaceReduction {
+	/** 完整的交错语义状态空间 */
+	NONE,
+	/**
+	 * Deadlock-preserving stubborn sets (see {@link StubbornSets}), only for P/T-nets.<br>
+	 * The reduced marking graph contains all reachable dead markings, but in general not all reachable markings.
+	 */
+	STUBBORN_SETS;
+}
@@ -1,18 +1,70 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
 
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 可达图遍历结果<br>
+ * Holds the (complete) sequences of a marking graph traversal in a {@link SequenceTrie},
+ * so that common prefixes and activity names are stored only once.<br>
+ * The sets returned by {@link #getSequences()} and {@link #getCompleteSequences()} are unmodifiable views,
+ * whose elements are list views of trie nodes.
+ */
 public class MGTraversalResult {
 
-	private Set<List<String>> sequences = new HashSet<List<String>>();
-	private Set<List<String>> completeSequences = new HashSet<List<String>>();
-	
-	public MGTraversalResult(Set<List<String>> sequences, Set<List<String>> completeSequences) {
+	/** 节点标志：序列 */
+	private static final int SEQUENCE = 1;
+	/** 节点标志：完整序列 */
+	private static final int COMPLETE_SEQUENCE = 2;
+
+	private SequenceTrie trie = new SequenceTrie();
+	private int sequenceCount = 0;
+	private int completeSequenceCount = 0;
+
+	private Set<List<String>> sequences = new SequenceSet(SEQUENCE);
+	private Set<List<String>> completeSequences = new SequenceSet(COMPLETE_SEQUENCE);
+
+	public MGTraversalResult() {
 		super();
-		this.sequences = sequences;
-		this.completeSequences = completeSequences;
+	}
+
+	public MGTraversalResult(Set<List<String>> sequences, Set<List<String>> completeSequences) {
+		this();
+		Validate.notNull(sequences);
+		Validate.notNull(completeSequences);
+		for(List<String> sequence: sequences){
+			addSequence(sequence);
+		}
+		for(List<String> completeSequence: completeSequences){
+			addCompleteSequence(completeSequence);
+		}
+	}
+
+	/**
+	 * Adds a sequence.
+	 * @return <code>true</code> if the sequence was not contained before.
+	 */
+	public boolean addSequence(List<String> sequence) {
+		if(!trie.setFlag(trie.addSequence(sequence), SEQUENCE))
+			return false;
+		sequenceCount++;
+		return true;
+	}
+
+	/**
+	 * Adds a complete sequence.
+	 * @return <code>true</code> if the complete sequence was not contained before.
+	 */
+	public boolean addCompleteSequence(List<String> completeSequence) {
+		if(!trie.setFlag(trie.addSequence(completeSequence), COMPLETE_SEQUENCE))
+			return false;
+		completeSequenceCount++;
+		return true;
 	}
 
 	public Set<List<String>> getSequences() {
@@ -22,4 +74,101 @@ public class MGTraversalResult {
 	public Set<List<String>> getCompleteSequences() {
 		return completeSequences;
 	}
+
+	public int getSequenceCount() {
+		return sequenceCount;
+	}
+
+	public int getCompleteSequenceCount() {
+		return completeSequenceCount;
+	}
+
+	public boolean containsSequence(List<String> sequence) {
+		return contains(sequence, SEQUENCE);
+	}
+
+	public boolean containsCompleteSequence(List<String> sequence) {
+		return contains(sequence, COMPLETE_SEQUENCE);
+	}
+
+	/**
+	 * Returns the trie holding all sequences.<br>
+	 * The trie also contains nodes for prefixes which are no sequences of this result.
+	 */
+	public SequenceTrie getTrie() {
+		return trie;
+	}
+
+	private boolean contains(List<String> sequence, int flag) {
+		Validate.notNull(sequence);
+		int node = trie.getNode(sequence);
+		return node >= 0 && trie.hasFlag(node, flag);
+	}
+
+	/**
+	 * Unmodifiable set view of all trie nodes with a flag.
+	 */
+	private class SequenceSet extends AbstractSet<List<String>> {
+
+		private int flag;
+
+		private SequenceSet(int flag) {
+			this.flag = flag;
+		}
+
+		@Override
+		public int size() {
+			return flag == SEQUENCE ? sequenceCount : completeSequenceCount;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if(!(o instanceof List))
+				return false;
+			for(Object activity: (List<?>) o){
+				if(!(activity instanceof String))
+					return false;
+			}
+			@SuppressWarnings("unchecked")
+			List<String> sequence = (List<String>) o;
+			return MGTraversalResult.this.contains(sequence, flag);
+		}
+
+		@Override
+		public Iterator<List<String>> iterator() {
+			return new Iterator<List<String>>() {
+
+				// 按节点编号（插入顺序）遍历
+				private int nextNode = findNode(SequenceTrie.ROOT);
+
+				@Override
+				public boolean hasNext() {
+					return nextNode < trie.getNodeCount();
+				}
+
+				@Override
+				public List<String> next() {
+					if(!hasNext())
+						throw new NoSuchElementException();
+					int node = nextNode;
+					nextNode = findNode(node + 1);
+					return trie.getSequence(node);
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		private int findNode(int start) {
+			int node = start;
+			while(node < trie.getNodeCount() && !trie.hasFlag(node, flag)){
+				node++;
+			}
+			return node;
+		}
+	}
+
 }
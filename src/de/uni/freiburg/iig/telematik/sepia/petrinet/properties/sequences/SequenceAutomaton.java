@@ -0,0 +1,356 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.jagal.ts.Event;
+import de.uni.freiburg.iig.telematik.jagal.ts.exception.StateNotFoundException;
+import de.uni.freiburg.iig.telematik.jagal.ts.labeled.abstr.AbstractLabeledTransitionRelation;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphState;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationMonitor;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+
+/**
+ * 序列自动机（确定化的可达图）<br>
+ * Deterministic automaton accepting the complete sequences of a marking graph,
+ * i.e. the activity sequences of paths from the initial state to an end state, where events with a silent label do not extend the sequence.
+ * Like in {@link SequenceIterator}, the empty sequence is not considered a complete sequence.<br>
+ * <br>
+ * The automaton is constructed on demand by subset construction:
+ * every automaton state is the set of marking graph states reachable with the same sequence.
+ * This allows checking sequences and counting the complete sequences without enumerating them.<br>
+ * <br>
+ * Automata are not thread-safe.
+ *
+ * @param <M>  Marking类型
+ * @param <S>  Marking中的token类型
+ */
+public class SequenceAutomaton<M extends AbstractMarking<S>, S extends Object> {
+
+	/** 初始状态 */
+	public static final int INITIAL_STATE = 0;
+
+	// 可达图（状态以编号表示）
+	private boolean[] endStates = null;
+	private int[][] silentSuccessors = null;
+	private String[][] successorLabels = null;
+	private int[][] successors = null;
+
+	// 确定化的自动机
+	private List<int[]> subsets = new ArrayList<int[]>();
+	private Map<SubsetKey, Integer> subsetIndices = new HashMap<SubsetKey, Integer>();
+	private List<Map<String, Integer>> transitions = new ArrayList<Map<String, Integer>>();
+	private List<Boolean> acceptingStates = new ArrayList<Boolean>();
+	private long edgeCount = 0;
+
+	private ExplorationMonitor monitor = null;
+
+	/**
+	 * @param markingGraph 可达图
+	 * @param silentActivities Labels of events which do not extend sequences.
+	 * @param budget Budget for the number of automaton states and edges.
+	 */
+	public SequenceAutomaton(AbstractMarkingGraph<M,S,?,?> markingGraph, Set<String> silentActivities, ExplorationBudget budget) {
+		Validate.notNull(markingGraph);
+		Validate.notNull(silentActivities);
+		Validate.notNull(budget);
+		if(markingGraph.getInitialState() == null)
+			throw new ParameterException("Marking graph has no initial state.");
+		this.monitor = new ExplorationMonitor(budget);
+
+		Map<String, Integer> stateIndices = new HashMap<String, Integer>();
+		List<String> stateNames = new ArrayList<String>();
+		stateNames.add(markingGraph.getInitialState().getName());
+		stateIndices.put(markingGraph.getInitialState().getName(), 0);
+		for(AbstractMarkingGraphState<M,S> state: markingGraph.getStates()){
+			if(!stateIndices.containsKey(state.getName())){
+				stateIndices.put(state.getName(), stateNames.size());
+				stateNames.add(state.getName());
+			}
+		}
+		int stateCount = stateNames.size();
+		endStates = new boolean[stateCount];
+		silentSuccessors = new int[stateCount][];
+		successorLabels = new String[stateCount][];
+		successors = new int[stateCount][];
+		for(int s=0; s<stateCount; s++){
+			String stateName = stateNames.get(s);
+			endStates[s] = markingGraph.isEndState(stateName);
+			List<Integer> silentTargets = new ArrayList<Integer>();
+			List<String> labels = new ArrayList<String>();
+			List<Integer> targets = new ArrayList<Integer>();
+			for(AbstractLabeledTransitionRelation<?,Event,M> relation: getOutgoingRelations(markingGraph, stateName)){
+				String label = relation.getEvent().getLabel();
+				int target = stateIndices.get(relation.getTarget().getName());
+				if(silentActivities.contains(label)){
+					silentTargets.add(target);
+				} else {
+					labels.add(label);
+					targets.add(target);
+				}
+			}
+			silentSuccessors[s] = toArray(silentTargets);
+			successorLabels[s] = labels.toArray(new String[labels.size()]);
+			successors[s] = toArray(targets);
+		}
+
+		BitSet initialStates = new BitSet(stateCount);
+		initialStates.set(0);
+		addSubset(closure(initialStates));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<AbstractLabeledTransitionRelation<?,Event,M>> getOutgoingRelations(AbstractMarkingGraph<M,S,?,?> markingGraph, String state) {
+		try {
+			Collection<? extends AbstractLabeledTransitionRelation<?,Event,M>> relations = markingGraph.getOutgoingRelationsFor(state);
+			if(relations == null)
+				return new ArrayList<AbstractLabeledTransitionRelation<?,Event,M>>();
+			return (Collection<AbstractLabeledTransitionRelation<?,Event,M>>) relations;
+		} catch (StateNotFoundException e) {
+			throw new ParameterException("Inconsistent marking graph: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the number of automaton states constructed so far.
+	 */
+	public int getStateCount() {
+		return subsets.size();
+	}
+
+	/**
+	 * Indicates if sequences leading to the given automaton state are complete sequences (apart from the empty sequence).
+	 */
+	public boolean isAccepting(int state) {
+		return acceptingStates.get(state);
+	}
+
+	/**
+	 * Returns the automaton state reached from the given state with the given activity.
+	 * @return 后继状态，或-1（活动在该状态下不可能发生）
+	 * @throws StateSpaceException If the construction exceeds the exploration budget.
+	 */
+	public int getSuccessor(int state, String activity) throws StateSpaceException {
+		Integer successor = getTransitions(state).get(activity);
+		return successor == null ? -1 : successor;
+	}
+
+	/**
+	 * Returns the automaton state reached with the given sequence from the initial state.
+	 * @return 状态，或-1（序列不是可达图中任何路径的序列）
+	 * @throws StateSpaceException If the construction exceeds the exploration budget.
+	 */
+	public int getState(List<String> sequence) throws StateSpaceException {
+		Validate.notNull(sequence);
+		int state = INITIAL_STATE;
+		for(String activity: sequence){
+			state = getSuccessor(state, activity);
+			if(state < 0)
+				return -1;
+		}
+		return state;
+	}
+
+	/**
+	 * Checks if the given sequence is a prefix of a path sequence of the marking graph.
+	 * @throws StateSpaceException If the construction exceeds the exploration budget.
+	 */
+	public boolean isSequence(List<String> sequence) throws StateSpaceException {
+		return getState(sequence) >= 0;
+	}
+
+	/**
+	 * Checks if the given sequence is a complete sequence of the marking graph.
+	 * @throws StateSpaceException If the construction exceeds the exploration budget.
+	 */
+	public boolean isCompleteSequence(List<String> sequence) throws StateSpaceException {
+		if(sequence.isEmpty())
+			return false;
+		int state = getState(sequence);
+		return state >= 0 && isAccepting(state);
+	}
+
+	/**
+	 * Counts the complete sequences of the marking graph by constructing the complete automaton.<br>
+	 * The result equals the number of complete sequences generated by {@link SequenceGeneration},
+	 * but the sequences are not enumerated.
+	 * @throws SequenceGenerationException If the number of complete sequences is infinite (the automaton contains a cycle)
+	 * or exceeds {@link Long#MAX_VALUE}, or if the construction exceeds the exploration budget.
+	 * @throws InterruptedException If the thread is interrupted during construction.
+	 */
+	public long countCompleteSequences() throws SequenceGenerationException, InterruptedException {
+		// 迭代式深度优先搜索，后序计算从每个状态可接受的序列数
+		List<Long> counts = new ArrayList<Long>();
+		// 0：未访问，1：在栈中，2：已完成
+		List<Byte> colors = new ArrayList<Byte>();
+		ArrayDeque<int[]> stack = new ArrayDeque<int[]>();
+		stack.push(new int[]{INITIAL_STATE, 0});
+		setValue(colors, INITIAL_STATE, (byte) 1);
+		try {
+			while(!stack.isEmpty()){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				int[] frame = stack.peek();
+				int[] stateSuccessors = getSuccessorStates(frame[0]);
+				monitor.check(subsets.size(), edgeCount, stack.size());
+				if(frame[1] < stateSuccessors.length){
+					int successor = stateSuccessors[frame[1]++];
+					byte color = getValue(colors, successor, (byte) 0);
+					if(color == 1)
+						throw new SequenceGenerationException("Cannot count sequences of Petri net whose marking graph contains cycles");
+					if(color == 0){
+						setValue(colors, successor, (byte) 1);
+						stack.push(new int[]{successor, 0});
+					}
+					continue;
+				}
+				long count = isAccepting(frame[0]) ? 1 : 0;
+				for(int successor: stateSuccessors){
+					count = Math.addExact(count, counts.get(successor));
+				}
+				setValue(counts, frame[0], count);
+				setValue(colors, frame[0], (byte) 2);
+				stack.pop();
+			}
+		} catch(StateSpaceException e){
+			throw new SequenceGenerationException("Cannot count sequences: " + e.getMessage(), e);
+		} catch(ArithmeticException e){
+			throw new SequenceGenerationException("Number of sequences exceeds " + Long.MAX_VALUE);
+		}
+		// 空序列不计入
+		return counts.get(INITIAL_STATE) - (isAccepting(INITIAL_STATE) ? 1 : 0);
+	}
+
+	private Map<String, Integer> getTransitions(int state) throws StateSpaceException {
+		if(transitions.get(state) == null){
+			// 按活动分组的后继状态集合
+			Map<String, BitSet> targetSets = new TreeMap<String, BitSet>();
+			for(int s: subsets.get(state)){
+				for(int i=0; i<successors[s].length; i++){
+					BitSet targets = targetSets.get(successorLabels[s][i]);
+					if(targets == null){
+						targets = new BitSet(endStates.length);
+						targetSets.put(successorLabels[s][i], targets);
+					}
+					targets.set(successors[s][i]);
+				}
+			}
+			Map<String, Integer> stateTransitions = new HashMap<String, Integer>();
+			for(String activity: targetSets.keySet()){
+				stateTransitions.put(activity, addSubset(closure(targetSets.get(activity))));
+			}
+			edgeCount += stateTransitions.size();
+			transitions.set(state, stateTransitions);
+			monitor.check(subsets.size(), edgeCount, 0);
+		}
+		return transitions.get(state);
+	}
+
+	private int[] getSuccessorStates(int state) throws StateSpaceException {
+		Collection<Integer> stateSuccessors = getTransitions(state).values();
+		int[] result = new int[stateSuccessors.size()];
+		int i = 0;
+		for(int successor: stateSuccessors){
+			result[i++] = successor;
+		}
+		return result;
+	}
+
+	/**
+	 * Adds all states reachable with silent events.
+	 */
+	private int[] closure(BitSet states) {
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		for(int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)){
+			queue.add(s);
+		}
+		while(!queue.isEmpty()){
+			int s = queue.poll();
+			for(int target: silentSuccessors[s]){
+				if(!states.get(target)){
+					states.set(target);
+					queue.add(target);
+				}
+			}
+		}
+		return states.stream().toArray();
+	}
+
+	private int addSubset(int[] subset) {
+		SubsetKey key = new SubsetKey(subset);
+		Integer index = subsetIndices.get(key);
+		if(index == null){
+			index = subsets.size();
+			subsets.add(subset);
+			subsetIndices.put(key, index);
+			transitions.add(null);
+			boolean accepting = false;
+			for(int s: subset){
+				accepting |= endStates[s];
+			}
+			acceptingStates.add(accepting);
+		}
+		return index;
+	}
+
+	private static int[] toArray(List<Integer> values) {
+		int[] result = new int[values.size()];
+		for(int i=0; i<result.length; i++){
+			result[i] = values.get(i);
+		}
+		return result;
+	}
+
+	private static <V> V getValue(List<V> values, int index, V defaultValue) {
+		V value = index < values.size() ? values.get(index) : null;
+		return value == null ? defaultValue : value;
+	}
+
+	private static <V> void setValue(List<V> values, int index, V value) {
+		while(values.size() <= index){
+			values.add(null);
+		}
+		values.set(index, value);
+	}
+
+	/**
+	 * 状态集合（有序数组）作为散列键
+	 */
+	private static class SubsetKey {
+
+		private int[] states;
+		private int hashCode;
+
+		private SubsetKey(int[] states) {
+			this.states = states;
+			this.hashCode = Arrays.hashCode(states);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof SubsetKey))
+				return false;
+			return Arrays.equals(states, ((SubsetKey) obj).states);
+		}
+	}
+
+}
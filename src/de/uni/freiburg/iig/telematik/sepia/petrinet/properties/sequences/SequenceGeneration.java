@@ -1,5 +1,11 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
 
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import de.invation.code.toval.thread.ExecutorListener;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
@@ -38,5 +44,40 @@ public class SequenceGeneration {
 		
 		return calculator.getResult();
 	}
+	
+	/**
+	 * Returns an iterator which generates the firing sequences of the net lazily (see {@link SequenceIterator}).<br>
+	 * In contrast to {@link #getFiringSequences(SequenceGenerationCallableGenerator)}, the sequences are not collected in memory
+	 * and the calling thread performs the generation.
+	 * @param completeSequencesOnly 是否只生成到达终止状态的序列
+	 */
+	public static <	P extends AbstractPlace<F,S>, 
+					T extends AbstractTransition<F,S>, 
+					F extends AbstractFlowRelation<P,T,S>, 
+					M extends AbstractMarking<S>, 
+					S extends Object>
+
+					SequenceIterator<M,S> iterateFiringSequences(SequenceGenerationCallableGenerator<P,T,F,M,S> generator, boolean completeSequencesOnly)
+							throws SequenceGenerationException, InterruptedException {
+
+		return new SequenceGenerationCallable<P,T,F,M,S>(generator).createSequenceIterator(completeSequencesOnly);
+	}
+	
+	/**
+	 * Returns a sequential stream of the firing sequences of the net, which are generated lazily (see {@link SequenceIterator}).
+	 * @param completeSequencesOnly 是否只生成到达终止状态的序列
+	 */
+	public static <	P extends AbstractPlace<F,S>, 
+					T extends AbstractTransition<F,S>, 
+					F extends AbstractFlowRelation<P,T,S>, 
+					M extends AbstractMarking<S>, 
+					S extends Object>
+
+					Stream<List<String>> streamFiringSequences(SequenceGenerationCallableGenerator<P,T,F,M,S> generator, boolean completeSequencesOnly)
+							throws SequenceGenerationException, InterruptedException {
+
+		Spliterator<List<String>> spliterator = Spliterators.spliteratorUnknownSize(iterateFiringSequences(generator, completeSequencesOnly), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		return StreamSupport.stream(spliterator, false);
+	}
 
 }
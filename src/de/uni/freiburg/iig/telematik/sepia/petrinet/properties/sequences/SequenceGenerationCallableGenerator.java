@@ -1,5 +1,6 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
 
+import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphRelation;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphState;
@@ -20,6 +21,8 @@ public class SequenceGenerationCallableGenerator< 	P extends AbstractPlace<F,S>,
 	
 	private AbstractMarkingGraph<M,S,?,?> markingGraph = null;
 	private boolean includeSilentTransitions = SequenceGeneration.DEFAULT_INCLUDE_SILENT_TRANSITIONS;
+	private int maxSequenceLength = SequenceIterator.UNBOUNDED;
+	private int maxLoopUnrolling = SequenceIterator.UNBOUNDED;
 	
 	public SequenceGenerationCallableGenerator(AbstractPetriNet<P,T,F,M,S> petriNet) {
 		super(petriNet);
@@ -47,5 +50,40 @@ public class SequenceGenerationCallableGenerator< 	P extends AbstractPlace<F,S>,
 	public void setIncludeSilentTransitions(boolean includeSilentTransitions) {
 		this.includeSilentTransitions = includeSilentTransitions;
 	}
+	
+	public int getMaxSequenceLength() {
+		return maxSequenceLength;
+	}
+	
+	/**
+	 * Sets the maximum number of events of the generated sequences (including silent events).<br>
+	 * Sequences can only be generated for marking graphs with cycles, if the sequence length or the loop unrolling is bounded.
+	 * @param maxSequenceLength 最大序列长度，或{@link SequenceIterator#UNBOUNDED}
+	 */
+	public void setMaxSequenceLength(int maxSequenceLength) {
+		Validate.biggerEqual(maxSequenceLength, SequenceIterator.UNBOUNDED);
+		this.maxSequenceLength = maxSequenceLength;
+	}
+	
+	public int getMaxLoopUnrolling() {
+		return maxLoopUnrolling;
+	}
+	
+	/**
+	 * Sets how often the path of a generated sequence may return to a state of the marking graph it already contains.<br>
+	 * A value of 0 only allows paths without repeated states.
+	 * @param maxLoopUnrolling 最大循环展开次数，或{@link SequenceIterator#UNBOUNDED}
+	 */
+	public void setMaxLoopUnrolling(int maxLoopUnrolling) {
+		Validate.biggerEqual(maxLoopUnrolling, SequenceIterator.UNBOUNDED);
+		this.maxLoopUnrolling = maxLoopUnrolling;
+	}
+	
+	/**
+	 * Checks if the length of generated sequences is bounded by the maximum sequence length or loop unrolling.
+	 */
+	public boolean isBounded() {
+		return maxSequenceLength != SequenceIterator.UNBOUNDED || maxLoopUnrolling != SequenceIterator.UNBOUNDED;
+	}
 
 }
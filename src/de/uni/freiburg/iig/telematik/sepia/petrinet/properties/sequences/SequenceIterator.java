@@ -0,0 +1,187 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.jagal.ts.Event;
+import de.uni.freiburg.iig.telematik.jagal.ts.exception.StateNotFoundException;
+import de.uni.freiburg.iig.telematik.jagal.ts.labeled.abstr.AbstractLabeledTransitionRelation;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+
+/**
+ * 惰性序列生成（lazy sequence generation）<br>
+ * Iterates over the activity sequences of the paths of a marking graph, starting in its initial state.
+ * Paths are explored depth-first on demand, so only the current path is kept on the stack.<br>
+ * <br>
+ * Sequences are stored in a {@link SequenceTrie}, which shares prefixes and is used to return every sequence only once.
+ * Returned sequences are immutable list views of trie nodes.
+ * Events with a silent label do not extend the sequence.<br>
+ * <br>
+ * For marking graphs with cycles, the paths have to be bounded:
+ * <ul>
+ * <li>the maximum sequence length limits the number of events of a path (including silent events),</li>
+ * <li>the maximum loop unrolling limits how often a path may return to a state it already contains.</li>
+ * </ul>
+ * Without bounds, the iteration does not terminate for marking graphs with cycles.
+ *
+ * @param <M>  Marking类型
+ * @param <S>  Marking中的token类型
+ */
+public class SequenceIterator<M extends AbstractMarking<S>, S extends Object> implements Iterator<List<String>> {
+
+	/** 不限制 */
+	public static final int UNBOUNDED = -1;
+
+	/** 已返回的序列 */
+	private static final int RETURNED = 1;
+
+	private AbstractMarkingGraph<M,S,?,?> markingGraph = null;
+	private Set<String> silentActivities = null;
+	private boolean completeSequencesOnly = false;
+	private int maxSequenceLength = UNBOUNDED;
+	private int maxLoopUnrolling = UNBOUNDED;
+
+	private SequenceTrie trie = new SequenceTrie();
+	private ArrayDeque<Frame> path = new ArrayDeque<Frame>();
+	/** 当前路径上每个状态的出现次数 */
+	private Map<String, Integer> stateOccurrences = new HashMap<String, Integer>();
+	private List<String> next = null;
+
+	/**
+	 * @param markingGraph 可达图
+	 * @param silentActivities Labels of events which do not appear in the sequences.
+	 * @param completeSequencesOnly If <code>true</code>, only sequences of paths ending in an end state are returned, otherwise all non-empty sequences.
+	 * @param maxSequenceLength 最大序列长度，或{@link #UNBOUNDED}
+	 * @param maxLoopUnrolling 路径重复访问同一状态的最大次数，或{@link #UNBOUNDED}
+	 */
+	public SequenceIterator(AbstractMarkingGraph<M,S,?,?> markingGraph, Set<String> silentActivities, boolean completeSequencesOnly, int maxSequenceLength, int maxLoopUnrolling) {
+		Validate.notNull(markingGraph);
+		Validate.notNull(silentActivities);
+		Validate.biggerEqual(maxSequenceLength, UNBOUNDED);
+		Validate.biggerEqual(maxLoopUnrolling, UNBOUNDED);
+		if(markingGraph.getInitialState() == null)
+			throw new ParameterException("Marking graph has no initial state.");
+		this.markingGraph = markingGraph;
+		this.silentActivities = silentActivities;
+		this.completeSequencesOnly = completeSequencesOnly;
+		this.maxSequenceLength = maxSequenceLength;
+		this.maxLoopUnrolling = maxLoopUnrolling;
+
+		String initialState = markingGraph.getInitialState().getName();
+		path.push(new Frame(initialState, SequenceTrie.ROOT, 0));
+		stateOccurrences.put(initialState, 1);
+		// 空序列不作为结果
+		trie.setFlag(SequenceTrie.ROOT, RETURNED);
+	}
+
+	/**
+	 * Returns the trie containing the prefixes of all sequences returned so far.
+	 */
+	public SequenceTrie getTrie() {
+		return trie;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if(next == null)
+			next = computeNext();
+		return next != null;
+	}
+
+	@Override
+	public List<String> next() {
+		if(!hasNext())
+			throw new NoSuchElementException();
+		List<String> result = next;
+		next = null;
+		return result;
+	}
+
+	private List<String> computeNext() {
+		while(!path.isEmpty()){
+			if (Thread.currentThread().isInterrupted()) {
+				// Iterator不能抛出InterruptedException，保留中断状态并结束迭代
+				return null;
+			}
+			Frame frame = path.peek();
+			if(frame.relations == null){
+				frame.relations = getOutgoingRelations(frame.state);
+				if(maxSequenceLength != UNBOUNDED && frame.length >= maxSequenceLength)
+					frame.relations = Collections.emptyIterator();
+			}
+			if(!frame.relations.hasNext()){
+				path.pop();
+				int occurrences = stateOccurrences.get(frame.state);
+				if(occurrences == 1){
+					stateOccurrences.remove(frame.state);
+				} else {
+					stateOccurrences.put(frame.state, occurrences - 1);
+				}
+				continue;
+			}
+
+			AbstractLabeledTransitionRelation<?,Event,M> relation = frame.relations.next();
+			String target = relation.getTarget().getName();
+			Integer occurrences = stateOccurrences.get(target);
+			if(occurrences == null)
+				occurrences = 0;
+			if(maxLoopUnrolling != UNBOUNDED && occurrences > maxLoopUnrolling)
+				continue;
+			String activity = relation.getEvent().getLabel();
+			int node = silentActivities.contains(activity) ? frame.node : trie.addChild(frame.node, activity);
+			path.push(new Frame(target, node, frame.length + 1));
+			stateOccurrences.put(target, occurrences + 1);
+
+			if(completeSequencesOnly && !markingGraph.isEndState(target))
+				continue;
+			if(trie.setFlag(node, RETURNED))
+				return trie.getSequence(node);
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Iterator<AbstractLabeledTransitionRelation<?,Event,M>> getOutgoingRelations(String state) {
+		try {
+			Collection<? extends AbstractLabeledTransitionRelation<?,Event,M>> relations = markingGraph.getOutgoingRelationsFor(state);
+			if(relations == null)
+				return Collections.emptyIterator();
+			return (Iterator<AbstractLabeledTransitionRelation<?,Event,M>>) relations.iterator();
+		} catch (StateNotFoundException e) {
+			throw new ParameterException("Inconsistent marking graph: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 当前路径上的一个状态
+	 */
+	private class Frame {
+
+		private String state;
+		private int node;
+		private int length;
+		private Iterator<AbstractLabeledTransitionRelation<?,Event,M>> relations = null;
+
+		private Frame(String state, int node, int length) {
+			this.state = state;
+			this.node = node;
+			this.length = length;
+		}
+	}
+
+}
@@ -0,0 +1,277 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 前缀树（trie）<br>
+ * Stores activity sequences with shared prefixes.
+ * Each node represents the sequence of activities on the path from the root {@link #ROOT} (empty sequence) to the node.
+ * Activity names are interned, nodes are stored in primitive arrays and referenced by their index.<br>
+ * <br>
+ * Nodes can carry flags (e.g. to mark nodes which represent generated sequences).
+ * Sequences of nodes are returned as immutable list views, which do not copy activities before their first access.<br>
+ * <br>
+ * Tries are not thread-safe.
+ */
+public class SequenceTrie {
+
+	/** 根节点（空序列） */
+	public static final int ROOT = 0;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private List<String> activityNames = new ArrayList<String>();
+	private Map<String, Integer> activityIds = new HashMap<String, Integer>();
+
+	// 节点（并行数组）
+	private int[] parents = new int[INITIAL_CAPACITY];
+	private int[] activities = new int[INITIAL_CAPACITY];
+	private int[] depths = new int[INITIAL_CAPACITY];
+	private byte[] flags = new byte[INITIAL_CAPACITY];
+	private int nodeCount = 1;
+
+	// 子节点表（开放寻址）：键为父节点与活动编号
+	private long[] childKeys = new long[INITIAL_CAPACITY];
+	private int[] childNodes = new int[INITIAL_CAPACITY];
+
+	public SequenceTrie() {
+		parents[ROOT] = -1;
+		activities[ROOT] = -1;
+		Arrays.fill(childNodes, -1);
+	}
+
+	//------- Activities ---------------------------------------------------------------------------
+
+	/**
+	 * Returns the id of the given activity, or -1 if the activity is not contained in any sequence.
+	 */
+	public int getActivityId(String activity) {
+		Integer id = activityIds.get(activity);
+		return id == null ? -1 : id;
+	}
+
+	public String getActivityName(int activityId) {
+		return activityNames.get(activityId);
+	}
+
+	public int getActivityCount() {
+		return activityNames.size();
+	}
+
+	private int internActivity(String activity) {
+		Integer id = activityIds.get(activity);
+		if(id == null){
+			id = activityNames.size();
+			activityNames.add(activity);
+			activityIds.put(activity, id);
+		}
+		return id;
+	}
+
+	//------- Nodes --------------------------------------------------------------------------------
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * Returns the activity id of the last activity of the node's sequence, or -1 for the root.
+	 */
+	public int getActivityIdOf(int node) {
+		return activities[node];
+	}
+
+	/**
+	 * Returns the length of the node's sequence.
+	 */
+	public int getDepth(int node) {
+		return depths[node];
+	}
+
+	/**
+	 * Returns the child of the given node for the given activity.
+	 * @return 子节点，或-1
+	 */
+	public int getChild(int node, String activity) {
+		int activityId = getActivityId(activity);
+		if(activityId < 0)
+			return -1;
+		return getChild(node, activityId);
+	}
+
+	/**
+	 * Returns the child of the given node for the given activity id.
+	 * @return 子节点，或-1
+	 */
+	public int getChild(int node, int activityId) {
+		long key = childKey(node, activityId);
+		for(int slot = slot(key); childNodes[slot] >= 0; slot = (slot + 1) & (childKeys.length - 1)){
+			if(childKeys[slot] == key)
+				return childNodes[slot];
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the child of the given node for the given activity and creates it if it does not exist.
+	 */
+	public int addChild(int node, String activity) {
+		Validate.notNull(activity);
+		int activityId = internActivity(activity);
+		long key = childKey(node, activityId);
+		int slot = slot(key);
+		for(; childNodes[slot] >= 0; slot = (slot + 1) & (childKeys.length - 1)){
+			if(childKeys[slot] == key)
+				return childNodes[slot];
+		}
+		if(nodeCount == parents.length){
+			int capacity = nodeCount * 2;
+			parents = Arrays.copyOf(parents, capacity);
+			activities = Arrays.copyOf(activities, capacity);
+			depths = Arrays.copyOf(depths, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+		}
+		int child = nodeCount++;
+		parents[child] = node;
+		activities[child] = activityId;
+		depths[child] = depths[node] + 1;
+		childKeys[slot] = key;
+		childNodes[slot] = child;
+		// 子节点数（= 节点数-1）超过表长的一半时扩容
+		if(2 * nodeCount > childKeys.length)
+			rehash();
+		return child;
+	}
+
+	/**
+	 * Returns the node of the given sequence.
+	 * @return 节点，或-1（序列不在树中）
+	 */
+	public int getNode(List<String> sequence) {
+		Validate.notNull(sequence);
+		int node = ROOT;
+		for(String activity: sequence){
+			node = getChild(node, activity);
+			if(node < 0)
+				return -1;
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the node of the given sequence and creates missing nodes.
+	 */
+	public int addSequence(List<String> sequence) {
+		Validate.notNull(sequence);
+		int node = ROOT;
+		for(String activity: sequence){
+			node = addChild(node, activity);
+		}
+		return node;
+	}
+
+	//------- Flags --------------------------------------------------------------------------------
+
+	/**
+	 * Sets the given flag of a node.
+	 * @param flag 标志位（位掩码）
+	 * @return <code>true</code> if the flag was not set before.
+	 */
+	public boolean setFlag(int node, int flag) {
+		if((flags[node] & flag) != 0)
+			return false;
+		flags[node] |= flag;
+		return true;
+	}
+
+	public boolean hasFlag(int node, int flag) {
+		return (flags[node] & flag) != 0;
+	}
+
+	//------- Sequences ----------------------------------------------------------------------------
+
+	/**
+	 * Returns the sequence of the given node as immutable list view.
+	 */
+	public List<String> getSequence(int node) {
+		return new TrieSequence(node);
+	}
+
+	/**
+	 * Returns the activity ids of the node's sequence.
+	 */
+	public int[] getActivityIds(int node) {
+		int[] result = new int[depths[node]];
+		for(int n = node; n != ROOT; n = parents[n]){
+			result[depths[n] - 1] = activities[n];
+		}
+		return result;
+	}
+
+	private long childKey(int node, int activityId) {
+		return ((long) node << 32) | (activityId & 0xFFFFFFFFL);
+	}
+
+	private int slot(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32) & (childKeys.length - 1);
+	}
+
+	private void rehash() {
+		long[] oldKeys = childKeys;
+		int[] oldNodes = childNodes;
+		childKeys = new long[oldKeys.length * 2];
+		childNodes = new int[oldKeys.length * 2];
+		Arrays.fill(childNodes, -1);
+		for(int i=0; i<oldKeys.length; i++){
+			if(oldNodes[i] < 0)
+				continue;
+			int slot = slot(oldKeys[i]);
+			while(childNodes[slot] >= 0){
+				slot = (slot + 1) & (childKeys.length - 1);
+			}
+			childKeys[slot] = oldKeys[i];
+			childNodes[slot] = oldNodes[i];
+		}
+	}
+
+	/**
+	 * List view of the sequence of a node.
+	 * Activities are resolved on first access.
+	 */
+	private class TrieSequence extends AbstractList<String> {
+
+		private int node;
+		private int[] activityIds = null;
+
+		private TrieSequence(int node) {
+			this.node = node;
+		}
+
+		@Override
+		public String get(int index) {
+			if(index < 0 || index >= size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			if(activityIds == null)
+				activityIds = getActivityIds(node);
+			return activityNames.get(activityIds[index]);
+		}
+
+		@Override
+		public int size() {
+			return depths[node];
+		}
+	}
+
+}
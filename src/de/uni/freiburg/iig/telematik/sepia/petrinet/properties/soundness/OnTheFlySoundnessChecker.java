@@ -0,0 +1,245 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationMonitor;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstruction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+
+/**
+ * 即时（on-the-fly）可靠性检查<br>
+ * Checks soundness of a workflow net during a breadth-first exploration of its state space,
+ * without building the marking graph:
+ * <ul>
+ * <li>Every marking without enabled transitions must have the end-state property.</li>
+ * <li>No marking with the end-state property may enable transitions.</li>
+ * <li>From every reachable marking, a marking with the end-state property must be reachable (option to complete).</li>
+ * <li>Every transition must be enabled in some reachable marking (no dead transitions).</li>
+ * </ul>
+ * The first two properties are checked when a marking is expanded, i.e. the check stops at the first violating marking.
+ * Option to complete and dead transitions can only be decided once the state space is complete.
+ * In contrast to the check on the marking graph, option to complete also covers livelocks.<br>
+ * Every violation is reported as {@link SoundnessViolationException}
+ * together with a shortest firing sequence leading to the violating marking (see {@link SoundnessWitness}).<br>
+ * <br>
+ * Only markings, the breadth-first tree and successor indices are stored.
+ * Since unbounded nets have an infinite state space, the exploration is limited by the {@link ExplorationBudget}
+ * and {@link MGConstruction#MAX_RG_CALCULATION_STEPS}.
+ * Transitions are fired on a clone of the net, the net marking remains untouched.
+ *
+ * @param <P>  Place类型
+ * @param <T>  Transition类型
+ * @param <F>  FlowRelation类型
+ * @param <M>  Marking类型
+ * @param <S>  Token或FlowRelation类型
+ */
+public class OnTheFlySoundnessChecker<	P extends AbstractPlace<F,S>,
+										T extends AbstractTransition<F,S>,
+										F extends AbstractFlowRelation<P,T,S>,
+										M extends AbstractMarking<S>,
+										S extends Object> {
+
+	/**
+	 * 终止标识的性质（end-state property）<br>
+	 * Throws an exception with the reason if the given marking does not have the end-state property.
+	 */
+	public interface EndStateCheck<M> {
+		void checkEndStateProperty(M marking) throws PNValidationException, InterruptedException;
+	}
+
+	private AbstractPetriNet<P,T,F,M,S> petriNet = null;
+	private EndStateCheck<M> endStateCheck = null;
+	private ExplorationBudget explorationBudget = null;
+
+	private List<M> markings = new ArrayList<M>();
+	private Map<M, Integer> stateIndices = new HashMap<M, Integer>();
+	/** 广度优先树中的父节点及到达该节点的变迁，用于构造反例 */
+	private List<Integer> parents = new ArrayList<Integer>();
+	private List<String> parentTransitions = new ArrayList<String>();
+	/** 每个节点的后继节点 */
+	private List<int[]> successors = new ArrayList<int[]>();
+	private BitSet endStates = new BitSet();
+	private long edgeCount = 0;
+
+	public OnTheFlySoundnessChecker(AbstractPetriNet<P,T,F,M,S> petriNet, EndStateCheck<M> endStateCheck, ExplorationBudget explorationBudget) {
+		Validate.notNull(petriNet);
+		Validate.notNull(endStateCheck);
+		Validate.notNull(explorationBudget);
+		this.petriNet = petriNet;
+		this.endStateCheck = endStateCheck;
+		this.explorationBudget = explorationBudget;
+	}
+
+	/**
+	 * Explores the state space of the net until the first soundness violation.
+	 * @throws SoundnessViolationException If the net is not sound.
+	 * @throws StateSpaceException If the exploration exceeds the budget.
+	 * @throws PNException If transitions cannot be fired.
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 */
+	@SuppressWarnings("unchecked")
+	public void check() throws SoundnessViolationException, StateSpaceException, PNException, InterruptedException {
+		clear();
+		AbstractPetriNet<P,T,F,M,S> net = petriNet.clone();
+		Set<String> deadTransitions = new HashSet<String>();
+		for(T transition: petriNet.getTransitions()){
+			deadTransitions.add(transition.getName());
+		}
+
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		queue.offer(addState((M) petriNet.getInitialMarking().clone(), -1, null));
+		ExplorationMonitor monitor = new ExplorationMonitor(explorationBudget);
+		int calculationSteps = 0;
+		try {
+			while(!queue.isEmpty()){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				calculationSteps++;
+				if(calculationSteps >= MGConstruction.MAX_RG_CALCULATION_STEPS){
+					throw new StateSpaceException("Reached maximum calculation steps for soundness check.", monitor.getStatistics(markings.size(), edgeCount, queue.size()));
+				}
+				monitor.check(markings.size(), edgeCount, queue.size());
+				int state = queue.poll();
+				M marking = markings.get(state);
+				net.setMarking(marking);
+				String endStateViolation = checkEndStateProperty(marking);
+				List<T> enabledTransitions = net.getEnabledTransitions();
+
+				if(enabledTransitions.isEmpty()){
+					if(endStateViolation != null)
+						throw violation(SoundnessWitness.Violation.IMPROPER_TERMINATION, state, endStateViolation);
+					endStates.set(state);
+					successors.add(new int[0]);
+					continue;
+				}
+				if(endStateViolation == null)
+					throw violation(SoundnessWitness.Violation.ENABLED_AFTER_COMPLETION, state, "Marking with end-state property enables transitions " + enabledTransitions);
+
+				int[] stateSuccessors = new int[enabledTransitions.size()];
+				for(int i=0; i<enabledTransitions.size(); i++){
+					T enabledTransition = enabledTransitions.get(i);
+					deadTransitions.remove(enabledTransition.getName());
+					M newMarking = net.fireCheck(enabledTransition.getName());
+					Integer successor = stateIndices.get(newMarking);
+					if(successor == null){
+						successor = addState(newMarking, state, enabledTransition.getName());
+						queue.offer(successor);
+					}
+					stateSuccessors[i] = successor;
+					edgeCount++;
+				}
+				successors.add(stateSuccessors);
+			}
+
+			checkOptionToComplete();
+			if(!deadTransitions.isEmpty())
+				throw new SoundnessViolationException(new SoundnessWitness(deadTransitions));
+		} finally {
+			clear();
+		}
+	}
+
+	/**
+	 * Returns <code>null</code> if the given marking has the end-state property, otherwise the reason why it does not.
+	 */
+	private String checkEndStateProperty(M marking) throws InterruptedException {
+		try {
+			endStateCheck.checkEndStateProperty(marking);
+			return null;
+		} catch(PNValidationException e){
+			return e.getMessage();
+		}
+	}
+
+	private int addState(M marking, int parent, String transitionName){
+		int state = markings.size();
+		markings.add(marking);
+		stateIndices.put(marking, state);
+		parents.add(parent);
+		parentTransitions.add(transitionName);
+		return state;
+	}
+
+	/**
+	 * Marks all states from which an end state is reachable by a backward search over the successor relation.
+	 * Reports the first state (in breadth-first order) without option to complete.
+	 */
+	private void checkOptionToComplete() throws SoundnessViolationException, InterruptedException {
+		// 反向边，以压缩行格式存储
+		int[] predecessorStart = new int[markings.size() + 1];
+		for(int[] stateSuccessors: successors){
+			for(int successor: stateSuccessors){
+				predecessorStart[successor + 1]++;
+			}
+		}
+		for(int state=0; state<markings.size(); state++){
+			predecessorStart[state + 1] += predecessorStart[state];
+		}
+		int[] predecessors = new int[predecessorStart[markings.size()]];
+		int[] fill = new int[markings.size()];
+		for(int state=0; state<markings.size(); state++){
+			for(int successor: successors.get(state)){
+				predecessors[predecessorStart[successor] + fill[successor]++] = state;
+			}
+		}
+
+		BitSet canComplete = (BitSet) endStates.clone();
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		for(int state = endStates.nextSetBit(0); state >= 0; state = endStates.nextSetBit(state + 1)){
+			queue.offer(state);
+		}
+		while(!queue.isEmpty()){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			int state = queue.poll();
+			for(int i=predecessorStart[state]; i<predecessorStart[state + 1]; i++){
+				if(!canComplete.get(predecessors[i])){
+					canComplete.set(predecessors[i]);
+					queue.offer(predecessors[i]);
+				}
+			}
+		}
+		int stuckState = canComplete.nextClearBit(0);
+		if(stuckState < markings.size())
+			throw violation(SoundnessWitness.Violation.NO_OPTION_TO_COMPLETE, stuckState, "No marking with end-state property is reachable");
+	}
+
+	private SoundnessViolationException violation(SoundnessWitness.Violation violation, int state, String reason){
+		LinkedList<String> firingSequence = new LinkedList<String>();
+		for(int node = state; parents.get(node) != -1; node = parents.get(node)){
+			firingSequence.addFirst(parentTransitions.get(node));
+		}
+		return new SoundnessViolationException(new SoundnessWitness(violation, firingSequence, markings.get(state), reason));
+	}
+
+	private void clear(){
+		markings.clear();
+		stateIndices.clear();
+		parents.clear();
+		parentTransitions.clear();
+		successors.clear();
+		endStates.clear();
+		edgeCount = 0;
+	}
+
+}
@@ -0,0 +1,23 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
+
+public class SoundnessViolationException extends PNValidationException {
+
+	private static final long serialVersionUID = -2862140857434120935L;
+
+	private SoundnessWitness witness = null;
+
+	public SoundnessViolationException(SoundnessWitness witness) {
+		super("Soundness violation " + witness);
+		this.witness = witness;
+	}
+
+	/**
+	 * Returns the counterexample for soundness.
+	 */
+	public SoundnessWitness getWitness() {
+		return witness;
+	}
+
+}
@@ -0,0 +1,102 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+
+/**
+ * 不可靠性的反例（counterexample for soundness）<br>
+ * Describes the first soundness violation found by an {@link OnTheFlySoundnessChecker}:
+ * the kind of violation, a shortest firing sequence from the initial marking to the violating marking
+ * and, for dead transitions, the names of all dead transitions.
+ */
+public class SoundnessWitness {
+
+	public enum Violation {
+		/** 没有使能变迁的标识不满足终止标识的性质 */
+		IMPROPER_TERMINATION,
+		/** 满足终止标识性质的标识仍有使能变迁 */
+		ENABLED_AFTER_COMPLETION,
+		/** 从该标识出发无法到达终止标识 */
+		NO_OPTION_TO_COMPLETE,
+		/** 存在死变迁 */
+		DEAD_TRANSITIONS;
+	}
+
+	private Violation violation = null;
+	private List<String> firingSequence = null;
+	private AbstractMarking<?> marking = null;
+	private Set<String> deadTransitions = null;
+	private String reason = null;
+
+	/**
+	 * Creates a witness for a violating marking.
+	 * @param violation 违反的性质
+	 * @param firingSequence 从初始标识到达该标识的变迁序列
+	 * @param marking 违反性质的标识
+	 * @param reason 原因
+	 */
+	public SoundnessWitness(Violation violation, List<String> firingSequence, AbstractMarking<?> marking, String reason) {
+		Validate.notNull(violation);
+		Validate.notNull(firingSequence);
+		Validate.notNull(marking);
+		this.violation = violation;
+		this.firingSequence = new ArrayList<String>(firingSequence);
+		this.marking = marking;
+		this.deadTransitions = Collections.emptySet();
+		this.reason = reason;
+	}
+
+	/**
+	 * Creates a witness for dead transitions.
+	 * @param deadTransitions 死变迁的名称
+	 */
+	public SoundnessWitness(Set<String> deadTransitions) {
+		Validate.notNull(deadTransitions);
+		Validate.notEmpty(deadTransitions);
+		this.violation = Violation.DEAD_TRANSITIONS;
+		this.firingSequence = Collections.emptyList();
+		this.deadTransitions = new TreeSet<String>(deadTransitions);
+		this.reason = "Dead transitions: " + this.deadTransitions;
+	}
+
+	public Violation getViolation() {
+		return violation;
+	}
+
+	/**
+	 * Returns the names of the transitions which lead from the initial marking to the violating marking.<br>
+	 * The sequence is empty for dead transitions.
+	 */
+	public List<String> getFiringSequence() {
+		return Collections.unmodifiableList(firingSequence);
+	}
+
+	/**
+	 * Returns the violating marking, or <code>null</code> for dead transitions.
+	 */
+	public AbstractMarking<?> getMarking() {
+		return marking;
+	}
+
+	public Set<String> getDeadTransitions() {
+		return Collections.unmodifiableSet(deadTransitions);
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public String toString() {
+		if(violation == Violation.DEAD_TRANSITIONS)
+			return String.format("%s: %s", violation, deadTransitions);
+		return String.format("%s: %s -> %s (%s)", violation, firingSequence, marking, reason);
+	}
+
+}
@@ -6,6 +6,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
 
 /**
  * 数据核心(Generator),封装PetriNet成员,是运行任务的核心
@@ -26,6 +27,8 @@ public abstract class AbstractCallableGenerator<P extends AbstractPlace<F,S>,
 	
 	private AbstractPetriNet<P,T,F,M,S> petriNet = null;
 	
+	private ExplorationBudget explorationBudget = new ExplorationBudget();
+	
 	protected AbstractCallableGenerator(AbstractPetriNet<P,T,F,M,S> petriNet){
 		Validate.notNull(petriNet);
 		this.petriNet = petriNet;
@@ -38,6 +41,7 @@ public abstract class AbstractCallableGenerator<P extends AbstractPlace<F,S>,
 	protected <N extends AbstractCallableGenerator<P,T,F,M,S>> AbstractCallableGenerator(N generator){
 		Validate.notNull(generator);
 		this.petriNet = generator.getPetriNet();
+		this.explorationBudget = generator.getExplorationBudget();
 	}
 	
 	/**
@@ -47,5 +51,22 @@ public abstract class AbstractCallableGenerator<P extends AbstractPlace<F,S>,
 	public AbstractPetriNet<P,T,F,M,S> getPetriNet() {
 		return petriNet;
 	}
+	
+	/**
+	 * 获取状态空间探索的预算<br>
+	 * Default: unlimited.
+	 */
+	public ExplorationBudget getExplorationBudget() {
+		return explorationBudget;
+	}
+	
+	/**
+	 * Sets the budget for state space explorations performed by callables of this generator.
+	 * @param explorationBudget 状态空间探索的预算
+	 */
+	public void setExplorationBudget(ExplorationBudget explorationBudget) {
+		Validate.notNull(explorationBudget);
+		this.explorationBudget = explorationBudget;
+	}
 
 }
@@ -1,17 +1,24 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.pt;
 
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.PTPlaceIndex;
 
 public class PTMarking extends AbstractPTMarking {
 
 	private static final long serialVersionUID = 3301981336784904647L;
+	
+	public PTMarking() {
+		super();
+	}
+	
+	public PTMarking(PTPlaceIndex placeIndex) {
+		super(placeIndex);
+	}
 
 	@Override
 	public PTMarking clone() {
-		PTMarking newMarking = new PTMarking();
-		for(String placeName: placeStates.keySet()){
-			newMarking.set(placeName, (int) placeStates.get(placeName));
-		}
+		PTMarking newMarking = new PTMarking(placeIndex);
+		newMarking.copyTokens(this);
 		return newMarking;
 	}
 
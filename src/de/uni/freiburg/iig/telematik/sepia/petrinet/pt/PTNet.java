@@ -25,21 +25,20 @@ public class PTNet extends AbstractPTNet<PTPlace, PTTransition, PTFlowRelation,
 	public PTMarking fireCheck(String transitionName) throws PNException {
 		PTMarking newMarking = cloneMarking();
 		PTTransition transition = getTransition(transitionName);
-		for(PTFlowRelation relation: transition.getIncomingRelations()){
-			String inputPlaceName = relation.getPlace().getName();
-			newMarking.set(inputPlaceName, newMarking.get(inputPlaceName) - relation.getWeight());
+		for(PTFlowRelation relation: transition.getIncomingRelations()) {
+			int inputPlace = newMarking.getPlaceIndex().register(relation.getPlace().getName());
+			newMarking.setTokens(inputPlace, Math.max(0, newMarking.getTokens(inputPlace) - relation.getWeight()));
 		}
-		for(PTFlowRelation relation: transition.getOutgoingRelations()){
-			String outputPlaceName = relation.getPlace().getName();
-			Integer oldState = (newMarking.get(outputPlaceName) == null ? 0 : newMarking.get(outputPlaceName));
-			newMarking.set(outputPlaceName, oldState + relation.getWeight());
+		for(PTFlowRelation relation: transition.getOutgoingRelations()) {
+			int outputPlace = newMarking.getPlaceIndex().register(relation.getPlace().getName());
+			newMarking.setTokens(outputPlace, newMarking.getTokens(outputPlace) + relation.getWeight());
 		}
 		return newMarking;
 	}
 
 	@Override
 	public PTMarking createNewMarking() {
-		return new PTMarking();
+		return new PTMarking(getPlaceIndex());
 	}
 
 	@Override
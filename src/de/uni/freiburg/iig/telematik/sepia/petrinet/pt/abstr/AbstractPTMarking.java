@@ -1,19 +1,171 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
 import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 
+/**
+ * P/T-net marking backed by an <code>int</code>-array.<br>
+ * Token counts are stored at the positions assigned to places by a {@link PTPlaceIndex}.
+ * Markings created by a P/T-net share the net's place index (see {@link AbstractPTNet#getPlaceIndex()}),
+ * which makes copying and comparing markings cheap.<br>
+ * The hash code is maintained incrementally and equals the hash code of the former map-based representation.
+ */
 public abstract class AbstractPTMarking extends AbstractMarking<Integer> {
-	
+
 	private static final long serialVersionUID = 6385115305691528197L;
 
+	/**
+	 * 库所索引，多个标识共享
+	 */
+	protected PTPlaceIndex placeIndex = null;
+	/**
+	 * 每个库所的托肯数，下标即库所索引
+	 */
+	protected int[] tokens = null;
+	/**
+	 * Sum of the hash codes of all (place, tokens)-entries with tokens &gt; 0.
+	 */
+	private int stateHash = 0;
+	/**
+	 * Number of places with tokens &gt; 0.
+	 */
+	private int markedPlaces = 0;
+
+	/**
+	 * Creates a new marking with its own place index.
+	 */
 	public AbstractPTMarking() {
-		super();
+		this(new PTPlaceIndex());
+	}
+
+	/**
+	 * Creates a new marking using the given place index.
+	 * @param placeIndex 库所索引
+	 */
+	public AbstractPTMarking(PTPlaceIndex placeIndex) {
+		super(null);
+		Validate.notNull(placeIndex);
+		this.placeIndex = placeIndex;
+		this.tokens = new int[placeIndex.size()];
+	}
+
+	public PTPlaceIndex getPlaceIndex() {
+		return placeIndex;
+	}
+
+	//------- Index-based access -------------------------------------------------------------------
+
+	/**
+	 * Returns the number of tokens of the place with the given index.
+	 * @param index 库所索引
+	 * @return 托肯数
+	 */
+	public int getTokens(int index) {
+		return index < tokens.length ? tokens[index] : 0;
+	}
+
+	/**
+	 * Sets the number of tokens of the place with the given index.
+	 * @param index 库所索引
+	 * @param state 托肯数
+	 */
+	public void setTokens(int index, int state) {
+		Validate.notNegative(state);
+		if(index >= tokens.length){
+			if(state == 0)
+				return;
+			tokens = Arrays.copyOf(tokens, Math.max(index + 1, placeIndex.size()));
+		}
+		int oldState = tokens[index];
+		if(oldState == state)
+			return;
+		int placeHash = placeIndex.getPlaceName(index).hashCode();
+		if(oldState > 0){
+			stateHash -= placeHash ^ oldState;
+			markedPlaces--;
+		}
+		if(state > 0){
+			stateHash += placeHash ^ state;
+			markedPlaces++;
+		}
+		tokens[index] = state;
+	}
+
+	/**
+	 * Copies the state of the given marking into this marking.
+	 * @param marking 源标识
+	 */
+	protected void copyTokens(AbstractPTMarking marking) {
+		if(marking.placeIndex == placeIndex){
+			tokens = Arrays.copyOf(marking.tokens, marking.tokens.length);
+			stateHash = marking.stateHash;
+			markedPlaces = marking.markedPlaces;
+		} else {
+			clear();
+			for(int i=0; i<marking.tokens.length; i++){
+				if(marking.tokens[i] > 0){
+					setTokens(placeIndex.register(marking.placeIndex.getPlaceName(i)), marking.tokens[i]);
+				}
+			}
+		}
 	}
-	
+
+	//------- Basic properties ---------------------------------------------------------------------
+
+	@Override
+	public Set<String> places() {
+		Set<String> places = new HashSet<String>();
+		for(int i=0; i<tokens.length; i++){
+			if(tokens[i] > 0)
+				places.add(placeIndex.getPlaceName(i));
+		}
+		return places;
+	}
+
+	@Override
+	public boolean contains(String place) {
+		int index = placeIndex.getIndex(place);
+		return index >= 0 && getTokens(index) > 0;
+	}
+
+	@Override
+	public void remove(String place) {
+		int index = placeIndex.getIndex(place);
+		if(index >= 0)
+			setTokens(index, 0);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return markedPlaces == 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(tokens, 0);
+		stateHash = 0;
+		markedPlaces = 0;
+	}
+
+	//------- State methods ------------------------------------------------------------------------
+
+	@Override
+	public Integer get(String place) {
+		validatePlace(place);
+		int index = placeIndex.getIndex(place);
+		if(index < 0)
+			return null;
+		int state = getTokens(index);
+		return state > 0 ? state : null;
+	}
+
 	@Override
 	protected void validateState(Integer state) {
 		super.validateState(state);
@@ -25,20 +177,58 @@ public abstract class AbstractPTMarking extends AbstractMarking<Integer> {
 		Validate.notNull(place);
 		Validate.notNull(state);
 		if(state <= 0){
-			placeStates.remove(place);
+			remove(place);
 		} else {
-			super.set(place, state);
+			validatePlace(place);
+			validateState(state);
+			setTokens(placeIndex.register(place), state);
+		}
+	}
+
+	//------- hashCode, equals and toString --------------------------------------------------------
+
+	@Override
+	public int hashCode() {
+		return 37 + stateHash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		AbstractPTMarking other = (AbstractPTMarking) obj;
+		if(stateHash != other.stateHash || markedPlaces != other.markedPlaces)
+			return false;
+		if(placeIndex == other.placeIndex){
+			int length = Math.max(tokens.length, other.tokens.length);
+			for(int i=0; i<length; i++){
+				if(getTokens(i) != other.getTokens(i))
+					return false;
+			}
+			return true;
+		}
+		for(int i=0; i<tokens.length; i++){
+			if(tokens[i] > 0){
+				int otherIndex = other.placeIndex.getIndex(placeIndex.getPlaceName(i));
+				if(otherIndex < 0 || other.getTokens(otherIndex) != tokens[i])
+					return false;
+			}
 		}
+		return true;
 	}
 
 	@Override
 	public String toString(){
 		String placeFormat = "%s[%s] ";
 		StringBuilder builder = new StringBuilder();
-		List<String> placeNamesSorted = new ArrayList<String>(placeStates.keySet());
+		List<String> placeNamesSorted = new ArrayList<String>(places());
 		Collections.sort(placeNamesSorted);
 		for(String place: placeNamesSorted){
-			builder.append(String.format(placeFormat, place, placeStates.get(place)));
+			builder.append(String.format(placeFormat, place, get(place)));
 		}
 		return builder.toString();
 	}
@@ -36,6 +36,12 @@ public abstract class AbstractPTNet<P extends AbstractPTPlace<F>,
 	 * @see #toString()
 	 */
 	private static final String toStringFormat = "Petri-Net: %s%n          places: %s %n     transitions: %s %n   flow-relation: %n%s %n initial marking: %s %n  actual marking: %s %n";
+	
+	/**
+	 * Dense place index shared by all markings created by this net.<br>
+	 * Initialized lazily, since {@link #createNewMarking()} is already called by the superclass constructor.
+	 */
+	private PTPlaceIndex placeIndex;
 		
 	/**
 	 * Creates a new P/T-Net.
@@ -56,6 +62,24 @@ public abstract class AbstractPTNet<P extends AbstractPTPlace<F>,
 		setInitialMarking(initialMarking);
 	}
 	
+	/**
+	 * Returns the dense place index of this net.<br>
+	 * Markings created by {@link #createNewMarking()} should use this index.
+	 */
+	public PTPlaceIndex getPlaceIndex(){
+		if(placeIndex == null)
+			placeIndex = new PTPlaceIndex();
+		return placeIndex;
+	}
+	
+	@Override
+	protected boolean addPlace(P place, boolean notifyListeners){
+		if(!super.addPlace(place, notifyListeners))
+			return false;
+		getPlaceIndex().register(place.getName());
+		return true;
+	}
+	
 	@Override
 	public NetType getNetType(){
 		return NetType.PTNet;
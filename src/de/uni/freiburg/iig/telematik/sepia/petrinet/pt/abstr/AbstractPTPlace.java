@@ -59,6 +59,13 @@ public abstract class AbstractPTPlace<E extends AbstractPTFlowRelation<? extends
 			throw new ParameterException(ErrorCode.INCONSISTENCY, "Place already contains more tokens than the new capacity for this color.");
 
 		super.setCapacity(capacity);
+		initiateStateChecks();
+	}
+
+	@Override
+	public void removeCapacity() {
+		super.removeCapacity();
+		initiateStateChecks();
 	}
 
 	@Override
@@ -73,6 +80,30 @@ public abstract class AbstractPTPlace<E extends AbstractPTFlowRelation<? extends
 		setState(state - tokens);
 	}
 
+	/**
+	 * Enabling of P/T-transitions depends on the tokens in their input places and the capacities of their output places
+	 * (see {@link AbstractPTTransition#checkState()}).<br>
+	 * Thus outgoing transitions are checked if the token constraint of the connecting relation switches between satisfied and unsatisfied,
+	 * and, for bounded places, incoming transitions are checked if the place switches between having and lacking space for their tokens.
+	 */
+	@Override
+	protected void initiateStateChecks(Integer oldState, Integer newState) {
+		for(E r: outgoingRelations.values()){
+			int weight = r.getWeight();
+			if((oldState >= weight) != (newState >= weight)){
+				requestStateCheck(r.getTransition());
+			}
+		}
+		if(capacity < 0)
+			return;
+		for(E r: incomingRelations.values()){
+			int delta = r.getWeight() - r.getTransition().getConsumedTokens(getName());
+			if((oldState + delta <= capacity) != (newState + delta <= capacity)){
+				requestStateCheck(r.getTransition());
+			}
+		}
+	}
+
 	@Override
 	protected void stateChange(Integer oldState, Integer newState) {
 		TokenEvent<AbstractPTPlace<E>> o = new TokenEvent<AbstractPTPlace<E>>(this, state);
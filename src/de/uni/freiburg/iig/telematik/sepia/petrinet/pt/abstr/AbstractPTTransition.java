@@ -57,16 +57,14 @@ public abstract class AbstractPTTransition<E extends AbstractPTFlowRelation<? ex
 		super(name, label, isSilent);
 	}
 
+	/**
+	 * A P/T-transition is enabled if all input places contain enough tokens
+	 * and firing does not exceed the capacity of an output place (see {@link #enoughSpaceInOutputPlaces()}).
+	 */
 	@Override
 	public void checkState() {
 		boolean oldEnabledState = enabled;
-		enabled = true;
-		for(E r: incomingRelations.values()) {
-			if(r.getPlace().getState() < r.getWeight()){
-				enabled = false;
-				break;
-			}
-		}
+		enabled = enoughTokensInInputPlaces() && enoughSpaceInOutputPlaces();
 		
 		if(enabled && !oldEnabledState){
 			listenerSupport.notifyEnabling(new TransitionEvent<>(this));
@@ -85,18 +83,36 @@ public abstract class AbstractPTTransition<E extends AbstractPTFlowRelation<? ex
 		return true;
 	}
 
+	/**
+	 * Checks if the output places can hold the marking after firing.<br>
+	 * Tokens the transition consumes from the same place are taken into account.
+	 */
 	@Override
 	public boolean enoughSpaceInOutputPlaces() {
 		for(E r: outgoingRelations.values()) {
 			if(!r.getPlace().isBounded()){
 				continue;
 			}
-			if((r.getPlace().getCapacity() - r.getPlace().getState()) < r.getWeight()){
+			if((r.getPlace().getCapacity() - r.getPlace().getState()) < r.getWeight() - getConsumedTokens(r.getPlace().getName())){
 				return false;
 			}
 		}
 		return true;
 	}
+
+	/**
+	 * Returns the number of tokens the transition consumes from the place with the given name.
+	 * @param placeName 库所名称
+	 * @return 消耗的托肯数，若该库所不是输入库所则为0
+	 */
+	public int getConsumedTokens(String placeName) {
+		for(E r: incomingRelations.values()) {
+			if(r.getPlace().getName().equals(placeName)){
+				return r.getWeight();
+			}
+		}
+		return 0;
+	}
 	
 	@Override
 	public AbstractPTTransition<E> clone() {
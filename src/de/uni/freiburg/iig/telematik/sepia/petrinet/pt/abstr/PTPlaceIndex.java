@@ -0,0 +1,88 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 库所的稠密索引（dense place index）<br>
+ * Assigns consecutive integer indices (0,1,2,...) to place names.<br>
+ * P/T-markings sharing the same index store their token counts in a plain <code>int</code>-array
+ * (see {@link AbstractPTMarking}).<br>
+ * Indices are never reassigned, i.e. the index only grows.
+ * Lookups are thread-safe and lock-free, registrations are synchronized.
+ * 
+ * @author Administrator
+ */
+public class PTPlaceIndex implements Serializable {
+
+	private static final long serialVersionUID = -2962516409633962024L;
+	
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * 库所名称 -> 索引
+	 */
+	private final Map<String, Integer> indices = new ConcurrentHashMap<String, Integer>();
+	/**
+	 * 索引 -> 库所名称
+	 */
+	private volatile String[] placeNames = new String[DEFAULT_CAPACITY];
+	
+	private volatile int size = 0;
+	
+	/**
+	 * Returns the index of the given place.
+	 * @param placeName 库所名称
+	 * @return 索引，若库所未注册则返回-1
+	 */
+	public int getIndex(String placeName) {
+		Integer index = indices.get(placeName);
+		return index == null ? -1 : index;
+	}
+	
+	/**
+	 * Returns the index of the given place and registers the place if it is not yet known.
+	 * @param placeName 库所名称
+	 * @return 库所的索引
+	 */
+	public int register(String placeName) {
+		Integer index = indices.get(placeName);
+		if(index != null)
+			return index;
+		return registerSynchronized(placeName);
+	}
+	
+	private synchronized int registerSynchronized(String placeName) {
+		Validate.notNull(placeName);
+		Integer index = indices.get(placeName);
+		if(index != null)
+			return index;
+		if(size == placeNames.length){
+			placeNames = Arrays.copyOf(placeNames, placeNames.length * 2);
+		}
+		placeNames[size] = placeName;
+		indices.put(placeName, size);
+		return size++;
+	}
+	
+	/**
+	 * Returns the name of the place with the given index.
+	 * @param index 索引
+	 * @return 库所名称
+	 */
+	public String getPlaceName(int index) {
+		return placeNames[index];
+	}
+	
+	/**
+	 * Returns the number of registered places.
+	 */
+	public int size() {
+		return size;
+	}
+
+}
@@ -0,0 +1,322 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.PTPlaceIndex;
+
+/**
+ * 编译后的P/T网（compiled P/T-net）<br>
+ * Snapshot of the structure of a P/T-net in form of sparse pre/post incidence arrays.<br>
+ * Markings are plain <code>int</code>-vectors indexed by the place index of the net (see {@link AbstractPTNet#getPlaceIndex()}),
+ * transitions are identified by their position <code>0..getTransitionCount()-1</code>.<br>
+ * Checking enabling and firing does neither touch the net objects nor notify any listeners.<br>
+ * <br>
+ * Enabling follows the semantics of {@link AbstractPTTransition#checkState()},
+ * i.e. a transition is enabled if all input places contain enough tokens
+ * and the resulting marking does not exceed the capacity of an output place.<br>
+ * <br>
+ * The snapshot does not reflect structural changes of the net after its creation.
+ *
+ * @param <M>  Marking类型
+ */
+public class CompiledPTNet<M extends AbstractPTMarking> {
+
+	private AbstractPTNet<?,?,?,M> net = null;
+	private PTPlaceIndex placeIndex = null;
+
+	private int placeCount = 0;
+	private int transitionCount = 0;
+
+	/** 库所容量，-1表示无界 */
+	private int[] capacities = null;
+
+	private String[] transitionNames = null;
+	private String[] transitionLabels = null;
+	private boolean[] silent = null;
+	private Map<String, Integer> transitionIndices = new HashMap<String, Integer>();
+
+	/** 前集：输入库所索引与权重 */
+	private int[][] prePlaces = null;
+	private int[][] preWeights = null;
+	/** 后集：输出库所索引与权重 */
+	private int[][] postPlaces = null;
+	private int[][] postWeights = null;
+	/** 后集库所的托肯变化（输出权重减去同一库所的输入权重），用于检查容量 */
+	private int[][] postDeltas = null;
+
+	private int[] initialMarking = null;
+
+	public CompiledPTNet(AbstractPTNet<?,?,?,M> net) {
+		Validate.notNull(net);
+		this.net = net;
+		this.placeIndex = net.getPlaceIndex();
+
+		placeCount = placeIndex.size();
+		capacities = new int[placeCount];
+		Arrays.fill(capacities, -1);
+		for(AbstractPTPlace<?> place: net.getPlaces()){
+			capacities[placeIndex.getIndex(place.getName())] = place.getCapacity();
+		}
+
+		transitionCount = net.getTransitions().size();
+		transitionNames = new String[transitionCount];
+		transitionLabels = new String[transitionCount];
+		silent = new boolean[transitionCount];
+		prePlaces = new int[transitionCount][];
+		preWeights = new int[transitionCount][];
+		postPlaces = new int[transitionCount][];
+		postWeights = new int[transitionCount][];
+		postDeltas = new int[transitionCount][];
+		int t = 0;
+		for(AbstractPTTransition<?> transition: net.getTransitions()){
+			transitionNames[t] = transition.getName();
+			transitionLabels[t] = transition.getLabel();
+			silent[t] = transition.isSilent();
+			transitionIndices.put(transition.getName(), t);
+
+			prePlaces[t] = new int[transition.getIncomingRelations().size()];
+			preWeights[t] = new int[prePlaces[t].length];
+			int r = 0;
+			for(AbstractPTFlowRelation<?,?> relation: transition.getIncomingRelations()){
+				prePlaces[t][r] = placeIndex.getIndex(relation.getPlace().getName());
+				preWeights[t][r++] = relation.getWeight();
+			}
+			postPlaces[t] = new int[transition.getOutgoingRelations().size()];
+			postWeights[t] = new int[postPlaces[t].length];
+			postDeltas[t] = new int[postPlaces[t].length];
+			r = 0;
+			for(AbstractPTFlowRelation<?,?> relation: transition.getOutgoingRelations()){
+				postPlaces[t][r] = placeIndex.getIndex(relation.getPlace().getName());
+				postWeights[t][r] = relation.getWeight();
+				postDeltas[t][r] = relation.getWeight();
+				for(int i=0; i<prePlaces[t].length; i++){
+					if(prePlaces[t][i] == postPlaces[t][r])
+						postDeltas[t][r] -= preWeights[t][i];
+				}
+				r++;
+			}
+			t++;
+		}
+
+		initialMarking = toVector(net.getInitialMarking());
+	}
+
+	public AbstractPTNet<?,?,?,M> getPetriNet() {
+		return net;
+	}
+
+	//------- Places and transitions ---------------------------------------------------------------
+
+	public int getPlaceCount() {
+		return placeCount;
+	}
+
+	public int getPlaceIndex(String placeName) {
+		return placeIndex.getIndex(placeName);
+	}
+
+	public String getPlaceName(int place) {
+		return placeIndex.getPlaceName(place);
+	}
+
+	public int getTransitionCount() {
+		return transitionCount;
+	}
+
+	/**
+	 * Returns the index of the transition with the given name.
+	 * @param transitionName 变迁名称
+	 * @return 变迁索引，若变迁不存在则返回-1
+	 */
+	public int getTransitionIndex(String transitionName) {
+		Integer index = transitionIndices.get(transitionName);
+		return index == null ? -1 : index;
+	}
+
+	public String getTransitionName(int transition) {
+		return transitionNames[transition];
+	}
+
+	public String getTransitionLabel(int transition) {
+		return transitionLabels[transition];
+	}
+
+	public boolean isSilent(int transition) {
+		return silent[transition];
+	}
+
+	/** 输入库所索引，调用者不得修改 */
+	public int[] getPrePlaces(int transition) {
+		return prePlaces[transition];
+	}
+
+	/** 输入弧权重，与{@link #getPrePlaces(int)}对应，调用者不得修改 */
+	public int[] getPreWeights(int transition) {
+		return preWeights[transition];
+	}
+
+	/** 输出库所索引，调用者不得修改 */
+	public int[] getPostPlaces(int transition) {
+		return postPlaces[transition];
+	}
+
+	/** 输出弧权重，与{@link #getPostPlaces(int)}对应，调用者不得修改 */
+	public int[] getPostWeights(int transition) {
+		return postWeights[transition];
+	}
+
+	//------- Markings -----------------------------------------------------------------------------
+
+	/**
+	 * Returns a copy of the initial marking of the net.
+	 */
+	public int[] getInitialMarking() {
+		return Arrays.copyOf(initialMarking, placeCount);
+	}
+
+	/**
+	 * Converts the given marking into a marking vector.
+	 * @param marking 标识
+	 * @return 标识向量
+	 */
+	public int[] toVector(AbstractPTMarking marking) {
+		Validate.notNull(marking);
+		int[] vector = new int[placeCount];
+		if(marking.getPlaceIndex() == placeIndex){
+			for(int p=0; p<placeCount; p++){
+				vector[p] = marking.getTokens(p);
+			}
+		} else {
+			for(String placeName: marking.places()){
+				int p = placeIndex.getIndex(placeName);
+				if(p >= 0 && p < placeCount)
+					vector[p] = marking.get(placeName);
+			}
+		}
+		return vector;
+	}
+
+	/**
+	 * Converts the given marking vector into a marking of the net.
+	 * @param vector 标识向量
+	 * @return 网标识
+	 */
+	public M toMarking(int[] vector) {
+		M marking = net.createNewMarking();
+		for(int p=0; p<placeCount; p++){
+			if(vector[p] > 0)
+				marking.setTokens(p, vector[p]);
+		}
+		return marking;
+	}
+
+	//------- Enabling and firing ------------------------------------------------------------------
+
+	/**
+	 * Checks if the given transition is enabled in the given marking.
+	 * @param marking 标识向量
+	 * @param transition 变迁索引
+	 */
+	public boolean isEnabled(int[] marking, int transition) {
+		int[] places = prePlaces[transition];
+		int[] weights = preWeights[transition];
+		for(int r=0; r<places.length; r++){
+			if(marking[places[r]] < weights[r])
+				return false;
+		}
+		return hasCapacity(marking, transition);
+	}
+
+	/**
+	 * Checks if firing the given transition in the given marking does not exceed the capacity of an output place.
+	 * @param marking 标识向量
+	 * @param transition 变迁索引
+	 */
+	public boolean hasCapacity(int[] marking, int transition) {
+		int[] places = postPlaces[transition];
+		int[] deltas = postDeltas[transition];
+		for(int r=0; r<places.length; r++){
+			int p = places[r];
+			if(capacities[p] > -1 && marking[p] + deltas[r] > capacities[p])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the capacity of the given place.
+	 * @param place 库所索引
+	 * @return 容量，-1表示无界
+	 */
+	public int getCapacity(int place) {
+		return capacities[place];
+	}
+
+	/**
+	 * Determines all transitions enabled in the given marking.
+	 * @param marking 标识向量
+	 * @param enabledTransitions Array of size &gt;= {@link #getTransitionCount()}, which is filled with the indices of enabled transitions.
+	 * @return 使能变迁的个数
+	 */
+	public int getEnabledTransitions(int[] marking, int[] enabledTransitions) {
+		int count = 0;
+		for(int t=0; t<transitionCount; t++){
+			if(isEnabled(marking, t))
+				enabledTransitions[count++] = t;
+		}
+		return count;
+	}
+
+	/**
+	 * Checks if there are enabled transitions in the given marking.
+	 * @param marking 标识向量
+	 */
+	public boolean hasEnabledTransitions(int[] marking) {
+		for(int t=0; t<transitionCount; t++){
+			if(isEnabled(marking, t))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the marking which results from firing the given transition in the given marking.<br>
+	 * The given marking is not modified.
+	 * @param marking 标识向量
+	 * @param transition 变迁索引（必须使能）
+	 * @return 新标识向量
+	 */
+	public int[] fire(int[] marking, int transition) {
+		int[] newMarking = Arrays.copyOf(marking, marking.length);
+		fireInPlace(newMarking, transition);
+		return newMarking;
+	}
+
+	/**
+	 * Fires the given transition and modifies the given marking accordingly.<br>
+	 * Enabling is not checked, i.e. firing a disabled transition may result in negative entries or entries which exceed capacities.
+	 * @param marking 标识向量
+	 * @param transition 变迁索引（必须使能）
+	 */
+	public void fireInPlace(int[] marking, int transition) {
+		int[] weights = preWeights[transition];
+		int[] places = prePlaces[transition];
+		for(int r=0; r<places.length; r++){
+			marking[places[r]] -= weights[r];
+		}
+		places = postPlaces[transition];
+		weights = postWeights[transition];
+		for(int r=0; r<places.length; r++){
+			marking[places[r]] += weights[r];
+		}
+	}
+
+}
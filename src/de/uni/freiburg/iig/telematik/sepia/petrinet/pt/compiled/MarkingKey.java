@@ -0,0 +1,42 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled;
+
+import java.util.Arrays;
+
+/**
+ * 标识向量作为散列键<br>
+ * Wrapper for marking vectors of a {@link CompiledPTNet} with content-based hash code.<br>
+ * The wrapped array is not copied and must not be modified as long as the key is used.
+ */
+public class MarkingKey {
+
+	private final int[] marking;
+	private final int hashCode;
+
+	public MarkingKey(int[] marking){
+		this.marking = marking;
+		this.hashCode = Arrays.hashCode(marking);
+	}
+
+	/**
+	 * Returns the wrapped marking vector.
+	 */
+	public int[] getMarking() {
+		return marking;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof MarkingKey && Arrays.equals(marking, ((MarkingKey) obj).marking);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(marking);
+	}
+
+}
@@ -0,0 +1,197 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 顽固集（stubborn sets）<br>
+ * Computes deadlock-preserving stubborn sets of a {@link CompiledPTNet}.
+ * Firing only the enabled transitions of a stubborn set in every marking yields a reduced state space,
+ * which contains all reachable dead markings (markings without enabled transitions) of the net.
+ * Properties which do not only depend on dead markings (e.g. dead transitions or boundedness) are not preserved.<br>
+ * <br>
+ * A stubborn set is the closure of one enabled seed transition under the following rules:
+ * <ul>
+ * <li>For an enabled transition, all transitions consuming tokens from one of its input places are added,
+ * as well as all transitions increasing the number of tokens in a place with a capacity it increases.</li>
+ * <li>For a disabled transition, all transitions producing tokens in one insufficiently marked input place are added,
+ * or, if it is only disabled by a capacity, all transitions decreasing the number of tokens in the full place.</li>
+ * </ul>
+ * Every enabled transition is tried as seed and the set with the fewest enabled transitions is chosen.<br>
+ * <br>
+ * Stubborn sets follow the enabling semantics of the compiled net,
+ * i.e. capacities are treated like complementary places.
+ * Instances are immutable and can be shared between threads.
+ */
+public class StubbornSets {
+
+	private CompiledPTNet<?> compiledNet = null;
+
+	/** 库所的后集：从该库所消耗托肯的变迁 */
+	private int[][] consumers = null;
+	/** 库所的前集：向该库所产生托肯的变迁 */
+	private int[][] producers = null;
+	/** 有容量的库所：使托肯数增加的变迁 */
+	private int[][] fillers = null;
+	/** 有容量的库所：使托肯数减少的变迁 */
+	private int[][] drainers = null;
+	/** 变迁使托肯数增加的有容量库所及增加的托肯数 */
+	private int[][] filledPlaces = null;
+	private int[][] fillDeltas = null;
+
+	public StubbornSets(CompiledPTNet<?> compiledNet) {
+		Validate.notNull(compiledNet);
+		this.compiledNet = compiledNet;
+
+		List<List<Integer>> placeConsumers = new ArrayList<List<Integer>>();
+		List<List<Integer>> placeProducers = new ArrayList<List<Integer>>();
+		List<List<Integer>> placeFillers = new ArrayList<List<Integer>>();
+		List<List<Integer>> placeDrainers = new ArrayList<List<Integer>>();
+		List<List<Integer>> transitionFilledPlaces = new ArrayList<List<Integer>>();
+		List<List<Integer>> transitionFillDeltas = new ArrayList<List<Integer>>();
+		for(int p=0; p<compiledNet.getPlaceCount(); p++){
+			placeConsumers.add(new ArrayList<Integer>());
+			placeProducers.add(new ArrayList<Integer>());
+			placeFillers.add(new ArrayList<Integer>());
+			placeDrainers.add(new ArrayList<Integer>());
+		}
+		int[] deltas = new int[compiledNet.getPlaceCount()];
+		for(int t=0; t<compiledNet.getTransitionCount(); t++){
+			transitionFilledPlaces.add(new ArrayList<Integer>());
+			transitionFillDeltas.add(new ArrayList<Integer>());
+			int[] places = compiledNet.getPrePlaces(t);
+			int[] weights = compiledNet.getPreWeights(t);
+			for(int r=0; r<places.length; r++){
+				placeConsumers.get(places[r]).add(t);
+				deltas[places[r]] -= weights[r];
+			}
+			places = compiledNet.getPostPlaces(t);
+			weights = compiledNet.getPostWeights(t);
+			for(int r=0; r<places.length; r++){
+				placeProducers.get(places[r]).add(t);
+				deltas[places[r]] += weights[r];
+			}
+			// 每个库所只处理一次：处理后托肯变化置0
+			for(int[] touchedPlaces: new int[][]{compiledNet.getPrePlaces(t), places}){
+				for(int p: touchedPlaces){
+					if(deltas[p] != 0 && compiledNet.getCapacity(p) > -1){
+						if(deltas[p] > 0){
+							placeFillers.get(p).add(t);
+							transitionFilledPlaces.get(t).add(p);
+							transitionFillDeltas.get(t).add(deltas[p]);
+						} else {
+							placeDrainers.get(p).add(t);
+						}
+					}
+					deltas[p] = 0;
+				}
+			}
+		}
+		consumers = toArrays(placeConsumers);
+		producers = toArrays(placeProducers);
+		fillers = toArrays(placeFillers);
+		drainers = toArrays(placeDrainers);
+		filledPlaces = toArrays(transitionFilledPlaces);
+		fillDeltas = toArrays(transitionFillDeltas);
+	}
+
+	private static int[][] toArrays(List<List<Integer>> lists){
+		int[][] arrays = new int[lists.size()][];
+		for(int i=0; i<lists.size(); i++){
+			arrays[i] = new int[lists.get(i).size()];
+			for(int j=0; j<arrays[i].length; j++){
+				arrays[i][j] = lists.get(i).get(j);
+			}
+		}
+		return arrays;
+	}
+
+	public CompiledPTNet<?> getCompiledNet() {
+		return compiledNet;
+	}
+
+	/**
+	 * Reduces the given enabled transitions to the enabled transitions of a stubborn set.
+	 * @param marking 标识向量
+	 * @param enabledTransitions Indices of all transitions enabled in the given marking (see {@link CompiledPTNet#getEnabledTransitions(int[], int[])}).
+	 * The first entries of the array are overwritten with the indices of the enabled transitions of the stubborn set.
+	 * @param enabledCount 使能变迁的个数
+	 * @return 顽固集中使能变迁的个数（若有使能变迁则至少为1）
+	 */
+	public int reduce(int[] marking, int[] enabledTransitions, int enabledCount) {
+		if(enabledCount <= 1)
+			return enabledCount;
+		int transitionCount = compiledNet.getTransitionCount();
+		int[] stack = new int[transitionCount];
+		int[] inSet = new int[transitionCount];
+		int[] best = null;
+		int bestCount = enabledCount + 1;
+
+		for(int seed=0; seed<enabledCount && bestCount > 1; seed++){
+			// inSet[t] == seed + 1 表示t属于当前种子的顽固集
+			int mark = seed + 1;
+			int stackSize = 0;
+			int stubbornEnabled = 0;
+			stack[stackSize++] = enabledTransitions[seed];
+			inSet[enabledTransitions[seed]] = mark;
+			while(stackSize > 0 && stubbornEnabled < bestCount){
+				int t = stack[--stackSize];
+				if(compiledNet.isEnabled(marking, t)){
+					stubbornEnabled++;
+					for(int place: compiledNet.getPrePlaces(t)){
+						stackSize = addAll(consumers[place], inSet, mark, stack, stackSize);
+					}
+					for(int place: filledPlaces[t]){
+						stackSize = addAll(fillers[place], inSet, mark, stack, stackSize);
+					}
+				} else {
+					stackSize = addAll(scapegoat(marking, t), inSet, mark, stack, stackSize);
+				}
+			}
+			if(stubbornEnabled < bestCount){
+				bestCount = stubbornEnabled;
+				best = new int[bestCount];
+				int i = 0;
+				for(int e=0; e<enabledCount; e++){
+					if(inSet[enabledTransitions[e]] == mark)
+						best[i++] = enabledTransitions[e];
+				}
+			}
+		}
+		System.arraycopy(best, 0, enabledTransitions, 0, bestCount);
+		return bestCount;
+	}
+
+	private static int addAll(int[] transitions, int[] inSet, int mark, int[] stack, int stackSize){
+		for(int u: transitions){
+			if(inSet[u] != mark){
+				inSet[u] = mark;
+				stack[stackSize++] = u;
+			}
+		}
+		return stackSize;
+	}
+
+	/**
+	 * Returns the transitions which can enable the given disabled transition:
+	 * the producers of an input place which does not contain enough tokens,
+	 * or the transitions decreasing the tokens of a place whose capacity would be exceeded.
+	 */
+	private int[] scapegoat(int[] marking, int transition){
+		int[] places = compiledNet.getPrePlaces(transition);
+		int[] weights = compiledNet.getPreWeights(transition);
+		for(int r=0; r<places.length; r++){
+			if(marking[places[r]] < weights[r])
+				return producers[places[r]];
+		}
+		for(int i=0; i<filledPlaces[transition].length; i++){
+			int place = filledPlaces[transition][i];
+			if(marking[place] + fillDeltas[transition][i] > compiledNet.getCapacity(place))
+				return drainers[place];
+		}
+		throw new IllegalStateException("Transition " + compiledNet.getTransitionName(transition) + " is enabled.");
+	}
+
+}
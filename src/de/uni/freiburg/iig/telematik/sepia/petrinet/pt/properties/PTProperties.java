@@ -9,6 +9,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic.SymbolicStateSpace;
 
 public class PTProperties {
 
@@ -33,4 +34,24 @@ public class PTProperties {
 		if((initialMarking.get(place.getName())) > 1)
 			throw new PNValidationException("Initial marking must only contain one token in input place " + place);	
 	}
+	
+	/**
+	 * Computes the reachable markings, dead markings and dead transitions of a safe net symbolically (see {@link SymbolicStateSpace}).
+	 * @param petriNet P/T网（弧权重为1，安全）
+	 * @return 已探索的符号状态空间
+	 * @throws PNValidationException If the net is not safe or contains arc weights other than 1.
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 */
+	public static 	<P extends AbstractPTPlace<F>, 
+	 				 T extends AbstractPTTransition<F>, 
+	 				 F extends AbstractPTFlowRelation<P,T>,
+	 				 M extends AbstractPTMarking,
+	 				 N extends AbstractPTNet<P,T,F,M>> 
+
+	SymbolicStateSpace<M> computeSymbolicStateSpace(N petriNet) throws PNValidationException, InterruptedException {
+		Validate.notNull(petriNet);
+		SymbolicStateSpace<M> stateSpace = new SymbolicStateSpace<M>(petriNet);
+		stateSpace.explore();
+		return stateSpace;
+	}
 }
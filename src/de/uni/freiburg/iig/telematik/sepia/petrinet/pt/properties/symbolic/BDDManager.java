@@ -0,0 +1,458 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 二元决策图（reduced ordered binary decision diagrams）<br>
+ * Minimal BDD package for symbolic state space exploration.
+ * Nodes are identified by <code>int</code> handles, {@link #FALSE} and {@link #TRUE} are the terminal nodes.
+ * Variables are ordered by their index <code>0..getVariableCount()-1</code>.<br>
+ * <br>
+ * Equal functions are represented by the same node (unique table),
+ * results of operations are cached in a direct-mapped computed table.
+ * Unreachable nodes are reclaimed by {@link #collectGarbage(int[])}, which must be given all nodes still in use.
+ * Instances are not thread-safe.
+ */
+class BDDManager {
+
+	public static final int FALSE = 0;
+	public static final int TRUE = 1;
+
+	private static final int OP_AND = 0;
+	private static final int OP_OR = 1;
+	private static final int OP_DIFF = 2;
+	private static final int OP_NOT = 3;
+	private static final int OP_EXISTS = 4;
+	private static final int OP_AND_EXISTS = 5;
+
+	private static final int INITIAL_NODE_CAPACITY = 1 << 12;
+	private static final int INITIAL_CACHE_SIZE = 1 << 16;
+	private static final int MAX_CACHE_SIZE = 1 << 22;
+
+	private int variableCount = 0;
+
+	private int[] variables = null;
+	private int[] lows = null;
+	private int[] highs = null;
+	private int nodeCount = 0;
+	/** 空闲节点链表（用lows链接），由垃圾回收产生 */
+	private int freeList = -1;
+	private int freeCount = 0;
+
+	/** 唯一表，开放寻址，存储节点句柄+1 */
+	private int[] uniqueTable = null;
+
+	/** 计算表：{操作, 参数1, 参数2, 参数3, 结果}，随节点数组增长 */
+	private int cacheSize = INITIAL_CACHE_SIZE;
+	private int[] cache = new int[INITIAL_CACHE_SIZE * 5];
+
+	/** 量化变量集合，按句柄编号 */
+	private boolean[][] variableSets = new boolean[0][];
+
+	BDDManager(int variableCount) {
+		Validate.notNegative(variableCount);
+		this.variableCount = variableCount;
+		variables = new int[INITIAL_NODE_CAPACITY];
+		lows = new int[INITIAL_NODE_CAPACITY];
+		highs = new int[INITIAL_NODE_CAPACITY];
+		uniqueTable = new int[INITIAL_NODE_CAPACITY * 2];
+		// 终结节点的变量索引大于所有变量
+		variables[FALSE] = variableCount;
+		variables[TRUE] = variableCount;
+		nodeCount = 2;
+		clearCache();
+	}
+
+	int getVariableCount() {
+		return variableCount;
+	}
+
+	/**
+	 * Returns the number of allocated nodes, including the terminal nodes.
+	 */
+	int getNodeCount() {
+		return nodeCount - freeCount;
+	}
+
+	//------- Nodes --------------------------------------------------------------------------------
+
+	/**
+	 * Returns the node testing the given variable.
+	 */
+	int variable(int variable) {
+		return node(variable, FALSE, TRUE);
+	}
+
+	/**
+	 * Returns the node testing the negation of the given variable.
+	 */
+	int notVariable(int variable) {
+		return node(variable, TRUE, FALSE);
+	}
+
+	int var(int node) {
+		return variables[node];
+	}
+
+	int low(int node) {
+		return lows[node];
+	}
+
+	int high(int node) {
+		return highs[node];
+	}
+
+	private int node(int variable, int low, int high) {
+		if(low == high)
+			return low;
+		int mask = uniqueTable.length - 1;
+		int slot = hash(variable, low, high) & mask;
+		while(uniqueTable[slot] != 0){
+			int candidate = uniqueTable[slot] - 1;
+			if(variables[candidate] == variable && lows[candidate] == low && highs[candidate] == high)
+				return candidate;
+			slot = (slot + 1) & mask;
+		}
+		int node = allocate();
+		variables[node] = variable;
+		lows[node] = low;
+		highs[node] = high;
+		uniqueTable[slot] = node + 1;
+		if(2 * getNodeCount() > uniqueTable.length)
+			rehash(uniqueTable.length * 2);
+		return node;
+	}
+
+	private int allocate() {
+		if(freeList != -1){
+			int node = freeList;
+			freeList = lows[node];
+			freeCount--;
+			return node;
+		}
+		if(nodeCount == variables.length){
+			int capacity = variables.length * 2;
+			variables = Arrays.copyOf(variables, capacity);
+			lows = Arrays.copyOf(lows, capacity);
+			highs = Arrays.copyOf(highs, capacity);
+			if(cacheSize < capacity && cacheSize < MAX_CACHE_SIZE){
+				cacheSize = Math.min(capacity, MAX_CACHE_SIZE);
+				cache = new int[cacheSize * 5];
+				clearCache();
+			}
+		}
+		return nodeCount++;
+	}
+
+	private void rehash(int size) {
+		uniqueTable = new int[size];
+		int mask = size - 1;
+		for(int node=2; node<nodeCount; node++){
+			if(variables[node] < 0)
+				continue;
+			int slot = hash(variables[node], lows[node], highs[node]) & mask;
+			while(uniqueTable[slot] != 0){
+				slot = (slot + 1) & mask;
+			}
+			uniqueTable[slot] = node + 1;
+		}
+	}
+
+	private static int hash(int a, int b, int c) {
+		int h = a * 0x9E3779B1 + b * 0x85EBCA77 + c * 0xC2B2AE3D;
+		return h ^ (h >>> 15);
+	}
+
+	//------- Computed table -----------------------------------------------------------------------
+
+	private void clearCache() {
+		Arrays.fill(cache, -1);
+	}
+
+	private int cacheLookup(int op, int a, int b, int c) {
+		int slot = (hash(op, a, b) ^ c * 31) & (cacheSize - 1);
+		int i = slot * 5;
+		if(cache[i] == op && cache[i + 1] == a && cache[i + 2] == b && cache[i + 3] == c)
+			return cache[i + 4];
+		return -1;
+	}
+
+	private void cacheStore(int op, int a, int b, int c, int result) {
+		int slot = (hash(op, a, b) ^ c * 31) & (cacheSize - 1);
+		int i = slot * 5;
+		cache[i] = op;
+		cache[i + 1] = a;
+		cache[i + 2] = b;
+		cache[i + 3] = c;
+		cache[i + 4] = result;
+	}
+
+	//------- Operations ---------------------------------------------------------------------------
+
+	int and(int f, int g) {
+		if(f == FALSE || g == FALSE)
+			return FALSE;
+		if(f == TRUE)
+			return g;
+		if(g == TRUE || f == g)
+			return f;
+		if(f > g){
+			int swap = f; f = g; g = swap;
+		}
+		int result = cacheLookup(OP_AND, f, g, 0);
+		if(result >= 0)
+			return result;
+		int v = Math.min(variables[f], variables[g]);
+		int low = and(cofactor(f, v, false), cofactor(g, v, false));
+		int high = and(cofactor(f, v, true), cofactor(g, v, true));
+		result = node(v, low, high);
+		cacheStore(OP_AND, f, g, 0, result);
+		return result;
+	}
+
+	int or(int f, int g) {
+		if(f == TRUE || g == TRUE)
+			return TRUE;
+		if(f == FALSE)
+			return g;
+		if(g == FALSE || f == g)
+			return f;
+		if(f > g){
+			int swap = f; f = g; g = swap;
+		}
+		int result = cacheLookup(OP_OR, f, g, 0);
+		if(result >= 0)
+			return result;
+		int v = Math.min(variables[f], variables[g]);
+		int low = or(cofactor(f, v, false), cofactor(g, v, false));
+		int high = or(cofactor(f, v, true), cofactor(g, v, true));
+		result = node(v, low, high);
+		cacheStore(OP_OR, f, g, 0, result);
+		return result;
+	}
+
+	/**
+	 * Returns <code>f &and; &not;g</code>.
+	 */
+	int diff(int f, int g) {
+		if(f == FALSE || g == TRUE || f == g)
+			return FALSE;
+		if(g == FALSE)
+			return f;
+		if(f == TRUE)
+			return not(g);
+		int result = cacheLookup(OP_DIFF, f, g, 0);
+		if(result >= 0)
+			return result;
+		int v = Math.min(variables[f], variables[g]);
+		int low = diff(cofactor(f, v, false), cofactor(g, v, false));
+		int high = diff(cofactor(f, v, true), cofactor(g, v, true));
+		result = node(v, low, high);
+		cacheStore(OP_DIFF, f, g, 0, result);
+		return result;
+	}
+
+	int not(int f) {
+		if(f == FALSE)
+			return TRUE;
+		if(f == TRUE)
+			return FALSE;
+		int result = cacheLookup(OP_NOT, f, 0, 0);
+		if(result >= 0)
+			return result;
+		result = node(variables[f], not(lows[f]), not(highs[f]));
+		cacheStore(OP_NOT, f, 0, 0, result);
+		return result;
+	}
+
+	private int cofactor(int f, int variable, boolean value) {
+		if(variables[f] != variable)
+			return f;
+		return value ? highs[f] : lows[f];
+	}
+
+	/**
+	 * Registers a set of variables for quantification.
+	 * @param variableSet 变量集合（变量索引）
+	 * @return 变量集合的句柄
+	 */
+	int variableSet(int[] variableSet) {
+		boolean[] set = new boolean[variableCount];
+		for(int variable: variableSet){
+			set[variable] = true;
+		}
+		variableSets = Arrays.copyOf(variableSets, variableSets.length + 1);
+		variableSets[variableSets.length - 1] = set;
+		return variableSets.length - 1;
+	}
+
+	/**
+	 * Existentially quantifies the variables of the given set.
+	 * @param f 函数
+	 * @param variableSet 变量集合的句柄（见{@link #variableSet(int[])}）
+	 */
+	int exists(int f, int variableSet) {
+		if(f == FALSE || f == TRUE)
+			return f;
+		int result = cacheLookup(OP_EXISTS, f, variableSet, 0);
+		if(result >= 0)
+			return result;
+		int low = exists(lows[f], variableSet);
+		int high = exists(highs[f], variableSet);
+		result = variableSets[variableSet][variables[f]] ? or(low, high) : node(variables[f], low, high);
+		cacheStore(OP_EXISTS, f, variableSet, 0, result);
+		return result;
+	}
+
+	/**
+	 * Returns <code>&exist;V. f &and; g</code> without building the conjunction.
+	 * @param variableSet 变量集合V的句柄（见{@link #variableSet(int[])}）
+	 */
+	int andExists(int f, int g, int variableSet) {
+		if(f == FALSE || g == FALSE)
+			return FALSE;
+		if(f == TRUE && g == TRUE)
+			return TRUE;
+		if(f == TRUE || f == g)
+			return exists(g, variableSet);
+		if(g == TRUE)
+			return exists(f, variableSet);
+		if(f > g){
+			int swap = f; f = g; g = swap;
+		}
+		int result = cacheLookup(OP_AND_EXISTS, f, g, variableSet);
+		if(result >= 0)
+			return result;
+		int v = Math.min(variables[f], variables[g]);
+		int low = andExists(cofactor(f, v, false), cofactor(g, v, false), variableSet);
+		if(variableSets[variableSet][v] && low == TRUE){
+			result = TRUE;
+		} else {
+			int high = andExists(cofactor(f, v, true), cofactor(g, v, true), variableSet);
+			result = variableSets[variableSet][v] ? or(low, high) : node(v, low, high);
+		}
+		cacheStore(OP_AND_EXISTS, f, g, variableSet, result);
+		return result;
+	}
+
+	//------- Satisfying assignments ---------------------------------------------------------------
+
+	/**
+	 * Returns the number of satisfying assignments over all variables.
+	 */
+	BigInteger satCount(int f) {
+		return satCount(f, new HashMap<Integer, BigInteger>()).shiftLeft(variables[f] == variableCount ? variableCount : variables[f]);
+	}
+
+	/**
+	 * Number of satisfying assignments of the variables <code>var(f)..getVariableCount()-1</code>.
+	 */
+	private BigInteger satCount(int f, Map<Integer, BigInteger> counts) {
+		if(f == FALSE)
+			return BigInteger.ZERO;
+		if(f == TRUE)
+			return BigInteger.ONE;
+		BigInteger count = counts.get(f);
+		if(count != null)
+			return count;
+		BigInteger low = satCount(lows[f], counts).shiftLeft(variables[lows[f]] - variables[f] - 1);
+		BigInteger high = satCount(highs[f], counts).shiftLeft(variables[highs[f]] - variables[f] - 1);
+		count = low.add(high);
+		counts.put(f, count);
+		return count;
+	}
+
+	/**
+	 * Returns one satisfying assignment of the given function, unconstrained variables are <code>false</code>.
+	 * @return 变量赋值，若函数不可满足则返回<code>null</code>
+	 */
+	boolean[] anySat(int f) {
+		if(f == FALSE)
+			return null;
+		boolean[] assignment = new boolean[variableCount];
+		while(f != TRUE){
+			if(lows[f] != FALSE){
+				f = lows[f];
+			} else {
+				assignment[variables[f]] = true;
+				f = highs[f];
+			}
+		}
+		return assignment;
+	}
+
+	/**
+	 * Returns the function which is satisfied by exactly the given assignment.
+	 */
+	int minterm(boolean[] assignment) {
+		int result = TRUE;
+		for(int v=variableCount-1; v>=0; v--){
+			result = assignment[v] ? node(v, FALSE, result) : node(v, result, FALSE);
+		}
+		return result;
+	}
+
+	//------- Garbage collection -------------------------------------------------------------------
+
+	/**
+	 * Frees all nodes which are not reachable from the given nodes.
+	 * Handles of the given nodes and their descendants remain valid, all other handles become invalid.
+	 * @param roots 仍在使用的节点
+	 */
+	void collectGarbage(int[] roots) {
+		boolean[] marked = new boolean[nodeCount];
+		marked[FALSE] = true;
+		marked[TRUE] = true;
+		int[] stack = new int[Math.max(16, roots.length)];
+		int stackSize = 0;
+		for(int root: roots){
+			if(stackSize == stack.length)
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			stack[stackSize++] = root;
+		}
+		while(stackSize > 0){
+			int node = stack[--stackSize];
+			if(marked[node])
+				continue;
+			marked[node] = true;
+			if(stackSize + 2 > stack.length)
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			stack[stackSize++] = lows[node];
+			stack[stackSize++] = highs[node];
+		}
+		freeList = -1;
+		freeCount = 0;
+		for(int node=nodeCount-1; node>=2; node--){
+			if(!marked[node]){
+				variables[node] = -1;
+				lows[node] = freeList;
+				freeList = node;
+				freeCount++;
+			}
+		}
+		rehash(uniqueTable.length);
+		cleanCache(marked);
+	}
+
+	/**
+	 * Removes all entries of the computed table which refer to freed nodes.
+	 * The remaining entries stay valid, since handles of live nodes do not change.
+	 */
+	private void cleanCache(boolean[] live) {
+		for(int i=0; i<cache.length; i+=5){
+			int op = cache[i];
+			if(op == -1)
+				continue;
+			// 变量集合句柄不是节点
+			boolean secondIsNode = op == OP_AND || op == OP_OR || op == OP_DIFF || op == OP_AND_EXISTS;
+			if(!live[cache[i + 1]] || (secondIsNode && !live[cache[i + 2]]) || !live[cache[i + 4]])
+				cache[i] = -1;
+		}
+	}
+
+}
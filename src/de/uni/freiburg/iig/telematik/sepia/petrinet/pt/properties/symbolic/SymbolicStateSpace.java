@@ -0,0 +1,517 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.ParameterException.ErrorCode;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessViolationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessWitness;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.PTPlaceIndex;
+
+/**
+ * 符号状态空间（symbolic state space）<br>
+ * Computes the reachable markings of a safe (1-bounded) P/T-net symbolically, without enumerating them.
+ * Every place is encoded by one boolean variable and sets of markings are represented by binary decision diagrams.
+ * The reachable set is computed as least fixpoint of the successor function,
+ * the image of a transition <code>t</code> is <code>(&exist;&bull;t&cup;t&bull;. S &and; en(t)) &and; eff(t)</code>.<br>
+ * <br>
+ * Based on the reachable set, dead markings (deadlocks), dead transitions and the soundness of workflow nets are determined.
+ * Counterexamples are shortest firing sequences, which are reconstructed from the breadth-first layers of the exploration.<br>
+ * <br>
+ * The encoding requires arc weights of 1 and at most one token per place in the initial marking.
+ * If firing a transition puts a second token into a place, the net is not safe and the exploration fails.
+ * A capacity of 1 disables transitions which put a token into the marked place (see {@link AbstractPTTransition#checkState()}),
+ * larger capacities are never exceeded in safe nets.
+ * The snapshot does not reflect changes of the net after its creation. Instances are not thread-safe.
+ *
+ * @param <M>  Marking类型
+ */
+public class SymbolicStateSpace<M extends AbstractPTMarking> {
+
+	/** 节点数超过此阈值时进行垃圾回收 */
+	private static final int GC_THRESHOLD = 1 << 20;
+	/** 每个节点的估计内存占用（节点数组、唯一表与计算表） */
+	private static final int BYTES_PER_NODE = 64;
+
+	private AbstractPTNet<?,?,?,M> net = null;
+	private PTPlaceIndex placeIndex = null;
+	private BDDManager bdd = null;
+
+	private int placeCount = 0;
+	private int transitionCount = 0;
+	/** 库所索引 -> BDD变量，变量序沿流关系的深度优先顺序 */
+	private int[] placeVariables = null;
+	/** BDD变量 -> 库所索引 */
+	private int[] variablePlaces = null;
+
+	private String[] transitionNames = null;
+	/** 使能条件：所有输入库所有托肯 */
+	private int[] enablings = null;
+	/** 变迁发生后的输入/输出库所状态 */
+	private int[] effects = null;
+	/** 变迁发生前的输入/输出库所状态 */
+	private int[] causes = null;
+	/** 仅为输出库所的库所中有托肯（发生后不安全） */
+	private int[] unsafeConditions = null;
+	/** 输入与输出库所的变量集合 */
+	private int[] variableSets = null;
+	private int anyEnabling = BDDManager.FALSE;
+
+	private int initialMarking = BDDManager.FALSE;
+	private int reachableMarkings = BDDManager.FALSE;
+	private int deadlocks = BDDManager.FALSE;
+	/** 广度优先探索的层：第i层包含最短发生序列长度为i的标识 */
+	private List<Integer> layers = new ArrayList<Integer>();
+	private Set<String> deadTransitions = null;
+	private boolean explored = false;
+	private int gcThreshold = GC_THRESHOLD;
+
+	public SymbolicStateSpace(AbstractPTNet<?,?,?,M> net) throws PNValidationException {
+		Validate.notNull(net);
+		this.net = net;
+		this.placeIndex = net.getPlaceIndex();
+		placeCount = placeIndex.size();
+		transitionCount = net.getTransitions().size();
+
+		List<List<Integer>> prePlaces = new ArrayList<List<Integer>>();
+		List<List<Integer>> postPlaces = new ArrayList<List<Integer>>();
+		transitionNames = new String[transitionCount];
+		int t = 0;
+		for(AbstractPTTransition<?> transition: net.getTransitions()){
+			transitionNames[t++] = transition.getName();
+			prePlaces.add(getPlaces(transition.getIncomingRelations()));
+			postPlaces.add(getPlaces(transition.getOutgoingRelations()));
+		}
+		int[] initialVector = new int[placeCount];
+		M netInitialMarking = net.getInitialMarking();
+		for(String placeName: netInitialMarking.places()){
+			int tokens = netInitialMarking.get(placeName);
+			if(tokens > 1)
+				throw new PNValidationException("Initial marking contains more than one token in place \"" + placeName + "\"");
+			initialVector[placeIndex.getIndex(placeName)] = tokens;
+		}
+		computeVariableOrder(prePlaces, postPlaces, initialVector);
+
+		bdd = new BDDManager(placeCount);
+		enablings = new int[transitionCount];
+		effects = new int[transitionCount];
+		causes = new int[transitionCount];
+		unsafeConditions = new int[transitionCount];
+		variableSets = new int[transitionCount];
+		for(t=0; t<transitionCount; t++){
+			Set<Integer> pre = new HashSet<Integer>(prePlaces.get(t));
+			Set<Integer> post = new HashSet<Integer>(postPlaces.get(t));
+			Set<Integer> all = new HashSet<Integer>(pre);
+			all.addAll(post);
+			int enabling = BDDManager.TRUE;
+			int effect = BDDManager.TRUE;
+			int cause = BDDManager.TRUE;
+			int unsafe = BDDManager.FALSE;
+			int[] variables = new int[all.size()];
+			int i = 0;
+			for(int place: all){
+				int variable = placeVariables[place];
+				variables[i++] = variable;
+				if(pre.contains(place)){
+					enabling = bdd.and(enabling, bdd.variable(variable));
+					cause = bdd.and(cause, bdd.variable(variable));
+				} else if(net.getPlace(placeIndex.getPlaceName(place)).getCapacity() == 1){
+					// 容量为1的输出库所已有托肯时变迁不使能
+					enabling = bdd.and(enabling, bdd.notVariable(variable));
+					cause = bdd.and(cause, bdd.notVariable(variable));
+				} else {
+					cause = bdd.and(cause, bdd.notVariable(variable));
+					unsafe = bdd.or(unsafe, bdd.variable(variable));
+				}
+				effect = bdd.and(effect, post.contains(place) ? bdd.variable(variable) : bdd.notVariable(variable));
+			}
+			enablings[t] = enabling;
+			effects[t] = effect;
+			causes[t] = cause;
+			unsafeConditions[t] = unsafe;
+			variableSets[t] = bdd.variableSet(variables);
+			anyEnabling = bdd.or(anyEnabling, enabling);
+		}
+		boolean[] assignment = new boolean[placeCount];
+		for(int p=0; p<placeCount; p++){
+			assignment[placeVariables[p]] = initialVector[p] > 0;
+		}
+		initialMarking = bdd.minterm(assignment);
+	}
+
+	private List<Integer> getPlaces(List<? extends AbstractPTFlowRelation<?,?>> relations) throws PNValidationException {
+		List<Integer> places = new ArrayList<Integer>();
+		for(AbstractPTFlowRelation<?,?> relation: relations){
+			if(relation.getWeight() != 1)
+				throw new PNValidationException("Symbolic state space requires arc weights of 1, relation " + relation.getName() + " has weight " + relation.getWeight());
+			places.add(placeIndex.getIndex(relation.getPlace().getName()));
+		}
+		return places;
+	}
+
+	/**
+	 * Orders the variables by a depth-first traversal along the flow relation, starting at the initially marked places.
+	 * Places of the same sequential branch are adjacent in the variable order, which keeps the decision diagrams
+	 * of concurrent branches small (a breadth-first order interleaves the branches and leads to exponential diagrams).
+	 */
+	private void computeVariableOrder(List<List<Integer>> prePlaces, List<List<Integer>> postPlaces, int[] initialVector) {
+		List<List<Integer>> placeConsumers = new ArrayList<List<Integer>>();
+		for(int p=0; p<placeCount; p++){
+			placeConsumers.add(new ArrayList<Integer>());
+		}
+		for(int t=0; t<transitionCount; t++){
+			for(int place: prePlaces.get(t)){
+				placeConsumers.get(place).add(t);
+			}
+		}
+		placeVariables = new int[placeCount];
+		Arrays.fill(placeVariables, -1);
+		variablePlaces = new int[placeCount];
+		int nextVariable = 0;
+		boolean[] visitedTransitions = new boolean[transitionCount];
+		List<Integer> startPlaces = new ArrayList<Integer>();
+		for(int p=0; p<placeCount; p++){
+			if(initialVector[p] > 0)
+				startPlaces.add(p);
+		}
+		for(int p=0; p<placeCount; p++){
+			if(initialVector[p] == 0)
+				startPlaces.add(p);
+		}
+		Deque<Integer> stack = new ArrayDeque<Integer>();
+		for(int start: startPlaces){
+			stack.push(start);
+			while(!stack.isEmpty()){
+				int place = stack.pop();
+				if(placeVariables[place] != -1)
+					continue;
+				placeVariables[place] = nextVariable;
+				variablePlaces[nextVariable++] = place;
+				// 逆序入栈，使第一个后继最先被访问
+				List<Integer> successors = new ArrayList<Integer>();
+				for(int t: placeConsumers.get(place)){
+					if(visitedTransitions[t])
+						continue;
+					visitedTransitions[t] = true;
+					successors.addAll(postPlaces.get(t));
+				}
+				for(int i=successors.size()-1; i>=0; i--){
+					if(placeVariables[successors.get(i)] == -1)
+						stack.push(successors.get(i));
+				}
+			}
+		}
+	}
+
+	public AbstractPTNet<?,?,?,M> getPetriNet() {
+		return net;
+	}
+
+	//------- Exploration --------------------------------------------------------------------------
+
+	/**
+	 * Computes the reachable markings, the dead markings and the dead transitions of the net.
+	 * Repeated calls have no effect.
+	 * @throws PNValidationException If the net is not safe.
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 */
+	public void explore() throws PNValidationException, InterruptedException {
+		if(explored)
+			return;
+		reachableMarkings = initialMarking;
+		layers.add(initialMarking);
+		int frontier = initialMarking;
+		while(true){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			collectGarbage(frontier);
+			int successors = BDDManager.FALSE;
+			for(int t=0; t<transitionCount; t++){
+				successors = bdd.or(successors, image(frontier, t));
+			}
+			frontier = bdd.diff(successors, reachableMarkings);
+			if(frontier == BDDManager.FALSE)
+				break;
+			reachableMarkings = bdd.or(reachableMarkings, frontier);
+			layers.add(frontier);
+		}
+		deadlocks = bdd.diff(reachableMarkings, anyEnabling);
+		deadTransitions = new LinkedHashSet<String>();
+		for(int t=0; t<transitionCount; t++){
+			if(bdd.and(reachableMarkings, enablings[t]) == BDDManager.FALSE)
+				deadTransitions.add(transitionNames[t]);
+		}
+		explored = true;
+	}
+
+	/**
+	 * Returns the markings reached by firing the given transition in one of the given markings.
+	 */
+	private int image(int markings, int transition) throws PNValidationException {
+		int enabled = bdd.and(markings, enablings[transition]);
+		if(enabled == BDDManager.FALSE)
+			return BDDManager.FALSE;
+		int unsafe = bdd.and(enabled, unsafeConditions[transition]);
+		if(unsafe != BDDManager.FALSE)
+			throw new PNValidationException("Net is not safe: firing transition \"" + transitionNames[transition] + "\" in marking " + toMarking(bdd.anySat(unsafe)) + " puts a second token into a place");
+		return bdd.and(bdd.exists(enabled, variableSets[transition]), effects[transition]);
+	}
+
+	/**
+	 * Returns the markings in which the given transition can fire and which reach one of the given markings by firing it.
+	 */
+	private int preImage(int markings, int transition) {
+		return bdd.and(bdd.andExists(markings, effects[transition], variableSets[transition]), causes[transition]);
+	}
+
+	private void collectGarbage(int... roots) {
+		if(bdd.getNodeCount() < gcThreshold)
+			return;
+		int[] allRoots = new int[roots.length + layers.size() + 5 * transitionCount + 4];
+		int i = 0;
+		for(int root: roots){
+			allRoots[i++] = root;
+		}
+		for(int layer: layers){
+			allRoots[i++] = layer;
+		}
+		for(int t=0; t<transitionCount; t++){
+			allRoots[i++] = enablings[t];
+			allRoots[i++] = effects[t];
+			allRoots[i++] = causes[t];
+			allRoots[i++] = unsafeConditions[t];
+		}
+		allRoots[i++] = anyEnabling;
+		allRoots[i++] = initialMarking;
+		allRoots[i++] = reachableMarkings;
+		allRoots[i++] = deadlocks;
+		bdd.collectGarbage(Arrays.copyOf(allRoots, i));
+		// 释放的节点常在后续迭代中重建，因此阈值按几何级数增长（受堆大小限制），避免频繁回收
+		long maxNodes = Runtime.getRuntime().maxMemory() / BYTES_PER_NODE;
+		gcThreshold = (int) Math.max(2L * bdd.getNodeCount(), Math.min(2L * gcThreshold, Math.min(maxNodes, Integer.MAX_VALUE / 2)));
+	}
+
+	private void validateExplored() {
+		if(!explored)
+			throw new ParameterException(ErrorCode.INCONSISTENCY, "State space is not explored yet.");
+	}
+
+	//------- Results ------------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of reachable markings.
+	 */
+	public BigInteger getReachableMarkingCount() {
+		validateExplored();
+		return bdd.satCount(reachableMarkings);
+	}
+
+	/**
+	 * Returns the number of reachable markings without enabled transitions.
+	 */
+	public BigInteger getDeadlockCount() {
+		validateExplored();
+		return bdd.satCount(deadlocks);
+	}
+
+	/**
+	 * Returns the dead marking with the shortest firing sequence from the initial marking.
+	 * @return 死标识，若不存在则返回<code>null</code>
+	 */
+	public M getDeadlock() {
+		validateExplored();
+		if(deadlocks == BDDManager.FALSE)
+			return null;
+		return toMarking(bdd.anySat(bdd.and(deadlocks, layers.get(firstLayer(deadlocks)))));
+	}
+
+	/**
+	 * Returns a shortest firing sequence from the initial marking to a dead marking.
+	 * @return 发生序列，若不存在死标识则返回<code>null</code>
+	 */
+	public List<String> getDeadlockSequence() {
+		validateExplored();
+		if(deadlocks == BDDManager.FALSE)
+			return null;
+		return getFiringSequence(deadlocks);
+	}
+
+	/**
+	 * Returns the names of all transitions which are not enabled in any reachable marking.
+	 */
+	public Set<String> getDeadTransitions() {
+		validateExplored();
+		return Collections.unmodifiableSet(deadTransitions);
+	}
+
+	/**
+	 * Checks if the given marking is reachable from the initial marking.
+	 * @param marking 标识
+	 */
+	public boolean isReachable(AbstractPTMarking marking) {
+		Validate.notNull(marking);
+		validateExplored();
+		boolean[] assignment = new boolean[placeCount];
+		for(String placeName: marking.places()){
+			int tokens = marking.get(placeName);
+			if(tokens == 0)
+				continue;
+			int p = placeIndex.getIndex(placeName);
+			if(tokens > 1 || p < 0 || p >= placeCount)
+				return false;
+			assignment[placeVariables[p]] = true;
+		}
+		return bdd.and(reachableMarkings, bdd.minterm(assignment)) != BDDManager.FALSE;
+	}
+
+	/**
+	 * Returns the number of breadth-first iterations, i.e. the length of the longest shortest firing sequence plus one.
+	 */
+	public int getIterations() {
+		validateExplored();
+		return layers.size();
+	}
+
+	/**
+	 * Returns the number of decision diagram nodes currently allocated.
+	 */
+	public int getNodeCount() {
+		return bdd.getNodeCount();
+	}
+
+	//------- Soundness ----------------------------------------------------------------------------
+
+	/**
+	 * Checks the soundness of a workflow net with the given output place.
+	 * A marking has the end-state property if the output place contains a token
+	 * and, unless remaining tokens are accepted, no other place contains tokens.
+	 * Like {@link de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.OnTheFlySoundnessChecker},
+	 * the following properties are checked in the given order:
+	 * <ul>
+	 * <li>Every dead marking has the end-state property.</li>
+	 * <li>No marking with the end-state property enables transitions.</li>
+	 * <li>From every reachable marking, a marking with the end-state property is reachable (option to complete).</li>
+	 * <li>There are no dead transitions.</li>
+	 * </ul>
+	 * @param outputPlaceName 输出库所名称
+	 * @param acceptRemainingTokens 是否允许终止标识中其他库所有托肯
+	 * @throws SoundnessViolationException If the net is not sound.
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 */
+	public void checkSoundness(String outputPlaceName, boolean acceptRemainingTokens) throws SoundnessViolationException, InterruptedException {
+		Validate.notNull(outputPlaceName);
+		validateExplored();
+		int outputPlace = placeIndex.getIndex(outputPlaceName);
+		if(!net.containsPlace(outputPlaceName) || outputPlace < 0 || outputPlace >= placeCount)
+			throw new ParameterException(ErrorCode.INCOMPATIBILITY, "Net does not contain a place with name \"" + outputPlaceName + "\"");
+
+		int endStates = bdd.variable(placeVariables[outputPlace]);
+		if(!acceptRemainingTokens){
+			for(int v=placeCount-1; v>=0; v--){
+				if(v != placeVariables[outputPlace])
+					endStates = bdd.and(endStates, bdd.notVariable(v));
+			}
+		}
+		endStates = bdd.and(endStates, reachableMarkings);
+
+		int improperDeadlocks = bdd.diff(deadlocks, endStates);
+		if(improperDeadlocks != BDDManager.FALSE)
+			throw violation(SoundnessWitness.Violation.IMPROPER_TERMINATION, improperDeadlocks, "Dead marking does not have the end-state property");
+		int enabledEndStates = bdd.and(endStates, anyEnabling);
+		if(enabledEndStates != BDDManager.FALSE)
+			throw violation(SoundnessWitness.Violation.ENABLED_AFTER_COMPLETION, enabledEndStates, "Marking with end-state property enables transitions");
+
+		// 反向不动点：可到达终止标识的标识
+		int canComplete = endStates;
+		int frontier = endStates;
+		while(frontier != BDDManager.FALSE){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			collectGarbage(endStates, canComplete, frontier);
+			int predecessors = BDDManager.FALSE;
+			for(int t=0; t<transitionCount; t++){
+				predecessors = bdd.or(predecessors, preImage(frontier, t));
+			}
+			frontier = bdd.diff(bdd.and(predecessors, reachableMarkings), canComplete);
+			canComplete = bdd.or(canComplete, frontier);
+		}
+		int stuckMarkings = bdd.diff(reachableMarkings, canComplete);
+		if(stuckMarkings != BDDManager.FALSE)
+			throw violation(SoundnessWitness.Violation.NO_OPTION_TO_COMPLETE, stuckMarkings, "No marking with end-state property is reachable");
+
+		if(!deadTransitions.isEmpty())
+			throw new SoundnessViolationException(new SoundnessWitness(deadTransitions));
+	}
+
+	private SoundnessViolationException violation(SoundnessWitness.Violation violation, int markings, String reason) {
+		LinkedList<String> firingSequence = new LinkedList<String>();
+		int marking = tracePath(markings, firingSequence);
+		return new SoundnessViolationException(new SoundnessWitness(violation, firingSequence, toMarking(bdd.anySat(marking)), reason));
+	}
+
+	//------- Firing sequences ---------------------------------------------------------------------
+
+	private int firstLayer(int markings) {
+		for(int i=0; i<layers.size(); i++){
+			if(bdd.and(layers.get(i), markings) != BDDManager.FALSE)
+				return i;
+		}
+		throw new ParameterException(ErrorCode.INCONSISTENCY, "Markings are not reachable.");
+	}
+
+	private List<String> getFiringSequence(int markings) {
+		LinkedList<String> firingSequence = new LinkedList<String>();
+		tracePath(markings, firingSequence);
+		return firingSequence;
+	}
+
+	/**
+	 * Picks a marking of the given set with the shortest firing sequence and traces the sequence back to the initial marking.
+	 * @return 选中的标识（单个标识的BDD）
+	 */
+	private int tracePath(int markings, LinkedList<String> firingSequence) {
+		int layer = firstLayer(markings);
+		int target = bdd.minterm(bdd.anySat(bdd.and(layers.get(layer), markings)));
+		int current = target;
+		for(int i=layer; i>0; i--){
+			for(int t=0; t<transitionCount; t++){
+				int predecessors = bdd.and(preImage(current, t), layers.get(i - 1));
+				if(predecessors != BDDManager.FALSE){
+					firingSequence.addFirst(transitionNames[t]);
+					current = bdd.minterm(bdd.anySat(predecessors));
+					break;
+				}
+			}
+		}
+		return target;
+	}
+
+	private M toMarking(boolean[] assignment) {
+		M marking = net.createNewMarking();
+		for(int v=0; v<placeCount; v++){
+			if(assignment[v])
+				marking.setTokens(variablePlaces[v], 1);
+		}
+		return marking;
+	}
+
+}
@@ -4,6 +4,9 @@ import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.NetCheckingProperties;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PNProperties.InOutPlaces;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PropertyCheckingResult;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceReduction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessWitness;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic.SymbolicStateSpace;
 
 public class WFNetProperties extends NetCheckingProperties {
 
@@ -19,6 +22,9 @@ public class WFNetProperties extends NetCheckingProperties {
 	public PropertyCheckingResult isBounded = PropertyCheckingResult.UNKNOWN;
 	public InOutPlaces inOutPlaces = null;
 	public AbstractMarkingGraph markingGraph = null;
+	public SoundnessWitness witness = null;
+	public StateSpaceReduction reduction = StateSpaceReduction.NONE;
+	public SymbolicStateSpace<?> symbolicStateSpace = null;
 	
 	public boolean isWFNet(){
 		return exception == null;
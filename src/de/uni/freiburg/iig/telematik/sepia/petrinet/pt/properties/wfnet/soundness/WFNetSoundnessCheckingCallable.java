@@ -3,24 +3,36 @@ package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.soundne
 import java.util.HashSet;
 import java.util.Set;
 
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
 import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphState;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PNProperties;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PropertyCheckingResult;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessCheckGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessCheckResult;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.CoverabilityGraph;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.ThreadedBoundednessChecker;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckCallableGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckResult;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.dead.DeadTransitionCheckingCallable;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallable;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallableGenerator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MarkingGraphException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceReduction;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ThreadedMGCalculator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.OnTheFlySoundnessChecker;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessViolationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessWitness;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic.SymbolicStateSpace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.WFNetException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.WFNetProperties;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.structure.WFNetStructureCheckingCallable;
@@ -71,11 +83,30 @@ public class WFNetSoundnessCheckingCallable<P extends AbstractPTPlace<F>,
 				throw new InterruptedException();
 			}
 			
+			if(getGenerator().isOnTheFly() && getGenerator().getMarkingGraph() == null){
+				if(getGenerator().isCheckBoundedness()){
+					checkBoundednessOnCoverabilityGraph(result);
+				}
+				checkSoundnessOnTheFly(result);
+				result.isSoundWFNet = PropertyCheckingResult.TRUE;
+				return result;
+			}
+			
+			if(getGenerator().isSymbolic() && getGenerator().getMarkingGraph() == null && checkSoundnessSymbolically(result)){
+				result.isSoundWFNet = PropertyCheckingResult.TRUE;
+				return result;
+			}
+			
+			boolean reduced = getGenerator().getReduction() != StateSpaceReduction.NONE && getGenerator().getMarkingGraph() == null;
 			if(getGenerator().isCheckBoundedness()){
 				if(getGenerator().getMarkingGraph() != null){
 					result.isBounded = PropertyCheckingResult.TRUE;
+				} else if(reduced){
+					// 不保留完整的标识图，以便先在约简的状态空间上寻找反例
+					checkBoundednessOnCoverabilityGraph(result);
 				} else {
 					BoundednessCheckGenerator<P,T,F,M,Integer> generator = new BoundednessCheckGenerator<P,T,F,M,Integer>(getGenerator().getPetriNet());
+					generator.setExplorationBudget(getGenerator().getExplorationBudget());
 					ThreadedBoundednessChecker<P,T,F,M,Integer> checker = new ThreadedBoundednessChecker<P,T,F,M,Integer>(generator);
 					checker.runCalculation();
 					
@@ -91,7 +122,7 @@ public class WFNetSoundnessCheckingCallable<P extends AbstractPTPlace<F>,
 						break;
 					case UNBOUNDED:
 						result.isBounded = PropertyCheckingResult.FALSE;
-						throw new WFNetException("Net is unbounded.", result);
+						throw new WFNetException("Net is unbounded." + (boundednessCheckResult.getUnboundedPlaces().isEmpty() ? "" : " Unbounded places: " + boundednessCheckResult.getUnboundedPlaces()), result);
 					default:
 						result.isBounded = PropertyCheckingResult.UNKNOWN;
 						throw new WFNetException("Unknown boundedness of net, calculation cancelled?.", result);
@@ -99,6 +130,9 @@ public class WFNetSoundnessCheckingCallable<P extends AbstractPTPlace<F>,
 					getGenerator().setMarkingGraph(boundednessCheckResult.getMarkingGraph());
 				}
 			}
+			if(reduced){
+				checkDeadMarkingsReduced(result);
+			}
 			result.markingGraph = getGenerator().getMarkingGraph();
 			
 			if (Thread.currentThread().isInterrupted()) {
@@ -133,7 +167,11 @@ public class WFNetSoundnessCheckingCallable<P extends AbstractPTPlace<F>,
 				throw new WFNetException("Exception during dead transition check.", e, result);
 			}
 			
-			result.noDeadTransitions = deadTransitionCheckResult.existDeadTransitions() ? PropertyCheckingResult.FALSE : PropertyCheckingResult.TRUE;
+			if(deadTransitionCheckResult.existDeadTransitions()){
+				result.noDeadTransitions = PropertyCheckingResult.FALSE;
+				throw new WFNetException("Net contains dead transitions: " + deadTransitionCheckResult.getDeadTransitions(), result);
+			}
+			result.noDeadTransitions = PropertyCheckingResult.TRUE;
 			
 			result.isSoundWFNet = PropertyCheckingResult.TRUE;
 
@@ -145,12 +183,141 @@ public class WFNetSoundnessCheckingCallable<P extends AbstractPTPlace<F>,
 		return result;
 	}
 	
+	/**
+	 * 在可覆盖图上检查有界性（见{@link CoverabilityGraph}）<br>
+	 * Used before the on-the-fly check and the check on a reduced state space, which do not need the marking graph of the net.
+	 */
+	private void checkBoundednessOnCoverabilityGraph(WFNetProperties result) throws WFNetException, InterruptedException {
+		CoverabilityGraph coverabilityGraph = null;
+		try {
+			coverabilityGraph = CoverabilityGraph.build(getGenerator().getPetriNet(), getGenerator().getExplorationBudget());
+		} catch(StateSpaceException e){
+			result.isBounded = PropertyCheckingResult.UNKNOWN;
+			result.isSoundWFNet = PropertyCheckingResult.UNKNOWN;
+			throw new WFNetException("Exploration budget exceeded during boundedness check.", e, result);
+		} catch(BoundednessException e){
+			throw new WFNetException("Exception during boundedness check.", e, result);
+		}
+		if(!coverabilityGraph.isBounded()){
+			result.isBounded = PropertyCheckingResult.FALSE;
+			throw new WFNetException("Net is unbounded. Unbounded places: " + coverabilityGraph.getUnboundedPlaces(), result);
+		}
+		result.isBounded = PropertyCheckingResult.TRUE;
+	}
+	
+	/**
+	 * 即时检查可靠性，不构建标识图（见{@link OnTheFlySoundnessChecker}）<br>
+	 * A counterexample is stored in the result properties.
+	 */
+	private void checkSoundnessOnTheFly(WFNetProperties result) throws WFNetException, InterruptedException {
+		String outputPlaceName = result.inOutPlaces.getOutput();
+		OnTheFlySoundnessChecker<P,T,F,M,Integer> checker = new OnTheFlySoundnessChecker<P,T,F,M,Integer>(getGenerator().getPetriNet(), marking -> checkEndStateProperty(marking, outputPlaceName), getGenerator().getExplorationBudget());
+		try {
+			checker.check();
+		} catch(SoundnessViolationException e){
+			result.witness = e.getWitness();
+			result.exception = e;
+			if(e.getWitness().getViolation() == SoundnessWitness.Violation.DEAD_TRANSITIONS){
+				result.isBounded = PropertyCheckingResult.TRUE;
+				result.optionToCompleteAndProperCompletion = PropertyCheckingResult.TRUE;
+				result.noDeadTransitions = PropertyCheckingResult.FALSE;
+				throw new WFNetException("Exception during dead transition check.", e, result);
+			}
+			result.optionToCompleteAndProperCompletion = PropertyCheckingResult.FALSE;
+			throw new WFNetException("Exception during option to complete and proper completion check.", e, result);
+		} catch(StateSpaceException e){
+			// 无法区分无界的网与超出预算的有界网
+			if(result.isBounded != PropertyCheckingResult.TRUE)
+				result.isBounded = PropertyCheckingResult.UNKNOWN;
+			result.isSoundWFNet = PropertyCheckingResult.UNKNOWN;
+			throw new WFNetException("Exploration budget exceeded during on-the-fly soundness check.", e, result);
+		} catch(PNException e){
+			throw new WFNetException("Exception during on-the-fly soundness check.", e, result);
+		}
+		// 状态空间已完全探索，因此网是有界的
+		result.isBounded = PropertyCheckingResult.TRUE;
+		result.optionToCompleteAndProperCompletion = PropertyCheckingResult.TRUE;
+		result.noDeadTransitions = PropertyCheckingResult.TRUE;
+	}
+	
+	/**
+	 * 在符号状态空间上检查可靠性（见{@link SymbolicStateSpace}）<br>
+	 * A counterexample is stored in the result properties.
+	 * @return <code>false</code> if the net cannot be encoded or is not safe, i.e. soundness has to be checked on the marking graph.
+	 */
+	private boolean checkSoundnessSymbolically(WFNetProperties result) throws WFNetException, InterruptedException {
+		SymbolicStateSpace<M> stateSpace = null;
+		try {
+			stateSpace = new SymbolicStateSpace<M>(getGenerator().getPetriNet());
+		} catch(PNValidationException e){
+			// Arc weights or initial marking cannot be encoded
+			return false;
+		}
+		try {
+			stateSpace.explore();
+		} catch(PNValidationException e){
+			result.safeness = PropertyCheckingResult.FALSE;
+			return false;
+		}
+		result.symbolicStateSpace = stateSpace;
+		result.safeness = PropertyCheckingResult.TRUE;
+		result.isBounded = PropertyCheckingResult.TRUE;
+		try {
+			stateSpace.checkSoundness(result.inOutPlaces.getOutput(), getGenerator().containsPropertyFlag(WFNetSoundnessPropertyFlag.ACCEPT_REMAINING_TOKENS));
+		} catch(SoundnessViolationException e){
+			result.witness = e.getWitness();
+			result.exception = e;
+			if(e.getWitness().getViolation() == SoundnessWitness.Violation.DEAD_TRANSITIONS){
+				result.optionToCompleteAndProperCompletion = PropertyCheckingResult.TRUE;
+				result.noDeadTransitions = PropertyCheckingResult.FALSE;
+				throw new WFNetException("Net contains dead transitions: " + e.getWitness().getDeadTransitions(), e, result);
+			}
+			result.optionToCompleteAndProperCompletion = PropertyCheckingResult.FALSE;
+			throw new WFNetException("Exception during option to complete and proper completion check.", e, result);
+		}
+		result.optionToCompleteAndProperCompletion = PropertyCheckingResult.TRUE;
+		result.noDeadTransitions = PropertyCheckingResult.TRUE;
+		return true;
+	}
+	
+	/**
+	 * 在约简的标识图上检查死标识<br>
+	 * The reduction preserves all reachable dead markings,
+	 * i.e. an improper dead marking of the reduced marking graph proves that the net is not sound.
+	 * Otherwise, the soundness properties are checked on the complete marking graph.
+	 */
+	private void checkDeadMarkingsReduced(WFNetProperties result) throws WFNetException, InterruptedException {
+		MGConstructorCallableGenerator<P,T,F,M,Integer> generator = new MGConstructorCallableGenerator<P,T,F,M,Integer>(getGenerator().getPetriNet());
+		generator.setExplorationBudget(getGenerator().getExplorationBudget());
+		generator.setReduction(getGenerator().getReduction());
+		AbstractMarkingGraph<M,Integer,?,?> reducedMarkingGraph = null;
+		try {
+			reducedMarkingGraph = new MGConstructorCallable<P,T,F,M,Integer>(generator).callRoutine();
+		} catch (MarkingGraphException e) {
+			// Leave the decision to the checks on the complete marking graph
+			return;
+		}
+		for (AbstractMarkingGraphState<M,Integer> drainVertex : reducedMarkingGraph.getDrains()) {
+			try {
+				checkEndStateProperty(drainVertex.getElement(), result.inOutPlaces.getOutput());
+			} catch (PNValidationException e) {
+				result.optionToCompleteAndProperCompletion = PropertyCheckingResult.FALSE;
+				result.markingGraph = reducedMarkingGraph;
+				result.reduction = reducedMarkingGraph.getReduction();
+				result.exception = e;
+				throw new WFNetException("Exception during option to complete and proper completion check.", e, result);
+			}
+		}
+	}
+	
 	private void checkValidCompletion(String outputPlaceName) throws PNValidationException, InterruptedException {
 		if (!getGenerator().getPetriNet().containsPlace(outputPlaceName))
 			throw new PNValidationException("CPN does not contain a place with name \"" + outputPlaceName + "\"");
 
 		if(getGenerator().getMarkingGraph() == null){
-			ThreadedMGCalculator<P,T,F,M,Integer> checker = new ThreadedMGCalculator<P,T,F,M,Integer>(getGenerator().getPetriNet());
+			MGConstructorCallableGenerator<P,T,F,M,Integer> generator = new MGConstructorCallableGenerator<P,T,F,M,Integer>(getGenerator().getPetriNet());
+			generator.setExplorationBudget(getGenerator().getExplorationBudget());
+			ThreadedMGCalculator<P,T,F,M,Integer> checker = new ThreadedMGCalculator<P,T,F,M,Integer>(generator);
 			checker.runCalculation();
 			try{
 				getGenerator().setMarkingGraph(checker.getMarkingGraph());
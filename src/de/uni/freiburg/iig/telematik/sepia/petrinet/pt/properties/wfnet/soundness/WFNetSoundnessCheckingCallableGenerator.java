@@ -6,12 +6,15 @@ import java.util.Set;
 
 import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceReduction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.OnTheFlySoundnessChecker;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractCallableGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic.SymbolicStateSpace;
 
 public class WFNetSoundnessCheckingCallableGenerator<P extends AbstractPTPlace<F>,
 										  			 T extends AbstractPTTransition<F>, 
@@ -20,9 +23,14 @@ public class WFNetSoundnessCheckingCallableGenerator<P extends AbstractPTPlace<F
 
 	public static final boolean DEFAULT_CHECK_WFNET_STRUCTURE = true;
 	public static final boolean DEFAULT_CHECK_BOUNDEDNESS = true;
+	public static final boolean DEFAULT_ON_THE_FLY = false;
+	public static final boolean DEFAULT_SYMBOLIC = false;
 	
 	private boolean checkWFNetStructure = DEFAULT_CHECK_WFNET_STRUCTURE;
 	private boolean checkBoundedness = DEFAULT_CHECK_BOUNDEDNESS;
+	private boolean onTheFly = DEFAULT_ON_THE_FLY;
+	private boolean symbolic = DEFAULT_SYMBOLIC;
+	private StateSpaceReduction reduction = StateSpaceReduction.NONE;
 	
 	private Set<WFNetSoundnessPropertyFlag> propertyFlags = new HashSet<WFNetSoundnessPropertyFlag>();
 	private AbstractMarkingGraph<M,Integer,?,?> markingGraph = null;
@@ -52,6 +60,64 @@ public class WFNetSoundnessCheckingCallableGenerator<P extends AbstractPTPlace<F
 		this.checkBoundedness = checkBoundedness;
 	}
 	
+	/**
+	 * Indicates if soundness is checked on-the-fly (see {@link OnTheFlySoundnessChecker}) instead of on the marking graph.
+	 */
+	public boolean isOnTheFly() {
+		return onTheFly;
+	}
+	
+	/**
+	 * Sets if soundness is checked on-the-fly (see {@link OnTheFlySoundnessChecker}) instead of on the marking graph.<br>
+	 * The on-the-fly check stops at the first counterexample, but does not provide a marking graph.
+	 * It is only used if no marking graph is set.
+	 * If boundedness is checked, it is decided on the coverability graph before.
+	 * @param onTheFly 是否即时检查
+	 */
+	public void setOnTheFly(boolean onTheFly) {
+		this.onTheFly = onTheFly;
+	}
+	
+	/**
+	 * Indicates if soundness is checked on the symbolic state space (see {@link SymbolicStateSpace}) instead of on the marking graph.
+	 */
+	public boolean isSymbolic() {
+		return symbolic;
+	}
+	
+	/**
+	 * Sets if soundness is checked on the symbolic state space (see {@link SymbolicStateSpace}) instead of on the marking graph.<br>
+	 * The symbolic check handles safe nets with state spaces far too large for the marking graph.
+	 * If the net turns out not to be safe, soundness is checked on the marking graph.
+	 * It is only used if no marking graph is set and the on-the-fly check is disabled.
+	 * @param symbolic 是否符号检查
+	 */
+	public void setSymbolic(boolean symbolic) {
+		this.symbolic = symbolic;
+	}
+	
+	/**
+	 * Returns the reduction used to search for improper dead markings before the complete marking graph is built.<br>
+	 * Default: {@link StateSpaceReduction#NONE}.
+	 */
+	public StateSpaceReduction getReduction() {
+		return reduction;
+	}
+	
+	/**
+	 * Sets the reduction used to search for improper dead markings before the complete marking graph is built.<br>
+	 * Reductions preserving dead markings (e.g. {@link StateSpaceReduction#STUBBORN_SETS}) reveal improperly terminating nets
+	 * without exploring all interleavings of concurrent transitions.
+	 * The remaining soundness properties still require the complete marking graph.<br>
+	 * The reduction is only used if no marking graph is set.
+	 * If boundedness is checked, it is decided on the coverability graph before, without keeping the marking graph.
+	 * @param reduction 状态空间约简
+	 */
+	public void setReduction(StateSpaceReduction reduction) {
+		Validate.notNull(reduction);
+		this.reduction = reduction;
+	}
+	
 	public void addPropertyFlag(WFNetSoundnessPropertyFlag flag){
 		Validate.notNull(flag);
 		propertyFlags.add(flag);
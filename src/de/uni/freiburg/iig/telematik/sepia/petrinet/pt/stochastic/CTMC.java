@@ -0,0 +1,611 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationMonitor;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.MarkingKey;
+
+/**
+ * 连续时间马尔可夫链（continuous-time Markov chain）<br>
+ * CTMC of the tangible reachable markings of a {@link GSPN}.
+ * Vanishing markings are eliminated during generation:
+ * a timed transition leading to a vanishing marking is split into the tangible markings reachable by immediate transitions,
+ * according to the weights of the immediate transitions.<br>
+ * <br>
+ * The infinitesimal generator is stored as sparse matrix (compressed rows for outgoing and incoming rates).
+ * Steady-state probabilities are computed by Gauss-Seidel iteration on the closed classes of states,
+ * transient probabilities by uniformisation.
+ * Tangible markings without enabled timed transitions are absorbing.
+ *
+ * @param <M>  Marking类型
+ */
+public class CTMC<M extends AbstractPTMarking> {
+
+	/** 缺省收敛容差 */
+	public static final double DEFAULT_TOLERANCE = 1e-10;
+	/** 缺省最大迭代次数 */
+	public static final int DEFAULT_MAX_ITERATIONS = 100000;
+
+	private GSPN<M> gspn = null;
+	private CompiledPTNet<M> compiledNet = null;
+
+	private List<int[]> markings = new ArrayList<int[]>();
+	private double[] initialDistribution = null;
+
+	// 非对角元素（按行压缩）
+	private int[] rowStarts = null;
+	private int[] columns = null;
+	private double[] rates = null;
+	// 按列压缩的非对角元素（入边）
+	private int[] columnStarts = null;
+	private int[] rows = null;
+	private double[] incomingRates = null;
+	/** 离开每个状态的总速率（不含自环） */
+	private double[] exitRates = null;
+
+	/** 每个状态中各变迁的发生速率（含经由消失标识的瞬时变迁） */
+	private int[][] firingTransitions = null;
+	private double[][] firingRates = null;
+
+	// 生成过程中使用
+	private Map<MarkingKey, Integer> stateIndices = new HashMap<MarkingKey, Integer>();
+	private Map<MarkingKey, Resolution> resolutions = new HashMap<MarkingKey, Resolution>();
+	private ArrayDeque<Integer> frontier = new ArrayDeque<Integer>();
+
+	CTMC(GSPN<M> gspn, ExplorationBudget budget) throws GSPNException, StateSpaceException {
+		this.gspn = gspn;
+		this.compiledNet = gspn.getCompiledNet();
+		ExplorationMonitor monitor = new ExplorationMonitor(budget);
+
+		int[] initialMarking = compiledNet.getInitialMarking();
+		Map<Integer, Double> initialStates = new TreeMap<Integer, Double>();
+		if(gspn.isVanishing(initialMarking)){
+			initialStates.putAll(resolve(initialMarking, new HashSet<MarkingKey>()).targets);
+		} else {
+			initialStates.put(getStateIndex(initialMarking), 1.0);
+		}
+
+		List<Map<Integer, Double>> rowList = new ArrayList<Map<Integer, Double>>();
+		List<Map<Integer, Double>> firingList = new ArrayList<Map<Integer, Double>>();
+		long edges = 0;
+		while(!frontier.isEmpty()){
+			int state = frontier.poll();
+			int[] marking = markings.get(state);
+			Map<Integer, Double> row = new TreeMap<Integer, Double>();
+			Map<Integer, Double> firings = new TreeMap<Integer, Double>();
+			for(int t=0; t<compiledNet.getTransitionCount(); t++){
+				if(gspn.isImmediate(t) || !compiledNet.isEnabled(marking, t))
+					continue;
+				double rate = gspn.getRate(t);
+				add(firings, t, rate);
+				int[] successor = compiledNet.fire(marking, t);
+				if(gspn.isVanishing(successor)){
+					Resolution resolution = resolve(successor, new HashSet<MarkingKey>());
+					for(Integer target: resolution.targets.keySet()){
+						if(target != state)
+							add(row, target, rate * resolution.targets.get(target));
+					}
+					for(Integer immediateTransition: resolution.firings.keySet()){
+						add(firings, immediateTransition, rate * resolution.firings.get(immediateTransition));
+					}
+				} else {
+					int target = getStateIndex(successor);
+					if(target != state)
+						add(row, target, rate);
+				}
+			}
+			edges += row.size();
+			setValue(rowList, state, row);
+			setValue(firingList, state, firings);
+			monitor.check(markings.size(), edges, frontier.size());
+		}
+		stateIndices = null;
+		resolutions = null;
+		frontier = null;
+
+		int stateCount = markings.size();
+		initialDistribution = new double[stateCount];
+		for(Integer state: initialStates.keySet()){
+			initialDistribution[state] = initialStates.get(state);
+		}
+		compress(rowList, (int) edges);
+		firingTransitions = new int[stateCount][];
+		firingRates = new double[stateCount][];
+		for(int s=0; s<stateCount; s++){
+			Map<Integer, Double> firings = firingList.get(s);
+			firingTransitions[s] = new int[firings.size()];
+			firingRates[s] = new double[firings.size()];
+			int i = 0;
+			for(Integer transition: firings.keySet()){
+				firingTransitions[s][i] = transition;
+				firingRates[s][i++] = firings.get(transition);
+			}
+		}
+	}
+
+	private int getStateIndex(int[] marking) {
+		MarkingKey key = new MarkingKey(marking);
+		Integer index = stateIndices.get(key);
+		if(index == null){
+			index = markings.size();
+			markings.add(marking);
+			stateIndices.put(key, index);
+			frontier.add(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Computes the probabilities of the tangible markings reached from the given vanishing marking,
+	 * and the expected number of firings of each immediate transition on the way.
+	 */
+	private Resolution resolve(int[] marking, Set<MarkingKey> path) throws GSPNException {
+		MarkingKey key = new MarkingKey(marking);
+		Resolution resolution = resolutions.get(key);
+		if(resolution != null)
+			return resolution;
+		if(!path.add(key))
+			throw new GSPNException("Cannot eliminate vanishing markings: cycle of immediate transitions in marking " + compiledNet.toMarking(marking));
+
+		double weightSum = 0.0;
+		for(int t=0; t<compiledNet.getTransitionCount(); t++){
+			if(gspn.isImmediate(t) && compiledNet.isEnabled(marking, t))
+				weightSum += gspn.getWeight(t);
+		}
+		resolution = new Resolution();
+		for(int t=0; t<compiledNet.getTransitionCount(); t++){
+			if(!gspn.isImmediate(t) || !compiledNet.isEnabled(marking, t))
+				continue;
+			double probability = gspn.getWeight(t) / weightSum;
+			add(resolution.firings, t, probability);
+			int[] successor = compiledNet.fire(marking, t);
+			if(gspn.isVanishing(successor)){
+				Resolution successorResolution = resolve(successor, path);
+				for(Integer target: successorResolution.targets.keySet()){
+					add(resolution.targets, target, probability * successorResolution.targets.get(target));
+				}
+				for(Integer transition: successorResolution.firings.keySet()){
+					add(resolution.firings, transition, probability * successorResolution.firings.get(transition));
+				}
+			} else {
+				add(resolution.targets, getStateIndex(successor), probability);
+			}
+		}
+		path.remove(key);
+		resolutions.put(key, resolution);
+		return resolution;
+	}
+
+	private void compress(List<Map<Integer, Double>> rowList, int edges) {
+		int stateCount = markings.size();
+		rowStarts = new int[stateCount + 1];
+		columns = new int[edges];
+		rates = new double[edges];
+		exitRates = new double[stateCount];
+		int[] incomingCounts = new int[stateCount];
+		int e = 0;
+		for(int s=0; s<stateCount; s++){
+			rowStarts[s] = e;
+			Map<Integer, Double> row = rowList.get(s);
+			for(Integer target: row.keySet()){
+				columns[e] = target;
+				rates[e] = row.get(target);
+				exitRates[s] += rates[e];
+				incomingCounts[target]++;
+				e++;
+			}
+		}
+		rowStarts[stateCount] = e;
+
+		columnStarts = new int[stateCount + 1];
+		for(int s=0; s<stateCount; s++){
+			columnStarts[s + 1] = columnStarts[s] + incomingCounts[s];
+		}
+		rows = new int[edges];
+		incomingRates = new double[edges];
+		int[] positions = Arrays.copyOf(columnStarts, stateCount);
+		for(int s=0; s<stateCount; s++){
+			for(int i=rowStarts[s]; i<rowStarts[s + 1]; i++){
+				int position = positions[columns[i]]++;
+				rows[position] = s;
+				incomingRates[position] = rates[i];
+			}
+		}
+	}
+
+	//------- Structure ----------------------------------------------------------------------------
+
+	public GSPN<M> getGSPN() {
+		return gspn;
+	}
+
+	/**
+	 * Returns the number of tangible markings.
+	 */
+	public int getStateCount() {
+		return markings.size();
+	}
+
+	/**
+	 * Returns the number of non-zero off-diagonal entries of the generator matrix.
+	 */
+	public int getTransitionCount() {
+		return columns.length;
+	}
+
+	public M getMarking(int state) {
+		return compiledNet.toMarking(markings.get(state));
+	}
+
+	/**
+	 * Returns the probability distribution over the tangible markings at time 0.
+	 */
+	public double[] getInitialDistribution() {
+		return Arrays.copyOf(initialDistribution, initialDistribution.length);
+	}
+
+	/**
+	 * Returns the rate of the transition from one tangible marking to another.
+	 */
+	public double getRate(int fromState, int toState) {
+		int i = Arrays.binarySearch(columns, rowStarts[fromState], rowStarts[fromState + 1], toState);
+		return i < 0 ? 0.0 : rates[i];
+	}
+
+	public double getExitRate(int state) {
+		return exitRates[state];
+	}
+
+	public boolean isAbsorbing(int state) {
+		return exitRates[state] == 0.0;
+	}
+
+	//------- Solution -----------------------------------------------------------------------------
+
+	/**
+	 * Computes the steady-state probabilities with tolerance {@value #DEFAULT_TOLERANCE}.
+	 * @see #solveSteadyState(double, int)
+	 */
+	public double[] solveSteadyState() throws GSPNException {
+		return solveSteadyState(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+	}
+
+	/**
+	 * Computes the steady-state probabilities of the tangible markings.<br>
+	 * If the chain is irreducible, the balance equations are solved by Gauss-Seidel iteration.
+	 * Otherwise, the chain is decomposed into strongly connected components.
+	 * The steady state is the limiting distribution starting in the initial distribution:
+	 * the probability to end in each closed class (e.g. an absorbing state) is computed from the expected numbers of visits
+	 * of the transient states, and is distributed according to the solution of the balance equations within the class.
+	 * Transient states have probability 0.
+	 * @param tolerance 迭代间最大变化量
+	 * @param maxIterations 最大迭代次数
+	 * @throws GSPNException If the iteration does not converge.
+	 */
+	public double[] solveSteadyState(double tolerance, int maxIterations) throws GSPNException {
+		Validate.bigger(tolerance, 0.0);
+		Validate.bigger(maxIterations, 0);
+		int stateCount = markings.size();
+		int[] components = getComponents();
+		int componentCount = 0;
+		for(int s=0; s<stateCount; s++){
+			componentCount = Math.max(componentCount, components[s] + 1);
+		}
+		// 按分量分组的状态及其在分量中的位置
+		int[] memberStarts = new int[componentCount + 1];
+		for(int s=0; s<stateCount; s++){
+			memberStarts[components[s] + 1]++;
+		}
+		for(int c=0; c<componentCount; c++){
+			memberStarts[c + 1] += memberStarts[c];
+		}
+		int[] members = new int[stateCount];
+		int[] positions = new int[stateCount];
+		int[] fill = Arrays.copyOf(memberStarts, componentCount);
+		for(int s=0; s<stateCount; s++){
+			positions[s] = fill[components[s]] - memberStarts[components[s]];
+			members[fill[components[s]]++] = s;
+		}
+		if(componentCount == 1)
+			return solveBalanceEquations(members, 0, stateCount, positions, tolerance, maxIterations);
+
+		boolean[] closed = new boolean[componentCount];
+		Arrays.fill(closed, true);
+		for(int s=0; s<stateCount; s++){
+			for(int i=rowStarts[s]; i<rowStarts[s + 1]; i++){
+				if(components[columns[i]] != components[s])
+					closed[components[s]] = false;
+			}
+		}
+		// 分量按逆拓扑序编号，因此从编号最大的分量开始向后传递概率
+		double[] inflow = getInitialDistribution();
+		double[] probabilities = new double[stateCount];
+		for(int c=componentCount-1; c>=0; c--){
+			int from = memberStarts[c];
+			int to = memberStarts[c + 1];
+			if(closed[c]){
+				double mass = 0.0;
+				for(int m=from; m<to; m++){
+					mass += inflow[members[m]];
+				}
+				if(mass == 0.0)
+					continue;
+				double[] classProbabilities = solveBalanceEquations(members, from, to, positions, tolerance, maxIterations);
+				for(int m=from; m<to; m++){
+					probabilities[members[m]] = mass * classProbabilities[m - from];
+				}
+				continue;
+			}
+			double[] visits = solveVisits(members, from, to, positions, inflow, tolerance, maxIterations);
+			for(int m=from; m<to; m++){
+				int state = members[m];
+				for(int i=rowStarts[state]; i<rowStarts[state + 1]; i++){
+					if(components[columns[i]] != c)
+						inflow[columns[i]] += visits[m - from] * rates[i] / exitRates[state];
+				}
+			}
+		}
+		return probabilities;
+	}
+
+	/**
+	 * Solves the balance equations of the closed class <code>members[from..to-1]</code> by Gauss-Seidel iteration.
+	 * @return 类中状态的概率（按members中的顺序）
+	 */
+	private double[] solveBalanceEquations(int[] members, int from, int to, int[] positions, double tolerance, int maxIterations) throws GSPNException {
+		int size = to - from;
+		double[] probabilities = new double[size];
+		Arrays.fill(probabilities, 1.0 / size);
+		if(size == 1)
+			return probabilities;
+		double[] previous = new double[size];
+		for(int iteration=0; iteration<maxIterations; iteration++){
+			System.arraycopy(probabilities, 0, previous, 0, size);
+			double sum = 0.0;
+			for(int m=0; m<size; m++){
+				int state = members[from + m];
+				double inflow = 0.0;
+				for(int i=columnStarts[state]; i<columnStarts[state + 1]; i++){
+					// 闭类只有来自类中和类外暂态的入边，后者不影响类内的平衡
+					if(isMember(members, from, to, positions, rows[i]))
+						inflow += probabilities[positions[rows[i]]] * incomingRates[i];
+				}
+				probabilities[m] = inflow / exitRates[state];
+				sum += probabilities[m];
+			}
+			double change = 0.0;
+			for(int m=0; m<size; m++){
+				probabilities[m] /= sum;
+				change = Math.max(change, Math.abs(probabilities[m] - previous[m]));
+			}
+			if(change <= tolerance)
+				return probabilities;
+		}
+		throw new GSPNException("Steady-state iteration did not converge within " + maxIterations + " iterations.");
+	}
+
+	/**
+	 * Computes the expected numbers of visits of the transient states <code>members[from..to-1]</code> by Gauss-Seidel iteration,
+	 * given the probabilities to enter the states from outside.
+	 * @return 期望访问次数（按members中的顺序）
+	 */
+	private double[] solveVisits(int[] members, int from, int to, int[] positions, double[] inflow, double tolerance, int maxIterations) throws GSPNException {
+		int size = to - from;
+		double[] visits = new double[size];
+		for(int m=0; m<size; m++){
+			visits[m] = inflow[members[from + m]];
+		}
+		if(size == 1)
+			return visits;
+		for(int iteration=0; iteration<maxIterations; iteration++){
+			double change = 0.0;
+			for(int m=0; m<size; m++){
+				int state = members[from + m];
+				double value = inflow[state];
+				for(int i=columnStarts[state]; i<columnStarts[state + 1]; i++){
+					if(isMember(members, from, to, positions, rows[i]))
+						value += visits[positions[rows[i]]] * incomingRates[i] / exitRates[rows[i]];
+				}
+				change = Math.max(change, Math.abs(value - visits[m]));
+				visits[m] = value;
+			}
+			if(change <= tolerance)
+				return visits;
+		}
+		throw new GSPNException("Iteration of expected visits did not converge within " + maxIterations + " iterations.");
+	}
+
+	private static boolean isMember(int[] members, int from, int to, int[] positions, int state) {
+		int m = from + positions[state];
+		return m < to && members[m] == state;
+	}
+
+	/**
+	 * Computes the strongly connected components of the state graph (iterative version of Tarjan's algorithm).
+	 * Components are numbered in reverse topological order, i.e. transitions only lead to components with smaller or equal numbers.
+	 * @return 每个状态所在分量的编号
+	 */
+	private int[] getComponents() {
+		int stateCount = markings.size();
+		int[] components = new int[stateCount];
+		int[] indices = new int[stateCount];
+		Arrays.fill(indices, -1);
+		int[] lowLinks = new int[stateCount];
+		boolean[] onStack = new boolean[stateCount];
+		int[] stack = new int[stateCount];
+		int stackSize = 0;
+		int[] callStack = new int[stateCount];
+		int[] edgePositions = new int[stateCount];
+		int nextIndex = 0;
+		int componentCount = 0;
+		for(int root=0; root<stateCount; root++){
+			if(indices[root] != -1)
+				continue;
+			int depth = 0;
+			callStack[0] = root;
+			indices[root] = lowLinks[root] = nextIndex++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			edgePositions[root] = rowStarts[root];
+			while(depth >= 0){
+				int state = callStack[depth];
+				if(edgePositions[state] < rowStarts[state + 1]){
+					int successor = columns[edgePositions[state]++];
+					if(indices[successor] == -1){
+						indices[successor] = lowLinks[successor] = nextIndex++;
+						stack[stackSize++] = successor;
+						onStack[successor] = true;
+						edgePositions[successor] = rowStarts[successor];
+						callStack[++depth] = successor;
+					} else if(onStack[successor]){
+						lowLinks[state] = Math.min(lowLinks[state], indices[successor]);
+					}
+					continue;
+				}
+				if(lowLinks[state] == indices[state]){
+					int member;
+					do {
+						member = stack[--stackSize];
+						onStack[member] = false;
+						components[member] = componentCount;
+					} while(member != state);
+					componentCount++;
+				}
+				if(--depth >= 0)
+					lowLinks[callStack[depth]] = Math.min(lowLinks[callStack[depth]], lowLinks[state]);
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Computes the probabilities of the tangible markings at the given time by uniformisation,
+	 * starting in the initial distribution.
+	 * @param time 时间点
+	 * @param epsilon Upper bound for the truncation error of the Poisson series.
+	 */
+	public double[] solveTransient(double time, double epsilon) {
+		Validate.notNegative(time);
+		Validate.bigger(epsilon, 0.0);
+		double uniformisationRate = getUniformisationRate();
+		double[] probabilities = getInitialDistribution();
+		if(uniformisationRate == 0.0 || time == 0.0)
+			return probabilities;
+		double q = uniformisationRate * time;
+		// Poisson权重在对数空间中计算，避免下溢
+		double logWeight = -q;
+		double weight = Math.exp(logWeight);
+		double cumulativeWeight = weight;
+		double[] result = new double[probabilities.length];
+		add(result, probabilities, weight);
+		long maxSteps = (long) Math.ceil(q + 10 * Math.sqrt(q) + 50);
+		for(int k=1; cumulativeWeight < 1.0 - epsilon && k <= maxSteps; k++){
+			probabilities = multiply(probabilities, uniformisationRate);
+			logWeight += Math.log(q) - Math.log(k);
+			weight = Math.exp(logWeight);
+			cumulativeWeight += weight;
+			add(result, probabilities, weight);
+		}
+		return result;
+	}
+
+	private double getUniformisationRate() {
+		double maxRate = 0.0;
+		for(double exitRate: exitRates){
+			maxRate = Math.max(maxRate, exitRate);
+		}
+		return maxRate;
+	}
+
+	/**
+	 * Multiplies the given distribution with the transition matrix of the uniformised chain.
+	 */
+	private double[] multiply(double[] probabilities, double uniformisationRate) {
+		double[] result = new double[probabilities.length];
+		for(int s=0; s<probabilities.length; s++){
+			result[s] = probabilities[s] * (1.0 - exitRates[s] / uniformisationRate);
+			for(int i=columnStarts[s]; i<columnStarts[s + 1]; i++){
+				result[s] += probabilities[rows[i]] * incomingRates[i] / uniformisationRate;
+			}
+		}
+		return result;
+	}
+
+	private static void add(double[] result, double[] values, double factor) {
+		for(int i=0; i<result.length; i++){
+			result[i] += values[i] * factor;
+		}
+	}
+
+	//------- Measures -----------------------------------------------------------------------------
+
+	/**
+	 * Computes throughput, enabling probabilities of transitions and token measures of places for the given distribution,
+	 * e.g. the result of {@link #solveSteadyState()} or {@link #solveTransient(double, double)}.
+	 * @param distribution 可见标识上的概率分布
+	 */
+	public GSPNMeasures getMeasures(double[] distribution) {
+		Validate.notNull(distribution);
+		if(distribution.length != markings.size())
+			throw new ParameterException("Distribution does not match the number of states.");
+		double[] throughput = new double[compiledNet.getTransitionCount()];
+		double[] enablingProbabilities = new double[compiledNet.getTransitionCount()];
+		double[] meanTokens = new double[compiledNet.getPlaceCount()];
+		double[] utilisation = new double[compiledNet.getPlaceCount()];
+		for(int s=0; s<distribution.length; s++){
+			double probability = distribution[s];
+			for(int i=0; i<firingTransitions[s].length; i++){
+				int transition = firingTransitions[s][i];
+				throughput[transition] += probability * firingRates[s][i];
+				if(!gspn.isImmediate(transition))
+					enablingProbabilities[transition] += probability;
+			}
+			int[] marking = markings.get(s);
+			for(int p=0; p<marking.length; p++){
+				meanTokens[p] += probability * marking[p];
+				if(marking[p] > 0)
+					utilisation[p] += probability;
+			}
+		}
+		return new GSPNMeasures(compiledNet, throughput, enablingProbabilities, meanTokens, utilisation);
+	}
+
+	//------- Helpers ------------------------------------------------------------------------------
+
+	private static void add(Map<Integer, Double> values, int key, double value) {
+		Double oldValue = values.get(key);
+		values.put(key, oldValue == null ? value : oldValue + value);
+	}
+
+	private static <V> void setValue(List<V> values, int index, V value) {
+		while(values.size() <= index){
+			values.add(null);
+		}
+		values.set(index, value);
+	}
+
+	/**
+	 * 消失标识的消解结果
+	 */
+	private static class Resolution {
+		/** 可达的可见标识及其概率 */
+		private Map<Integer, Double> targets = new TreeMap<Integer, Double>();
+		/** 瞬时变迁的期望发生次数 */
+		private Map<Integer, Double> firings = new TreeMap<Integer, Double>();
+	}
+
+}
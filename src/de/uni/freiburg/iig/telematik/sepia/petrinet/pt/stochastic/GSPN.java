@@ -0,0 +1,158 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic;
+
+import java.util.Arrays;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+
+/**
+ * 广义随机Petri网（generalized stochastic Petri net）<br>
+ * Adds GSPN semantics to a P/T-net:
+ * <ul>
+ * <li>timed transitions fire after an exponentially distributed delay with their rate,
+ * enabled timed transitions race against each other,</li>
+ * <li>immediate transitions fire without delay and have priority over timed transitions.
+ * Conflicts between enabled immediate transitions are resolved according to their weights.</li>
+ * </ul>
+ * Transitions are timed with rate {@value #DEFAULT_RATE} unless specified otherwise.
+ * Markings in which an immediate transition is enabled are vanishing, all other markings are tangible.<br>
+ * <br>
+ * The GSPN works on a {@link CompiledPTNet} of the net, so structural changes of the net after its creation are not reflected.
+ *
+ * @param <M>  Marking类型
+ * @see CTMC
+ * @see GSPNSimulator
+ */
+public class GSPN<M extends AbstractPTMarking> {
+
+	/** 缺省发生率 */
+	public static final double DEFAULT_RATE = 1.0;
+
+	private CompiledPTNet<M> compiledNet = null;
+
+	/** 时间变迁的发生率 */
+	private double[] rates = null;
+	/** 瞬时变迁的权重 */
+	private double[] weights = null;
+	private boolean[] immediate = null;
+
+	public GSPN(AbstractPTNet<?,?,?,M> net) {
+		Validate.notNull(net);
+		compiledNet = new CompiledPTNet<M>(net);
+		rates = new double[compiledNet.getTransitionCount()];
+		weights = new double[compiledNet.getTransitionCount()];
+		immediate = new boolean[compiledNet.getTransitionCount()];
+		Arrays.fill(rates, DEFAULT_RATE);
+	}
+
+	public CompiledPTNet<M> getCompiledNet() {
+		return compiledNet;
+	}
+
+	/**
+	 * Makes the given transition a timed transition with the given rate.
+	 * @param transitionName 变迁名称
+	 * @param rate 发生率（平均延迟的倒数）
+	 * @throws ParameterException If the net does not contain the transition or the rate is not positive.
+	 */
+	public void setRate(String transitionName, double rate) {
+		Validate.bigger(rate, 0.0);
+		int transition = getTransition(transitionName);
+		rates[transition] = rate;
+		weights[transition] = 0.0;
+		immediate[transition] = false;
+	}
+
+	/**
+	 * Makes the given transition an immediate transition with the given weight.
+	 * @param transitionName 变迁名称
+	 * @param weight 冲突时的权重
+	 * @throws ParameterException If the net does not contain the transition or the weight is not positive.
+	 */
+	public void setImmediate(String transitionName, double weight) {
+		Validate.bigger(weight, 0.0);
+		int transition = getTransition(transitionName);
+		rates[transition] = 0.0;
+		weights[transition] = weight;
+		immediate[transition] = true;
+	}
+
+	public boolean isImmediate(String transitionName) {
+		return immediate[getTransition(transitionName)];
+	}
+
+	/**
+	 * Returns the rate of a timed transition, or 0 for immediate transitions.
+	 */
+	public double getRate(String transitionName) {
+		return rates[getTransition(transitionName)];
+	}
+
+	/**
+	 * Returns the weight of an immediate transition, or 0 for timed transitions.
+	 */
+	public double getWeight(String transitionName) {
+		return weights[getTransition(transitionName)];
+	}
+
+	private int getTransition(String transitionName) {
+		Validate.notNull(transitionName);
+		int transition = compiledNet.getTransitionIndex(transitionName);
+		if(transition < 0)
+			throw new ParameterException("Unknown transition: " + transitionName);
+		return transition;
+	}
+
+	//------- Compiled access ----------------------------------------------------------------------
+
+	boolean isImmediate(int transition) {
+		return immediate[transition];
+	}
+
+	double getRate(int transition) {
+		return rates[transition];
+	}
+
+	double getWeight(int transition) {
+		return weights[transition];
+	}
+
+	/**
+	 * Checks if an immediate transition is enabled in the given marking.
+	 */
+	public boolean isVanishing(int[] marking) {
+		for(int t=0; t<immediate.length; t++){
+			if(immediate[t] && compiledNet.isEnabled(marking, t))
+				return true;
+		}
+		return false;
+	}
+
+	//------- Analysis -----------------------------------------------------------------------------
+
+	/**
+	 * Generates the continuous-time Markov chain of the tangible reachable markings without exploration limits.
+	 * @see #generateCTMC(ExplorationBudget)
+	 */
+	public CTMC<M> generateCTMC() throws GSPNException, StateSpaceException {
+		return generateCTMC(new ExplorationBudget());
+	}
+
+	/**
+	 * Generates the continuous-time Markov chain of the tangible reachable markings.
+	 * Vanishing markings are eliminated on the fly.
+	 * @param budget 状态空间探索预算
+	 * @throws GSPNException If the net contains a cycle of immediate transitions.
+	 * @throws StateSpaceException If the exploration exceeds the budget.
+	 */
+	public CTMC<M> generateCTMC(ExplorationBudget budget) throws GSPNException, StateSpaceException {
+		Validate.notNull(budget);
+		return new CTMC<M>(this, budget);
+	}
+
+}
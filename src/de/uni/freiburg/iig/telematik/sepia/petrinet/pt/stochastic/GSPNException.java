@@ -0,0 +1,21 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+
+public class GSPNException extends PNException {
+
+	private static final long serialVersionUID = -3171549020915336527L;
+
+	public GSPNException() {
+		super();
+	}
+
+	public GSPNException(String message) {
+		super(message);
+	}
+
+	public GSPNException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
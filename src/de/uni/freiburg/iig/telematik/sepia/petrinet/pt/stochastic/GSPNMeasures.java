@@ -0,0 +1,92 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+
+/**
+ * 性能指标<br>
+ * Performance measures of a GSPN, either computed from a probability distribution over the tangible markings (see {@link CTMC#getMeasures(double[])})
+ * or estimated by simulation (see {@link GSPNSimulator}).
+ */
+public class GSPNMeasures {
+
+	private CompiledPTNet<?> compiledNet = null;
+	private double[] throughput = null;
+	private double[] enablingProbabilities = null;
+	private double[] meanTokens = null;
+	private double[] utilisation = null;
+
+	/**
+	 * @param compiledNet 编译后的网
+	 * @param throughput 每个变迁单位时间内的平均发生次数
+	 * @param enablingProbabilities 每个变迁在可见标识中使能的概率
+	 * @param meanTokens 每个库所的平均令牌数
+	 * @param utilisation 每个库所非空的概率
+	 */
+	GSPNMeasures(CompiledPTNet<?> compiledNet, double[] throughput, double[] enablingProbabilities, double[] meanTokens, double[] utilisation) {
+		this.compiledNet = compiledNet;
+		this.throughput = throughput;
+		this.enablingProbabilities = enablingProbabilities;
+		this.meanTokens = meanTokens;
+		this.utilisation = utilisation;
+	}
+
+	/**
+	 * Returns the mean number of firings of the given transition per time unit.
+	 */
+	public double getThroughput(String transitionName) {
+		return throughput[getTransition(transitionName)];
+	}
+
+	/**
+	 * Returns the probability that the given transition is enabled in a tangible marking.
+	 * For immediate transitions, this is always 0.
+	 */
+	public double getEnablingProbability(String transitionName) {
+		return enablingProbabilities[getTransition(transitionName)];
+	}
+
+	/**
+	 * Returns the mean number of tokens of the given place.
+	 */
+	public double getMeanTokens(String placeName) {
+		return meanTokens[getPlace(placeName)];
+	}
+
+	/**
+	 * Returns the probability that the given place contains at least one token.
+	 */
+	public double getUtilisation(String placeName) {
+		return utilisation[getPlace(placeName)];
+	}
+
+	private int getTransition(String transitionName) {
+		Validate.notNull(transitionName);
+		int transition = compiledNet.getTransitionIndex(transitionName);
+		if(transition < 0)
+			throw new ParameterException("Unknown transition: " + transitionName);
+		return transition;
+	}
+
+	private int getPlace(String placeName) {
+		Validate.notNull(placeName);
+		int place = compiledNet.getPlaceIndex(placeName);
+		if(place < 0)
+			throw new ParameterException("Unknown place: " + placeName);
+		return place;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for(int t=0; t<throughput.length; t++){
+			builder.append(String.format("%s: throughput=%s, enabled=%s%n", compiledNet.getTransitionName(t), throughput[t], enablingProbabilities[t]));
+		}
+		for(int p=0; p<meanTokens.length; p++){
+			builder.append(String.format("%s: mean tokens=%s, utilisation=%s%n", compiledNet.getPlaceName(p), meanTokens[p], utilisation[p]));
+		}
+		return builder.toString();
+	}
+
+}
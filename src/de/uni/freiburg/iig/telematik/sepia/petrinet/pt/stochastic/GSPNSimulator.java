@@ -0,0 +1,136 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic;
+
+import java.util.Random;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+
+/**
+ * GSPN模拟<br>
+ * Simulates a {@link GSPN} starting in the initial marking and estimates its performance measures as time averages.
+ * Immediate transitions fire without delay according to their weights,
+ * in tangible markings the next timed transition and its delay are drawn according to the rates of the enabled timed transitions.<br>
+ * <br>
+ * Compared to the analysis of the {@link CTMC}, simulation does not require the state space to fit into memory,
+ * but the measures are only estimates.
+ * Simulators are not thread-safe, but several simulators can share one GSPN.
+ */
+public class GSPNSimulator {
+
+	/** 连续瞬时变迁发生次数上限，超出时认为存在无时间陷阱 */
+	public static final int MAX_IMMEDIATE_FIRINGS = 100000;
+
+	private GSPN<?> gspn = null;
+	private CompiledPTNet<?> compiledNet = null;
+	private Random random = null;
+
+	public GSPNSimulator(GSPN<?> gspn, Random random) {
+		Validate.notNull(gspn);
+		Validate.notNull(random);
+		this.gspn = gspn;
+		this.compiledNet = gspn.getCompiledNet();
+		this.random = random;
+	}
+
+	/**
+	 * Simulates the GSPN until the given time and returns the time-averaged measures.<br>
+	 * If a tangible marking without enabled timed transitions is reached, the net remains in this marking until the end.
+	 * @param timeHorizon 模拟时长
+	 * @throws GSPNException If more than {@value #MAX_IMMEDIATE_FIRINGS} immediate transitions fire in a row (timeless trap).
+	 * @throws InterruptedException If the thread is interrupted during simulation.
+	 */
+	public GSPNMeasures simulate(double timeHorizon) throws GSPNException, InterruptedException {
+		Validate.bigger(timeHorizon, 0.0);
+		int transitionCount = compiledNet.getTransitionCount();
+		int placeCount = compiledNet.getPlaceCount();
+		double[] firings = new double[transitionCount];
+		double[] enabledTimes = new double[transitionCount];
+		double[] tokenTimes = new double[placeCount];
+		double[] nonEmptyTimes = new double[placeCount];
+		int[] enabledTransitions = new int[transitionCount];
+
+		int[] marking = compiledNet.getInitialMarking();
+		double time = 0.0;
+		while(time < timeHorizon){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			fireImmediateTransitions(marking, enabledTransitions, firings);
+
+			int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+			double rateSum = 0.0;
+			for(int i=0; i<enabledCount; i++){
+				rateSum += gspn.getRate(enabledTransitions[i]);
+			}
+			double delay = rateSum > 0.0 ? -Math.log(1.0 - random.nextDouble()) / rateSum : Double.POSITIVE_INFINITY;
+			double sojourn = Math.min(delay, timeHorizon - time);
+
+			// 按停留时间加权
+			for(int i=0; i<enabledCount; i++){
+				enabledTimes[enabledTransitions[i]] += sojourn;
+			}
+			for(int p=0; p<placeCount; p++){
+				tokenTimes[p] += sojourn * marking[p];
+				if(marking[p] > 0)
+					nonEmptyTimes[p] += sojourn;
+			}
+			time += sojourn;
+			if(time >= timeHorizon)
+				break;
+
+			int transition = choose(enabledTransitions, enabledCount, rateSum, false);
+			compiledNet.fireInPlace(marking, transition);
+			firings[transition]++;
+		}
+
+		for(int t=0; t<transitionCount; t++){
+			firings[t] /= timeHorizon;
+			enabledTimes[t] /= timeHorizon;
+		}
+		for(int p=0; p<placeCount; p++){
+			tokenTimes[p] /= timeHorizon;
+			nonEmptyTimes[p] /= timeHorizon;
+		}
+		return new GSPNMeasures(compiledNet, firings, enabledTimes, tokenTimes, nonEmptyTimes);
+	}
+
+	/**
+	 * Fires immediate transitions until a tangible marking is reached.
+	 */
+	private void fireImmediateTransitions(int[] marking, int[] enabledTransitions, double[] firings) throws GSPNException {
+		for(int immediateFirings=0; ; immediateFirings++){
+			int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+			double weightSum = 0.0;
+			for(int i=0; i<enabledCount; i++){
+				if(gspn.isImmediate(enabledTransitions[i]))
+					weightSum += gspn.getWeight(enabledTransitions[i]);
+			}
+			if(weightSum == 0.0)
+				return;
+			if(immediateFirings == MAX_IMMEDIATE_FIRINGS)
+				throw new GSPNException("More than " + MAX_IMMEDIATE_FIRINGS + " immediate transitions fired without delay.");
+			int transition = choose(enabledTransitions, enabledCount, weightSum, true);
+			compiledNet.fireInPlace(marking, transition);
+			firings[transition]++;
+		}
+	}
+
+	/**
+	 * Chooses an enabled immediate or timed transition proportional to its weight or rate.
+	 */
+	private int choose(int[] enabledTransitions, int enabledCount, double sum, boolean immediate) {
+		double value = random.nextDouble() * sum;
+		int transition = -1;
+		for(int i=0; i<enabledCount; i++){
+			int candidate = enabledTransitions[i];
+			if(gspn.isImmediate(candidate) != immediate)
+				continue;
+			transition = candidate;
+			value -= immediate ? gspn.getWeight(candidate) : gspn.getRate(candidate);
+			if(value < 0.0)
+				break;
+		}
+		return transition;
+	}
+
+}
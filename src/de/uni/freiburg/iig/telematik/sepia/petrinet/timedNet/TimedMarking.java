@@ -5,30 +5,31 @@
  */
 package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet;
 
-import java.util.List;
-import java.util.Map.Entry;
-
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.PTPlaceIndex;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.AbstractTimedMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.EventCalendar;
 
 /**
  *
  * @author richard
  */
 public class TimedMarking extends AbstractTimedMarking {
+	
+	public TimedMarking() {
+		super();
+	}
+	
+	public TimedMarking(PTPlaceIndex placeIndex) {
+		super(placeIndex);
+	}
 
 	@Override
 	public TimedMarking clone() {
 		// do not clone. instead give direct reference
 		// return this;
-		TimedMarking newMarking = new TimedMarking();
-		for (String placeName : placeStates.keySet()) {
-			newMarking.set(placeName, (int) placeStates.get(placeName));
-		}
-		for (Entry<Double, List<String>> keyValue : pendingActions.entrySet()) {
-			for (String s : keyValue.getValue()) {
-				newMarking.addPendingAction(s, keyValue.getKey());
-			}
-		}
+		TimedMarking newMarking = new TimedMarking(placeIndex);
+		newMarking.copyTokens(this);
+		newMarking.pendingActions = new EventCalendar<>(pendingActions);
 		return newMarking;
 	}
 
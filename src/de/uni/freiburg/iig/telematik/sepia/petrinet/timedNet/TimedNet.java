@@ -87,7 +87,7 @@ public class TimedNet extends AbstractTimedNet<TimedNetPlace, TimedTransition, T
 
 	@Override
 	public TimedMarking createNewMarking() {
-		return new TimedMarking();
+		return new TimedMarking(getPlaceIndex());
 	}
 
 	@Override
@@ -95,13 +95,12 @@ public class TimedNet extends AbstractTimedNet<TimedNetPlace, TimedTransition, T
 		TimedMarking newMarking = cloneMarking();
 		TimedTransition transition = getTransition(transitionName);
 		for (TimedFlowRelation relation : transition.getIncomingRelations()) {
-			String inputPlaceName = relation.getPlace().getName();
-			newMarking.set(inputPlaceName, newMarking.get(inputPlaceName) - relation.getWeight());
+			int inputPlace = newMarking.getPlaceIndex().register(relation.getPlace().getName());
+			newMarking.setTokens(inputPlace, Math.max(0, newMarking.getTokens(inputPlace) - relation.getWeight()));
 		}
 		for (TimedFlowRelation relation : transition.getOutgoingRelations()) {
-			String outputPlaceName = relation.getPlace().getName();
-			Integer oldState = (newMarking.get(outputPlaceName) == null ? 0 : newMarking.get(outputPlaceName));
-			newMarking.set(outputPlaceName, oldState + relation.getWeight());
+			int outputPlace = newMarking.getPlaceIndex().register(relation.getPlace().getName());
+			newMarking.setTokens(outputPlace, newMarking.getTokens(outputPlace) + relation.getWeight());
 		}
 		return newMarking;
 	}
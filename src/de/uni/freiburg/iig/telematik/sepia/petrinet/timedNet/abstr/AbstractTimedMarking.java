@@ -5,11 +5,11 @@
  */
 package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeMap;
 
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.PTPlaceIndex;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.EventCalendar;
 
 /**
  *
@@ -19,21 +19,19 @@ public abstract class AbstractTimedMarking extends AbstractPTMarking {
 
 	private static final long serialVersionUID = -5795568492094277347L;
 	
-	protected TreeMap<Double, List<String>> pendingActions = new TreeMap<>(); //Time and active Transitions
+	protected EventCalendar<String> pendingActions = new EventCalendar<>(); //Time and active Transitions
 
 	public AbstractTimedMarking() {
         super();
     }
 	
+	public AbstractTimedMarking(PTPlaceIndex placeIndex) {
+		super(placeIndex);
+	}
+	
 	public void addPendingAction(String transitionName, double time) {
 		//System.out.println("adding pending action for "+transitionName+"("+time+")");
-		if (pendingActions.containsKey(time)) {
-			pendingActions.get(time).add(transitionName);
-		} else {
-			ArrayList<String> transitions = new ArrayList<>();
-			transitions.add(transitionName);
-			pendingActions.put(time, transitions);
-		}
+		pendingActions.add(time, transitionName);
 //		TokenConstraints<Integer> constraint = new TokenConstraints<>(transitionName);
 //		if (pendingActions.containsKey(time) && pendingActions.get(time) != null) {
 //			// time entry is available
@@ -45,18 +43,24 @@ public abstract class AbstractTimedMarking extends AbstractPTMarking {
 //		}
 	}
 	
+	/**returns the transitions of all pending actions at the time of the next pending action**/
 	public List<String> getNextPendingAction(){
-		return pendingActions.firstEntry().getValue();
+		return pendingActions.getNextEvents();
+	}
+	
+	/**removes the next pending action and returns its transition. Pending actions at the same time are returned in the order they were added**/
+	public String pollNextPendingAction(){
+		return pendingActions.poll();
 	}
 	
 	public double getTimeOfNextPendingAction(){
 		//System.out.println("Getting next pending action");
-		return pendingActions.firstKey();
+		return pendingActions.peekTime();
 	}
 	
 	public void removeNextPendingAction(){
 		//System.out.println("Removing pending action from "+pendingActions.firstEntry().getValue().get(0)+"("+pendingActions.firstKey()+")");
-		pendingActions.remove(pendingActions.firstKey());
+		pendingActions.removeNextEvents();
 	}
 	
 	public boolean hasPendingActions(){
@@ -8,15 +8,16 @@ package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 import de.invation.code.toval.misc.soabase.SOABase;
 import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.NetType;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.PNNodeNameComparator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IResourceContext;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.ITimeContext;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IStatisticListener;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.WorkflowTimeMachine;
 
 /**
  *
@@ -26,11 +27,14 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
         extends AbstractPTNet<P, T, F, M> {
 
 	private static final long serialVersionUID = 7256025116225123745L;
+	private static final PNNodeNameComparator NAME_ORDER = new PNNodeNameComparator();
 	protected double clock = 0;
 	private double deadline; 
 	private ITimeContext timeContext;
 	private IResourceContext resourceContext;
 	private SOABase accessContext;
+	/** 所属的模拟上下文，为null时使用全局实例 */
+	private WorkflowTimeMachine timeMachine;
 	
 	private boolean recurring;
 
@@ -110,7 +114,7 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 		
 		if (max > 0) {
 			//get random next transition
-			T transition = nonWorking.get(ThreadLocalRandom.current().nextInt(0, max));
+			T transition = nonWorking.get(getTimeMachine().getRandom().nextInt(max));
 			//T transition = getEnabledTransitions().get(r.nextInt(max));
 			transition.fire();
 			return transition;
@@ -131,6 +135,7 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 		throw new PNException("Cannot fire any transition.");
 	}
 	
+	/**returns the enabled transitions which are not working, ordered by name so that the random choice does not depend on the order in which they were enabled**/
 	private List<T> getEnabledAndNonWorkingTransitions() {
 		List<T> enabled = getEnabledTransitions();
 		List<T> notWorking = new ArrayList<>(enabled.size());
@@ -138,6 +143,8 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 			if(!transition.isWorking())
 				notWorking.add(transition);
 		}
+		if(notWorking.size() > 1)
+			Collections.sort(notWorking, NAME_ORDER);
 		return Collections.unmodifiableList(notWorking);
 	}
 
@@ -189,9 +196,9 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 		if (!marking.hasPendingActions())
 			throw new PNException("No more pending actions left.");
 		
-		List<String> pendingAction = marking.getNextPendingAction();
-		for (String s:pendingAction) {
-			T transition = getTransition(s);
+		double time = marking.getTimeOfNextPendingAction();
+		while (marking.hasPendingActions() && marking.getTimeOfNextPendingAction() == time) {
+			T transition = getTransition(marking.pollNextPendingAction());
 			for (F rel: transition.getOutgoingRelations()){
 				rel.getPlace().addTokens(rel.getConstraint());
 			}
@@ -200,8 +207,7 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 			getResourceContext().unBlockResources(transition.getUsedResources());
 			transition.clearResourceUsage();
 		}
-		clock = marking.getTimeOfNextPendingAction();
-		marking.removeNextPendingAction();
+		clock = time;
 
 	}
 	
@@ -309,6 +315,20 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 		clock=time;
 	}
 	
+	/**returns the time machine of the simulation context the net belongs to, or the process-wide instance if the net was not added to any time machine**/
+	public WorkflowTimeMachine getTimeMachine(){
+		return timeMachine != null ? timeMachine : WorkflowTimeMachine.getInstance();
+	}
+	
+	public void setTimeMachine(WorkflowTimeMachine timeMachine){
+		this.timeMachine = timeMachine;
+	}
+	
+	/**returns the statistic listener of the simulation context the net belongs to**/
+	public IStatisticListener getStatisticListener(){
+		return getTimeMachine().getStatisticListener();
+	}
+	
 	public boolean isRecurring(){
 		return recurring;
 	}
@@ -324,6 +344,7 @@ public abstract class AbstractTimedNet<P extends AbstractTimedPlace<F>, T extend
 		clone.setProcesContextName(getAccessContextName());
 		clone.setDeadline(getDeadline());
 		clone.setRecurring(isRecurring());
+		clone.setTimeMachine(timeMachine);
 		clone.clock=clock;
 		for (T t: clone.getTransitions()){
 			t.setNet(clone);
@@ -12,7 +12,6 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTTransitio
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.ExecutionState;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IResourceContext;
-import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.WorkflowTimeMachine;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -47,12 +46,13 @@ public abstract class AbstractTimedTransition<E extends AbstractTimedFlowRelatio
 	 * is enabled according to the fire rules specified in the petri-net class.
 	 * After a call to this function the transition must fire instantenouse as
 	 * fireing of a nother net might reserve the required ressources and render
-	 * this transition unfireable
+	 * this transition unfireable.
+	 * A transition whose activity needs no resources can fire without a resource set,
+	 * as in {@link #fire()} (see {@link IResourceContext#hasAvailableResourceSetFor(String)}).
 	 **/
 	public boolean canFire() {
 		IResourceContext context = getNet().getResourceContext();
-		List<String> resources = context.getRandomAvailableResourceSetFor(getLabel(), false);
-		return (isEnabled() && resources != null && !resources.isEmpty() && !isWorking());
+		return (!isWorking() && isEnabled() && context.hasAvailableResourceSetFor(getLabel()));
 
 	}
 
@@ -92,7 +92,7 @@ public abstract class AbstractTimedTransition<E extends AbstractTimedFlowRelatio
 		if (!isEnabled())
 			throw new PNException("Cannot fire transition " + this + ": not enabled");
 		if(isWorking()){
-			StatisticListener.getInstance().transitionStateChange(net.getCurrentTime(), ExecutionState.BUSY, this);
+			net.getStatisticListener().transitionStateChange(net.getCurrentTime(), ExecutionState.BUSY, this);
 			throw new PNException("Transition "+this+" is currently working");
 		}
 		try {
@@ -107,7 +107,7 @@ public abstract class AbstractTimedTransition<E extends AbstractTimedFlowRelatio
 			// TimedMarking marking = (TimedMarking) net.getMarking();
 			 usedResources = net.getResourceContext().getRandomAvailableResourceSetFor(getLabel(), true);
 			if (usedResources == null || usedResources.isEmpty()) {
-				StatisticListener.getInstance().transitionStateChange(net.getCurrentTime(), ExecutionState.RESOURCE_WAIT, this);
+				net.getStatisticListener().transitionStateChange(net.getCurrentTime(), ExecutionState.RESOURCE_WAIT, this);
 				return;
 			}
 		} else {
@@ -126,14 +126,14 @@ public abstract class AbstractTimedTransition<E extends AbstractTimedFlowRelatio
 			//usedResources = resourceSet;
 			setWorking(true);
 
-			WorkflowTimeMachine.getInstance().addPendingAction(net.getCurrentTime()+neededTime, this);
-			StatisticListener.getInstance().transitionStateChange(net.getCurrentTime(), ExecutionState.START, this);
-			StatisticListener.getInstance().transitionStateChange(net.getCurrentTime()+neededTime, ExecutionState.END, this);
+			net.getTimeMachine().addPendingAction(net.getCurrentTime()+neededTime, this);
+			net.getStatisticListener().transitionStateChange(net.getCurrentTime(), ExecutionState.START, this);
+			net.getStatisticListener().transitionStateChange(net.getCurrentTime()+neededTime, ExecutionState.END, this);
 
 
 		} else {
 			// fire normally, no blocking as this transition needs no time...
-			StatisticListener.getInstance().transitionStateChange(net.getCurrentTime(), ExecutionState.INSTANT, this);
+			net.getStatisticListener().transitionStateChange(net.getCurrentTime(), ExecutionState.INSTANT, this);
 			net.getResourceContext().unBlockResources(usedResources);
 			for (E r : outgoingRelations.values()) {
 				r.getPlace().addTokens(r.getConstraint());
@@ -190,10 +190,10 @@ public abstract class AbstractTimedTransition<E extends AbstractTimedFlowRelatio
 		//this.isWorking = working;
 		if(working){
 			//StatisticListener.getInstance().transitionStateChange(net.getCurrentTime(), ExecutionState.START, this);
-			StatisticListener.getInstance().ressourceUsageChange(net.getCurrentTime(), ExecutionState.START, this, usedResources);
+			net.getStatisticListener().ressourceUsageChange(net.getCurrentTime(), ExecutionState.START, this, usedResources);
 		} else {
 			//StatisticListener.getInstance().transitionStateChange(net.getCurrentTime(), ExecutionState.END, this);
-			StatisticListener.getInstance().ressourceUsageChange(net.getCurrentTime(), ExecutionState.END, this, usedResources);
+			net.getStatisticListener().ressourceUsageChange(net.getCurrentTime(), ExecutionState.END, this, usedResources);
 		}
 	}
 
@@ -14,6 +14,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.ExecutionS
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.FireElement;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.FireSequence;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IStatisticListener;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.WorkflowTimeMachine;
 
 public class StatisticListener implements IStatisticListener{
 	
@@ -31,10 +32,12 @@ public class StatisticListener implements IStatisticListener{
 		return fireSequences;
 	}
 
-	private StatisticListener() {
+	/**creates a statistic listener for a new simulation context, see {@link WorkflowTimeMachine#getStatisticListener()}**/
+	public StatisticListener() {
 		overallLog.add(new FireSequence());
 	}
 	
+	/**returns the statistic listener of the process-wide time machine**/
 	public static StatisticListener getInstance(){
 		return myself;
 	}
@@ -138,6 +141,7 @@ public class StatisticListener implements IStatisticListener{
 	}
 	
 	/**inform listener that a new simulation step begins**/
+	@Override
 	public void simulationRestarted(){
 		//new FireSequence begins: create and add to end of each list.
 		for(Entry<String, ArrayList<FireSequence>> entry:fireSequences.entrySet()){
@@ -0,0 +1,238 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.ExecutionState;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.FireElement;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.FireSequence;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IStatisticListener;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.OnlineStatistics;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.WorkflowTimeMachine;
+
+/**
+ * Statistic listener which aggregates the simulation online instead of recording every state change like {@link StatisticListener}.
+ * Its memory only depends on the number of activities, resources and nets, not on the length or number of simulation runs:
+ * <ul>
+ * <li>working times of activities (mean, variance and quantiles, see {@link OnlineStatistics}),</li>
+ * <li>number of state changes of activities (e.g. how often an activity had to wait for resources),</li>
+ * <li>utilisation of resources, i.e. the fraction of the simulated time a resource is in use,</li>
+ * <li>deadline miss rate of nets.</li>
+ * </ul>
+ * Raw fire sequences are only recorded for a sample of the simulation runs, see {@link #setFireSequenceSampling(int, int)}.
+ *
+ * @see WorkflowTimeMachine#setStatisticListener(IStatisticListener)
+ */
+public class StreamingStatisticListener implements IStatisticListener {
+
+	private Map<String, OnlineStatistics> workingTimes = new HashMap<>(); //Activity, working time
+	private Map<String, long[]> stateCounts = new HashMap<>(); //Activity, count per ExecutionState
+	private Map<String, Double> busySince = new HashMap<>(); //Resource, start of current usage
+	private Map<String, double[]> busyTimes = new HashMap<>(); //Resource, accumulated usage time
+	private Map<String, OnlineStatistics> deadlineTimes = new HashMap<>(); //Net, time when deadline was reached
+	private Map<String, long[]> deadlineMisses = new HashMap<>(); //Net, missed deadlines
+
+	private double lastStartTime;
+	/** 已完成模拟运行的总时长 */
+	private double observedTime = 0.0;
+	/** 当前模拟运行中最晚的事件时间 */
+	private double currentRunTime = 0.0;
+	private int runCount = 0;
+
+	/** 0表示不记录激发序列 */
+	private int sampleInterval = 0;
+	private int maxSampledSequences = 0;
+	private List<FireSequence> sampledSequences = new ArrayList<>();
+	private boolean sampleRun = false;
+	private FireSequence currentSequence = null;
+	private FireElement lastProcessedElement = null;
+
+	/**
+	 * Records the fire sequence of every n-th simulation run, starting with the first one, until the given number of sequences is recorded.
+	 * @param sampleInterval 采样间隔，0表示不记录
+	 * @param maxSampledSequences 最多记录的序列数
+	 */
+	public void setFireSequenceSampling(int sampleInterval, int maxSampledSequences) {
+		Validate.notNegative(sampleInterval);
+		Validate.notNegative(maxSampledSequences);
+		this.sampleInterval = sampleInterval;
+		this.maxSampledSequences = maxSampledSequences;
+		startRun();
+	}
+
+	@Override
+	public void transitionStateChange(double time, ExecutionState state, AbstractTimedTransition transition) {
+		String activity = transition.getLabel();
+		long[] counts = stateCounts.get(activity);
+		if(counts == null){
+			counts = new long[ExecutionState.values().length];
+			stateCounts.put(activity, counts);
+		}
+		counts[state.ordinal()]++;
+		currentRunTime = Math.max(currentRunTime, time);
+
+		switch (state) {
+		case START:
+			lastStartTime = time;
+			if(sampleRun){
+				lastProcessedElement = new FireElement(transition, time);
+				addToFireSequence(lastProcessedElement);
+			}
+			break;
+		case END:
+			// END紧跟在同一变迁的START之后报告
+			getStatistics(workingTimes, activity).add(time - lastStartTime);
+			if(sampleRun)
+				lastProcessedElement.setEndTime(time);
+			break;
+		case INSTANT:
+			if(sampleRun){
+				FireElement element = new FireElement(transition, time);
+				element.setEndTime(time);
+				addToFireSequence(element);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void ressourceUsageChange(double time, ExecutionState state, AbstractTimedTransition transition, List<String> resources) {
+		if(resources == null)
+			return;
+		currentRunTime = Math.max(currentRunTime, time);
+		for(String resource : resources){
+			if(state == ExecutionState.START){
+				busySince.put(resource, time);
+			} else if(state == ExecutionState.END){
+				Double start = busySince.remove(resource);
+				if(start == null)
+					continue;
+				double[] busyTime = busyTimes.get(resource);
+				if(busyTime == null){
+					busyTime = new double[1];
+					busyTimes.put(resource, busyTime);
+				}
+				busyTime[0] += time - start;
+			}
+		}
+	}
+
+	@Override
+	public void reachedDeadline(String netName, double time, double deadline, boolean missed) {
+		getStatistics(deadlineTimes, netName).add(time);
+		long[] misses = deadlineMisses.get(netName);
+		if(misses == null){
+			misses = new long[1];
+			deadlineMisses.put(netName, misses);
+		}
+		if(missed)
+			misses[0]++;
+	}
+
+	@Override
+	public void simulationRestarted() {
+		observedTime += currentRunTime;
+		currentRunTime = 0.0;
+		busySince.clear();
+		runCount++;
+		startRun();
+	}
+
+	@Override
+	public void reset() {
+		workingTimes.clear();
+		stateCounts.clear();
+		busySince.clear();
+		busyTimes.clear();
+		deadlineTimes.clear();
+		deadlineMisses.clear();
+		observedTime = 0.0;
+		currentRunTime = 0.0;
+		runCount = 0;
+		sampledSequences.clear();
+		startRun();
+	}
+
+	/**decides if the fire sequence of the current run is sampled**/
+	private void startRun() {
+		currentSequence = null;
+		lastProcessedElement = null;
+		sampleRun = sampleInterval > 0 && runCount % sampleInterval == 0 && sampledSequences.size() < maxSampledSequences;
+	}
+	
+	private void addToFireSequence(FireElement element) {
+		if(currentSequence == null){
+			currentSequence = new FireSequence();
+			sampledSequences.add(currentSequence);
+		}
+		currentSequence.add(element);
+	}
+
+	private static OnlineStatistics getStatistics(Map<String, OnlineStatistics> statistics, String key) {
+		OnlineStatistics result = statistics.get(key);
+		if(result == null){
+			result = new OnlineStatistics();
+			statistics.put(key, result);
+		}
+		return result;
+	}
+
+	/**returns the number of completed simulation runs**/
+	public int getRunCount() {
+		return runCount;
+	}
+
+	public Set<String> getActivities() {
+		return Collections.unmodifiableSet(stateCounts.keySet());
+	}
+
+	/**returns the working time statistics of the given activity, or <code>null</code> if it never started working**/
+	public OnlineStatistics getWorkingTimes(String activity) {
+		return workingTimes.get(activity);
+	}
+
+	/**returns how often the given activity reported the given state**/
+	public long getStateCount(String activity, ExecutionState state) {
+		long[] counts = stateCounts.get(activity);
+		return counts == null ? 0 : counts[state.ordinal()];
+	}
+
+	public Set<String> getResources() {
+		return Collections.unmodifiableSet(busyTimes.keySet());
+	}
+
+	/**returns the fraction of the simulated time the given resource was in use**/
+	public double getUtilisation(String resource) {
+		double[] busyTime = busyTimes.get(resource);
+		double totalTime = observedTime + currentRunTime;
+		if(busyTime == null || totalTime == 0.0)
+			return 0.0;
+		return busyTime[0] / totalTime;
+	}
+
+	/**returns the statistics of the times when the given net reached its deadline, or <code>null</code> if it never did**/
+	public OnlineStatistics getDeadlineTimes(String netName) {
+		return deadlineTimes.get(netName);
+	}
+
+	/**returns the fraction of reached deadlines of the given net that were missed, or NaN if the net never reached its deadline**/
+	public double getDeadlineMissRate(String netName) {
+		OnlineStatistics times = deadlineTimes.get(netName);
+		if(times == null)
+			return Double.NaN;
+		return (double) deadlineMisses.get(netName)[0] / times.getCount();
+	}
+
+	/**returns the sampled fire sequences**/
+	public List<FireSequence> getSampledFireSequences() {
+		return Collections.unmodifiableList(sampledSequences);
+	}
+
+}
@@ -0,0 +1,61 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import java.util.Random;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 到达过程<br>
+ * Determines when new cases of a net arrive in a case simulation (see {@link CaseSimulator}).
+ * The first case arrives at time 0, every further case after an interarrival time drawn from the process.
+ * Arrival processes must not keep state between calls, so that they can be shared between simulations.
+ */
+public abstract class ArrivalProcess {
+
+	/**
+	 * Returns the time between the arrival of the last case and the next case.
+	 * @param random 模拟的随机数生成器
+	 * @return 非负的到达间隔
+	 */
+	public abstract double nextInterarrivalTime(Random random);
+
+	/**
+	 * Creates an arrival process with a fixed interarrival time.
+	 * @throws ParameterException If the interval is negative.
+	 */
+	public static ArrivalProcess constant(final double interval) {
+		Validate.notNegative(interval);
+		return new ArrivalProcess() {
+			@Override
+			public double nextInterarrivalTime(Random random) {
+				return interval;
+			}
+
+			@Override
+			public String toString() {
+				return "constant(" + interval + ")";
+			}
+		};
+	}
+
+	/**
+	 * Creates a Poisson arrival process, i.e. exponentially distributed interarrival times with the given rate.
+	 * @throws ParameterException If the rate is not positive.
+	 */
+	public static ArrivalProcess exponential(final double rate) {
+		Validate.bigger(rate, 0.0);
+		return new ArrivalProcess() {
+			@Override
+			public double nextInterarrivalTime(Random random) {
+				return -Math.log(1.0 - random.nextDouble()) / rate;
+			}
+
+			@Override
+			public String toString() {
+				return "exponential(" + rate + ")";
+			}
+		};
+	}
+
+}
@@ -0,0 +1,470 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedTransition;
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreams;
+
+/**
+ * 案例模拟<br>
+ * Simulates many concurrent cases of timed nets without cloning the nets.
+ * All cases of a net share an immutable snapshot of its structure ({@link CompiledPTNet}),
+ * every case only owns its marking vector, its arrival time and the working state of its transitions.
+ * Case objects are reused after a case finished.<br>
+ * <br>
+ * The firing semantics correspond to {@link WorkflowTimeMachine}:
+ * a transition fires if it is enabled, not working and an allowed resource set is available.
+ * It consumes its input tokens and blocks the resources when it starts.
+ * If the time context of the net specifies a working time, the transition produces its output tokens and unblocks the resources when it ends,
+ * otherwise immediately. A case is finished as soon as a drain place is marked.
+ * At every point in time, pending completions are processed first, then randomly chosen cases fire until no case can fire anymore.<br>
+ * <br>
+ * Cases arrive according to the {@link ArrivalProcess} of their net.
+ * A case that cannot fire because of missing resources waits until resources of one of its activities are released,
+ * waiting cases get the resources first come, first served.
+ * The statistic listener receives the (shared) transitions of the nets.
+ * With {@link RandomStreams}, arrivals, the choice of cases and the choice of transitions draw from different streams,
+ * so e.g. two variants of a net with the same seed get the same arrivals.
+ * The simulator is not thread-safe.
+ */
+public class CaseSimulator {
+
+	private List<NetModel> models = new ArrayList<>();
+	/** 变迁的选择 */
+	private Random random = null;
+	/** 就绪案例的选择 */
+	private Random caseRandom = null;
+	private Random arrivalRandom = null;
+	/** 为null时不修改上下文的随机数生成器 */
+	private RandomStreams randomStreams = null;
+	private IStatisticListener statisticListener = null;
+
+	private double time = 0.0;
+	private EventCalendar<Object> calendar = new EventCalendar<>();
+	/** 当前时刻可能激发的案例 */
+	private ArrayList<Case> readyCases = new ArrayList<>();
+	private int activeCases = 0;
+	private boolean resourcesReleased = false;
+	private ArrayDeque<Completion> completionPool = new ArrayDeque<>();
+
+	/**
+	 * @param random 随机数生成器
+	 * @param statisticListener 统计监听器
+	 */
+	public CaseSimulator(Random random, IStatisticListener statisticListener) {
+		Validate.notNull(random);
+		Validate.notNull(statisticListener);
+		this.random = random;
+		this.caseRandom = random;
+		this.arrivalRandom = random;
+		this.statisticListener = statisticListener;
+	}
+
+	/**
+	 * Creates a simulator drawing from the streams {@link RandomStreams#TRANSITIONS}, {@link RandomStreams#NETS} (choice of cases) and {@link RandomStreams#ARRIVALS}.
+	 * Resource and time contexts of added nets implementing {@link IRandomized} get the streams for resources and durations.
+	 * @param randomStreams 随机数流
+	 * @param statisticListener 统计监听器
+	 */
+	public CaseSimulator(RandomStreams randomStreams, IStatisticListener statisticListener) {
+		Validate.notNull(randomStreams);
+		Validate.notNull(statisticListener);
+		this.random = randomStreams.getStream(RandomStreams.TRANSITIONS);
+		this.caseRandom = randomStreams.getStream(RandomStreams.NETS);
+		this.arrivalRandom = randomStreams.getStream(RandomStreams.ARRIVALS);
+		this.randomStreams = randomStreams;
+		this.statisticListener = statisticListener;
+	}
+
+	/**
+	 * Adds a net whose cases arrive according to the given arrival process.
+	 * @param net 时间网，模拟时不修改
+	 * @param arrivalProcess 到达过程
+	 * @param caseCount 案例数
+	 * @throws ParameterException If some parameters are invalid or a net with the same name was already added.
+	 */
+	public void addNet(TimedNet net, ArrivalProcess arrivalProcess, int caseCount) {
+		Validate.notNull(net);
+		Validate.notNull(arrivalProcess);
+		Validate.notNegative(caseCount);
+		for(NetModel model : models){
+			if(model.net.getName().equals(net.getName()))
+				throw new ParameterException("Net " + net.getName() + " was already added.");
+		}
+		models.add(new NetModel(net, arrivalProcess, caseCount));
+		if(randomStreams != null)
+			WorkflowTimeMachine.applyRandomStreams(net, randomStreams);
+	}
+
+	/**
+	 * Simulates all cases until they are finished.
+	 * @return The cycle time (time between arrival and end) of every case, in the order the cases finished, for every net.
+	 * @throws PNException If some case cannot finish.
+	 */
+	public HashMap<String, ArrayList<Double>> simulate() throws PNException {
+		time = 0.0;
+		calendar.clear();
+		readyCases.clear();
+		activeCases = 0;
+		statisticListener.reset();
+		HashMap<String, ArrayList<Double>> result = new HashMap<>();
+		for(NetModel model : models){
+			model.reset();
+			model.net.getResourceContext().reset();
+			result.put(model.net.getName(), model.cycleTimes);
+			if(model.caseCount > 0)
+				calendar.add(0.0, model);
+		}
+
+		while(true){
+			// 释放资源后，等待的案例与就绪案例竞争；无就绪案例时将剩余资源交给等待的案例
+			do {
+				wakeWaitingCasesAfterRelease();
+				while(!readyCases.isEmpty()){
+					examine(takeRandomReadyCase());
+					wakeWaitingCasesAfterRelease();
+				}
+			} while(wakeWaitingCases());
+			if(calendar.isEmpty())
+				break;
+			time = calendar.peekTime();
+			while(!calendar.isEmpty() && calendar.peekTime() == time){
+				Object event = calendar.poll();
+				if(event instanceof Completion){
+					complete((Completion) event);
+				} else {
+					arrive((NetModel) event);
+				}
+			}
+		}
+
+		if(activeCases > 0)
+			throw new PNException(activeCases + " cases cannot finish. Not enough resources or nets not deadlock free?");
+		return result;
+	}
+
+	public double getTime() {
+		return time;
+	}
+
+	//------- Events -------------------------------------------------------------------------------
+
+	private void arrive(NetModel model) {
+		Case newCase = model.casePool.isEmpty() ? new Case(model) : model.casePool.poll();
+		newCase.start(time);
+		activeCases++;
+		if(++model.arrivedCases < model.caseCount)
+			calendar.add(time + model.arrivalProcess.nextInterarrivalTime(arrivalRandom), model);
+		makeReady(newCase);
+	}
+
+	private void complete(Completion completion) {
+		Case completedCase = completion.completedCase;
+		NetModel model = completedCase.model;
+		int transition = completion.transition;
+		int[] postPlaces = model.compiledNet.getPostPlaces(transition);
+		int[] postWeights = model.compiledNet.getPostWeights(transition);
+		for(int i=0; i<postPlaces.length; i++){
+			completedCase.marking[postPlaces[i]] += postWeights[i];
+		}
+		completedCase.working[transition] = false;
+		completedCase.pendingCompletions--;
+		releaseResources(model, transition, completion.resources);
+		completion.completedCase = null;
+		completion.resources = null;
+		completionPool.push(completion);
+
+		if(completedCase.finished){
+			recycleIfIdle(completedCase);
+		} else if(!checkFinished(completedCase)){
+			makeReady(completedCase);
+		}
+	}
+
+	//------- Firing -------------------------------------------------------------------------------
+
+	/**
+	 * Fires a randomly chosen fireable transition of the case, if there is one.
+	 */
+	private void examine(Case examinedCase) throws PNException {
+		// 同一时刻的另一个完成事件可能已结束该案例
+		if(examinedCase.finished){
+			recycleIfIdle(examinedCase);
+			return;
+		}
+		NetModel model = examinedCase.model;
+		int[] candidates = model.candidates;
+		int candidateCount = 0;
+		int enabledCount = model.compiledNet.getEnabledTransitions(examinedCase.marking, model.enabledTransitions);
+		for(int i=0; i<enabledCount; i++){
+			if(!examinedCase.working[model.enabledTransitions[i]])
+				candidates[candidateCount++] = model.enabledTransitions[i];
+		}
+		boolean waitsForResources = false;
+		while(candidateCount > 0){
+			int index = random.nextInt(candidateCount);
+			int transition = candidates[index];
+			if(fire(examinedCase, transition)){
+				if(!checkFinished(examinedCase))
+					makeReady(examinedCase);
+				return;
+			}
+			// 资源不足，登记等待
+			waitsForResources = true;
+			model.addWaitingCase(model.labels[transition], examinedCase);
+			candidates[index] = candidates[--candidateCount];
+		}
+		if(!waitsForResources && examinedCase.pendingCompletions == 0)
+			throw new PNException("Case of net " + model.net.getName() + " arrived at " + examinedCase.arrivalTime + " is deadlocked at " + time + ".");
+	}
+
+	private boolean fire(Case firingCase, int transition) {
+		NetModel model = firingCase.model;
+		String label = model.labels[transition];
+		IResourceContext resourceContext = model.net.getResourceContext();
+		List<String> resources = null;
+		if(resourceContext.needsResources(label)){
+			resources = resourceContext.getRandomAvailableResourceSetFor(label, true);
+			if(resources == null || resources.isEmpty())
+				return false;
+		}
+
+		int[] prePlaces = model.compiledNet.getPrePlaces(transition);
+		int[] preWeights = model.compiledNet.getPreWeights(transition);
+		for(int i=0; i<prePlaces.length; i++){
+			firingCase.marking[prePlaces[i]] -= preWeights[i];
+		}
+		TimedTransition transitionObject = model.transitions[transition];
+		ITimeContext timeContext = model.net.getTimeContext();
+		double neededTime = timeContext.containsActivity(label) ? timeContext.getTimeFor(label) : 0.0;
+		if(neededTime > 0){
+			firingCase.working[transition] = true;
+			firingCase.pendingCompletions++;
+			Completion completion = completionPool.isEmpty() ? new Completion() : completionPool.pop();
+			completion.completedCase = firingCase;
+			completion.transition = transition;
+			completion.resources = resources;
+			calendar.add(time + neededTime, completion);
+			if(resources != null)
+				statisticListener.ressourceUsageChange(time, ExecutionState.START, transitionObject, resources);
+			statisticListener.transitionStateChange(time, ExecutionState.START, transitionObject);
+			statisticListener.transitionStateChange(time + neededTime, ExecutionState.END, transitionObject);
+		} else {
+			statisticListener.transitionStateChange(time, ExecutionState.INSTANT, transitionObject);
+			int[] postPlaces = model.compiledNet.getPostPlaces(transition);
+			int[] postWeights = model.compiledNet.getPostWeights(transition);
+			for(int i=0; i<postPlaces.length; i++){
+				firingCase.marking[postPlaces[i]] += postWeights[i];
+			}
+			if(resources != null){
+				resourceContext.unBlockResources(resources);
+				resourcesReleased = true;
+			}
+		}
+		return true;
+	}
+
+	private void releaseResources(NetModel model, int transition, List<String> resources) {
+		if(resources == null)
+			return;
+		model.net.getResourceContext().unBlockResources(resources);
+		statisticListener.ressourceUsageChange(time, ExecutionState.END, model.transitions[transition], resources);
+		resourcesReleased = true;
+	}
+
+	/**
+	 * Wakes the longest waiting case of every activity whose resources are available again.
+	 * Waking one case at a time avoids examining all waiting cases after every release and serves waiting cases first come, first served.
+	 * @return <code>true</code> if some case was woken.
+	 */
+	private boolean wakeWaitingCases() {
+		boolean woken = false;
+		for(NetModel model : models){
+			if(model.waitingCaseCount == 0)
+				continue;
+			IResourceContext resourceContext = model.net.getResourceContext();
+			for(Entry<String, ArrayDeque<Case>> entry : model.waitingCases.entrySet()){
+				ArrayDeque<Case> waitingCases = entry.getValue();
+				if(waitingCases.isEmpty() || !resourceContext.hasAvailableResourceSetFor(entry.getKey()))
+					continue;
+				// 过时的登记最多导致多余的检查
+				Case waitingCase = waitingCases.poll();
+				model.waitingCaseCount--;
+				if(!waitingCase.finished){
+					makeReady(waitingCase);
+					woken = true;
+				}
+			}
+		}
+		return woken;
+	}
+
+	private void wakeWaitingCasesAfterRelease() {
+		if(resourcesReleased){
+			resourcesReleased = false;
+			wakeWaitingCases();
+		}
+	}
+
+	private boolean checkFinished(Case checkedCase) {
+		NetModel model = checkedCase.model;
+		for(int drainPlace : model.drainPlaces){
+			if(checkedCase.marking[drainPlace] > 0){
+				checkedCase.finished = true;
+				activeCases--;
+				double cycleTime = time - checkedCase.arrivalTime;
+				model.cycleTimes.add(cycleTime);
+				if(model.net.getDeadline() > 0)
+					statisticListener.reachedDeadline(model.net.getName(), cycleTime, model.net.getDeadline(), cycleTime > model.net.getDeadline());
+				recycleIfIdle(checkedCase);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void makeReady(Case readyCase) {
+		if(readyCase.ready)
+			return;
+		readyCase.ready = true;
+		readyCases.add(readyCase);
+	}
+
+	private Case takeRandomReadyCase() {
+		int index = caseRandom.nextInt(readyCases.size());
+		Case result = readyCases.get(index);
+		readyCases.set(index, readyCases.get(readyCases.size() - 1));
+		readyCases.remove(readyCases.size() - 1);
+		result.ready = false;
+		return result;
+	}
+
+	/**
+	 * Returns a finished case to the pool as soon as no completion of the case is pending and it is not in the list of ready cases,
+	 * so that a new case never shares its state with an old one.
+	 */
+	private void recycleIfIdle(Case finishedCase) {
+		if(finishedCase.finished && finishedCase.pendingCompletions == 0 && !finishedCase.ready)
+			finishedCase.model.casePool.push(finishedCase);
+	}
+
+	//------- Model --------------------------------------------------------------------------------
+
+	/**
+	 * Shared, immutable part of all cases of a net.
+	 */
+	private static class NetModel {
+
+		private TimedNet net = null;
+		private CompiledPTNet<TimedMarking> compiledNet = null;
+		private TimedTransition[] transitions = null;
+		private String[] labels = null;
+		private int[] drainPlaces = null;
+		private int[] initialMarking = null;
+		private ArrivalProcess arrivalProcess = null;
+		private int caseCount = 0;
+
+		private int arrivedCases = 0;
+		private ArrayList<Double> cycleTimes = null;
+		private ArrayDeque<Case> casePool = new ArrayDeque<>();
+		/** 按活动登记的等待资源的案例 */
+		private Map<String, ArrayDeque<Case>> waitingCases = new LinkedHashMap<>();
+		private int waitingCaseCount = 0;
+		private int[] enabledTransitions = null;
+		private int[] candidates = null;
+
+		private NetModel(TimedNet net, ArrivalProcess arrivalProcess, int caseCount) {
+			this.net = net;
+			this.arrivalProcess = arrivalProcess;
+			this.caseCount = caseCount;
+			compiledNet = new CompiledPTNet<TimedMarking>(net);
+			int transitionCount = compiledNet.getTransitionCount();
+			transitions = new TimedTransition[transitionCount];
+			labels = new String[transitionCount];
+			for(int t=0; t<transitionCount; t++){
+				transitions[t] = net.getTransition(compiledNet.getTransitionName(t));
+				labels[t] = compiledNet.getTransitionLabel(t);
+			}
+			drainPlaces = new int[net.getDrainPlaces().size()];
+			int p = 0;
+			for(TimedNetPlace drainPlace : net.getDrainPlaces()){
+				drainPlaces[p++] = compiledNet.getPlaceIndex(drainPlace.getName());
+			}
+			initialMarking = compiledNet.getInitialMarking();
+			enabledTransitions = new int[transitionCount];
+			candidates = new int[transitionCount];
+		}
+
+		private void reset() {
+			arrivedCases = 0;
+			cycleTimes = new ArrayList<>(caseCount);
+			casePool.clear();
+			waitingCases.clear();
+			waitingCaseCount = 0;
+		}
+
+		private void addWaitingCase(String activity, Case waitingCase) {
+			ArrayDeque<Case> cases = waitingCases.get(activity);
+			if(cases == null){
+				cases = new ArrayDeque<>();
+				waitingCases.put(activity, cases);
+			}
+			cases.add(waitingCase);
+			waitingCaseCount++;
+		}
+
+	}
+
+	/**
+	 * State of a single case.
+	 */
+	private static class Case {
+
+		private NetModel model = null;
+		private int[] marking = null;
+		private boolean[] working = null;
+		private double arrivalTime = 0.0;
+		private int pendingCompletions = 0;
+		private boolean ready = false;
+		private boolean finished = false;
+
+		private Case(NetModel model) {
+			this.model = model;
+			marking = new int[model.compiledNet.getPlaceCount()];
+			working = new boolean[model.compiledNet.getTransitionCount()];
+		}
+
+		private void start(double arrivalTime) {
+			System.arraycopy(model.initialMarking, 0, marking, 0, marking.length);
+			for(int t=0; t<working.length; t++){
+				working[t] = false;
+			}
+			this.arrivalTime = arrivalTime;
+			pendingCompletions = 0;
+			ready = false;
+			finished = false;
+		}
+
+	}
+
+	private static class Completion {
+		private Case completedCase = null;
+		private int transition = 0;
+		private List<String> resources = null;
+	}
+
+}
@@ -0,0 +1,228 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.invation.code.toval.validate.ParameterException;
+
+/**
+ * 事件日历<br>
+ * Priority queue of timed events for the discrete-event simulation of timed nets.
+ * Events are returned in ascending order of their time, events with equal time in the order of their insertion (FIFO).<br>
+ * <br>
+ * The calendar is a binary heap over parallel arrays of primitive times and insertion numbers,
+ * so scheduling an event neither boxes its time nor allocates an entry object.
+ * The arrays grow on demand and are kept on {@link #clear()}, so a calendar can be reused across simulation runs.
+ * The same holds for the work arrays of {@link #getNextEvents()}, which are sized by the number of events at the next time.
+ *
+ * @param <E> 事件类型
+ */
+public class EventCalendar<E> implements Serializable {
+
+	private static final long serialVersionUID = -3402591624406331385L;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private double[] times = null;
+	/** 插入序号，相同时间的事件按其排序 */
+	private long[] sequenceNumbers = null;
+	private Object[] events = null;
+	private int size = 0;
+	private long nextSequenceNumber = 0;
+
+	/** {@link #getNextEvents()}的工作数组，按访问的子堆大小增长并在调用之间重用 */
+	private transient int[] scratchStack = null;
+	private transient int[] scratchIndices = null;
+
+	public EventCalendar() {
+		times = new double[DEFAULT_CAPACITY];
+		sequenceNumbers = new long[DEFAULT_CAPACITY];
+		events = new Object[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Creates a copy of the given calendar, which contains the same events in the same order.
+	 */
+	public EventCalendar(EventCalendar<? extends E> calendar) {
+		times = Arrays.copyOf(calendar.times, calendar.times.length);
+		sequenceNumbers = Arrays.copyOf(calendar.sequenceNumbers, calendar.sequenceNumbers.length);
+		events = Arrays.copyOf(calendar.events, calendar.events.length);
+		size = calendar.size;
+		nextSequenceNumber = calendar.nextSequenceNumber;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Schedules the given event at the given time.
+	 * @param time 事件时间
+	 * @param event 事件
+	 * @throws ParameterException If the time is NaN.
+	 */
+	public void add(double time, E event) {
+		if(Double.isNaN(time))
+			throw new ParameterException("Event time must not be NaN.");
+		if(size == times.length){
+			int capacity = times.length * 2;
+			times = Arrays.copyOf(times, capacity);
+			sequenceNumbers = Arrays.copyOf(sequenceNumbers, capacity);
+			events = Arrays.copyOf(events, capacity);
+		}
+		siftUp(size++, time, nextSequenceNumber++, event);
+	}
+
+	/**
+	 * Returns the time of the next event.
+	 * @throws IllegalStateException If the calendar is empty.
+	 */
+	public double peekTime() {
+		checkNotEmpty();
+		return times[0];
+	}
+
+	/**
+	 * Returns the next event without removing it.
+	 * @throws IllegalStateException If the calendar is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		checkNotEmpty();
+		return (E) events[0];
+	}
+
+	/**
+	 * Removes and returns the next event.
+	 * @throws IllegalStateException If the calendar is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		checkNotEmpty();
+		E event = (E) events[0];
+		int last = --size;
+		double time = times[last];
+		long sequenceNumber = sequenceNumbers[last];
+		Object lastEvent = events[last];
+		events[last] = null;
+		if(last > 0)
+			siftDown(0, time, sequenceNumber, lastEvent);
+		return event;
+	}
+
+	/**
+	 * Returns all events scheduled at the time of the next event in FIFO order, without removing them.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<E> getNextEvents() {
+		if(isEmpty())
+			return new ArrayList<>();
+		if(scratchStack == null){
+			scratchStack = new int[DEFAULT_CAPACITY];
+			scratchIndices = new int[DEFAULT_CAPACITY];
+		}
+		int[] stack = scratchStack;
+		int[] indices = scratchIndices;
+		// 时间最早的事件构成以根为顶点的子堆
+		int stackSize = 0;
+		int count = 0;
+		stack[stackSize++] = 0;
+		while(stackSize > 0){
+			int index = stack[--stackSize];
+			if(index >= size || times[index] != times[0])
+				continue;
+			if(count == indices.length)
+				indices = scratchIndices = Arrays.copyOf(indices, count * 2);
+			// 按插入序号插入排序
+			int position = count++;
+			while(position > 0 && sequenceNumbers[indices[position - 1]] > sequenceNumbers[index]){
+				indices[position] = indices[position - 1];
+				position--;
+			}
+			indices[position] = index;
+			if(stackSize + 2 > stack.length)
+				stack = scratchStack = Arrays.copyOf(stack, stack.length * 2);
+			stack[stackSize++] = 2 * index + 1;
+			stack[stackSize++] = 2 * index + 2;
+		}
+		List<E> result = new ArrayList<>(count);
+		for(int i=0; i<count; i++){
+			result.add((E) events[indices[i]]);
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all events at the time of the next event.
+	 */
+	public void removeNextEvents() {
+		double time = peekTime();
+		while(!isEmpty() && times[0] == time){
+			poll();
+		}
+	}
+
+	/**
+	 * Removes all events. The insertion numbers start again at 0.
+	 */
+	public void clear() {
+		Arrays.fill(events, 0, size, null);
+		size = 0;
+		nextSequenceNumber = 0;
+	}
+
+	private void checkNotEmpty() {
+		if(size == 0)
+			throw new IllegalStateException("Event calendar is empty.");
+	}
+
+	private void siftUp(int index, double time, long sequenceNumber, Object event) {
+		while(index > 0){
+			int parent = (index - 1) >>> 1;
+			if(!before(time, sequenceNumber, times[parent], sequenceNumbers[parent]))
+				break;
+			set(index, parent);
+			index = parent;
+		}
+		times[index] = time;
+		sequenceNumbers[index] = sequenceNumber;
+		events[index] = event;
+	}
+
+	private void siftDown(int index, double time, long sequenceNumber, Object event) {
+		int half = size >>> 1;
+		while(index < half){
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if(right < size && before(times[right], sequenceNumbers[right], times[child], sequenceNumbers[child]))
+				child = right;
+			if(!before(times[child], sequenceNumbers[child], time, sequenceNumber))
+				break;
+			set(index, child);
+			index = child;
+		}
+		times[index] = time;
+		sequenceNumbers[index] = sequenceNumber;
+		events[index] = event;
+	}
+
+	/**
+	 * Checks if the first event is returned before the second one.
+	 */
+	private static boolean before(double time, long sequenceNumber, double otherTime, long otherSequenceNumber) {
+		return time < otherTime || (time == otherTime && sequenceNumber < otherSequenceNumber);
+	}
+
+	private void set(int index, int source) {
+		times[index] = times[source];
+		sequenceNumbers[index] = sequenceNumbers[source];
+		events[index] = events[source];
+	}
+
+}
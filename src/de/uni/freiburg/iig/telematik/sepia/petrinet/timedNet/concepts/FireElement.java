@@ -28,7 +28,8 @@ public class FireElement {
 	public FireElement(AbstractTimedTransition t, double time) {
 		this.t=t;
 		this.time=time;
-		this.resources.addAll(t.getUsedResources());
+		if(t.getUsedResources()!=null)
+			this.resources.addAll(t.getUsedResources());
 	}
 	
 	public double getTime() {
@@ -0,0 +1,21 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import java.util.Random;
+
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreams;
+
+/**
+ * Resource and time contexts implementing this interface draw their random numbers from the generator of the simulation,
+ * so that simulations with {@link RandomStreams} can be reproduced.
+ * Resource contexts get the stream {@link RandomStreams#RESOURCES}, time contexts the stream {@link RandomStreams#DURATIONS}.
+ *
+ * @see WorkflowTimeMachine#setRandomStreams(RandomStreams)
+ */
+public interface IRandomized {
+
+	/**
+	 * Sets the random generator. <code>null</code> resets to the default generator of the implementation.
+	 */
+	public void setRandom(Random random);
+
+}
@@ -20,6 +20,16 @@ public interface IResourceContext extends NamedComponent {
 
         public List<String> getRandomAvailableResourceSetFor(String activity, boolean blockResources);
 
+        /**returns true if the activity needs no resources or one of its allowed resource sets is available. Used to check if a transition can fire without choosing resources.
+         * Like {@link de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.AbstractTimedTransition#fire()}, an activity without resources ({@link #needsResources(String)}) does not wait for a resource set.
+         * The default implementation requests a resource set without blocking it; implementations can override it to avoid creating the set**/
+        public default boolean hasAvailableResourceSetFor(String activity) {
+                if(!needsResources(activity))
+                        return true;
+                List<String> resources = getRandomAvailableResourceSetFor(activity, false);
+                return resources != null && !resources.isEmpty();
+        }
+
         public boolean isAvailable(String resourceName);
 
         public IResource getResourceObject(String resourceName);
@@ -10,6 +10,8 @@ public interface IStatisticListener {
 	public void ressourceUsageChange(double time, ExecutionState state, AbstractTimedTransition transition, List<String> resources);
 	public void reachedDeadline(String netName, double time, double deadline, boolean missed);
 	public void reset();
+	/**inform listener that a new simulation run begins**/
+	public void simulationRestarted();
 	
 
 }
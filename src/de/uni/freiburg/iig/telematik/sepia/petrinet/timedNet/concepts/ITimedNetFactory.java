@@ -0,0 +1,18 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import java.util.List;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNet;
+
+/**
+ * Creates the nets of a simulation context, see {@link WorkflowTimeMachine#simulateReplications(ITimedNetFactory, int, int, long)}.<br>
+ * Every call has to return new nets with their own resource and time contexts,
+ * as nets of different simulation contexts are simulated concurrently.
+ * The factory itself is called from several threads.
+ */
+public interface ITimedNetFactory {
+	
+	public List<TimedNet> createNets() throws PNException;
+
+}
@@ -0,0 +1,378 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 索引资源上下文<br>
+ * Resource context in which every activity can be executed with one of several allowed resource sets,
+ * e.g. a clerk together with a terminal. An activity can be executed if all resources of one of its sets are available.
+ * Activities without resource sets do not need resources.<br>
+ * <br>
+ * The context keeps the allocation state indexed, so that the simulation does not have to search for available resources:
+ * <ul>
+ * <li>every resource set counts its blocked resources,</li>
+ * <li>every activity keeps a free-list of its available resource sets,</li>
+ * <li>every resource knows the resource sets it belongs to.</li>
+ * </ul>
+ * Checking if an activity can be executed and choosing an available resource set take constant time.
+ * Blocking and unblocking a resource takes time linear in the number of resource sets containing it.<br>
+ * <br>
+ * The context is not thread-safe.
+ */
+public class IndexedResourceContext implements IResourceContext, IRandomized {
+
+	private String name = null;
+
+	private List<String> resourceNames = new ArrayList<>();
+	private Map<String, Integer> resourceIndices = new HashMap<>();
+	private boolean[] blocked = new boolean[0];
+	private int blockedCount = 0;
+	/** 每个资源所属的资源集合 */
+	private int[][] setsOfResource = new int[0][];
+
+	private Map<String, Integer> activityIndices = new HashMap<>();
+	/** 每个资源集合的资源 */
+	private List<int[]> setResources = new ArrayList<>();
+	private int[] setActivity = new int[0];
+	/** 每个资源集合中被占用的资源数 */
+	private int[] setBlockedCounts = new int[0];
+	/** 每个活动的可用资源集合（空闲链表），setPositions为集合在其中的位置 */
+	private int[][] freeSets = new int[0][];
+	private int[] freeSetCounts = new int[0];
+	private int[] setPositions = new int[0];
+	private int[] activitySetCounts = new int[0];
+
+	/** 为null时使用ThreadLocalRandom */
+	private Random random = null;
+
+	public IndexedResourceContext(String name) {
+		setName(name);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public void setName(String name) {
+		Validate.notNull(name);
+		this.name = name;
+	}
+
+	/**
+	 * Sets the random generator used for choosing among available resource sets. <code>null</code> resets to {@link ThreadLocalRandom}.
+	 */
+	@Override
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	//------- Configuration ------------------------------------------------------------------------
+
+	/**
+	 * Adds a resource to the context, if it is not already contained.
+	 * @return The index of the resource.
+	 */
+	public int addResource(String resourceName) {
+		Validate.notNull(resourceName);
+		Integer index = resourceIndices.get(resourceName);
+		if(index != null)
+			return index;
+		index = resourceNames.size();
+		resourceNames.add(resourceName);
+		resourceIndices.put(resourceName, index);
+		blocked = Arrays.copyOf(blocked, index + 1);
+		setsOfResource = Arrays.copyOf(setsOfResource, index + 1);
+		setsOfResource[index] = new int[0];
+		return index;
+	}
+
+	/**
+	 * Allows the given activity to be executed with the given resources.
+	 * Resources that are not contained in the context are added.
+	 * @param activity 活动
+	 * @param resources 资源集合
+	 * @throws ParameterException If the resource set is empty.
+	 */
+	public void addResourceSet(String activity, List<String> resources) {
+		Validate.notNull(activity);
+		Validate.notNull(resources);
+		Set<Integer> indices = new LinkedHashSet<>();
+		for(String resource : resources){
+			indices.add(addResource(resource));
+		}
+		if(indices.isEmpty())
+			throw new ParameterException("Resource set must not be empty.");
+
+		Integer activityIndex = activityIndices.get(activity);
+		if(activityIndex == null){
+			activityIndex = activityIndices.size();
+			activityIndices.put(activity, activityIndex);
+			freeSets = Arrays.copyOf(freeSets, activityIndex + 1);
+			freeSets[activityIndex] = new int[0];
+			freeSetCounts = Arrays.copyOf(freeSetCounts, activityIndex + 1);
+			activitySetCounts = Arrays.copyOf(activitySetCounts, activityIndex + 1);
+		}
+
+		int set = setResources.size();
+		int[] members = new int[indices.size()];
+		int i = 0;
+		int blockedMembers = 0;
+		for(int resource : indices){
+			members[i++] = resource;
+			setsOfResource[resource] = Arrays.copyOf(setsOfResource[resource], setsOfResource[resource].length + 1);
+			setsOfResource[resource][setsOfResource[resource].length - 1] = set;
+			if(blocked[resource])
+				blockedMembers++;
+		}
+		setResources.add(members);
+		setActivity = Arrays.copyOf(setActivity, set + 1);
+		setActivity[set] = activityIndex;
+		setBlockedCounts = Arrays.copyOf(setBlockedCounts, set + 1);
+		setBlockedCounts[set] = blockedMembers;
+		setPositions = Arrays.copyOf(setPositions, set + 1);
+		setPositions[set] = -1;
+		// 空闲链表要能容纳活动的所有资源集合
+		if(freeSets[activityIndex].length < ++activitySetCounts[activityIndex])
+			freeSets[activityIndex] = Arrays.copyOf(freeSets[activityIndex], Math.max(4, 2 * freeSets[activityIndex].length));
+		if(blockedMembers == 0)
+			addFreeSet(set);
+	}
+
+	//------- Allocation ---------------------------------------------------------------------------
+
+	@Override
+	public boolean needsResources(String activity) {
+		return activityIndices.containsKey(activity);
+	}
+
+	@Override
+	public boolean hasAvailableResourceSetFor(String activity) {
+		Integer activityIndex = activityIndices.get(activity);
+		return activityIndex == null || freeSetCounts[activityIndex] > 0;
+	}
+
+	/**
+	 * Returns the number of currently available resource sets of the given activity.
+	 */
+	public int getAvailableResourceSetCount(String activity) {
+		Integer activityIndex = activityIndices.get(activity);
+		return activityIndex == null ? 0 : freeSetCounts[activityIndex];
+	}
+
+	/**
+	 * Chooses one of the available resource sets of the activity uniformly at random.
+	 * @return A new list with the resources of the chosen set,
+	 * an empty list if the activity needs no resources, or <code>null</code> if no resource set is available.
+	 */
+	@Override
+	public List<String> getRandomAvailableResourceSetFor(String activity, boolean blockResources) {
+		Integer activityIndex = activityIndices.get(activity);
+		if(activityIndex == null)
+			return new ArrayList<>();
+		int count = freeSetCounts[activityIndex];
+		if(count == 0)
+			return null;
+		int set = freeSets[activityIndex][count == 1 ? 0 : getRandom().nextInt(count)];
+		int[] members = setResources.get(set);
+		List<String> result = new ArrayList<>(members.length);
+		for(int resource : members){
+			result.add(resourceNames.get(resource));
+		}
+		if(blockResources){
+			for(int resource : members){
+				block(resource);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<String> getAllowedResourcesFor(String activity) {
+		Set<String> result = new LinkedHashSet<>();
+		Integer activityIndex = activityIndices.get(activity);
+		if(activityIndex != null){
+			for(int set=0; set<setResources.size(); set++){
+				if(setActivity[set] != activityIndex)
+					continue;
+				for(int resource : setResources.get(set)){
+					result.add(resourceNames.get(resource));
+				}
+			}
+		}
+		return new ArrayList<>(result);
+	}
+
+	@Override
+	public void blockResources(List<String> resources) {
+		if(resources == null)
+			return;
+		for(String resource : resources){
+			block(getResourceIndex(resource));
+		}
+	}
+
+	@Override
+	public void unBlockResources(List<String> resources) {
+		if(resources == null)
+			return;
+		for(String resource : resources){
+			unblock(getResourceIndex(resource));
+		}
+	}
+
+	@Override
+	public boolean isAvailable(String resourceName) {
+		return !blocked[getResourceIndex(resourceName)];
+	}
+
+	@Override
+	public boolean containsBlockedResources() {
+		return blockedCount > 0;
+	}
+
+	@Override
+	public IResource getResourceObject(String resourceName) {
+		return new Resource(getResourceIndex(resourceName));
+	}
+
+	/**
+	 * Unblocks all resources.
+	 */
+	@Override
+	public void reset() {
+		for(int resource=0; resource<blocked.length; resource++){
+			unblock(resource);
+		}
+	}
+
+	@Override
+	public void renameResource(String oldName, String newName) {
+		Validate.notNull(newName);
+		int resource = getResourceIndex(oldName);
+		if(resourceIndices.containsKey(newName))
+			throw new ParameterException("Resource " + newName + " already exists.");
+		resourceIndices.remove(oldName);
+		resourceIndices.put(newName, resource);
+		resourceNames.set(resource, newName);
+	}
+
+	private int getResourceIndex(String resourceName) {
+		Validate.notNull(resourceName);
+		Integer resource = resourceIndices.get(resourceName);
+		if(resource == null)
+			throw new ParameterException("Unknown resource: " + resourceName);
+		return resource;
+	}
+
+	private Random getRandom() {
+		return random != null ? random : ThreadLocalRandom.current();
+	}
+
+	private void block(int resource) {
+		if(blocked[resource])
+			return;
+		blocked[resource] = true;
+		blockedCount++;
+		for(int set : setsOfResource[resource]){
+			if(setBlockedCounts[set]++ == 0)
+				removeFreeSet(set);
+		}
+	}
+
+	private void unblock(int resource) {
+		if(!blocked[resource])
+			return;
+		blocked[resource] = false;
+		blockedCount--;
+		for(int set : setsOfResource[resource]){
+			if(--setBlockedCounts[set] == 0)
+				addFreeSet(set);
+		}
+	}
+
+	private void addFreeSet(int set) {
+		int activity = setActivity[set];
+		int position = freeSetCounts[activity]++;
+		freeSets[activity][position] = set;
+		setPositions[set] = position;
+	}
+
+	/**
+	 * Removes a set from the free-list of its activity by replacing it with the last entry.
+	 */
+	private void removeFreeSet(int set) {
+		int activity = setActivity[set];
+		int position = setPositions[set];
+		int last = freeSets[activity][--freeSetCounts[activity]];
+		freeSets[activity][position] = last;
+		setPositions[last] = position;
+		setPositions[set] = -1;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(name);
+		builder.append(": ");
+		for(int resource=0; resource<resourceNames.size(); resource++){
+			builder.append(resourceNames.get(resource));
+			if(blocked[resource])
+				builder.append("(blocked)");
+			builder.append(' ');
+		}
+		return builder.toString();
+	}
+
+	private class Resource implements IResource {
+
+		private int resource;
+
+		private Resource(int resource) {
+			this.resource = resource;
+		}
+
+		@Override
+		public String getName() {
+			return resourceNames.get(resource);
+		}
+
+		@Override
+		public void setName(String name) {
+			renameResource(getName(), name);
+		}
+
+		@Override
+		public boolean isAvailable() {
+			return !blocked[resource];
+		}
+
+		@Override
+		public void use() {
+			block(resource);
+		}
+
+		@Override
+		public void unUse() {
+			unblock(resource);
+		}
+
+		@Override
+		public void reset() {
+			unblock(resource);
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 在线统计量<br>
+ * Aggregates a stream of values in constant memory: count, mean and variance (Welford's algorithm), minimum, maximum
+ * and a histogram for approximate quantiles.<br>
+ * <br>
+ * The histogram covers the non-negative values with a fixed number of equally wide bins.
+ * The bin width is initialized with the first positive value and doubled (merging neighbouring bins) whenever a value exceeds the range,
+ * so quantiles are accurate up to one bin width. Negative values are counted in the first bin.
+ */
+public class OnlineStatistics {
+
+	public static final int DEFAULT_BIN_COUNT = 64;
+
+	private long count = 0;
+	private double mean = 0.0;
+	/** 与均值之差的平方和 */
+	private double squaredDeviations = 0.0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	private long[] bins = null;
+	/** 为0时尚未确定 */
+	private double binWidth = 0.0;
+
+	public OnlineStatistics() {
+		this(DEFAULT_BIN_COUNT);
+	}
+
+	/**
+	 * @param binCount 直方图的分箱数（偶数）
+	 * @throws ParameterException If the bin count is not a positive even number.
+	 */
+	public OnlineStatistics(int binCount) {
+		Validate.bigger(binCount, 0);
+		if(binCount % 2 != 0)
+			throw new ParameterException("Bin count must be even.");
+		bins = new long[binCount];
+	}
+
+	/**
+	 * Adds the given value.
+	 * @throws ParameterException If the value is NaN or infinite.
+	 */
+	public void add(double value) {
+		if(Double.isNaN(value) || Double.isInfinite(value))
+			throw new ParameterException("Value must be finite.");
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		squaredDeviations += delta * (value - mean);
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+
+		if(value > 0.0 && binWidth == 0.0)
+			binWidth = value;
+		while(binWidth > 0.0 && value >= bins.length * binWidth){
+			// 合并相邻分箱，宽度加倍
+			for(int i=0; i<bins.length/2; i++){
+				bins[i] = bins[2 * i] + bins[2 * i + 1];
+			}
+			for(int i=bins.length/2; i<bins.length; i++){
+				bins[i] = 0;
+			}
+			binWidth *= 2.0;
+		}
+		bins[value > 0.0 ? (int) (value / binWidth) : 0]++;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the mean of all values, or NaN if there are no values.
+	 */
+	public double getMean() {
+		return count > 0 ? mean : Double.NaN;
+	}
+
+	public double getSum() {
+		return mean * count;
+	}
+
+	/**
+	 * Returns the sample variance of all values, or NaN if there are less than two values.
+	 */
+	public double getVariance() {
+		return count > 1 ? squaredDeviations / (count - 1) : Double.NaN;
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * Returns the minimum of all values, or NaN if there are no values.
+	 */
+	public double getMin() {
+		return count > 0 ? min : Double.NaN;
+	}
+
+	/**
+	 * Returns the maximum of all values, or NaN if there are no values.
+	 */
+	public double getMax() {
+		return count > 0 ? max : Double.NaN;
+	}
+
+	/**
+	 * Returns an estimation of the given quantile based on the histogram, or NaN if there are no values.
+	 * @param quantile 分位数（0至1）
+	 * @throws ParameterException If the quantile is not within [0,1].
+	 */
+	public double getQuantile(double quantile) {
+		if(!(quantile >= 0.0 && quantile <= 1.0))
+			throw new ParameterException("Quantile must be within [0,1].");
+		if(count == 0)
+			return Double.NaN;
+		double target = quantile * count;
+		long cumulated = 0;
+		double estimation = max;
+		for(int i=0; i<bins.length; i++){
+			if(bins[i] > 0 && cumulated + bins[i] >= target){
+				// 在分箱内线性插值
+				estimation = (i + (target - cumulated) / bins[i]) * binWidth;
+				break;
+			}
+			cumulated += bins[i];
+		}
+		return Math.max(min, Math.min(max, estimation));
+	}
+
+	public void reset() {
+		count = 0;
+		mean = 0.0;
+		squaredDeviations = 0.0;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+		binWidth = 0.0;
+		for(int i=0; i<bins.length; i++){
+			bins[i] = 0;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("n=%s, mean=%s, sd=%s, min=%s, median=%s, max=%s", count, getMean(), getStandardDeviation(), getMin(), getQuantile(0.5), getMax());
+	}
+
+}
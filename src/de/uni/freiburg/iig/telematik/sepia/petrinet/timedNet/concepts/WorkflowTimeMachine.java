@@ -1,43 +1,137 @@
 package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.TreeMap;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.AbstractTimedTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.StatisticListener;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.StreamingStatisticListener;
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreams;
 
+/**
+ * Simulates a set of timed nets on a common clock.<br>
+ * Besides the process-wide instance ({@link #getInstance()}), time machines can be created for independent simulation contexts.
+ * Every time machine has its own pending actions, statistic listener and random generator.
+ * With {@link #setRandomStreams(RandomStreams)}, the simulation is reproducible and draws the random numbers of different purposes
+ * (choice of nets, transitions and resources, durations and arrivals) from different streams.
+ * Nets added to a time machine report to this time machine and its statistic listener.
+ * Time machines are not thread-safe, but different time machines can simulate their (distinct) nets concurrently,
+ * see {@link #simulateReplications(ITimedNetFactory, int, int, long)}.
+ */
 public class WorkflowTimeMachine {
 	
-	protected static WorkflowTimeMachine myTimer = new WorkflowTimeMachine();
+	protected static WorkflowTimeMachine myTimer = new WorkflowTimeMachine(StatisticListener.getInstance());
 	protected double time;
 
 	
 	
-	TreeMap<Double, List<AbstractTimedTransition>> pending = new TreeMap<>(); //Time,<NetName,<PendingActions>>
+	EventCalendar<AbstractTimedTransition> pending = new EventCalendar<>(); //Time,<PendingActions>
 	HashMap<String,TimedNet> nets = new HashMap<>();
 	HashMap<String, ArrayList<Double>> result;
 	
 	private instanceManager instances = new instanceManager();
 	private int pendingActionCount;
+	
+	private IStatisticListener statisticListener;
+	private HashMap<String, ArrivalProcess> arrivalProcesses = new HashMap<>(); //netName, arrival process for case simulation
+	/** 为null时使用ThreadLocalRandom */
+	private Random random = null;
+	/** 不为null时优先于random */
+	private RandomStreams randomStreams = null;
 
 	
-	private WorkflowTimeMachine(){
+	/**creates a time machine for a new simulation context with its own statistic listener**/
+	public WorkflowTimeMachine(){
+		this(new StatisticListener());
+	}
+	
+	/**creates a time machine for a new simulation context reporting to the given statistic listener**/
+	public WorkflowTimeMachine(IStatisticListener statisticListener){
 		time = 0.0;
+		setStatisticListener(statisticListener);
 	}
 	
 	public static WorkflowTimeMachine getInstance(){
 		return myTimer;
 	}
 	
+	public IStatisticListener getStatisticListener(){
+		return statisticListener;
+	}
+	
+	/**
+	 * Sets the statistic listener of this simulation context,
+	 * e.g. a {@link StreamingStatisticListener} for long simulations with bounded memory.
+	 */
+	public void setStatisticListener(IStatisticListener statisticListener){
+		Validate.notNull(statisticListener);
+		this.statisticListener = statisticListener;
+	}
+	
+	/**returns the random generator used for choosing transitions within this simulation context**/
+	public Random getRandom(){
+		return getRandom(RandomStreams.TRANSITIONS);
+	}
+	
+	/**
+	 * Returns the random generator for the given purpose, e.g. {@link RandomStreams#NETS}.
+	 * Without random streams, all purposes share the generator set by {@link #setRandom(Random)}.
+	 */
+	public Random getRandom(String stream){
+		if(randomStreams != null)
+			return randomStreams.getStream(stream);
+		return random != null ? random : ThreadLocalRandom.current();
+	}
+	
+	/**sets one random generator for all purposes of this simulation context and removes the random streams. <code>null</code> resets to {@link ThreadLocalRandom}**/
+	public void setRandom(Random random){
+		this.randomStreams = null;
+		this.random = random;
+	}
+	
+	public RandomStreams getRandomStreams(){
+		return randomStreams;
+	}
+	
+	/**
+	 * Sets the random streams of this simulation context.
+	 * Resource and time contexts of the nets implementing {@link IRandomized} get the streams
+	 * {@link RandomStreams#RESOURCES} and {@link RandomStreams#DURATIONS}, also those of nets added later.
+	 * @param randomStreams <code>null</code> resets to {@link ThreadLocalRandom}
+	 */
+	public void setRandomStreams(RandomStreams randomStreams){
+		this.random = null;
+		this.randomStreams = randomStreams;
+		for(TimedNet net : nets.values()){
+			applyRandomStreams(net, randomStreams);
+		}
+	}
+	
+	/**passes the streams for resources and durations to the contexts of the net, <code>null</code> resets them**/
+	static void applyRandomStreams(TimedNet net, RandomStreams randomStreams){
+		if(net.getResourceContext() instanceof IRandomized)
+			((IRandomized) net.getResourceContext()).setRandom(randomStreams == null ? null : randomStreams.getStream(RandomStreams.RESOURCES));
+		if(net.getTimeContext() instanceof IRandomized)
+			((IRandomized) net.getTimeContext()).setRandom(randomStreams == null ? null : randomStreams.getStream(RandomStreams.DURATIONS));
+	}
+	
 	/**resets the pending actions only. The nets keep their states (current time and marking)**/
 	public void reset(){
 		time=0.0;
@@ -64,7 +158,7 @@ public class WorkflowTimeMachine {
 		
 		instances.reset();
 		
-		StatisticListener.getInstance().simulationRestarted();
+		statisticListener.simulationRestarted();
 		
 	}
 	
@@ -79,12 +173,13 @@ public class WorkflowTimeMachine {
 		reset();
 	}
 	
+	/**returns all pending actions at the time of the next pending action**/
 	public List<AbstractTimedTransition> getNextPendingActions(){
-		return pending.firstEntry().getValue();
+		return pending.getNextEvents();
 	}
 	
 	public double getNextPendingTime(){
-		return pending.firstKey();
+		return pending.peekTime();
 	}
 	
 //	public void checkPendingActions() throws PNException{
@@ -101,6 +196,9 @@ public class WorkflowTimeMachine {
 	
 	public void addNet(TimedNet net){
 		nets.put(net.getName(), net);
+		net.setTimeMachine(this);
+		if(randomStreams != null)
+			applyRandomStreams(net, randomStreams);
 	}
 	
 	public void addAllNets(List<TimedNet> nets){
@@ -125,10 +223,9 @@ public class WorkflowTimeMachine {
 	public HashMap<String, ArrayList<Double>> simulateAll(int steps) throws PNException {
 		//HashMap<String, ArrayList<Double>> result = createResultMap();
 		createResultMap();
-		StatisticListener.getInstance().reset();
+		statisticListener.reset();
 		
 		for (int i = 0;i<steps;i++){
-			if(i%5000==0)System.out.println((i*100/steps)+"%");
 			simulateAll();
 			
 			//add results
@@ -141,6 +238,175 @@ public class WorkflowTimeMachine {
 		return result;
 	}
 	
+	/**
+	 * Simulates the given number of independent replications in parallel and returns the needed time of every net in every replication.<br>
+	 * Replications are split into contiguous blocks, one for each worker thread.
+	 * Every worker simulates in its own simulation context, i.e. its own time machine with the nets created by the factory.
+	 * The workers aggregate their statistics with a {@link StreamingStatisticListener} without fire sequences, so their memory does not grow with the replications.
+	 * Replication i uses the random streams {@link RandomStreams#forReplication(int)} of the given seed,
+	 * so the simulation does not depend on the parallelism.<br>
+	 * The merged result has the same form as the result of {@link #simulateAll(int)}: the needed times in the order of the replications.
+	 * @param factory 为每个工作线程创建网
+	 * @param replications 重复次数
+	 * @param parallelism 工作线程数
+	 * @param seed 随机种子
+	 * @throws ParameterException If some parameters are invalid.
+	 * @throws PNException If the simulation of some replication fails.
+	 * @throws InterruptedException If the calling thread is interrupted during simulation.
+	 */
+	public static HashMap<String, ArrayList<Double>> simulateReplications(final ITimedNetFactory factory, int replications, int parallelism, final long seed) throws PNException, InterruptedException {
+		Validate.notNull(factory);
+		Validate.notNegative(replications);
+		Validate.bigger(parallelism, 0);
+		final int workers = Math.max(1, Math.min(parallelism, replications));
+		List<Callable<HashMap<String, ArrayList<Double>>>> tasks = new ArrayList<>(workers);
+		for(int w = 0; w < workers; w++){
+			// 每个工作线程处理连续的一段重复
+			final int firstReplication = (int) ((long) replications * w / workers);
+			final int lastReplication = (int) ((long) replications * (w + 1) / workers);
+			tasks.add(new Callable<HashMap<String, ArrayList<Double>>>() {
+				@Override
+				public HashMap<String, ArrayList<Double>> call() throws Exception {
+					WorkflowTimeMachine timeMachine = new WorkflowTimeMachine(new StreamingStatisticListener());
+					timeMachine.addAllNets(factory.createNets());
+					return timeMachine.simulateReplications(seed, firstReplication, lastReplication);
+				}
+			});
+		}
+		if(workers == 1){
+			try {
+				return tasks.get(0).call();
+			} catch (PNException | InterruptedException | RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new PNException("Exception during simulation.", e);
+			}
+		}
+		
+		HashMap<String, ArrayList<Double>> result = new HashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			List<Future<HashMap<String, ArrayList<Double>>>> futures = new ArrayList<>(workers);
+			for(Callable<HashMap<String, ArrayList<Double>>> task : tasks){
+				futures.add(executor.submit(task));
+			}
+			// 按工作线程顺序合并，保持重复的顺序
+			for(Future<HashMap<String, ArrayList<Double>>> future : futures){
+				try {
+					for(Entry<String, ArrayList<Double>> entry : future.get().entrySet()){
+						if(!result.containsKey(entry.getKey()))
+							result.put(entry.getKey(), new ArrayList<>(replications));
+						result.get(entry.getKey()).addAll(entry.getValue());
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof PNException)
+						throw (PNException) cause;
+					if(cause instanceof InterruptedException)
+						throw (InterruptedException) cause;
+					if(cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					throw new PNException("Exception in simulation worker thread.", cause);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return result;
+	}
+	
+	/**simulates the replications firstReplication (inclusive) to lastReplication (exclusive) with their own random streams**/
+	private HashMap<String, ArrayList<Double>> simulateReplications(long seed, int firstReplication, int lastReplication) throws PNException, InterruptedException {
+		resetAll();
+		createResultMap();
+		statisticListener.reset();
+		RandomStreams streams = new RandomStreams(seed);
+		for(int i = firstReplication; i < lastReplication; i++){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			setRandomStreams(streams.forReplication(i));
+			simulateAll();
+			updateResultMap();
+			resetAll();
+		}
+		return result;
+	}
+	
+	/**
+	 * Compares two variants of a model with common random numbers:
+	 * both variants are simulated with {@link #simulateReplications(ITimedNetFactory, int, int, long)} and the same seed,
+	 * so replication i of both variants uses the same random streams.
+	 * Returns the statistics of the differences (variant minus reference) of the needed times of every net contained in both variants.
+	 * Only mean and variance are meaningful, the histogram of {@link OnlineStatistics} does not cover negative differences.
+	 * If the variants differ e.g. only in scheduling or resources, the differences have a much smaller variance than those of independent simulations,
+	 * so less replications are needed for the same confidence.
+	 * @param variant 变体
+	 * @param reference 参照
+	 * @throws ParameterException If some parameters are invalid.
+	 * @throws PNException If the simulation of some replication fails.
+	 * @throws InterruptedException If the calling thread is interrupted during simulation.
+	 */
+	public static HashMap<String, OnlineStatistics> compareReplications(ITimedNetFactory variant, ITimedNetFactory reference, int replications, int parallelism, long seed) throws PNException, InterruptedException {
+		HashMap<String, ArrayList<Double>> variantResult = simulateReplications(variant, replications, parallelism, seed);
+		HashMap<String, ArrayList<Double>> referenceResult = simulateReplications(reference, replications, parallelism, seed);
+		HashMap<String, OnlineStatistics> differences = new HashMap<>();
+		for(Entry<String, ArrayList<Double>> entry : variantResult.entrySet()){
+			ArrayList<Double> referenceTimes = referenceResult.get(entry.getKey());
+			if(referenceTimes == null)
+				continue;
+			OnlineStatistics statistics = new OnlineStatistics();
+			for(int i = 0; i < entry.getValue().size() && i < referenceTimes.size(); i++){
+				statistics.add(entry.getValue().get(i) - referenceTimes.get(i));
+			}
+			differences.put(entry.getKey(), statistics);
+		}
+		return differences;
+	}
+	
+	/**
+	 * Sets the arrival process of the given net for {@link #simulateCases(int)}.
+	 * @param arrivalProcess <code>null</code> removes the arrival process
+	 */
+	public void setArrivalProcess(String netName, ArrivalProcess arrivalProcess){
+		Validate.notNull(netName);
+		if(arrivalProcess == null){
+			arrivalProcesses.remove(netName);
+		} else {
+			arrivalProcesses.put(netName, arrivalProcess);
+		}
+	}
+	
+	public ArrivalProcess getArrivalProcess(String netName){
+		return arrivalProcesses.get(netName);
+	}
+	
+	/**
+	 * Simulates the nets in case mode: instead of cloning recurring nets (see {@link #simulateAll(int)}),
+	 * the cases of a net share its structure and only own a marking and an arrival time, see {@link CaseSimulator}.
+	 * Nets with an arrival process get the given number of cases, all other nets a single case at time 0.
+	 * The nets themselves are not modified.
+	 * @param casesPerNet 每个有到达过程的网的案例数
+	 * @return The cycle time of every case for every net.
+	 * @throws PNException If some case cannot finish.
+	 */
+	public HashMap<String, ArrayList<Double>> simulateCases(int casesPerNet) throws PNException {
+		Validate.notNegative(casesPerNet);
+		CaseSimulator simulator = randomStreams != null ? new CaseSimulator(randomStreams, statisticListener) : new CaseSimulator(getRandom(), statisticListener);
+		for(TimedNet net : nets.values()){
+			if(instances.isClonedNet(net))
+				continue;
+			ArrivalProcess arrivalProcess = arrivalProcesses.get(net.getName());
+			if(arrivalProcess != null){
+				simulator.addNet(net, arrivalProcess, casesPerNet);
+			} else {
+				simulator.addNet(net, ArrivalProcess.constant(0.0), 1);
+			}
+		}
+		result = simulator.simulate();
+		return result;
+	}
+	
 	public HashMap<String, ArrayList<Double>> simulateExecutionPlan(int steps, FireSequence seq) throws PNException {
 		nets.clear();//remove old nets
 		for (TimedNet net: seq.getContainingNets())
@@ -148,7 +414,7 @@ public class WorkflowTimeMachine {
 		resetAll(); // reset recently added nets.
 
 		HashMap<String, ArrayList<Double>> result = createResultMap();
-		StatisticListener.getInstance().reset();
+		statisticListener.reset();
 		
 		for(int i = 0;i<steps;i++){
 			simulateExecutionPlan(seq);
@@ -169,7 +435,7 @@ public class WorkflowTimeMachine {
 				} else if(!pending.isEmpty())
 					simulateNextPendingAction();
 				else 
-					System.out.println("finished? "+allNetsFinished());
+					throw new PNException("Cannot fire transition "+e.getTransition().getName()+" of the execution plan: no pending actions left.");
 			}
 			//the last transition got fired but the pending action was never finished
 			if(!pending.isEmpty())
@@ -177,14 +443,17 @@ public class WorkflowTimeMachine {
 		}
 	}
 	
+	/**adds the needed times of the finished nets to the result and reports them to the statistic listener if the net has a deadline**/
 	private void updateResultMap(){
 		
 		for(Entry<String, TimedNet> netEntry:nets.entrySet()){
 			if(netEntry.getValue().isFinished()){
-				if(!instances.isClonedNet(netEntry.getKey()))
-					result.get(netEntry.getKey()).add(netEntry.getValue().getCurrentTime());}
-			else 
-				System.out.println("A net is not finished but it should be!");
+				if(!instances.isClonedNet(netEntry.getKey())){
+					TimedNet net = netEntry.getValue();
+					result.get(netEntry.getKey()).add(net.getCurrentTime());
+					if(net.getDeadline() > 0)
+						statisticListener.reachedDeadline(net.getName(), net.getCurrentTime(), net.getDeadline(), net.getCurrentTime() > net.getDeadline());
+				}}
 				//else {
 				//	double neededTime = netEntry.getValue().getCurrentTime()-instances.getOffset(netEntry.getKey());
 				//	result.get(instances.getOriginalNet(netEntry.getKey())).add(neededTime);
@@ -206,7 +475,6 @@ public class WorkflowTimeMachine {
 		}
 
 		if (!allNetsFinished()) {
-			System.out.println("Error: a net is not finished");
 			throw new RuntimeException("Not all nets finished!");  
 		}
 	}
@@ -216,17 +484,11 @@ public class WorkflowTimeMachine {
 		TimedNet net = drawRandomFireableNet();
 		if(net!=null){
 			//a net can fire
-			try {
-				net.fire(); //fire and add to sequence
-			} catch (PNException e) {
-				e.printStackTrace(); //it couldn't fire.
-			}
+			net.fire(); //fire and add to sequence
 		} else if(!pending.isEmpty()){
 			//do next pending Action. Set time accordingly to all nets
 			simulateNextPendingAction();
 		} else {
-			System.out.println("No more nets to simulating, no pending actions left");
-			System.out.println("All nets finished? "+allNetsFinished());
 			throw new PNException("No more nets to simulate. Nets not finished. Nets bounded and deadlock free?");
 		}
 	}
@@ -260,16 +522,13 @@ public class WorkflowTimeMachine {
 		
 		time = currentPendingTime;
 		
-		List<AbstractTimedTransition>transitions = getNextPendingActions();
-		
-		
 		updateTimeForWaitingNets(currentPendingTime); //fast-forward nets to next time.
 		
-		for (AbstractTimedTransition transition:transitions){
+		while (!pending.isEmpty() && pending.peekTime() == currentPendingTime){
+			AbstractTimedTransition transition = pending.poll();
 			transition.finishWork(); //inform
 			if(!instances.isClonedNet(transition.getNet().getName())) pendingActionCount--;
 		}
-		pending.remove(currentPendingTime);
 		//System.out.println(pending.toString());
 		
 	}
@@ -277,12 +536,8 @@ public class WorkflowTimeMachine {
 	protected void updateTimeForWaitingNets(double time) throws PNException{
 		for(TimedNet net:nets.values()){
 			if(!net.isFinished()){	
-				if(net.getCurrentTime()>time){
-					System.out.println("Breakpoint. Something wrong. Current overall time: "+time);
-					for (TimedNet n:nets.values()){
-						System.out.println(n.getName()+": "+n.getCurrentTime());
-					}
-				}
+				if(net.getCurrentTime()>time)
+					throw new PNException("Cannot go back in time. Net "+net.getName()+" is at "+net.getCurrentTime()+", overall time is "+time);
 				net.setCurrentTime(time);
 			}
 		}
@@ -321,8 +576,10 @@ public class WorkflowTimeMachine {
 				fireableNets.add(net.getName());
 		}
 		if(fireableNets.isEmpty()) return null;
+		// 按名称排序，使随机选择不依赖于HashMap的顺序
+		Collections.sort(fireableNets);
 		
-		int index = ThreadLocalRandom.current().nextInt(fireableNets.size());
+		int index = getRandom(RandomStreams.NETS).nextInt(fireableNets.size());
 		return nets.get(fireableNets.get(index));
 	}
 	
@@ -332,13 +589,7 @@ public class WorkflowTimeMachine {
 		//if(timePoint<time)
 		//	System.out.println("Pending action is in the past. Current time: "+time+" queued action finish time: "+timePoint);
 		
-		if(pending.containsKey(timePoint)){
-			pending.get(timePoint).add(t);
-		} else {
-			ArrayList<AbstractTimedTransition> actions = new ArrayList<>();
-			actions.add(t);
-			pending.put(timePoint, actions);
-		}
+		pending.add(timePoint, t);
 		
 		if(!instances.isClonedNet(t.getNet().getName())){
 			pendingActionCount++;
@@ -10,6 +10,7 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.ReplayMode;
 import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.TerminationCriteria;
 import de.uni.freiburg.iig.telematik.sepia.util.PNUtils;
 import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
@@ -17,6 +18,7 @@ import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
 public class Replay {
 	
 	public static final TerminationCriteria DEFAULT_TERMINATION_CRITERIA = TerminationCriteria.NO_ENABLED_TRANSITIONS;
+	public static final ReplayMode DEFAULT_REPLAY_MODE = ReplayMode.FITTING;
 	
 	
 //	private static final String doneReplayformat = "done [fitting=%s, not fitting=%s] [%s]";
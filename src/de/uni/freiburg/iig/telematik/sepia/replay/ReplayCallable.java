@@ -2,16 +2,33 @@ package de.uni.freiburg.iig.telematik.sepia.replay;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractPNPropertyCheckerCallable;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.MarkingKey;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.Alignment;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.AlignmentSearch;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.TokenReplayFitness;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.TokenReplayer;
 import de.uni.freiburg.iig.telematik.sepia.util.PNUtils;
 import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
 import de.uni.freiburg.iig.telematik.sewol.log.LogTrace;
@@ -38,120 +55,403 @@ public class ReplayCallable< P extends AbstractPlace<F,S>,
 		if(getGenerator().getLogTraces() == null && getGenerator().getActivitySequences() == null)
 			throw new ReplayException("Missing replaying input: activity sequences or log traces required");
 		
+		// 相同的活动序列（变体）只重放一次
+		List<List<String>> activitySequences = getGenerator().getActivitySequences();
+		Map<List<String>, Integer> variantIndices = new HashMap<List<String>, Integer>();
+		List<List<String>> variants = new ArrayList<List<String>>();
+		int[] traceVariants = new int[activitySequences.size()];
+		for (int i = 0; i < activitySequences.size(); i++) {
+			Integer variant = variantIndices.get(activitySequences.get(i));
+			if (variant == null) {
+				variant = variants.size();
+				variantIndices.put(activitySequences.get(i), variant);
+				variants.add(activitySequences.get(i));
+			}
+			traceVariants[i] = variant;
+		}
+		
 		Collection<LogTrace<E>> fittingTraces = new ArrayList<LogTrace<E>>();
 		Collection<LogTrace<E>> nonFittingTraces = new ArrayList<LogTrace<E>>();
 		Collection<List<String>> fittingSequences = new ArrayList<List<String>>();
 		Collection<List<String>> nonFittingSequences = new ArrayList<List<String>>();
 		try {
-			for (int i = 0; i < getGenerator().getActivitySequences().size(); i++) {
-				if (Thread.currentThread().isInterrupted()) {
-					throw new InterruptedException();
+			VariantResults results = null;
+			if (getGenerator().getParallelism() > 1 && variants.size() > 1) {
+				results = replayParallel(variants);
+			} else {
+				results = new VariantResults(variants.size(), getGenerator().getReplayMode());
+				VariantWorker worker = createWorker(getGenerator().getPetriNet(), requiresCompiledNet() ? createCompiledNet() : null);
+				for (int v = 0; v < variants.size(); v++) {
+					if (Thread.currentThread().isInterrupted()) {
+						throw new InterruptedException();
+					}
+					worker.replay(variants, v, results);
 				}
-				if (isReplayableRecursive(new ArrayList<String>(), getGenerator().getActivitySequences().get(i))) {
-					fittingSequences.add(getGenerator().getActivitySequences().get(i));
+			}
+			for (int i = 0; i < activitySequences.size(); i++) {
+				if (results.replayable[traceVariants[i]]) {
+					fittingSequences.add(activitySequences.get(i));
 					if (getGenerator().getLogTraces() != null)
 						fittingTraces.add(getGenerator().getLogTraces().get(i));
 				} else {
-					nonFittingSequences.add(getGenerator().getActivitySequences().get(i));
+					nonFittingSequences.add(activitySequences.get(i));
 					if (getGenerator().getLogTraces() != null)
 						nonFittingTraces.add(getGenerator().getLogTraces().get(i));
 				}
 			}
+			ReplayResult<E> result = new ReplayResult<E>(fittingTraces, nonFittingTraces, fittingSequences, nonFittingSequences);
+			if (results.tokenFitness != null) {
+				List<TokenReplayFitness> tokenFitness = new ArrayList<TokenReplayFitness>(activitySequences.size());
+				for (int i = 0; i < activitySequences.size(); i++) {
+					tokenFitness.add(results.tokenFitness[traceVariants[i]]);
+				}
+				result.setTokenFitness(tokenFitness);
+			}
+			if (results.alignments != null) {
+				List<Alignment> alignments = new ArrayList<Alignment>(activitySequences.size());
+				for (int i = 0; i < activitySequences.size(); i++) {
+					alignments.add(results.alignments[traceVariants[i]]);
+				}
+				result.setAlignments(alignments);
+			}
+			return result;
 		} catch (InterruptedException e) {
 			throw e;
 		} catch (Exception e) {
 			throw new ReplayException("Exception during replay.<br>Reason: " + e.getMessage(), e);
 		}
-		return new ReplayResult<E>(fittingTraces, nonFittingTraces, fittingSequences, nonFittingSequences);
 	}
 	
-	@SuppressWarnings("unchecked")
-	private synchronized boolean isReplayableRecursive(List<String> path, List<String> remainingActivities) throws PNException, InterruptedException{
-//		System.out.println("REC: " + path + ", " + remainingActivities);
-		getGenerator().getPetriNet().reset();
-		for(String pathActivity: path){
-			getGenerator().getPetriNet().fire(pathActivity);
-			if (Thread.currentThread().isInterrupted()) {
-				throw new InterruptedException();
+	/**
+	 * Distributes the variants over {@link ReplayCallableGenerator#getParallelism()} worker threads.
+	 * Every worker replays on its own clone of the net,
+	 * in compiled execution all workers share one immutable {@link CompiledPTNet}.
+	 * The net of the generator is not modified.
+	 */
+	private VariantResults replayParallel(final List<List<String>> variants) throws PNException, InterruptedException {
+		final VariantResults results = new VariantResults(variants.size(), getGenerator().getReplayMode());
+		final AtomicInteger cursor = new AtomicInteger();
+		CompiledPTNet<?> compiledNet = requiresCompiledNet() ? createCompiledNet() : null;
+		int parallelism = Math.min(getGenerator().getParallelism(), variants.size());
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>(parallelism);
+			for (int w = 0; w < parallelism; w++) {
+				final VariantWorker worker = createWorker(getGenerator().getPetriNet().clone(), compiledNet);
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						// 每个变体只由一个线程写入，结果通过Future.get()对调用线程可见
+						for (int v = cursor.getAndIncrement(); v < variants.size(); v = cursor.getAndIncrement()) {
+							if (Thread.currentThread().isInterrupted()) {
+								throw new InterruptedException();
+							}
+							worker.replay(variants, v, results);
+						}
+						return null;
+					}
+				}));
 			}
-		}
-		List<T> enabledTransitions = getGenerator().getPetriNet().getEnabledTransitions();
-//		System.out.println("enabled transitions: " + enabledTransitions);
-		if(remainingActivities.isEmpty()){
-			switch(getGenerator().getTerminationCriteria()){
-			case POSSIBLE_FIRING_SEQUENCE: return true;
-			case NO_ENABLED_TRANSITIONS: return enabledTransitions.isEmpty();
-			case ESCAPABLE_WITH_SILENT_TRANSITIONS:
-				if(enabledTransitions.isEmpty())
-					return true;
-				return escapableWithSilentTransitions(enabledTransitions, (M) getGenerator().getPetriNet().getMarking().clone());
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof PNException)
+						throw (PNException) cause;
+					if (cause instanceof InterruptedException)
+						throw (InterruptedException) cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					throw new ReplayException("Exception in replay worker thread.", cause);
+				}
 			}
+		} finally {
+			executor.shutdownNow();
 		}
-		if(enabledTransitions.isEmpty()){
-			return false;
+		return results;
+	}
+	
+	private boolean requiresCompiledNet() {
+		return getGenerator().isCompiledExecution() || getGenerator().getReplayMode() != ReplayMode.FITTING;
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private CompiledPTNet<?> createCompiledNet() {
+		return new CompiledPTNet((AbstractPTNet) getGenerator().getPetriNet());
+	}
+	
+	private VariantWorker createWorker(AbstractPetriNet<P,T,F,M,S> net, CompiledPTNet<?> compiledNet) {
+		VariantWorker worker = new VariantWorker();
+		if (getGenerator().isCompiledExecution()) {
+			worker.replay = new CompiledReplay(compiledNet);
+		} else {
+			worker.replay = new NetReplay(net);
 		}
+		int[] finalMarking = null;
+		if (getGenerator().getReplayMode() != ReplayMode.FITTING && getGenerator().getFinalMarking() != null)
+			finalMarking = compiledNet.toVector((AbstractPTMarking) getGenerator().getFinalMarking());
+		if (getGenerator().getReplayMode() == ReplayMode.TOKEN_FITNESS)
+			worker.tokenReplayer = new TokenReplayer(compiledNet, getGenerator().getTransitionLabelRelation(), finalMarking);
+		if (getGenerator().getReplayMode() == ReplayMode.ALIGNMENT)
+			worker.alignmentSearch = new AlignmentSearch(compiledNet, getGenerator().getTransitionLabelRelation(), finalMarking, getGenerator().getExplorationBudget());
+		return worker;
+	}
+	
+	/**
+	 * Results of all variants, indexed by variant.
+	 * Each variant is written by exactly one worker.
+	 */
+	private static class VariantResults {
 		
-		String nextActivity = remainingActivities.get(0);
-		Set<T> recTransitions = new HashSet<T>();
-		for(T enabledTransition: enabledTransitions){
-			if (Thread.currentThread().isInterrupted()) {
-				throw new InterruptedException();
-			}
-			if(!enabledTransition.isSilent() && getGenerator().getTransitionLabelRelation().get(enabledTransition.getLabel()).equals(nextActivity)){
-//				System.out.println("Add regular transition: " + enabledTransition);
-				recTransitions.add(enabledTransition);
-			}
+		private boolean[] replayable = null;
+		private TokenReplayFitness[] tokenFitness = null;
+		private Alignment[] alignments = null;
+		
+		public VariantResults(int variantCount, ReplayMode replayMode) {
+			replayable = new boolean[variantCount];
+			if (replayMode == ReplayMode.TOKEN_FITNESS)
+				tokenFitness = new TokenReplayFitness[variantCount];
+			if (replayMode == ReplayMode.ALIGNMENT)
+				alignments = new Alignment[variantCount];
 		}
+	}
+	
+	/**
+	 * 每个线程的重放引擎
+	 */
+	private class VariantWorker {
 		
-		Set<T> enabledSilentTransitions = PNUtils.getSilentTransitions(enabledTransitions);
-		if(recTransitions.isEmpty() && enabledSilentTransitions.isEmpty()){
-			return false;
+		private VariantReplay replay = null;
+		private TokenReplayer tokenReplayer = null;
+		private AlignmentSearch alignmentSearch = null;
+		
+		public void replay(List<List<String>> variants, int variant, VariantResults results) throws PNException, InterruptedException {
+			results.replayable[variant] = replay.isReplayable(variants.get(variant));
+			if (tokenReplayer != null)
+				results.tokenFitness[variant] = tokenReplayer.replay(variants.get(variant));
+			if (alignmentSearch != null)
+				results.alignments[variant] = alignmentSearch.align(variants.get(variant));
 		}
-		for(T enabledSilentTransition: enabledSilentTransitions){
-			if (Thread.currentThread().isInterrupted()) {
-				throw new InterruptedException();
-			}
-			recTransitions.add(enabledSilentTransition);
-//			System.out.println("Add silent transition: " + enabledSilentTransition);
+	}
+	
+	/**
+	 * 重放引擎：判断一个活动序列是否可以在网中重放<br>
+	 * Instances are not thread-safe, but different instances can be used concurrently.
+	 */
+	private interface VariantReplay {
+		boolean isReplayable(List<String> activitySequence) throws PNException, InterruptedException;
+	}
+	
+	/**
+	 * Replay by firing transitions of a net instance.
+	 */
+	private class NetReplay implements VariantReplay {
+		
+		private AbstractPetriNet<P,T,F,M,S> net = null;
+		
+		public NetReplay(AbstractPetriNet<P,T,F,M,S> net) {
+			this.net = net;
 		}
 		
-		for(T recTransition: recTransitions){
+		/**
+		 * Replays the given activity sequence by firing net transitions.<br>
+		 * The marking is carried forward from one activity to the next.
+		 * When a branch fails, the marking before the branch is restored from a snapshot.
+		 * Every combination of marking and trace position is explored at most once,
+		 * which also terminates the search in cycles of silent transitions.
+		 * @param activitySequence 活动序列
+		 */
+		public boolean isReplayable(List<String> activitySequence) throws PNException, InterruptedException{
+			net.reset();
+			List<Set<M>> visitedMarkings = new ArrayList<Set<M>>();
+			for(int position=0; position<=activitySequence.size(); position++){
+				visitedMarkings.add(new HashSet<M>());
+			}
+			return isReplayableRecursive(activitySequence, 0, visitedMarkings);
+		}
+	
+		@SuppressWarnings("unchecked")
+		private boolean isReplayableRecursive(List<String> activitySequence, int position, List<Set<M>> visitedMarkings) throws PNException, InterruptedException{
 			if (Thread.currentThread().isInterrupted()) {
 				throw new InterruptedException();
 			}
-			ArrayList<String> recPath = new ArrayList<String>(path);
-			ArrayList<String> recRemainingActivities = new ArrayList<String>(remainingActivities);
-			recPath.add(recTransition.getName());
-			if(!recTransition.isSilent()){
-				recRemainingActivities.remove(0);
+			M marking = (M) net.getMarking().clone();
+			if(!visitedMarkings.get(position).add(marking)){
+				// 已探索（或在当前路径上）的状态不会产生新的结果
+				return false;
+			}
+			List<T> enabledTransitions = new ArrayList<T>(net.getEnabledTransitions());
+			if(position == activitySequence.size()){
+				switch(getGenerator().getTerminationCriteria()){
+				case POSSIBLE_FIRING_SEQUENCE: return true;
+				case NO_ENABLED_TRANSITIONS: return enabledTransitions.isEmpty();
+				case ESCAPABLE_WITH_SILENT_TRANSITIONS:
+					if(enabledTransitions.isEmpty())
+						return true;
+					return escapableWithSilentTransitions(enabledTransitions, marking, new HashSet<M>());
+				}
+			}
+			if(enabledTransitions.isEmpty()){
+				return false;
+			}
+		
+			String nextActivity = activitySequence.get(position);
+			for(T enabledTransition: enabledTransitions){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				int nextPosition;
+				if(enabledTransition.isSilent()){
+					nextPosition = position;
+				} else if(nextActivity.equals(getGenerator().getTransitionLabelRelation().get(enabledTransition.getLabel()))){
+					nextPosition = position + 1;
+				} else {
+					continue;
+				}
+				net.fire(enabledTransition.getName());
+				if(isReplayableRecursive(activitySequence, nextPosition, visitedMarkings)){
+					return true;
+				}
+				net.setMarking((M) marking.clone());
 			}
-			if(isReplayableRecursive(recPath, recRemainingActivities)){
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		private boolean escapableWithSilentTransitions(List<T> enabledTransitions, M marking, Set<M> visitedMarkings) throws PNException, InterruptedException{
+			if(enabledTransitions.isEmpty())
 				return true;
+			if(!visitedMarkings.add(marking))
+				return false;
+		
+			Set<T> enabledSilentTransitions = PNUtils.getSilentTransitions(enabledTransitions);
+			if(enabledSilentTransitions.isEmpty())
+				return false;
+		
+			for(T enabledSilentTransition: enabledSilentTransitions){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				net.setMarking((M) marking.clone());
+				net.fire(enabledSilentTransition.getName());
+				if(escapableWithSilentTransitions(new ArrayList<T>(net.getEnabledTransitions()), (M) net.getMarking().clone(), visitedMarkings)){
+					return true;
+				}
 			}
+			return false;
 		}
-		return false;
 	}
 
-	@SuppressWarnings("unchecked")
-	private boolean escapableWithSilentTransitions(List<T> enabledTransitions, M marking) throws PNException, InterruptedException{
-		if(enabledTransitions.isEmpty())
-			return true;
+	/**
+	 * Replay on a {@link CompiledPTNet}.<br>
+	 * Follows the same search as {@link NetReplay},
+	 * but works on marking vectors instead of firing net transitions.
+	 */
+	private class CompiledReplay implements VariantReplay {
 		
-		Set<T> enabledSilentTransitions = PNUtils.getSilentTransitions(enabledTransitions);
-		if(enabledSilentTransitions.isEmpty())
-			return false;
+		private CompiledPTNet<?> compiledNet = null;
+		/** 每个变迁对应的活动名称 */
+		private String[] activities = null;
 		
-		for(T enabledSilentTransition: enabledSilentTransitions){
+		public CompiledReplay(CompiledPTNet<?> compiledNet){
+			this.compiledNet = compiledNet;
+			activities = new String[compiledNet.getTransitionCount()];
+			for(int t=0; t<compiledNet.getTransitionCount(); t++){
+				activities[t] = getGenerator().getTransitionLabelRelation().get(compiledNet.getTransitionLabel(t));
+			}
+		}
+		
+		/** 每个轨迹位置已探索的标识 */
+		private List<Set<MarkingKey>> visitedMarkings = new ArrayList<Set<MarkingKey>>();
+		
+		public boolean isReplayable(List<String> activitySequence) throws InterruptedException{
+			visitedMarkings.clear();
+			for(int position=0; position<=activitySequence.size(); position++){
+				visitedMarkings.add(new HashSet<MarkingKey>());
+			}
+			try {
+				return isReplayableRecursive(compiledNet.getInitialMarking(), activitySequence, 0);
+			} finally {
+				visitedMarkings.clear();
+			}
+		}
+		
+		private boolean isReplayableRecursive(int[] marking, List<String> activitySequence, int position) throws InterruptedException{
 			if (Thread.currentThread().isInterrupted()) {
 				throw new InterruptedException();
 			}
-			getGenerator().getPetriNet().setMarking((M) marking.clone());
-			getGenerator().getPetriNet().fire(enabledSilentTransition.getName());
-			if(escapableWithSilentTransitions(getGenerator().getPetriNet().getEnabledTransitions(), (M) getGenerator().getPetriNet().getMarking().clone())){
+			if(!visitedMarkings.get(position).add(new MarkingKey(marking))){
+				return false;
+			}
+			int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+			int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+			if(position == activitySequence.size()){
+				switch(getGenerator().getTerminationCriteria()){
+				case POSSIBLE_FIRING_SEQUENCE: return true;
+				case NO_ENABLED_TRANSITIONS: return enabledCount == 0;
+				case ESCAPABLE_WITH_SILENT_TRANSITIONS: return escapableWithSilentTransitions(marking, enabledTransitions, enabledCount, new HashSet<MarkingKey>());
+				}
+			}
+			if(enabledCount == 0){
+				return false;
+			}
+			
+			String nextActivity = activitySequence.get(position);
+			for(int i=0; i<enabledCount; i++){
+				int transition = enabledTransitions[i];
+				if(compiledNet.isSilent(transition)){
+					if(isReplayableRecursive(compiledNet.fire(marking, transition), activitySequence, position)){
+						return true;
+					}
+				} else if(nextActivity.equals(activities[transition])){
+					if(isReplayableRecursive(compiledNet.fire(marking, transition), activitySequence, position + 1)){
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		
+		private boolean escapableWithSilentTransitions(int[] marking, int[] enabledTransitions, int enabledCount, Set<MarkingKey> visited) throws InterruptedException{
+			if(enabledCount == 0)
 				return true;
+			if(!visited.add(new MarkingKey(marking)))
+				return false;
+			for(int i=0; i<enabledCount; i++){
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				int transition = enabledTransitions[i];
+				if(!compiledNet.isSilent(transition))
+					continue;
+				int[] newMarking = compiledNet.fire(marking, transition);
+				int[] newEnabledTransitions = new int[compiledNet.getTransitionCount()];
+				int newEnabledCount = compiledNet.getEnabledTransitions(newMarking, newEnabledTransitions);
+				if(escapableWithSilentTransitions(newMarking, newEnabledTransitions, newEnabledCount, visited)){
+					return true;
+				}
 			}
+			return false;
 		}
-		return false;
+	}
+
+
+	public enum ReplayMode {
+		/**
+		 * Traces are classified as fitting or non-fitting according to the {@link TerminationCriteria}.
+		 */
+		FITTING,
+		/**
+		 * Additionally, token-based fitness is computed for every trace (see {@link TokenReplayer}).
+		 * Only available for P/T-nets.
+		 */
+		TOKEN_FITNESS,
+		/**
+		 * Additionally, an optimal alignment is computed for every trace (see {@link AlignmentSearch}).
+		 * Only available for P/T-nets.
+		 */
+		ALIGNMENT;
 	}
 
 	public enum TerminationCriteria {
@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import de.invation.code.toval.validate.ParameterException;
 import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.overlap.OverlapCallableGenerator;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractFlowRelation;
@@ -13,7 +14,12 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.threaded.AbstractCallableGenerator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.AbstractPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.ReplayMode;
 import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.TerminationCriteria;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.AbstractConformanceChecker;
 import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
 import de.uni.freiburg.iig.telematik.sewol.log.LogTrace;
 import de.uni.freiburg.iig.telematik.sewol.log.LogTraceUtils;
@@ -29,11 +35,20 @@ public class ReplayCallableGenerator< 	P extends AbstractPlace<F,S>,
 	private TerminationCriteria terminationCriteria = null;
 	protected List<List<String>> activitySequences = null;
 	protected List<LogTrace<E>> logTraces = null;
+	private boolean compiledExecution = false;
+	private int parallelism = 1;
+	private ReplayMode replayMode = Replay.DEFAULT_REPLAY_MODE;
+	private M finalMarking = null;
 	
 	public ReplayCallableGenerator(OverlapCallableGenerator<P,T,F,M,S,E> overlapGenerator){
 		super(overlapGenerator);
 		this.transitionLabelRelation = overlapGenerator.getTransitionLabelRelation();
 		this.terminationCriteria = overlapGenerator.getTerminationCriteria();
+		if(overlapGenerator.getLogTraces() != null){
+			setLogTraces(overlapGenerator.getLogTraces());
+		} else if(overlapGenerator.getLogSequences() != null){
+			setLogSequences(overlapGenerator.getLogSequences());
+		}
 	}
 	
 	public ReplayCallableGenerator(AbstractPetriNet<P,T,F,M,S> petriNet) {
@@ -58,6 +73,81 @@ public class ReplayCallableGenerator< 	P extends AbstractPlace<F,S>,
 		this.terminationCriteria = terminationCriteria;
 	}
 	
+	/**
+	 * Indicates if traces are replayed on a {@link CompiledPTNet} instead of firing net transitions.
+	 */
+	public boolean isCompiledExecution() {
+		return compiledExecution;
+	}
+	
+	/**
+	 * Sets if traces are replayed on a {@link CompiledPTNet} instead of firing net transitions.<br>
+	 * Compiled execution is only available for P/T-nets.
+	 * @throws ParameterException If compiled execution is requested for a net which is not a P/T-net.
+	 */
+	public void setCompiledExecution(boolean compiledExecution) {
+		if(compiledExecution && !(getPetriNet() instanceof AbstractPTNet))
+			throw new ParameterException("Compiled execution is only supported for P/T-nets.");
+		this.compiledExecution = compiledExecution;
+	}
+	
+	/**
+	 * Returns the number of worker threads used for replaying.<br>
+	 * Default: 1, i.e. sequential replay.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * Sets the number of worker threads used for replaying.<br>
+	 * Identical activity sequences are always replayed only once.
+	 * For values &gt; 1, the distinct sequences are distributed over the workers,
+	 * each worker replays on its own clone of the net and the net of this generator is not modified.
+	 * @param parallelism 工作线程数，例如<code>Runtime.getRuntime().availableProcessors()</code>
+	 */
+	public void setParallelism(int parallelism) {
+		Validate.bigger(parallelism, 0);
+		this.parallelism = parallelism;
+	}
+	
+	public ReplayMode getReplayMode() {
+		return replayMode;
+	}
+	
+	/**
+	 * Sets the replay mode.<br>
+	 * Besides the classification into fitting and non-fitting traces, 
+	 * {@link ReplayMode#TOKEN_FITNESS} and {@link ReplayMode#ALIGNMENT} compute quantitative conformance metrics for every trace.
+	 * The alignment search of every trace is limited by the exploration budget of this generator.
+	 * @throws ParameterException If a conformance mode is requested for a net which is not a P/T-net.
+	 */
+	public void setReplayMode(ReplayMode replayMode) {
+		Validate.notNull(replayMode);
+		if(replayMode != ReplayMode.FITTING && !(getPetriNet() instanceof AbstractPTNet))
+			throw new ParameterException("Replay mode " + replayMode + " is only supported for P/T-nets.");
+		this.replayMode = replayMode;
+	}
+	
+	/**
+	 * Returns the final marking for conformance metrics, 
+	 * or <code>null</code> if the default final marking is used (see {@link AbstractConformanceChecker#getDefaultFinalMarking(CompiledPTNet)}).
+	 */
+	public M getFinalMarking() {
+		return finalMarking;
+	}
+	
+	/**
+	 * Sets the final marking, which has to be reached at the end of a trace for token-based fitness and alignments.
+	 * @param finalMarking 终止标识，或<code>null</code>使用默认终止标识
+	 * @throws ParameterException If the marking is not a P/T-marking.
+	 */
+	public void setFinalMarking(M finalMarking) {
+		if(finalMarking != null && !(finalMarking instanceof AbstractPTMarking))
+			throw new ParameterException("Final marking has to be a P/T-marking.");
+		this.finalMarking = finalMarking;
+	}
+	
 	public void setLogTraces(Collection<LogTrace<E>> logTraces){
 		Validate.notNull(logTraces);
 		if(logTraces instanceof List){
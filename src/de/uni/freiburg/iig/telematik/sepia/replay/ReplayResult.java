@@ -4,6 +4,8 @@ import java.util.Collection;
 import java.util.List;
 
 import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.Alignment;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.TokenReplayFitness;
 import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
 import de.uni.freiburg.iig.telematik.sewol.log.LogTrace;
 
@@ -17,6 +19,8 @@ public class ReplayResult<E extends LogEntry> {
 	private double portionNonFitting = 0.0;
 	private int numTraces = 0;
 	private int numSequences = 0;
+	private List<TokenReplayFitness> tokenFitness = null;
+	private List<Alignment> alignments = null;
 	
 	public ReplayResult(Collection<LogTrace<E>> fittingTraces, 
 						Collection<LogTrace<E>> nonFittingTraces,
@@ -72,4 +76,28 @@ public class ReplayResult<E extends LogEntry> {
 		return portionNonFitting;
 	}
 	
+	/**
+	 * Returns the token-based fitness of the replayed activity sequences in their original order,
+	 * or <code>null</code> if the replay mode was not {@link ReplayCallable.ReplayMode#TOKEN_FITNESS}.
+	 */
+	public List<TokenReplayFitness> getTokenFitness() {
+		return tokenFitness;
+	}
+	
+	void setTokenFitness(List<TokenReplayFitness> tokenFitness) {
+		this.tokenFitness = tokenFitness;
+	}
+	
+	/**
+	 * Returns the optimal alignments of the replayed activity sequences in their original order,
+	 * or <code>null</code> if the replay mode was not {@link ReplayCallable.ReplayMode#ALIGNMENT}.
+	 */
+	public List<Alignment> getAlignments() {
+		return alignments;
+	}
+	
+	void setAlignments(List<Alignment> alignments) {
+		this.alignments = alignments;
+	}
+	
 }
@@ -0,0 +1,77 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import java.util.Map;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+
+/**
+ * 一致性检查的基类<br>
+ * Relates the transitions of a {@link CompiledPTNet} to activities
+ * and holds the final marking which has to be reached at the end of an activity sequence.<br>
+ * The compiled net is only read, so checkers of different threads can share it.
+ * Checkers themselves are not thread-safe.
+ */
+public abstract class AbstractConformanceChecker {
+
+	protected CompiledPTNet<?> compiledNet = null;
+	/** 每个变迁对应的活动名称，静默变迁为<code>null</code> */
+	protected String[] activities = null;
+	protected int[] finalMarking = null;
+
+	/**
+	 * @param compiledNet 编译后的网
+	 * @param transitionLabelRelation Relation between transition labels and activity names.
+	 * @param finalMarking 终止标识向量，或<code>null</code>使用{@link #getDefaultFinalMarking(CompiledPTNet)}
+	 */
+	protected AbstractConformanceChecker(CompiledPTNet<?> compiledNet, Map<String, String> transitionLabelRelation, int[] finalMarking) {
+		Validate.notNull(compiledNet);
+		Validate.notNull(transitionLabelRelation);
+		this.compiledNet = compiledNet;
+		activities = new String[compiledNet.getTransitionCount()];
+		for(int t=0; t<compiledNet.getTransitionCount(); t++){
+			if(!compiledNet.isSilent(t))
+				activities[t] = transitionLabelRelation.get(compiledNet.getTransitionLabel(t));
+		}
+		if(finalMarking == null){
+			this.finalMarking = getDefaultFinalMarking(compiledNet);
+		} else {
+			if(finalMarking.length != compiledNet.getPlaceCount())
+				throw new ParameterException("Final marking does not match the places of the net.");
+			this.finalMarking = finalMarking.clone();
+		}
+	}
+
+	public int[] getFinalMarking() {
+		return finalMarking.clone();
+	}
+
+	/**
+	 * Returns the default final marking of a net:
+	 * One token in each place which has input but no output transitions, e.g. the output place of a workflow net.
+	 * If there is no such place, the final marking is empty.
+	 * @param compiledNet 编译后的网
+	 * @return 终止标识向量
+	 */
+	public static int[] getDefaultFinalMarking(CompiledPTNet<?> compiledNet) {
+		Validate.notNull(compiledNet);
+		int[] finalMarking = new int[compiledNet.getPlaceCount()];
+		boolean[] hasPreset = new boolean[compiledNet.getPlaceCount()];
+		boolean[] hasPostset = new boolean[compiledNet.getPlaceCount()];
+		for(int t=0; t<compiledNet.getTransitionCount(); t++){
+			for(int place: compiledNet.getPrePlaces(t)){
+				hasPostset[place] = true;
+			}
+			for(int place: compiledNet.getPostPlaces(t)){
+				hasPreset[place] = true;
+			}
+		}
+		for(int p=0; p<finalMarking.length; p++){
+			if(hasPreset[p] && !hasPostset[p])
+				finalMarking[p] = 1;
+		}
+		return finalMarking;
+	}
+
+}
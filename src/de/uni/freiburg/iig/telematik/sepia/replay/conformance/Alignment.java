@@ -0,0 +1,83 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 最优对齐（optimal alignment）<br>
+ * Sequence of moves with minimal cost, which relates an activity sequence to a complete firing sequence of the model
+ * (see {@link AlignmentSearch}).<br>
+ * Log moves and visible model moves cost 1, synchronous and silent moves are free.
+ * The fitness is <code>1 - cost / (length of the sequence + cost of the cheapest complete firing sequence)</code>.
+ */
+public class Alignment {
+
+	private List<AlignmentMove> moves = null;
+	private int cost = 0;
+	private int maxCost = 0;
+	private int exploredStates = 0;
+
+	public Alignment(List<AlignmentMove> moves, int cost, int maxCost, int exploredStates) {
+		Validate.notNull(moves);
+		Validate.notNegative(cost);
+		Validate.biggerEqual(maxCost, cost);
+		this.moves = Collections.unmodifiableList(moves);
+		this.cost = cost;
+		this.maxCost = maxCost;
+		this.exploredStates = exploredStates;
+	}
+
+	public List<AlignmentMove> getMoves() {
+		return moves;
+	}
+
+	public int getCost() {
+		return cost;
+	}
+
+	/**
+	 * Returns the cost of aligning the activity sequence with only log moves and the cheapest complete firing sequence with only model moves.
+	 */
+	public int getMaxCost() {
+		return maxCost;
+	}
+
+	/**
+	 * Returns the number of states of the synchronous product explored to find this alignment.
+	 */
+	public int getExploredStates() {
+		return exploredStates;
+	}
+
+	public boolean isFitting() {
+		return cost == 0;
+	}
+
+	public double getFitness() {
+		return maxCost == 0 ? 1.0 : 1.0 - (cost + 0.0) / maxCost;
+	}
+
+	/**
+	 * Computes the fitness of a log from the summed costs of the alignments of its traces.
+	 * @param alignments 各轨迹的对齐
+	 * @return 日志的拟合度
+	 */
+	public static double getFitness(Collection<Alignment> alignments) {
+		Validate.notNull(alignments);
+		long cost = 0, maxCost = 0;
+		for(Alignment alignment: alignments){
+			cost += alignment.cost;
+			maxCost += alignment.maxCost;
+		}
+		return maxCost == 0 ? 1.0 : 1.0 - (cost + 0.0) / maxCost;
+	}
+
+	@Override
+	public String toString() {
+		return moves + " [cost=" + cost + ", fitness=" + getFitness() + "]";
+	}
+
+}
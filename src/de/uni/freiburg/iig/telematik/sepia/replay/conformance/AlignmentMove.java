@@ -0,0 +1,57 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+/**
+ * 对齐中的一步（move）<br>
+ * Relates an activity of the log to a transition of the model.
+ * For log moves, there is no transition, for model moves, there is no activity.
+ */
+public class AlignmentMove {
+
+	/** 无对应（&gt;&gt;） */
+	public static final String NO_MOVE = ">>";
+
+	private MoveType type = null;
+	private String activity = null;
+	private String transition = null;
+
+	public AlignmentMove(MoveType type, String activity, String transition) {
+		this.type = type;
+		this.activity = activity;
+		this.transition = transition;
+	}
+
+	public MoveType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the activity of the log, or <code>null</code> for model moves.
+	 */
+	public String getActivity() {
+		return activity;
+	}
+
+	/**
+	 * Returns the name of the transition, or <code>null</code> for log moves.
+	 */
+	public String getTransition() {
+		return transition;
+	}
+
+	@Override
+	public String toString() {
+		return "(" + (activity == null ? NO_MOVE : activity) + ", " + (transition == null ? NO_MOVE : transition) + ")";
+	}
+
+	public enum MoveType {
+		/** Activity and transition are executed together. */
+		SYNCHRONOUS,
+		/** The activity is executed without transition. */
+		LOG,
+		/** The transition is executed without activity. */
+		MODEL,
+		/** A silent transition is executed. Silent moves do not cause costs. */
+		SILENT;
+	}
+
+}
@@ -0,0 +1,91 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import java.util.Arrays;
+
+/**
+ * 优先队列：基于数组的二叉堆<br>
+ * Holds node indices of the A*-search, ordered by total estimated cost <code>f</code>.
+ * Nodes with equal <code>f</code> are ordered by decreasing trace position, so that nodes closer to the goal are preferred.<br>
+ * Priorities are stored together with the nodes, so a node can be contained several times (lazy deletion).
+ */
+class AlignmentQueue {
+
+	private int[] nodes = new int[64];
+	private int[] costs = new int[64];
+	private int[] positions = new int[64];
+	private int size = 0;
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Inserts a node.
+	 * @param node 节点索引
+	 * @param cost 估计总代价f
+	 * @param position 轨迹位置
+	 */
+	public void add(int node, int cost, int position) {
+		if(size == nodes.length){
+			nodes = Arrays.copyOf(nodes, size * 2);
+			costs = Arrays.copyOf(costs, size * 2);
+			positions = Arrays.copyOf(positions, size * 2);
+		}
+		int i = size++;
+		while(i > 0){
+			int parent = (i - 1) >>> 1;
+			if(!less(cost, position, costs[parent], positions[parent]))
+				break;
+			set(i, nodes[parent], costs[parent], positions[parent]);
+			i = parent;
+		}
+		set(i, node, cost, position);
+	}
+
+	/**
+	 * Removes the first node.
+	 * @return 节点索引
+	 */
+	public int poll() {
+		int result = nodes[0];
+		size--;
+		if(size > 0){
+			int node = nodes[size];
+			int cost = costs[size];
+			int position = positions[size];
+			int i = 0;
+			while(true){
+				int child = 2 * i + 1;
+				if(child >= size)
+					break;
+				if(child + 1 < size && less(costs[child + 1], positions[child + 1], costs[child], positions[child]))
+					child++;
+				if(!less(costs[child], positions[child], cost, position))
+					break;
+				set(i, nodes[child], costs[child], positions[child]);
+				i = child;
+			}
+			set(i, node, cost, position);
+		}
+		return result;
+	}
+
+	private void set(int i, int node, int cost, int position) {
+		nodes[i] = node;
+		costs[i] = cost;
+		positions[i] = position;
+	}
+
+	private static boolean less(int cost1, int position1, int cost2, int position2) {
+		return cost1 < cost2 || (cost1 == cost2 && position1 > position2);
+	}
+
+}
@@ -0,0 +1,214 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationMonitor;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.MarkingKey;
+import de.uni.freiburg.iig.telematik.sepia.replay.ReplayException;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.AlignmentMove.MoveType;
+
+/**
+ * 基于A*搜索的最优对齐（alignment）<br>
+ * Searches a cheapest path in the synchronous product of an activity sequence and a {@link CompiledPTNet}.
+ * States of the product are pairs of a marking and a position within the sequence,
+ * the search starts with the initial marking at position 0 and ends with the final marking at the end of the sequence.<br>
+ * <br>
+ * The heuristic is the number of remaining activities without corresponding transition, which can only be aligned by log moves.
+ * It is consistent, so every state is expanded at most once.
+ * The search stores markings in a visited-state table and uses an array-based {@link AlignmentQueue}.
+ * Storage is reused for subsequent sequences.<br>
+ * <br>
+ * The search of one sequence is limited by the {@link ExplorationBudget}, which is required for nets with an infinite state space.
+ */
+public class AlignmentSearch extends AbstractConformanceChecker {
+
+	public static final int LOG_MOVE_COST = 1;
+	public static final int MODEL_MOVE_COST = 1;
+
+	private ExplorationBudget explorationBudget = null;
+	private Set<String> modelActivities = new HashSet<String>();
+	/** 最便宜的完整发生序列的代价，-1表示尚未计算 */
+	private int minModelCost = -1;
+
+	// 搜索节点（并行数组）：状态向量的最后一位是轨迹位置
+	private int[][] states = new int[1024][];
+	private int[] costs = new int[1024];
+	private int[] parents = new int[1024];
+	private int[] transitions = new int[1024];
+	private MoveType[] moveTypes = new MoveType[1024];
+	private boolean[] closed = new boolean[1024];
+	private int nodeCount = 0;
+	private long edgeCount = 0;
+	private Map<MarkingKey, Integer> nodeIndices = new HashMap<MarkingKey, Integer>();
+	private AlignmentQueue queue = new AlignmentQueue();
+	private int[] enabledTransitions = null;
+
+	/**
+	 * @param compiledNet 编译后的网
+	 * @param transitionLabelRelation Relation between transition labels and activity names.
+	 * @param finalMarking 终止标识向量，或<code>null</code>使用{@link #getDefaultFinalMarking(CompiledPTNet)}
+	 * @param explorationBudget 每个序列的搜索预算
+	 */
+	public AlignmentSearch(CompiledPTNet<?> compiledNet, Map<String, String> transitionLabelRelation, int[] finalMarking, ExplorationBudget explorationBudget) {
+		super(compiledNet, transitionLabelRelation, finalMarking);
+		Validate.notNull(explorationBudget);
+		this.explorationBudget = explorationBudget;
+		for(String activity: activities){
+			if(activity != null)
+				modelActivities.add(activity);
+		}
+		enabledTransitions = new int[compiledNet.getTransitionCount()];
+	}
+
+	/**
+	 * Computes an optimal alignment of the given activity sequence.
+	 * @param activitySequence 活动序列
+	 * @return 最优对齐
+	 * @throws ReplayException If the final marking is not reachable from the initial marking.
+	 * @throws StateSpaceException If the search exceeds the exploration budget.
+	 * @throws InterruptedException If the thread is interrupted during the search.
+	 */
+	public Alignment align(List<String> activitySequence) throws ReplayException, StateSpaceException, InterruptedException {
+		Validate.notNull(activitySequence);
+		if(minModelCost < 0){
+			List<String> emptySequence = Collections.emptyList();
+			minModelCost = costs[search(emptySequence)];
+		}
+		int goal = search(activitySequence);
+		int exploredStates = 0;
+		for(int node=0; node<nodeCount; node++){
+			if(closed[node])
+				exploredStates++;
+		}
+		int placeCount = compiledNet.getPlaceCount();
+		List<AlignmentMove> moves = new ArrayList<AlignmentMove>();
+		for(int node = goal; parents[node] >= 0; node = parents[node]){
+			String activity = null;
+			if(moveTypes[node] == MoveType.LOG || moveTypes[node] == MoveType.SYNCHRONOUS)
+				activity = activitySequence.get(states[parents[node]][placeCount]);
+			String transition = moveTypes[node] == MoveType.LOG ? null : compiledNet.getTransitionName(transitions[node]);
+			moves.add(new AlignmentMove(moveTypes[node], activity, transition));
+		}
+		Collections.reverse(moves);
+		return new Alignment(moves, costs[goal], activitySequence.size() * LOG_MOVE_COST + minModelCost, exploredStates);
+	}
+
+	/**
+	 * A*-search in the synchronous product.
+	 * @return 目标节点索引
+	 */
+	private int search(List<String> activitySequence) throws ReplayException, StateSpaceException, InterruptedException {
+		reset();
+		ExplorationMonitor monitor = explorationBudget.isUnlimited() ? null : new ExplorationMonitor(explorationBudget);
+		int placeCount = compiledNet.getPlaceCount();
+		int length = activitySequence.size();
+		// 启发函数：剩余的无对应变迁的活动数
+		int[] heuristic = new int[length + 1];
+		for(int i=length-1; i>=0; i--){
+			heuristic[i] = heuristic[i + 1] + (modelActivities.contains(activitySequence.get(i)) ? 0 : LOG_MOVE_COST);
+		}
+
+		int[] initialState = Arrays.copyOf(compiledNet.getInitialMarking(), placeCount + 1);
+		relax(initialState, 0, -1, null, -1, heuristic);
+		while(!queue.isEmpty()){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			int node = queue.poll();
+			if(closed[node])
+				continue;
+			closed[node] = true;
+			if(monitor != null)
+				monitor.check(nodeCount, edgeCount, queue.size());
+
+			int[] state = states[node];
+			int position = state[placeCount];
+			if(position == length && isFinal(state))
+				return node;
+
+			if(position < length){
+				int[] nextState = state.clone();
+				nextState[placeCount]++;
+				relax(nextState, costs[node] + LOG_MOVE_COST, node, MoveType.LOG, -1, heuristic);
+			}
+			int enabledCount = compiledNet.getEnabledTransitions(state, enabledTransitions);
+			for(int i=0; i<enabledCount; i++){
+				int transition = enabledTransitions[i];
+				int[] nextState = state.clone();
+				compiledNet.fireInPlace(nextState, transition);
+				if(compiledNet.isSilent(transition)){
+					relax(nextState, costs[node], node, MoveType.SILENT, transition, heuristic);
+					continue;
+				}
+				if(position < length && activitySequence.get(position).equals(activities[transition])){
+					int[] synchronousState = nextState.clone();
+					synchronousState[placeCount]++;
+					relax(synchronousState, costs[node], node, MoveType.SYNCHRONOUS, transition, heuristic);
+				}
+				relax(nextState, costs[node] + MODEL_MOVE_COST, node, MoveType.MODEL, transition, heuristic);
+			}
+		}
+		throw new ReplayException("Cannot align activity sequence: final marking is not reachable.");
+	}
+
+	private void relax(int[] state, int cost, int parent, MoveType moveType, int transition, int[] heuristic) {
+		edgeCount++;
+		MarkingKey key = new MarkingKey(state);
+		Integer node = nodeIndices.get(key);
+		if(node == null){
+			node = addNode(state);
+			nodeIndices.put(key, node);
+		} else if(closed[node] || costs[node] <= cost){
+			return;
+		}
+		costs[node] = cost;
+		parents[node] = parent;
+		moveTypes[node] = moveType;
+		transitions[node] = transition;
+		int position = state[compiledNet.getPlaceCount()];
+		queue.add(node, cost + heuristic[position], position);
+	}
+
+	private int addNode(int[] state) {
+		if(nodeCount == states.length){
+			int capacity = nodeCount * 2;
+			states = Arrays.copyOf(states, capacity);
+			costs = Arrays.copyOf(costs, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			transitions = Arrays.copyOf(transitions, capacity);
+			moveTypes = Arrays.copyOf(moveTypes, capacity);
+			closed = Arrays.copyOf(closed, capacity);
+		}
+		states[nodeCount] = state;
+		closed[nodeCount] = false;
+		return nodeCount++;
+	}
+
+	private boolean isFinal(int[] state) {
+		for(int p=0; p<finalMarking.length; p++){
+			if(state[p] != finalMarking[p])
+				return false;
+		}
+		return true;
+	}
+
+	private void reset() {
+		Arrays.fill(states, 0, nodeCount, null);
+		nodeCount = 0;
+		edgeCount = 0;
+		nodeIndices.clear();
+		queue.clear();
+	}
+
+}
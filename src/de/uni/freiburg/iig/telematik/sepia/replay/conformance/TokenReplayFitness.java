@@ -0,0 +1,101 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import java.util.Collection;
+
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 基于令牌重放的拟合度（token-based fitness）<br>
+ * Token counts of replaying one activity sequence with {@link TokenReplayer}:
+ * <ul>
+ * <li>produced: tokens of the initial marking and tokens produced by fired transitions</li>
+ * <li>consumed: tokens consumed by fired transitions and tokens of the final marking</li>
+ * <li>missing: tokens which had to be added to fire a transition or to reach the final marking</li>
+ * <li>remaining: tokens left after consuming the final marking</li>
+ * </ul>
+ * The fitness is <code>0.5 * (1 - missing/consumed) + 0.5 * (1 - remaining/produced)</code>.
+ */
+public class TokenReplayFitness {
+
+	private long produced = 0;
+	private long consumed = 0;
+	private long missing = 0;
+	private long remaining = 0;
+	private int unknownActivities = 0;
+
+	public TokenReplayFitness(long produced, long consumed, long missing, long remaining, int unknownActivities) {
+		Validate.notNegative(produced);
+		Validate.notNegative(consumed);
+		Validate.notNegative(missing);
+		Validate.notNegative(remaining);
+		Validate.notNegative(unknownActivities);
+		this.produced = produced;
+		this.consumed = consumed;
+		this.missing = missing;
+		this.remaining = remaining;
+		this.unknownActivities = unknownActivities;
+	}
+
+	public long getProduced() {
+		return produced;
+	}
+
+	public long getConsumed() {
+		return consumed;
+	}
+
+	public long getMissing() {
+		return missing;
+	}
+
+	public long getRemaining() {
+		return remaining;
+	}
+
+	/**
+	 * Returns the number of activities without corresponding transition, which were skipped during replay.
+	 */
+	public int getUnknownActivities() {
+		return unknownActivities;
+	}
+
+	/**
+	 * Checks if the sequence was replayed without missing and remaining tokens.
+	 */
+	public boolean isFitting() {
+		return missing == 0 && remaining == 0 && unknownActivities == 0;
+	}
+
+	public double getFitness() {
+		return fitness(produced, consumed, missing, remaining);
+	}
+
+	/**
+	 * Computes the fitness of a log from the summed token counts of its traces.
+	 * @param fitnessValues 各轨迹的拟合度
+	 * @return 日志的拟合度
+	 */
+	public static double getFitness(Collection<TokenReplayFitness> fitnessValues) {
+		Validate.notNull(fitnessValues);
+		long produced = 0, consumed = 0, missing = 0, remaining = 0;
+		for(TokenReplayFitness fitness: fitnessValues){
+			produced += fitness.produced;
+			consumed += fitness.consumed;
+			missing += fitness.missing;
+			remaining += fitness.remaining;
+		}
+		return fitness(produced, consumed, missing, remaining);
+	}
+
+	private static double fitness(long produced, long consumed, long missing, long remaining) {
+		double missingPart = consumed == 0 ? 1.0 : 1.0 - (missing + 0.0) / consumed;
+		double remainingPart = produced == 0 ? 1.0 : 1.0 - (remaining + 0.0) / produced;
+		return 0.5 * missingPart + 0.5 * remainingPart;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("[produced=%s, consumed=%s, missing=%s, remaining=%s, fitness=%s]", produced, consumed, missing, remaining, getFitness());
+	}
+
+}
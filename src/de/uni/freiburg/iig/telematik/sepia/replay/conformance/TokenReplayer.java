@@ -0,0 +1,237 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.invation.code.toval.validate.Validate;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.MarkingKey;
+
+/**
+ * 令牌重放（token-based replay）<br>
+ * Replays an activity sequence on a {@link CompiledPTNet} and counts produced, consumed, missing and remaining tokens
+ * (see {@link TokenReplayFitness}).<br>
+ * For every activity, a corresponding transition is fired, which is chosen as follows:
+ * <ol>
+ * <li>the first enabled transition with the activity,</li>
+ * <li>otherwise the first transition with the activity, which can be enabled by firing silent transitions
+ * (the shortest sequence is searched among at most {@value #MAX_SILENT_STATES} markings),</li>
+ * <li>otherwise the transition with the activity which lacks the least tokens. The missing tokens are added before firing.</li>
+ * </ol>
+ * Activities without corresponding transition are skipped.
+ * At the end, silent transitions are fired if this leads to a marking which covers the final marking.<br>
+ * <br>
+ * Since tokens can be added, place capacities are not considered.
+ */
+public class TokenReplayer extends AbstractConformanceChecker {
+
+	/** 静默变迁搜索中最多访问的标识数 */
+	public static final int MAX_SILENT_STATES = 1024;
+
+	/** 每个活动对应的变迁 */
+	private Map<String, int[]> activityTransitions = new HashMap<String, int[]>();
+
+	/**
+	 * @param compiledNet 编译后的网
+	 * @param transitionLabelRelation Relation between transition labels and activity names.
+	 * @param finalMarking 终止标识向量，或<code>null</code>使用{@link #getDefaultFinalMarking(CompiledPTNet)}
+	 */
+	public TokenReplayer(CompiledPTNet<?> compiledNet, Map<String, String> transitionLabelRelation, int[] finalMarking) {
+		super(compiledNet, transitionLabelRelation, finalMarking);
+		Map<String, List<Integer>> transitionLists = new HashMap<String, List<Integer>>();
+		for(int t=0; t<activities.length; t++){
+			if(activities[t] == null)
+				continue;
+			if(!transitionLists.containsKey(activities[t]))
+				transitionLists.put(activities[t], new ArrayList<Integer>());
+			transitionLists.get(activities[t]).add(t);
+		}
+		for(String activity: transitionLists.keySet()){
+			List<Integer> transitionList = transitionLists.get(activity);
+			int[] transitions = new int[transitionList.size()];
+			for(int i=0; i<transitions.length; i++){
+				transitions[i] = transitionList.get(i);
+			}
+			activityTransitions.put(activity, transitions);
+		}
+	}
+
+	/**
+	 * Replays the given activity sequence, starting in the initial marking of the net.
+	 * @param activitySequence 活动序列
+	 * @return 令牌计数
+	 * @throws InterruptedException If the thread is interrupted during replay.
+	 */
+	public TokenReplayFitness replay(List<String> activitySequence) throws InterruptedException {
+		Validate.notNull(activitySequence);
+		int[] marking = compiledNet.getInitialMarking();
+		long produced = sum(marking);
+		long consumed = 0;
+		long missing = 0;
+		int unknownActivities = 0;
+
+		for(String activity: activitySequence){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			int[] transitions = activityTransitions.get(activity);
+			if(transitions == null){
+				unknownActivities++;
+				continue;
+			}
+			int transition = firstEnabled(marking, transitions);
+			if(transition < 0){
+				final int[] candidates = transitions;
+				List<Integer> silentPath = silentPath(marking, m -> firstEnabled(m, candidates) >= 0);
+				if(silentPath != null){
+					for(int silentTransition: silentPath){
+						consumed += sum(compiledNet.getPreWeights(silentTransition));
+						produced += sum(compiledNet.getPostWeights(silentTransition));
+						fire(marking, silentTransition);
+					}
+					transition = firstEnabled(marking, transitions);
+				} else {
+					transition = transitions[0];
+					int minMissing = missingTokens(marking, transition);
+					for(int i=1; i<transitions.length; i++){
+						int transitionMissing = missingTokens(marking, transitions[i]);
+						if(transitionMissing < minMissing){
+							transition = transitions[i];
+							minMissing = transitionMissing;
+						}
+					}
+					missing += minMissing;
+					addMissingTokens(marking, transition);
+				}
+			}
+			consumed += sum(compiledNet.getPreWeights(transition));
+			produced += sum(compiledNet.getPostWeights(transition));
+			fire(marking, transition);
+		}
+
+		if(!covers(marking, finalMarking)){
+			List<Integer> silentPath = silentPath(marking, m -> covers(m, finalMarking));
+			if(silentPath != null){
+				for(int silentTransition: silentPath){
+					consumed += sum(compiledNet.getPreWeights(silentTransition));
+					produced += sum(compiledNet.getPostWeights(silentTransition));
+					fire(marking, silentTransition);
+				}
+			}
+		}
+		long remaining = 0;
+		for(int p=0; p<marking.length; p++){
+			consumed += finalMarking[p];
+			if(marking[p] < finalMarking[p]){
+				missing += finalMarking[p] - marking[p];
+			} else {
+				remaining += marking[p] - finalMarking[p];
+			}
+		}
+		return new TokenReplayFitness(produced, consumed, missing, remaining, unknownActivities);
+	}
+
+	private int firstEnabled(int[] marking, int[] transitions) {
+		for(int transition: transitions){
+			if(missingTokens(marking, transition) == 0)
+				return transition;
+		}
+		return -1;
+	}
+
+	/**
+	 * Searches the shortest sequence of silent transitions leading to a marking which satisfies the given condition (breadth-first).
+	 * @return 静默变迁序列，或<code>null</code>
+	 */
+	private List<Integer> silentPath(int[] marking, MarkingCondition condition) {
+		Map<MarkingKey, MarkingKey> predecessors = new HashMap<MarkingKey, MarkingKey>();
+		Map<MarkingKey, Integer> transitions = new HashMap<MarkingKey, Integer>();
+		ArrayDeque<int[]> queue = new ArrayDeque<int[]>();
+		predecessors.put(new MarkingKey(marking), null);
+		queue.add(marking);
+		while(!queue.isEmpty() && predecessors.size() <= MAX_SILENT_STATES){
+			int[] current = queue.poll();
+			MarkingKey currentKey = new MarkingKey(current);
+			for(int t=0; t<activities.length; t++){
+				if(!compiledNet.isSilent(t) || missingTokens(current, t) > 0)
+					continue;
+				int[] next = current.clone();
+				fire(next, t);
+				MarkingKey nextKey = new MarkingKey(next);
+				if(predecessors.containsKey(nextKey))
+					continue;
+				predecessors.put(nextKey, currentKey);
+				transitions.put(nextKey, t);
+				if(condition.holds(next)){
+					List<Integer> path = new ArrayList<Integer>();
+					for(MarkingKey key = nextKey; predecessors.get(key) != null; key = predecessors.get(key)){
+						path.add(transitions.get(key));
+					}
+					Collections.reverse(path);
+					return path;
+				}
+				queue.add(next);
+			}
+		}
+		return null;
+	}
+
+	private int missingTokens(int[] marking, int transition) {
+		int[] places = compiledNet.getPrePlaces(transition);
+		int[] weights = compiledNet.getPreWeights(transition);
+		int missing = 0;
+		for(int r=0; r<places.length; r++){
+			missing += Math.max(0, weights[r] - marking[places[r]]);
+		}
+		return missing;
+	}
+
+	private void addMissingTokens(int[] marking, int transition) {
+		int[] places = compiledNet.getPrePlaces(transition);
+		int[] weights = compiledNet.getPreWeights(transition);
+		for(int r=0; r<places.length; r++){
+			marking[places[r]] = Math.max(marking[places[r]], weights[r]);
+		}
+	}
+
+	/**
+	 * Fires without checking place capacities.
+	 */
+	private void fire(int[] marking, int transition) {
+		int[] places = compiledNet.getPrePlaces(transition);
+		int[] weights = compiledNet.getPreWeights(transition);
+		for(int r=0; r<places.length; r++){
+			marking[places[r]] -= weights[r];
+		}
+		places = compiledNet.getPostPlaces(transition);
+		weights = compiledNet.getPostWeights(transition);
+		for(int r=0; r<places.length; r++){
+			marking[places[r]] += weights[r];
+		}
+	}
+
+	private static boolean covers(int[] marking, int[] other) {
+		for(int p=0; p<marking.length; p++){
+			if(marking[p] < other[p])
+				return false;
+		}
+		return true;
+	}
+
+	private static long sum(int[] values) {
+		long sum = 0;
+		for(int value: values){
+			sum += value;
+		}
+		return sum;
+	}
+
+	private interface MarkingCondition {
+		boolean holds(int[] marking);
+	}
+
+}
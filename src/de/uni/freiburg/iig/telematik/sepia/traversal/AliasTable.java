@@ -0,0 +1,106 @@
+package de.uni.freiburg.iig.telematik.sepia.traversal;
+
+import java.util.Random;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 别名表（Walker/Vose alias method）<br>
+ * Samples indices according to a discrete probability distribution in constant time.
+ * The table is constructed once in linear time from non-negative weights, which are normalized to probabilities.
+ * Indices with weight zero are never sampled.<br>
+ * <br>
+ * Alias tables are immutable and can be shared between threads, as long as every thread uses its own random generator.
+ */
+public class AliasTable {
+
+	private double[] probabilities = null;
+	/** 每列保留本列索引的概率 */
+	private double[] thresholds = null;
+	private int[] aliases = null;
+
+	/**
+	 * Creates an alias table for the given weights.
+	 * @param weights 非负权重，不必归一化
+	 * @throws ParameterException If there are no weights, some weight is negative or not finite, or all weights are zero.
+	 */
+	public AliasTable(double[] weights) {
+		Validate.notNull(weights);
+		if(weights.length == 0)
+			throw new ParameterException("Alias table requires at least one weight.");
+		double sum = 0.0;
+		for(double weight: weights){
+			if(!(weight >= 0.0) || Double.isInfinite(weight))
+				throw new ParameterException("Weights must be non-negative and finite.");
+			sum += weight;
+		}
+		if(sum <= 0.0)
+			throw new ParameterException("At least one weight must be positive.");
+
+		int n = weights.length;
+		probabilities = new double[n];
+		thresholds = new double[n];
+		aliases = new int[n];
+		// 缩放后的概率，小于1的列由大于1的列补齐
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for(int i=0; i<n; i++){
+			probabilities[i] = weights[i] / sum;
+			scaled[i] = probabilities[i] * n;
+			if(scaled[i] < 1.0){
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+		while(smallCount > 0 && largeCount > 0){
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			thresholds[less] = scaled[less];
+			aliases[less] = more;
+			scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+			if(scaled[more] < 1.0){
+				small[smallCount++] = more;
+			} else {
+				large[largeCount++] = more;
+			}
+		}
+		// 剩余的列由于舍入误差而接近1
+		while(largeCount > 0){
+			int column = large[--largeCount];
+			thresholds[column] = 1.0;
+			aliases[column] = column;
+		}
+		while(smallCount > 0){
+			int column = small[--smallCount];
+			thresholds[column] = 1.0;
+			aliases[column] = column;
+		}
+	}
+
+	public int size() {
+		return probabilities.length;
+	}
+
+	/**
+	 * Returns the normalized probability of the given index.
+	 */
+	public double getProbability(int index) {
+		return probabilities[index];
+	}
+
+	/**
+	 * Samples an index according to the probabilities of the table.
+	 * @param random 随机数生成器
+	 * @return 索引（0至size()-1）
+	 */
+	public int sample(Random random) {
+		int column = random.nextInt(thresholds.length);
+		return random.nextDouble() < thresholds[column] ? column : aliases[column];
+	}
+
+}
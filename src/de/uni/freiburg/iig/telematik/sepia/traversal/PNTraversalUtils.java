@@ -2,9 +2,18 @@ package de.uni.freiburg.iig.telematik.sepia.traversal;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import de.invation.code.toval.validate.InconsistencyException;
 import de.invation.code.toval.validate.ParameterException;
 import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
@@ -13,10 +22,15 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractMarking;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPlace;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.PNNodeNameComparator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreams;
 
 
 public class PNTraversalUtils {
 
+	private static final PNNodeNameComparator NAME_ORDER = new PNNodeNameComparator();
+
 	/**
 	 * Simulates the given Petri net the given number of times and returns all distinct observed traces.<br>
 	 * This method uses a random Petri net traverser.
@@ -83,6 +97,209 @@ public class PNTraversalUtils {
 		}
 		return traces;
 	}
+	
+	/**
+	 * Simulates the given compiled P/T-net the given number of times and returns all observed traces.<br>
+	 * Transitions are chosen randomly among all enabled transitions.<br>
+	 * In contrast to {@link #testTraces(AbstractPetriNet, int, int, boolean, boolean, boolean)},
+	 * transitions are fired on marking vectors without touching the underlying net.
+	 * The runs are simulated with {@link #simulateTraces(CompiledPTNet, int, int, boolean, int, long, TraceSink)},
+	 * so for a fixed seed the same traces are returned.
+	 * @param net The compiled P/T-net to simulate.
+	 * @param runs The number of times to simulate the net.
+	 * @param maxEventsPerTrace The maximum number of transitions fired within one run.
+	 * @param onlyDistinctTraces Indicates, if only distinct traces are returned.
+	 * @param useLabelNames Indicates, if traces contain transition labels instead of transition names.
+	 * @param seed 随机种子
+	 * @return A collection of observed traces in the order of the runs.
+	 * @throws ParameterException If the given net is <code>null</code>
+	 * @throws InterruptedException If the calling thread is interrupted during simulation.
+	 */
+	public static Collection<List<String>> testTraces(CompiledPTNet<?> net, int runs, int maxEventsPerTrace, boolean onlyDistinctTraces, boolean useLabelNames, long seed) throws InterruptedException{
+		
+		final Collection<List<String>> traces;
+		if(onlyDistinctTraces){
+			traces = new LinkedHashSet<List<String>>();
+		} else {
+			traces = new ArrayList<List<String>>();
+		}
+		simulateTraces(net, runs, maxEventsPerTrace, useLabelNames, 1, seed, new TraceSink() {
+			@Override
+			public void addTrace(int run, List<String> trace) {
+				traces.add(trace);
+			}
+		});
+		return traces;
+	}
 
+	/**
+	 * Simulates the given Petri net the given number of times and passes every observed trace to the given sink.<br>
+	 * Transitions are chosen randomly among all enabled transitions.
+	 * Runs are split into contiguous blocks, one for each worker thread.
+	 * Every worker simulates on its own clone of the net. Transitions are chosen among the enabled transitions in the order of their names.
+	 * Every run uses its own random generator, whose seed is derived from the given seed and the run number (see {@link RandomStreams#mix(long, long)}),
+	 * so for a fixed seed the simulation produces the same trace for every run, independent of the parallelism.<br>
+	 * The given net is not modified.
+	 * @param net The Petri net to simulate.
+	 * @param runs The number of times to simulate the net.
+	 * @param maxEventsPerTrace The maximum number of transitions fired within one run.
+	 * @param useLabelNames Indicates, if traces contain transition labels instead of transition names.
+	 * @param parallelism 工作线程数
+	 * @param seed 随机种子
+	 * @param sink Receives the traces, has to be thread-safe for parallelism &gt; 1.
+	 * @throws ParameterException If some parameters are invalid.
+	 * @throws PNException If a transition cannot be fired.
+	 * @throws InterruptedException If the calling thread is interrupted during simulation.
+	 */
+	public static <P extends AbstractPlace<F,S>, 
+	   			   T extends AbstractTransition<F,S>, 
+	   			   F extends AbstractFlowRelation<P,T,S>, 
+	   			   M extends AbstractMarking<S>, 
+	   			   S extends Object> 
+	
+				   void simulateTraces(final AbstractPetriNet<P,T,F,M,S> net, int runs, final int maxEventsPerTrace, final boolean useLabelNames, int parallelism, long seed, TraceSink sink) throws PNException, InterruptedException{
+		
+		Validate.notNull(net);
+		simulateTraces(runs, parallelism, seed, sink, new SimulationFactory() {
+			@Override
+			public Simulation createSimulation() {
+				final AbstractPetriNet<P,T,F,M,S> workerNet = net.clone();
+				final List<T> enabledTransitions = new ArrayList<T>();
+				return new Simulation() {
+					@Override
+					public List<String> simulate(Random random) throws PNException {
+						List<String> trace = new ArrayList<String>();
+						workerNet.reset();
+						int c = 0;
+						while(workerNet.hasEnabledTransitions() && c++ < maxEventsPerTrace){
+							// 按名称排序，使运行只依赖于其种子，而不依赖于之前的运行
+							enabledTransitions.clear();
+							enabledTransitions.addAll(workerNet.getEnabledTransitions());
+							if(enabledTransitions.size() > 1)
+								Collections.sort(enabledTransitions, NAME_ORDER);
+							T nextTransition = enabledTransitions.get(random.nextInt(enabledTransitions.size()));
+							if(!nextTransition.isSilent()){
+								trace.add(useLabelNames ? nextTransition.getLabel() : nextTransition.getName());
+							}
+							workerNet.fire(nextTransition.getName());
+						}
+						return trace;
+					}
+				};
+			}
+		});
+	}
+	
+	/**
+	 * Simulates the given compiled P/T-net the given number of times and passes every observed trace to the given sink.<br>
+	 * In contrast to {@link #simulateTraces(AbstractPetriNet, int, int, boolean, int, long, TraceSink)},
+	 * all workers share the compiled net and fire transitions on their own marking vectors.
+	 * For a fixed seed, the simulation produces the same trace for every run, independent of the parallelism.
+	 * @param net The compiled P/T-net to simulate.
+	 * @param runs The number of times to simulate the net.
+	 * @param maxEventsPerTrace The maximum number of transitions fired within one run.
+	 * @param useLabelNames Indicates, if traces contain transition labels instead of transition names.
+	 * @param parallelism 工作线程数
+	 * @param seed 随机种子
+	 * @param sink Receives the traces, has to be thread-safe for parallelism &gt; 1.
+	 * @throws ParameterException If some parameters are invalid.
+	 * @throws InterruptedException If the calling thread is interrupted during simulation.
+	 */
+	public static void simulateTraces(final CompiledPTNet<?> net, int runs, final int maxEventsPerTrace, final boolean useLabelNames, int parallelism, long seed, TraceSink sink) throws InterruptedException{
+		
+		Validate.notNull(net);
+		try {
+			simulateTraces(runs, parallelism, seed, sink, new SimulationFactory() {
+				@Override
+				public Simulation createSimulation() {
+					final int[] enabledTransitions = new int[net.getTransitionCount()];
+					return new Simulation() {
+						@Override
+						public List<String> simulate(Random random) {
+							List<String> trace = new ArrayList<String>();
+							int[] marking = net.getInitialMarking();
+							int c = 0;
+							int enabledCount = 0;
+							while((enabledCount = net.getEnabledTransitions(marking, enabledTransitions)) > 0 && c++ < maxEventsPerTrace){
+								int nextTransition = enabledTransitions[random.nextInt(enabledCount)];
+								if(!net.isSilent(nextTransition)){
+									trace.add(useLabelNames ? net.getTransitionLabel(nextTransition) : net.getTransitionName(nextTransition));
+								}
+								net.fireInPlace(marking, nextTransition);
+							}
+							return trace;
+						}
+					};
+				}
+			});
+		} catch (PNException e) {
+			// 编译后的网不抛出PNException
+			throw new InconsistencyException("Unexpected exception during simulation: " + e.getMessage());
+		}
+	}
+	
+	private static void simulateTraces(final int runs, int parallelism, final long seed, final TraceSink sink, SimulationFactory factory) throws PNException, InterruptedException{
+		Validate.notNegative(runs);
+		Validate.bigger(parallelism, 0);
+		Validate.notNull(sink);
+		final int workers = Math.max(1, Math.min(parallelism, runs));
+		if(workers == 1){
+			simulateRuns(factory.createSimulation(), seed, 0, runs, sink);
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>(workers);
+			for(int w = 0; w < workers; w++){
+				// 每个工作线程处理连续的一段运行
+				final int firstRun = (int) ((long) runs * w / workers);
+				final int lastRun = (int) ((long) runs * (w + 1) / workers);
+				final Simulation simulation = factory.createSimulation();
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						simulateRuns(simulation, seed, firstRun, lastRun, sink);
+						return null;
+					}
+				}));
+			}
+			for(Future<Void> future : futures){
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof PNException)
+						throw (PNException) cause;
+					if(cause instanceof InterruptedException)
+						throw (InterruptedException) cause;
+					if(cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					throw new PNException("Exception in simulation worker thread.", cause);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static void simulateRuns(Simulation simulation, long seed, int firstRun, int lastRun, TraceSink sink) throws PNException, InterruptedException{
+		Random random = RandomStreams.createRandom(seed);
+		for(int run = firstRun; run < lastRun; run++){
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			random.setSeed(RandomStreams.mix(seed, run));
+			sink.addTrace(run, simulation.simulate(random));
+		}
+	}
+	
+	private interface SimulationFactory {
+		/** 为每个工作线程创建一个模拟 */
+		Simulation createSimulation();
+	}
+	
+	private interface Simulation {
+		List<String> simulate(Random random) throws PNException;
+	}
 
-}
\ No newline at end of file
+}
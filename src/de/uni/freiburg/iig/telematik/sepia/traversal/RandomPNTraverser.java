@@ -1,30 +1,50 @@
 package de.uni.freiburg.iig.telematik.sepia.traversal;
 
 import java.util.List;
+import java.util.Random;
 
-import de.invation.code.toval.misc.valuegeneration.RandomChooser;
 import de.invation.code.toval.validate.InconsistencyException;
 import de.invation.code.toval.validate.ParameterException;
 import de.invation.code.toval.validate.Validate;
 import de.invation.code.toval.validate.ParameterException.ErrorCode;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreams;
 
 
 /**
  * This flow control chooses the next transition to fire 
  * randomly out of the set of enabled Transitions.
+ * For reproducible traversals, the random generator can be set, e.g. a stream of {@link RandomStreams}.
  * 
  * @author Thomas Stocker
  */
 public class RandomPNTraverser<T extends AbstractTransition<?,?>> extends PNTraverser<T> {
 	
-	RandomChooser<T> randomChooser = new RandomChooser<T>();
+	protected Random random = new Random();
 
 	public RandomPNTraverser(AbstractPetriNet<?,T,?,?,?> net) {
 		super(net);
 	}
 
+	/**
+	 * 使用给定随机数生成器的随机遍历
+	 * @param net
+	 * @param random 随机数生成器
+	 */
+	public RandomPNTraverser(AbstractPetriNet<?,T,?,?,?> net, Random random) {
+		super(net);
+		setRandom(random);
+	}
+
+	/**
+	 * Sets the random generator used for choosing transitions, e.g. for reproducible simulations.
+	 */
+	public void setRandom(Random random) {
+		Validate.notNull(random);
+		this.random = random;
+	}
+
 	/**
 	 * 在使能变迁集合中，随机选一个变迁
 	 */
@@ -41,12 +61,12 @@ public class RandomPNTraverser<T extends AbstractTransition<?,?>> extends PNTrav
 		if(!net.getEnabledTransitions().containsAll(enabledTransitions))
 			throw new ParameterException(ErrorCode.INCOMPATIBILITY, "Some of the given transitions re not enabled.");
 		
-		return randomChooser.chooseValue(enabledTransitions);
+		return enabledTransitions.get(random.nextInt(enabledTransitions.size()));
 	}
 
 	/** 是否有效 */
 	@Override
 	public boolean isValid() {
-		return randomChooser.isValid();
+		return true;
 	}
 }
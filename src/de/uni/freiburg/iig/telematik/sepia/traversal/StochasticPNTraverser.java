@@ -1,10 +1,14 @@
 package de.uni.freiburg.iig.telematik.sepia.traversal;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import de.invation.code.toval.misc.valuegeneration.StochasticValueGenerator;
-import de.invation.code.toval.misc.valuegeneration.ValueGenerationException;
 import de.invation.code.toval.validate.InconsistencyException;
 import de.invation.code.toval.validate.Validate;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet;
@@ -19,7 +23,13 @@ import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractTransition;
  * 从t到t1，t2,t3的概率分别为0.2,0.3,0.5,总和必须为1.
  * 【addFlowProbability("t","t1",0.2); addFlowProbability("t","t2",0.3); addFlowProbability("t","t3",0.5);】
  * 根据概率，选择t之后的变迁，最大可能性是t3
-
+ * 
+ * The probabilities are compiled once into alias tables (see {@link AliasTable}) indexed by transition ID, 
+ * so that the next transition is chosen in constant time.
+ * If the chosen transition is not enabled, the probabilities of the enabled successors are renormalized.
+ * Successors with probability 0 are never chosen.
+ * The traverser is valid if the probabilities of each transition sum up to 1 (within the tolerance 1/toleranceDenominator),
+ * otherwise no transition is chosen at all.
  * 
  * @author Thomas Stocker
  *
@@ -28,9 +38,12 @@ public class StochasticPNTraverser<T extends AbstractTransition<?,?>> extends Ra
 	
 	/** 缺省容差分母 */
 	public static final int DEFAULT_TOLERANCE_DENOMINATOR = 1000;
-	/** 变迁T后，各个变迁的概率。从t到t1，t2,t3的概率分别为0.2,0.3,0.5,总和必须为1. */
-	private HashMap<T, StochasticValueGenerator<T>> flowProbabilities = new HashMap<T, StochasticValueGenerator<T>>();
 	private int toleranceDenominator;
+	/** 变迁ID后各个变迁的概率（按添加顺序）。从t到t1，t2,t3的概率分别为0.2,0.3,0.5,总和必须为1. */
+	private Map<String, Map<T, Double>> flowWeights = new HashMap<String, Map<T, Double>>();
+	/** 按变迁ID编译后的概率表，概率改变后重新编译 */
+	private Map<String, FlowTable<T>> flowTables = null;
+	private boolean valid = true;
 	/**
 	 * 构造基于变迁概率的随机遍历，缺省容差分母：{@link #DEFAULT_TOLERANCE_DENOMINATOR}
 	 * @param net
@@ -74,55 +87,120 @@ public class StochasticPNTraverser<T extends AbstractTransition<?,?>> extends Ra
 		Validate.notNull(fromTransition);
 		Validate.notNull(toTransition);
 		Validate.inclusiveBetween(0.0, 1.0, probability);
-		StochasticValueGenerator<T> chooser = flowProbabilities.get(fromTransition);
-		if(chooser == null){
-			chooser = new StochasticValueGenerator<T>(toleranceDenominator);
-			flowProbabilities.put(fromTransition, chooser);
+		Map<T, Double> weights = flowWeights.get(fromTransition.getName());
+		if(weights == null){
+			weights = new LinkedHashMap<T, Double>();
+			flowWeights.put(fromTransition.getName(), weights);
 		}
-		chooser.addProbability(toTransition, probability);
+		weights.put(toTransition, probability);
+		flowTables = null;
 	}
-
+	
 	/**
 	 * 如果没有变迁发射过，随机选择一个变迁t，最为第一次变迁
 	 * 从t到t1，t2,t3的概率分别为0.2,0.3,0.5,总和必须为1,
-	 * 根据概率，选择t之后的变迁，最大可能性是t3
+	 * 根据概率，选择t之后的变迁，最大可能性是t3<br>
+	 * If the chosen transition is not contained in the given enabled transitions, the next transition is chosen among the enabled successors 
+	 * according to their renormalized probabilities. 
+	 * If no successor with positive probability is enabled, the next transition is chosen randomly among all enabled transitions.
+	 * @throws InconsistencyException If the probabilities of some transition do not sum up to 1.
 	 */
 	@Override
 	public T chooseNextTransition(List<T> enabledTransitions) throws InconsistencyException {
-		if(!flowProbabilities.containsKey(net.getLastFiredTransition()))  
-			return super.chooseNextTransition(enabledTransitions); // 随机选择一个变迁作为第一个变迁
 		if(!isValid())
-			throw new InconsistencyException("At least one StochasticChooser is not valid.");
+			throw new InconsistencyException("At least one transition has probabilities which do not sum up to 1.");
+		T lastFiredTransition = net.getLastFiredTransition();
+		FlowTable<T> flowTable = lastFiredTransition == null ? null : flowTables.get(lastFiredTransition.getName());
+		if(flowTable == null)  
+			return super.chooseNextTransition(enabledTransitions); // 随机选择一个变迁作为第一个变迁
 		Validate.notNull(enabledTransitions);
-		Validate.noNullElements(enabledTransitions);
 		
 		if(enabledTransitions.isEmpty())
 			return null;
 		
+		// 每次调用只构造一次使能变迁ID集合
+		Set<String> enabledIDs = new HashSet<String>(enabledTransitions.size() * 2);
+		for(T enabledTransition: enabledTransitions)
+			enabledIDs.add(enabledTransition.getName());
+		
+		// 根据概率选择最后一次变迁的后一次变迁
+		int index = flowTable.aliasTable.sample(random);
+		if(enabledIDs.contains(flowTable.successors.get(index).getName()))
+			return flowTable.successors.get(index);
+		
+		// 只在使能的后继变迁中按重新归一化的概率选择
+		BitSet enabledSuccessors = new BitSet(flowTable.successors.size());
+		double enabledProbability = 0.0;
+		for(int i=0; i<flowTable.successors.size(); i++){
+			if(flowTable.aliasTable.getProbability(i) > 0.0 && enabledIDs.contains(flowTable.successors.get(i).getName())){
+				enabledSuccessors.set(i);
+				enabledProbability += flowTable.aliasTable.getProbability(i);
+			}
+		}
+		if(enabledSuccessors.isEmpty())
+			return super.chooseNextTransition(enabledTransitions);
+		double value = random.nextDouble() * enabledProbability;
 		T nextTransition = null;
-		try {
-			// 根据概率选择最后一次变迁的后一次变迁
-			nextTransition = flowProbabilities.get(net.getLastFiredTransition()).getNextValue();
-		} catch (ValueGenerationException e) {
-			// Cannot happen, since all choosers are valid.
-			e.printStackTrace();
+		for(int i=enabledSuccessors.nextSetBit(0); i>=0; i=enabledSuccessors.nextSetBit(i + 1)){
+			// 舍入误差时返回最后一个使能后继
+			nextTransition = flowTable.successors.get(i);
+			value -= flowTable.aliasTable.getProbability(i);
+			if(value < 0.0)
+				break;
 		}
-		if(!net.getEnabledTransitions().contains(nextTransition))
-			throw new InconsistencyException("Cannot fire transition \""+nextTransition+"\" since it is not enabled.");
 		return nextTransition;
 	}
 	
 	/**
-	 * Checks, if all maintained stochastic choosers are valid.
-	 * @return <code>true</code> if all choosers are valid,<br>
+	 * Checks, if the probabilities of all transitions sum up to 1.
+	 * @return <code>true</code> if all probabilities are valid,<br>
 	 * <code>false</code> otherwise.
-	 * @see StochasticValueGenerator#isValid()
 	 */
 	@Override
 	public boolean isValid(){
-		for(StochasticValueGenerator<T> chooser: flowProbabilities.values())
-			if(!chooser.isValid())
-				return false;
-		return true;
+		getFlowTables();
+		return valid;
+	}
+	
+	/**
+	 * Compiles the flow probabilities into alias tables after they changed.<br>
+	 * A transition whose probabilities do not sum up to 1 (e.g. all 0) makes the traverser invalid.
+	 */
+	private Map<String, FlowTable<T>> getFlowTables(){
+		if(flowTables == null){
+			valid = true;
+			Map<String, FlowTable<T>> tables = new HashMap<String, FlowTable<T>>();
+			for(String fromTransition: flowWeights.keySet()){
+				Map<T, Double> weights = flowWeights.get(fromTransition);
+				List<T> successors = new ArrayList<T>(weights.size());
+				double[] probabilities = new double[weights.size()];
+				for(T toTransition: weights.keySet()){
+					probabilities[successors.size()] = weights.get(toTransition);
+					successors.add(toTransition);
+				}
+				double sum = 0.0;
+				for(double probability: probabilities)
+					sum += probability;
+				if(Math.abs(sum - 1.0) > 1.0 / toleranceDenominator){
+					// 概率之和不为1（全为0时也不能构造别名表）
+					valid = false;
+					continue;
+				}
+				tables.put(fromTransition, new FlowTable<T>(successors, new AliasTable(probabilities)));
+			}
+			flowTables = tables;
+		}
+		return flowTables;
+	}
+	
+	private static class FlowTable<T> {
+		
+		private List<T> successors;
+		private AliasTable aliasTable;
+		
+		private FlowTable(List<T> successors, AliasTable aliasTable){
+			this.successors = successors;
+			this.aliasTable = aliasTable;
+		}
 	}
 }
@@ -0,0 +1,21 @@
+package de.uni.freiburg.iig.telematik.sepia.traversal;
+
+import java.util.List;
+
+/**
+ * Receives the traces of a simulation one by one, 
+ * so that large numbers of traces can be processed (e.g. written to a log file) without keeping them in memory.<br>
+ * In parallel simulations, sinks are called concurrently by all worker threads and have to be thread-safe.
+ * 
+ * @see PNTraversalUtils#simulateTraces(de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet, int, int, boolean, int, long, TraceSink)
+ */
+public interface TraceSink {
+
+	/**
+	 * Is called for every simulated trace.
+	 * @param run 运行编号（0至runs-1）
+	 * @param trace The observed trace.
+	 */
+	public void addTrace(int run, List<String> trace);
+
+}
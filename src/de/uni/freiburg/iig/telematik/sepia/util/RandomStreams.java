@@ -0,0 +1,170 @@
+package de.uni.freiburg.iig.telematik.sepia.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import de.invation.code.toval.validate.ParameterException;
+import de.invation.code.toval.validate.Validate;
+
+/**
+ * 可重现的随机数流<br>
+ * Provides named random streams derived from a single seed, so that simulations can be reproduced and compared.<br>
+ * <br>
+ * Every stream is a {@link Random} backed by a {@link SplittableRandom}, whose seed is derived from the seed of this object
+ * and the name of the stream (SplitMix64). Random choices of different purposes (e.g. {@link #ARRIVALS}, {@link #DURATIONS})
+ * draw from different streams, so changing the number of draws for one purpose does not shift the numbers of the others.
+ * Together with {@link #forReplication(int)}, which derives the streams of a replication from its number only,
+ * this allows common random numbers: two variants of a model simulated with the same seed
+ * see the same arrivals and durations in replication i, so their difference has a much smaller variance
+ * than the difference of independent simulations.<br>
+ * <br>
+ * The streams are not thread-safe. Parallel simulations use their own replications.
+ */
+public class RandomStreams {
+
+	/** 网的选择 */
+	public static final String NETS = "nets";
+	/** 变迁的选择 */
+	public static final String TRANSITIONS = "transitions";
+	/** 资源集合的选择 */
+	public static final String RESOURCES = "resources";
+	/** 活动的持续时间 */
+	public static final String DURATIONS = "durations";
+	/** 案例的到达 */
+	public static final String ARRIVALS = "arrivals";
+
+	private final long seed;
+	private final Map<String, Random> streams = new HashMap<>();
+
+	public RandomStreams(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the random streams of the given replication.
+	 * They only depend on the seed of this object and the replication number, not on the order in which replications are created.
+	 * @param replication 重复编号
+	 * @throws ParameterException If the replication number is negative.
+	 */
+	public RandomStreams forReplication(int replication) {
+		Validate.notNegative(replication);
+		return new RandomStreams(mix(seed, replication));
+	}
+
+	/**
+	 * Returns the stream with the given name. Repeated calls return the same generator.
+	 * @param name 流的名称，例如{@link #TRANSITIONS}
+	 */
+	public Random getStream(String name) {
+		Validate.notNull(name);
+		Random stream = streams.get(name);
+		if(stream == null){
+			stream = createRandom(mix(seed, name.hashCode()));
+			streams.put(name, stream);
+		}
+		return stream;
+	}
+
+	/**
+	 * Derives a seed from the given seed and index (SplitMix64), so that neighbouring indices get uncorrelated seeds.
+	 */
+	public static long mix(long seed, long index) {
+		long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Creates a {@link Random} backed by a {@link SplittableRandom} with the given seed.
+	 * In contrast to {@link Random}, the generator is not synchronized. {@link Random#setSeed(long)} restarts it with a new seed.
+	 */
+	public static Random createRandom(long seed) {
+		return new SplittableRandomAdapter(seed);
+	}
+
+	@Override
+	public String toString() {
+		return "RandomStreams(" + seed + ")";
+	}
+
+	private static class SplittableRandomAdapter extends Random {
+
+		private static final long serialVersionUID = -5396524151806281345L;
+
+		/** 在父类构造函数中由setSeed初始化，因此不能有初始值 */
+		private SplittableRandom generator;
+		/** Random缓存的第二个正态值在setSeed后不会被清除，因此自己缓存 */
+		private double nextGaussian;
+		private boolean hasNextGaussian;
+
+		private SplittableRandomAdapter(long seed) {
+			super(seed);
+		}
+
+		@Override
+		public void setSeed(long seed) {
+			generator = new SplittableRandom(seed);
+			hasNextGaussian = false;
+		}
+
+		@Override
+		protected int next(int bits) {
+			return generator.nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return generator.nextInt();
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return generator.nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return generator.nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return generator.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return generator.nextBoolean();
+		}
+
+		/**
+		 * Polar method as in {@link Random#nextGaussian()}.
+		 */
+		@Override
+		public double nextGaussian() {
+			if(hasNextGaussian){
+				hasNextGaussian = false;
+				return nextGaussian;
+			}
+			double v1, v2, s;
+			do {
+				v1 = 2 * generator.nextDouble() - 1;
+				v2 = 2 * generator.nextDouble() - 1;
+				s = v1 * v1 + v2 * v2;
+			} while(s >= 1 || s == 0);
+			double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+			nextGaussian = v2 * multiplier;
+			hasNextGaussian = true;
+			return v1 * multiplier;
+		}
+
+	}
+
+}
@@ -6,8 +6,13 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import de.uni.freiburg.iig.telematik.sepia.parser.AllParserTests;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.AllPetriNetTests;
+import de.uni.freiburg.iig.telematik.sepia.replay.AllReplayTests;
+import de.uni.freiburg.iig.telematik.sepia.traversal.AliasTableTest;
+import de.uni.freiburg.iig.telematik.sepia.traversal.PNTraversalUtilsTest;
+import de.uni.freiburg.iig.telematik.sepia.traversal.StochasticPNTraverserTest;
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreamsTest;
 
 @RunWith(Suite.class)
-@SuiteClasses({ AllPetriNetTests.class, AllParserTests.class })
+@SuiteClasses({ AllPetriNetTests.class, AllParserTests.class, AllReplayTests.class, PNTraversalUtilsTest.class, AliasTableTest.class, StochasticPNTraverserTest.class, RandomStreamsTest.class })
 public class AllTests {
 }
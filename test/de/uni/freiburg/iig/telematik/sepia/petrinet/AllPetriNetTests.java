@@ -7,8 +7,9 @@ import org.junit.runners.Suite.SuiteClasses;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.AllCPNTests;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.AllIFNetTests;
 import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.AllPTTests;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.AllTimedTests;
 
 @RunWith(Suite.class)
-@SuiteClasses({ AllPTTests.class, AllCPNTests.class, AllIFNetTests.class })
+@SuiteClasses({ AllPTTests.class, AllCPNTests.class, AllIFNetTests.class, AllTimedTests.class })
 public class AllPetriNetTests {
 }
@@ -4,7 +4,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.properties.cwn.soundness.CWNSoundnessCheckingCallableTest;
+
 @RunWith(Suite.class)
-@SuiteClasses({ FiringRuleTest.class, CPNFlowRelationTest.class, CPNTransitionTest.class, CPNPlaceTest.class, CPNTest.class })
+@SuiteClasses({ FiringRuleTest.class, CPNFlowRelationTest.class, CPNTransitionTest.class, CPNPlaceTest.class, CPNTest.class, CWNSoundnessCheckingCallableTest.class })
 public class AllCPNTests {
 }
\ No newline at end of file
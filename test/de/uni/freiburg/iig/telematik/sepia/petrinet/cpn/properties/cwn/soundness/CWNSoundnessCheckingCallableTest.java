@@ -0,0 +1,109 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.properties.cwn.soundness;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import de.invation.code.toval.types.Multiset;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPN;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPNFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPNMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPNPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPNTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.properties.cwn.CWNException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.properties.cwn.CWNProperties;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PropertyCheckingResult;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+
+/**
+ * Tests for the {@link CWNSoundnessCheckingCallable}.
+ */
+public class CWNSoundnessCheckingCallableTest {
+
+	/*
+	 * Workflow net i -> a -> p -> b -> o, in which "loop" can put arbitrarily many tokens into x.
+	 */
+	private static CPN createUnboundedNet() {
+		CPN net = new CPN();
+		for(String place: new String[]{"i", "p", "x", "o"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"a", "loop", "b", "c"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("i", "a");
+		net.addFlowRelationTP("a", "p");
+		net.addFlowRelationPT("p", "loop");
+		net.addFlowRelationTP("loop", "p");
+		net.addFlowRelationTP("loop", "x");
+		net.addFlowRelationPT("x", "c");
+		net.addFlowRelationTP("c", "x");
+		net.addFlowRelationPT("p", "b");
+		net.addFlowRelationTP("b", "o");
+		CPNMarking initialMarking = new CPNMarking();
+		initialMarking.set("i", new Multiset<String>("black"));
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	private static CWNSoundnessCheckingCallableGenerator<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking> createGenerator(CPN net) {
+		CWNSoundnessCheckingCallableGenerator<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking> generator = new CWNSoundnessCheckingCallableGenerator<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking>(net);
+		generator.setCheckCWNStructure(false);
+		generator.setOnTheFly(true);
+		return generator;
+	}
+
+	/*
+	 * Test that the on-the-fly check decides boundedness before exploring the state space.
+	 */
+	@Test
+	public void testOnTheFlyUnbounded() throws Exception {
+		try {
+			new CWNSoundnessCheckingCallable<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking>(createGenerator(createUnboundedNet())).callRoutine();
+			fail("Unbounded net not detected");
+		} catch(CWNException e){
+			CWNProperties properties = e.getProperties();
+			assertEquals(PropertyCheckingResult.FALSE, properties.isBounded);
+			assertEquals(PropertyCheckingResult.FALSE, properties.isSoundCWN);
+		}
+	}
+
+	/*
+	 * Test that an exceeded budget leaves boundedness and soundness unknown if boundedness is not checked before.
+	 */
+	@Test
+	public void testOnTheFlyBudgetExceeded() throws Exception {
+		CWNSoundnessCheckingCallableGenerator<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking> generator = createGenerator(createUnboundedNet());
+		generator.setCheckBoundedness(false);
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxStates(100);
+		generator.setExplorationBudget(budget);
+		try {
+			new CWNSoundnessCheckingCallable<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking>(generator).callRoutine();
+			fail("Exceeded budget not reported");
+		} catch(CWNException e){
+			assertEquals(PropertyCheckingResult.UNKNOWN, e.getProperties().isBounded);
+			assertEquals(PropertyCheckingResult.UNKNOWN, e.getProperties().isSoundCWN);
+			assertTrue(e.getMessage().contains("budget"));
+		}
+	}
+
+	/*
+	 * Test that the budget also limits the boundedness check.
+	 */
+	@Test
+	public void testBoundednessBudgetExceeded() throws Exception {
+		CWNSoundnessCheckingCallableGenerator<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking> generator = createGenerator(createUnboundedNet());
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxStates(1);
+		generator.setExplorationBudget(budget);
+		try {
+			new CWNSoundnessCheckingCallable<CPNPlace,CPNTransition,CPNFlowRelation,CPNMarking>(generator).callRoutine();
+			fail("Exceeded budget not reported");
+		} catch(CWNException e){
+			assertEquals(PropertyCheckingResult.UNKNOWN, e.getProperties().isBounded);
+			assertEquals(PropertyCheckingResult.UNKNOWN, e.getProperties().isSoundCWN);
+		}
+	}
+
+}
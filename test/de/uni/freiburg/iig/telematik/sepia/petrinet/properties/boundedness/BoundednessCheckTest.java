@@ -0,0 +1,86 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import de.invation.code.toval.constraint.NumberConstraint;
+import de.invation.code.toval.constraint.NumberOperator;
+import de.invation.code.toval.types.Multiset;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.abstr.AbstractPetriNet.Boundedness;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.IFNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.IFNetFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.IFNetMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.IFNetPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.RegularIFNetTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.TestGuardDataContainer;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.ifnet.abstr.AbstractIFNetTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceException;
+
+/**
+ * Tests for the {@link BoundednessCheck} of nets which are not supported by the {@link CoverabilityGraph}.
+ */
+public class BoundednessCheckTest {
+
+	/*
+	 * Creates an IF-net in which t moves the green token of p1 to p2 and, if unbounded, also produces a token in p3.
+	 * The guard of t prevents the use of the coverability graph.
+	 */
+	private static IFNet createGuardedNet(boolean unbounded) throws Exception {
+		IFNet net = new IFNet();
+		net.addPlace("p1");
+		net.addPlace("p2");
+		net.addTransition("t");
+		net.addFlowRelationPT("p1", "t").addConstraint("green", 1);
+		net.addFlowRelationTP("t", unbounded ? "p1" : "p2").addConstraint("green", 1);
+		if(unbounded){
+			net.addPlace("p3");
+			net.addFlowRelationTP("t", "p3").addConstraint("green", 1);
+		}
+		IFNetMarking initialMarking = new IFNetMarking();
+		initialMarking.set("p1", new Multiset<String>("black", "green"));
+		net.setInitialMarking(initialMarking);
+
+		RegularIFNetTransition transition = (RegularIFNetTransition) net.getTransition("t");
+		transition.setGuardDataContainer(new TestGuardDataContainer(net.getTokenColors()));
+		transition.addGuard(new NumberConstraint("green", NumberOperator.IN_INTERVAL, -1, 1));
+		return net;
+	}
+
+	/*
+	 * Test that the marking graph decides boundedness of bounded nets.
+	 */
+	@Test
+	public void testBoundedNet() throws Exception {
+		IFNet net = createGuardedNet(false);
+		assertFalse(CoverabilityGraph.isSupported(net));
+		BoundednessCheckResult<?,?,?,?,?> result = BoundednessCheck.getBoundedness(net);
+		assertEquals(Boundedness.BOUNDED, result.getBoundedness());
+		assertEquals(2, result.getMarkingGraph().getStates().size());
+	}
+
+	/*
+	 * Test that exceeding the exploration budget is not reported as unboundedness.
+	 */
+	@Test
+	public void testBudgetExceeded() throws Exception {
+		IFNet net = createGuardedNet(true);
+		assertFalse(CoverabilityGraph.isSupported(net));
+		BoundednessCheckGenerator<IFNetPlace, AbstractIFNetTransition<IFNetFlowRelation>, IFNetFlowRelation, IFNetMarking, Multiset<String>> generator = new BoundednessCheckGenerator<IFNetPlace, AbstractIFNetTransition<IFNetFlowRelation>, IFNetFlowRelation, IFNetMarking, Multiset<String>>(net);
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxStates(10);
+		generator.setExplorationBudget(budget);
+		try {
+			BoundednessCheck.getBoundedness(generator);
+			fail("Exception expected: exploration budget exceeded");
+		} catch (BoundednessException e) {
+			Throwable cause = e;
+			while(cause != null && !(cause instanceof StateSpaceException))
+				cause = cause.getCause();
+			assertNotNull(cause);
+			assertTrue(((StateSpaceException) cause).getStatistics().getStates() > 10);
+		}
+	}
+
+}
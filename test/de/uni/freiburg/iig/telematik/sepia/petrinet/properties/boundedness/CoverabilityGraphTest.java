@@ -0,0 +1,139 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import de.invation.code.toval.types.Multiset;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPN;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.cpn.CPNMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstruction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MarkingGraphException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+
+/**
+ * Tests for the {@link CoverabilityGraph}.
+ */
+public class CoverabilityGraphTest {
+
+	/*
+	 * Creates a P/T-net in which t1 moves the token of p1 to p2 and t2 moves it back.
+	 */
+	private static PTNet createCycleNet() {
+		PTNet net = new PTNet();
+		net.addPlace("p1");
+		net.addPlace("p2");
+		net.addTransition("t1");
+		net.addTransition("t2");
+		net.addFlowRelationPT("p1", "t1");
+		net.addFlowRelationTP("t1", "p2");
+		net.addFlowRelationPT("p2", "t2");
+		net.addFlowRelationTP("t2", "p1");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 1);
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	/*
+	 * Test that the coverability graph of a bounded net coincides with its marking graph.
+	 */
+	@Test
+	public void testBoundedNet() throws Exception {
+		PTNet net = createCycleNet();
+		CoverabilityGraph coverabilityGraph = CoverabilityGraph.build(net);
+		assertTrue(coverabilityGraph.isBounded());
+		assertTrue(coverabilityGraph.getUnboundedPlaces().isEmpty());
+		assertEquals(2, coverabilityGraph.getStateCount());
+
+		AbstractMarkingGraph<PTMarking,Integer,?,?> markingGraph = coverabilityGraph.toMarkingGraph(net);
+		assertEquals(MGConstruction.buildMarkingGraph(net).getStates().size(), markingGraph.getStates().size());
+	}
+
+	/*
+	 * Test that exactly the places which can contain arbitrarily many tokens become omega.
+	 */
+	@Test
+	public void testUnboundedNet() throws Exception {
+		PTNet net = createCycleNet();
+		// t3 keeps the token in p1 and produces a token in p3 on each firing, t1 produces a token in p4 in each cycle
+		net.addPlace("p3");
+		net.addPlace("p4");
+		net.addTransition("t3");
+		net.addFlowRelationPT("p1", "t3");
+		net.addFlowRelationTP("t3", "p1");
+		net.addFlowRelationTP("t3", "p3");
+		net.addFlowRelationTP("t1", "p4");
+
+		CoverabilityGraph coverabilityGraph = CoverabilityGraph.build(net);
+		assertFalse(coverabilityGraph.isBounded());
+		assertEquals(new HashSet<String>(Arrays.asList("p3", "p4")), coverabilityGraph.getUnboundedPlaces());
+		try {
+			coverabilityGraph.toMarkingGraph(net);
+			fail("Exception expected: unbounded net");
+		} catch (MarkingGraphException e) {
+			// expected
+		}
+	}
+
+	/*
+	 * Test that capacities of P/T-nets disable transitions and prevent acceleration, as in the marking graph construction.
+	 */
+	@Test
+	public void testPTCapacity() throws Exception {
+		PTNet net = createCycleNet();
+		net.getPlace("p2").setCapacity(1);
+		CoverabilityGraph coverabilityGraph = CoverabilityGraph.build(net);
+		assertTrue(coverabilityGraph.isBounded());
+		assertEquals(2, coverabilityGraph.getStateCount());
+
+		// Two tokens in p1: t1 is disabled when p2 is full
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 2);
+		net.setInitialMarking(initialMarking);
+		coverabilityGraph = CoverabilityGraph.build(net);
+		assertTrue(coverabilityGraph.isBounded());
+		assertEquals(2, coverabilityGraph.getStateCount());
+		assertEquals(MGConstruction.buildMarkingGraph(net).getStates().size(), coverabilityGraph.toMarkingGraph(net).getStates().size());
+
+		// t3 would fill p3 arbitrarily without its capacity
+		net.addPlace("p3");
+		net.addTransition("t3");
+		net.addFlowRelationPT("p1", "t3");
+		net.addFlowRelationTP("t3", "p1");
+		net.addFlowRelationTP("t3", "p3");
+		net.getPlace("p3").setCapacity(2);
+		coverabilityGraph = CoverabilityGraph.build(net);
+		assertTrue(coverabilityGraph.isBounded());
+		assertEquals(MGConstruction.buildMarkingGraph(net).getStates().size(), coverabilityGraph.getStateCount());
+	}
+
+	/*
+	 * Test that capacities of CPNs disable transitions and prevent acceleration.
+	 */
+	@Test
+	public void testCPNCapacity() throws Exception {
+		CPN net = new CPN();
+		net.addPlace("p1");
+		net.addPlace("p2");
+		net.addTransition("t1");
+		net.addFlowRelationPT("p1", "t1");
+		net.addFlowRelationTP("t1", "p1");
+		net.addFlowRelationTP("t1", "p2");
+		net.getPlace("p2").setColorCapacity("black", 2);
+		CPNMarking initialMarking = new CPNMarking();
+		initialMarking.set("p1", new Multiset<String>("black"));
+		net.setInitialMarking(initialMarking);
+
+		CoverabilityGraph coverabilityGraph = CoverabilityGraph.build(net);
+		assertTrue(coverabilityGraph.isBounded());
+		assertEquals(3, coverabilityGraph.getStateCount());
+		assertEquals(MGConstruction.buildMarkingGraph(net).getStates().size(), coverabilityGraph.toMarkingGraph(net).getStates().size());
+	}
+
+}
@@ -0,0 +1,159 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * Tests for the {@link ExplorationMonitor} and the limits of the {@link ExplorationBudget}.
+ */
+public class ExplorationMonitorTest {
+
+	/** 时间和堆内存每隔多少次检查采样一次，与{@link ExplorationMonitor}一致 */
+	private static final int SAMPLE_INTERVAL = 256;
+
+	/*
+	 * Test that a budget without limits never aborts.
+	 */
+	@Test
+	public void testUnlimited() throws Exception {
+		ExplorationBudget budget = new ExplorationBudget();
+		assertTrue(budget.isUnlimited());
+		ExplorationMonitor monitor = new ExplorationMonitor(budget);
+		for(int i=0; i<2*SAMPLE_INTERVAL; i++){
+			monitor.check(Long.MAX_VALUE, Long.MAX_VALUE, i);
+		}
+	}
+
+	/*
+	 * Test that the state limit aborts as soon as it is exceeded.
+	 */
+	@Test
+	public void testStateLimit() throws Exception {
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxStates(10);
+		ExplorationMonitor monitor = new ExplorationMonitor(budget);
+		monitor.check(10, 20, 3);
+		try {
+			monitor.check(11, 20, 3);
+			fail("Exception expected: state limit exceeded");
+		} catch (StateSpaceException e) {
+			ExplorationStatistics statistics = e.getStatistics();
+			assertNotNull(statistics);
+			assertEquals(11, statistics.getStates());
+			assertEquals(20, statistics.getEdges());
+			assertEquals(3, statistics.getFrontierSize());
+		}
+	}
+
+	/*
+	 * Test that the edge limit aborts as soon as it is exceeded.
+	 */
+	@Test
+	public void testEdgeLimit() throws Exception {
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxEdges(10);
+		ExplorationMonitor monitor = new ExplorationMonitor(budget);
+		monitor.check(5, 10, 0);
+		try {
+			monitor.check(5, 11, 0);
+			fail("Exception expected: edge limit exceeded");
+		} catch (StateSpaceException e) {
+			assertEquals(11, e.getStatistics().getEdges());
+		}
+	}
+
+	/*
+	 * Test that the time limit aborts at the next sample after the limit has passed.
+	 */
+	@Test
+	public void testTimeLimit() throws Exception {
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxTime(10);
+		ExplorationMonitor monitor = new ExplorationMonitor(budget);
+		Thread.sleep(50);
+		try {
+			for(int i=0; i<SAMPLE_INTERVAL; i++){
+				monitor.check(i, i, 1);
+			}
+			fail("Exception expected: time limit exceeded");
+		} catch (StateSpaceException e) {
+			assertTrue(e.getStatistics().getElapsedTime() > 10);
+			assertEquals(SAMPLE_INTERVAL - 1, e.getStatistics().getStates());
+		}
+	}
+
+	/*
+	 * Test that the heap limit aborts once the used heap has grown by more than the limit.
+	 * The allocated blocks stay reachable until the end of the test, so they cannot be collected.
+	 */
+	@Test
+	public void testHeapLimit() throws Exception {
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxHeapBytes(1 << 20);
+		ExplorationMonitor monitor = new ExplorationMonitor(budget);
+		List<byte[]> blocks = new ArrayList<byte[]>();
+		try {
+			for(int block=0; block<64; block++){
+				blocks.add(new byte[1 << 20]);
+				for(int i=0; i<SAMPLE_INTERVAL; i++){
+					monitor.check(block, 0, 0);
+				}
+			}
+			fail("Exception expected: heap limit exceeded");
+		} catch (StateSpaceException e) {
+			assertTrue(e.getStatistics().getHeapBytes() > 1 << 20);
+		}
+		assertFalse(blocks.isEmpty());
+	}
+
+	/*
+	 * Test that a state limit aborts the marking graph construction of an unbounded net,
+	 * in interpreted and in compiled execution mode.
+	 */
+	@Test
+	public void testUnboundedNet() throws Exception {
+		PTNet net = new PTNet();
+		net.addPlace("p");
+		net.addPlace("q");
+		net.addTransition("t");
+		net.addFlowRelationPT("p", "t");
+		net.addFlowRelationTP("t", "p");
+		net.addFlowRelationTP("t", "q");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p", 1);
+		net.setInitialMarking(initialMarking);
+
+		for(boolean compiledExecution: new boolean[]{false, true}){
+			MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer> generator = new MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(net);
+			generator.setCompiledExecution(compiledExecution);
+			ExplorationBudget budget = new ExplorationBudget();
+			budget.setMaxStates(50);
+			generator.setExplorationBudget(budget);
+			try {
+				MGConstruction.buildMarkingGraph(new ThreadedMGCalculator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(generator));
+				fail("Exception expected: exploration budget exceeded");
+			} catch (MarkingGraphException e) {
+				Throwable cause = e;
+				while(cause != null && !(cause instanceof StateSpaceException))
+					cause = cause.getCause();
+				assertNotNull(cause);
+				ExplorationStatistics statistics = ((StateSpaceException) cause).getStatistics();
+				assertEquals(51, statistics.getStates());
+				assertEquals(50, statistics.getEdges());
+				assertEquals(1, statistics.getFrontierSize());
+				assertTrue(statistics.getElapsedTime() >= 0);
+			}
+		}
+	}
+
+}
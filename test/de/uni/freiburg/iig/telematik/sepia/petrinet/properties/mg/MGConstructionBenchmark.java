@@ -0,0 +1,92 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uni.freiburg.iig.telematik.sepia.generator.PNGenerator;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * 标识图构建的性能测试<br>
+ * Compares marking graph construction with the hash-based {@link HashMGStateStore}
+ * against a store that looks up markings by linear scan (the former behaviour of {@link MGConstructorCallable})
+ * on the nets generated by {@link PNGenerator#sharedResource(int, int)} and {@link PNGenerator#boundedPipeline(int, int)}.<br>
+ * Not part of the test suites, run manually via {@link #main(String[])}.
+ */
+public class MGConstructionBenchmark {
+	
+	private static final String resultFormat = "%-25s %8d states %10d ms (linear scan) %10d ms (hashed)%n";
+	
+	public static void main(String[] args) throws MarkingGraphException {
+		List<PTNet> nets = new ArrayList<PTNet>();
+		nets.add(PNGenerator.sharedResource(4, 1));
+		nets.add(PNGenerator.sharedResource(6, 2));
+		nets.add(PNGenerator.sharedResource(7, 3));
+		nets.add(PNGenerator.boundedPipeline(4, 3));
+		nets.add(PNGenerator.boundedPipeline(6, 3));
+		nets.add(PNGenerator.boundedPipeline(6, 4));
+		
+		for(PTNet net: nets){
+			// Warm-up run
+			buildMarkingGraph(net, new HashMGStateStore<PTMarking>());
+			
+			long start = System.currentTimeMillis();
+			AbstractMarkingGraph<PTMarking,Integer,?,?> markingGraph = buildMarkingGraph(net, new LinearMGStateStore<PTMarking>());
+			long linearTime = System.currentTimeMillis() - start;
+			
+			start = System.currentTimeMillis();
+			buildMarkingGraph(net, new HashMGStateStore<PTMarking>());
+			long hashedTime = System.currentTimeMillis() - start;
+			
+			System.out.format(resultFormat, net.getName(), markingGraph.getStates().size(), linearTime, hashedTime);
+		}
+	}
+	
+	private static AbstractMarkingGraph<PTMarking,Integer,?,?> buildMarkingGraph(PTNet net, MGStateStore<PTMarking> stateStore) throws MarkingGraphException {
+		MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer> generator = new MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(net);
+		generator.setStateStore(stateStore);
+		return MGConstruction.buildMarkingGraph(new ThreadedMGCalculator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(generator));
+	}
+	
+	/**
+	 * Reference store with linear lookup time.
+	 */
+	private static class LinearMGStateStore<M extends PTMarking> implements MGStateStore<M> {
+		
+		private List<M> markings = new ArrayList<M>();
+		private List<String> stateNames = new ArrayList<String>();
+
+		@Override
+		public String getStateName(M marking) {
+			for(int i=0; i<markings.size(); i++){
+				if(markings.get(i).equals(marking)){
+					return stateNames.get(i);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public void addState(M marking, String stateName) {
+			markings.add(marking);
+			stateNames.add(stateName);
+		}
+
+		@Override
+		public int size() {
+			return markings.size();
+		}
+
+		@Override
+		public void clear() {
+			markings.clear();
+			stateNames.clear();
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphState;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * Tests for the {@link ParallelMGExplorer}.
+ */
+public class ParallelMGExplorerTest {
+
+	private static final int PARALLELISM = 4;
+
+	/*
+	 * Creates a net of the given number of concurrent cycles a_i -> b_i -> c_i -> a_i,
+	 * i.e. with 3^components states and a breadth-first level size above the chunk size of the workers.
+	 */
+	private static PTNet createCyclesNet(int components) {
+		PTNet net = new PTNet();
+		PTMarking initialMarking = new PTMarking();
+		for(int i=0; i<components; i++){
+			String[] places = new String[]{"a"+i, "b"+i, "c"+i};
+			for(String place: places){
+				net.addPlace(place);
+			}
+			for(int j=0; j<places.length; j++){
+				String transition = "t"+i+"_"+j;
+				net.addTransition(transition);
+				net.addFlowRelationPT(places[j], transition);
+				net.addFlowRelationTP(transition, places[(j+1) % places.length]);
+			}
+			initialMarking.set("a"+i, 1);
+		}
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	/*
+	 * Test that parallel and sequential construction find the same states and edges.
+	 */
+	@Test
+	public void testSameAsSequential() throws Exception {
+		PTNet net = createCyclesNet(5);
+		for(boolean compiledExecution: new boolean[]{false, true}){
+			AbstractMarkingGraph<PTMarking,Integer,?,?> sequential = buildMarkingGraph(net, 1, compiledExecution, StateSpaceReduction.NONE, null);
+			AbstractMarkingGraph<PTMarking,Integer,?,?> parallel = buildMarkingGraph(net, PARALLELISM, compiledExecution, StateSpaceReduction.NONE, null);
+			assertEquals(243, sequential.getStates().size());
+			assertEquals(243 * 5, sequential.getRelations().size());
+			assertEquals(sequential.getStates().size(), parallel.getStates().size());
+			assertEquals(sequential.getRelations().size(), parallel.getRelations().size());
+			assertEquals(getMarkings(sequential), getMarkings(parallel));
+			assertEquals(net.getInitialMarking(), parallel.getInitialState().getElement());
+		}
+	}
+
+	/*
+	 * Test that parallel and sequential construction find the same states and edges with stubborn set reduction.
+	 */
+	@Test
+	public void testSameAsSequentialReduced() throws Exception {
+		PTNet net = createCyclesNet(5);
+		AbstractMarkingGraph<PTMarking,Integer,?,?> sequential = buildMarkingGraph(net, 1, false, StateSpaceReduction.STUBBORN_SETS, null);
+		AbstractMarkingGraph<PTMarking,Integer,?,?> parallel = buildMarkingGraph(net, PARALLELISM, false, StateSpaceReduction.STUBBORN_SETS, null);
+		assertTrue(sequential.getStates().size() < 243);
+		assertEquals(sequential.getStates().size(), parallel.getStates().size());
+		assertEquals(sequential.getRelations().size(), parallel.getRelations().size());
+		assertEquals(getMarkings(sequential), getMarkings(parallel));
+	}
+
+	/*
+	 * Test that a budget abort in a worker thread aborts the construction with a StateSpaceException.
+	 * Every one of the 64 concurrent transitions is enabled in the initial marking,
+	 * so the state limit is exceeded while the workers expand the first level, not between two levels.
+	 */
+	@Test
+	public void testBudgetAbortInWorker() throws Exception {
+		PTNet net = new PTNet();
+		PTMarking initialMarking = new PTMarking();
+		for(int i=0; i<64; i++){
+			net.addPlace("p"+i);
+			net.addPlace("q"+i);
+			net.addTransition("t"+i);
+			net.addFlowRelationPT("p"+i, "t"+i);
+			net.addFlowRelationTP("t"+i, "q"+i);
+			initialMarking.set("p"+i, 1);
+		}
+		net.setInitialMarking(initialMarking);
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxStates(80);
+
+		try {
+			buildMarkingGraph(net, PARALLELISM, false, StateSpaceReduction.NONE, budget);
+			fail("Exception expected: exploration budget exceeded");
+		} catch (MarkingGraphException e) {
+			Throwable cause = e;
+			while(cause != null && !(cause instanceof StateSpaceException))
+				cause = cause.getCause();
+			assertNotNull(cause);
+			assertTrue(((StateSpaceException) cause).getStatistics().getStates() > 80);
+			boolean thrownByWorker = false;
+			for(StackTraceElement element: cause.getStackTrace()){
+				if(element.getClassName().startsWith(ParallelMGExplorer.class.getName() + "$LevelTask"))
+					thrownByWorker = true;
+			}
+			assertTrue(thrownByWorker);
+		}
+	}
+
+	private static Set<PTMarking> getMarkings(AbstractMarkingGraph<PTMarking,Integer,?,?> markingGraph) {
+		Set<PTMarking> markings = new HashSet<PTMarking>();
+		for(AbstractMarkingGraphState<PTMarking,Integer> state: markingGraph.getStates()){
+			markings.add(state.getElement());
+		}
+		return markings;
+	}
+
+	private static AbstractMarkingGraph<PTMarking,Integer,?,?> buildMarkingGraph(PTNet net, int parallelism, boolean compiledExecution, StateSpaceReduction reduction, ExplorationBudget budget) throws Exception {
+		MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer> generator = new MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(net);
+		generator.setParallelism(parallelism);
+		generator.setCompiledExecution(compiledExecution);
+		generator.setReduction(reduction);
+		if(budget != null)
+			generator.setExplorationBudget(budget);
+		return MGConstruction.buildMarkingGraph(new ThreadedMGCalculator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(generator));
+	}
+
+}
@@ -0,0 +1,48 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for the trie-based {@link MGTraversalResult}.
+ */
+public class MGTraversalResultTest {
+
+	@Test
+	public void testSequences() {
+		Set<List<String>> sequences = new HashSet<List<String>>();
+		sequences.add(Arrays.asList("a"));
+		sequences.add(Arrays.asList("a", "b"));
+		sequences.add(Arrays.asList("a", "c"));
+		Set<List<String>> completeSequences = new HashSet<List<String>>();
+		completeSequences.add(Arrays.asList("a", "b"));
+		completeSequences.add(Arrays.asList("a", "c"));
+		MGTraversalResult result = new MGTraversalResult(sequences, completeSequences);
+
+		assertEquals(3, result.getSequenceCount());
+		assertEquals(2, result.getCompleteSequenceCount());
+		// Prefixes are shared: root, a, ab, ac
+		assertEquals(4, result.getTrie().getNodeCount());
+		assertEquals(3, result.getTrie().getActivityCount());
+
+		assertEquals(sequences, result.getSequences());
+		assertEquals(completeSequences, result.getCompleteSequences());
+		assertEquals(new HashSet<List<String>>(result.getCompleteSequences()), completeSequences);
+
+		assertTrue(result.containsSequence(Arrays.asList("a")));
+		assertFalse(result.containsCompleteSequence(Arrays.asList("a")));
+		assertFalse(result.containsSequence(Arrays.asList("a", "d")));
+		assertFalse(result.getCompleteSequences().contains(Arrays.asList("b")));
+
+		assertFalse(result.addCompleteSequence(Arrays.asList("a", "b")));
+		assertTrue(result.addCompleteSequence(Arrays.asList("a")));
+		assertEquals(3, result.getCompleteSequences().size());
+	}
+
+}
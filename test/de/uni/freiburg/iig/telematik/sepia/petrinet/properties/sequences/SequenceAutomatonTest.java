@@ -0,0 +1,81 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * Tests for the {@link SequenceAutomaton}.
+ */
+public class SequenceAutomatonTest {
+
+	/*
+	 * Net i -> split -> (a_j -> t_j -> b_j for j < k) -> join -> o.
+	 */
+	private static PTNet createAndSplitNet(int k) {
+		PTNet net = new PTNet();
+		net.addPlace("i");
+		net.addPlace("o");
+		net.addTransition("split");
+		net.addTransition("join");
+		net.addFlowRelationPT("i", "split");
+		net.addFlowRelationTP("join", "o");
+		for(int j=0; j<k; j++){
+			net.addPlace("a" + j);
+			net.addPlace("b" + j);
+			net.addTransition("t" + j);
+			net.addFlowRelationTP("split", "a" + j);
+			net.addFlowRelationPT("a" + j, "t" + j);
+			net.addFlowRelationTP("t" + j, "b" + j);
+			net.addFlowRelationPT("b" + j, "join");
+		}
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	/*
+	 * Test that counting equals the number of generated complete sequences.
+	 */
+	@Test
+	public void testCountCompleteSequences() throws Exception {
+		PTNet net = createAndSplitNet(4);
+		SequenceGenerationCallableGenerator<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer> generator = new SequenceGenerationCallableGenerator<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer>(net);
+		SequenceGenerationCallable<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer> callable = new SequenceGenerationCallable<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer>(generator);
+		MGTraversalResult traversalResult = callable.callRoutine();
+		SequenceAutomaton<PTMarking, Integer> automaton = callable.createSequenceAutomaton();
+
+		assertEquals(24, traversalResult.getCompleteSequenceCount());
+		assertEquals(24, automaton.countCompleteSequences());
+		for(List<String> completeSequence: traversalResult.getCompleteSequences()){
+			assertTrue(automaton.isCompleteSequence(completeSequence));
+		}
+		assertTrue(automaton.isSequence(Arrays.asList("split", "t3")));
+		assertFalse(automaton.isCompleteSequence(Arrays.asList("split", "t3")));
+		assertFalse(automaton.isSequence(Arrays.asList("split", "join")));
+	}
+
+	/*
+	 * Test that sequences of cyclic marking graphs cannot be counted.
+	 */
+	@Test(expected = SequenceGenerationException.class)
+	public void testCycle() throws Exception {
+		PTNet net = createAndSplitNet(1);
+		net.addTransition("redo");
+		net.addFlowRelationPT("b0", "redo");
+		net.addFlowRelationTP("redo", "a0");
+		SequenceGenerationCallableGenerator<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer> generator = new SequenceGenerationCallableGenerator<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer>(net);
+		new SequenceGenerationCallable<PTPlace, PTTransition, PTFlowRelation, PTMarking, Integer>(generator).createSequenceAutomaton().countCompleteSequences();
+	}
+
+}
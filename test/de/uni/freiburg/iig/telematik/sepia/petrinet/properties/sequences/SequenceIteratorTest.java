@@ -0,0 +1,86 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstruction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+
+/**
+ * Tests for the {@link SequenceIterator}.
+ */
+public class SequenceIteratorTest {
+
+	private AbstractMarkingGraph<PTMarking,Integer,?,?> markingGraph = null;
+
+	/*
+	 * Net i -> a -> p -> b -> q -> c -> o with a loop q -> d -> p.
+	 */
+	@Before
+	public void setUp() throws Exception {
+		PTNet net = new PTNet();
+		for(String place: new String[]{"i", "p", "q", "o"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"a", "b", "c", "d"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("i", "a");
+		net.addFlowRelationTP("a", "p");
+		net.addFlowRelationPT("p", "b");
+		net.addFlowRelationTP("b", "q");
+		net.addFlowRelationPT("q", "c");
+		net.addFlowRelationTP("c", "o");
+		net.addFlowRelationPT("q", "d");
+		net.addFlowRelationTP("d", "p");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+		markingGraph = MGConstruction.buildMarkingGraph(net);
+	}
+
+	private Set<List<String>> collect(SequenceIterator<PTMarking, Integer> iterator) {
+		Set<List<String>> sequences = new HashSet<List<String>>();
+		while(iterator.hasNext()){
+			assertTrue("Sequence returned twice", sequences.add(iterator.next()));
+		}
+		return sequences;
+	}
+
+	/*
+	 * Test sequences of a cyclic marking graph with bounded length.
+	 */
+	@Test
+	public void testMaxSequenceLength() {
+		Set<String> noSilentActivities = Collections.emptySet();
+		Set<List<String>> sequences = collect(new SequenceIterator<PTMarking, Integer>(markingGraph, noSilentActivities, false, 4, SequenceIterator.UNBOUNDED));
+		assertEquals(5, sequences.size());
+		assertTrue(sequences.contains(Arrays.asList("a", "b", "d", "b")));
+
+		Set<List<String>> completeSequences = collect(new SequenceIterator<PTMarking, Integer>(markingGraph, noSilentActivities, true, 6, SequenceIterator.UNBOUNDED));
+		assertEquals(2, completeSequences.size());
+		assertTrue(completeSequences.contains(Arrays.asList("a", "b", "c")));
+		assertTrue(completeSequences.contains(Arrays.asList("a", "b", "d", "b", "c")));
+	}
+
+	/*
+	 * Test sequences of a cyclic marking graph with bounded loop unrolling and silent activities.
+	 */
+	@Test
+	public void testMaxLoopUnrolling() {
+		Set<List<String>> completeSequences = collect(new SequenceIterator<PTMarking, Integer>(markingGraph, Collections.singleton("d"), true, SequenceIterator.UNBOUNDED, 1));
+		// a b c, a b (d) b c
+		assertEquals(new HashSet<List<String>>(Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("a", "b", "b", "c"))), completeSequences);
+	}
+
+}
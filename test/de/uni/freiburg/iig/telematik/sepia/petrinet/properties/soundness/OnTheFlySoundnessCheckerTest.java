@@ -0,0 +1,142 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * Tests for the {@link OnTheFlySoundnessChecker}.
+ */
+public class OnTheFlySoundnessCheckerTest {
+
+	/*
+	 * Creates a workflow net with input place i, output place o and the given flow relations {source, target}.
+	 * Relations whose source is one of the given places lead from a place to a transition.
+	 */
+	private static PTNet createNet(String[] places, String[] transitions, String[]... flowRelations) {
+		PTNet net = new PTNet();
+		for(String place: places){
+			net.addPlace(place);
+		}
+		for(String transition: transitions){
+			net.addTransition(transition);
+		}
+		for(String[] relation: flowRelations){
+			if(net.containsPlace(relation[0])){
+				net.addFlowRelationPT(relation[0], relation[1]);
+			} else {
+				net.addFlowRelationTP(relation[0], relation[1]);
+			}
+		}
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	/*
+	 * Checks the given net, where only the marking with exactly one token in o has the end-state property.
+	 */
+	private static void check(PTNet net) throws Exception {
+		new OnTheFlySoundnessChecker<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(net, marking -> {
+			for(String place: marking.places()){
+				if(!place.equals("o") && marking.get(place) > 0)
+					throw new PNValidationException("Remaining token in place \"" + place + "\"");
+			}
+			if(!marking.contains("o") || marking.get("o") != 1)
+				throw new PNValidationException("No single token in place \"o\"");
+		}, new ExplorationBudget()).check();
+	}
+
+	private static SoundnessWitness checkViolation(PTNet net) throws Exception {
+		try {
+			check(net);
+		} catch(SoundnessViolationException e){
+			return e.getWitness();
+		}
+		fail("Soundness violation not detected");
+		return null;
+	}
+
+	/*
+	 * Test that a sound net passes the check.
+	 */
+	@Test
+	public void testSoundNet() throws Exception {
+		check(createNet(new String[]{"i", "p1", "p2", "q1", "q2", "o"}, new String[]{"split", "a", "b", "join"},
+				new String[]{"i", "split"}, new String[]{"split", "p1"}, new String[]{"split", "p2"},
+				new String[]{"p1", "a"}, new String[]{"a", "q1"}, new String[]{"p2", "b"}, new String[]{"b", "q2"},
+				new String[]{"q1", "join"}, new String[]{"q2", "join"}, new String[]{"join", "o"}));
+	}
+
+	/*
+	 * Test that a dead marking with a remaining token is reported with the sequence leading to it.
+	 */
+	@Test
+	public void testImproperTermination() throws Exception {
+		PTNet net = createNet(new String[]{"i", "p1", "p2", "o"}, new String[]{"split", "a"},
+				new String[]{"i", "split"}, new String[]{"split", "p1"}, new String[]{"split", "p2"},
+				new String[]{"p1", "a"}, new String[]{"a", "o"});
+		SoundnessWitness witness = checkViolation(net);
+		assertEquals(SoundnessWitness.Violation.IMPROPER_TERMINATION, witness.getViolation());
+		assertEquals(Arrays.asList("split", "a"), witness.getFiringSequence());
+		PTMarking marking = new PTMarking();
+		marking.set("p2", 1);
+		marking.set("o", 1);
+		assertEquals(marking, witness.getMarking());
+	}
+
+	/*
+	 * Test that a marking with the end-state property which enables transitions is reported.
+	 */
+	@Test
+	public void testEnabledAfterCompletion() throws Exception {
+		PTNet net = createNet(new String[]{"i", "p", "o"}, new String[]{"a", "b", "loop"},
+				new String[]{"i", "a"}, new String[]{"a", "p"}, new String[]{"p", "b"}, new String[]{"b", "o"},
+				new String[]{"o", "loop"}, new String[]{"loop", "o"});
+		SoundnessWitness witness = checkViolation(net);
+		assertEquals(SoundnessWitness.Violation.ENABLED_AFTER_COMPLETION, witness.getViolation());
+		assertEquals(Arrays.asList("a", "b"), witness.getFiringSequence());
+	}
+
+	/*
+	 * Test that a livelock without option to complete is reported with a shortest sequence leading to it.
+	 */
+	@Test
+	public void testNoOptionToComplete() throws Exception {
+		PTNet net = createNet(new String[]{"i", "x", "o"}, new String[]{"t1", "t2", "t3"},
+				new String[]{"i", "t1"}, new String[]{"t1", "o"}, new String[]{"i", "t2"}, new String[]{"t2", "x"},
+				new String[]{"x", "t3"}, new String[]{"t3", "x"});
+		SoundnessWitness witness = checkViolation(net);
+		assertEquals(SoundnessWitness.Violation.NO_OPTION_TO_COMPLETE, witness.getViolation());
+		assertEquals(Arrays.asList("t2"), witness.getFiringSequence());
+		PTMarking marking = new PTMarking();
+		marking.set("x", 1);
+		assertEquals(marking, witness.getMarking());
+	}
+
+	/*
+	 * Test that transitions which are never enabled are reported.
+	 */
+	@Test
+	public void testDeadTransition() throws Exception {
+		PTNet net = createNet(new String[]{"i", "x", "o"}, new String[]{"t1", "t2"},
+				new String[]{"i", "t1"}, new String[]{"t1", "o"}, new String[]{"x", "t2"}, new String[]{"t2", "o"});
+		SoundnessWitness witness = checkViolation(net);
+		assertEquals(SoundnessWitness.Violation.DEAD_TRANSITIONS, witness.getViolation());
+		assertEquals(Collections.singleton("t2"), witness.getDeadTransitions());
+		assertTrue(witness.getFiringSequence().isEmpty());
+	}
+
+}
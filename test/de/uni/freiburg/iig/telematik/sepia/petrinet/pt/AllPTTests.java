@@ -4,7 +4,21 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.BoundednessCheckTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.boundedness.CoverabilityGraphTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationMonitorTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ParallelMGExplorerTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.MGTraversalResultTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.OnTheFlySoundnessCheckerTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.SequenceAutomatonTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.sequences.SequenceIteratorTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNetTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.StubbornSetsTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic.SymbolicStateSpaceTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.soundness.WFNetSoundnessCheckingCallableTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic.GSPNTest;
+
 @RunWith(Suite.class)
-@SuiteClasses({ PTPlaceTest.class, PTTransitionTest.class, PTFlowRelationTest.class, PTNetTest.class })
+@SuiteClasses({ PTPlaceTest.class, PTTransitionTest.class, PTFlowRelationTest.class, PTNetTest.class, PTMarkingTest.class, CompiledPTNetTest.class, StubbornSetsTest.class, SymbolicStateSpaceTest.class, SequenceIteratorTest.class, MGTraversalResultTest.class, SequenceAutomatonTest.class, GSPNTest.class, CoverabilityGraphTest.class, BoundednessCheckTest.class, ExplorationMonitorTest.class, ParallelMGExplorerTest.class, OnTheFlySoundnessCheckerTest.class, WFNetSoundnessCheckingCallableTest.class })
 public class AllPTTests {
 }
@@ -0,0 +1,121 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.abstr.PTPlaceIndex;
+
+/**
+ * Tests for the {@link PTMarking}.
+ */
+public class PTMarkingTest {
+
+	/*
+	 * Test setting, getting and removing place states.
+	 */
+	@Test
+	public void testPTMarkingStates() {
+		PTMarking marking = new PTMarking();
+		assertTrue(marking.isEmpty());
+		assertNull(marking.get("p1"));
+
+		marking.set("p1", 2);
+		marking.set("p2", 1);
+		assertFalse(marking.isEmpty());
+		assertEquals(new Integer(2), marking.get("p1"));
+		assertTrue(marking.contains("p2"));
+		assertEquals(2, marking.places().size());
+
+		// Setting 0 tokens removes the place
+		marking.set("p2", 0);
+		assertFalse(marking.contains("p2"));
+		assertNull(marking.get("p2"));
+		assertEquals(1, marking.places().size());
+
+		marking.remove("p1");
+		assertTrue(marking.isEmpty());
+	}
+
+	/*
+	 * Test equals and hashCode of markings with shared and with different place indices.
+	 */
+	@Test
+	public void testPTMarkingEquality() {
+		PTPlaceIndex index = new PTPlaceIndex();
+		PTMarking m1 = new PTMarking(index);
+		PTMarking m2 = new PTMarking(index);
+		PTMarking m3 = new PTMarking();
+		m1.set("p1", 1);
+		m1.set("p2", 3);
+		m2.set("p2", 3);
+		m2.set("p1", 1);
+		m3.set("p2", 3);
+		m3.set("p1", 1);
+		assertEquals(m1, m2);
+		assertEquals(m1.hashCode(), m2.hashCode());
+		assertEquals(m1, m3);
+		assertEquals(m3, m1);
+		assertEquals(m1.hashCode(), m3.hashCode());
+
+		// A place index grown after marking creation must not affect equality
+		index.register("p3");
+		PTMarking m4 = new PTMarking(index);
+		m4.set("p1", 1);
+		m4.set("p2", 3);
+		assertEquals(m1, m4);
+
+		m2.set("p1", 2);
+		assertNotEquals(m1, m2);
+		m2.set("p1", 1);
+		assertEquals(m1, m2);
+		assertEquals(m1.hashCode(), m2.hashCode());
+
+		Set<PTMarking> markings = new HashSet<PTMarking>();
+		markings.add(m1);
+		assertTrue(markings.contains(m3));
+	}
+
+	/*
+	 * Test that clones are equal but independent.
+	 */
+	@Test
+	public void testPTMarkingClone() {
+		PTMarking marking = new PTMarking();
+		marking.set("p1", 1);
+		PTMarking clone = marking.clone();
+		assertEquals(marking, clone);
+		clone.set("p1", 5);
+		assertEquals(new Integer(1), marking.get("p1"));
+		assertEquals(new Integer(5), clone.get("p1"));
+	}
+
+	/*
+	 * Test that markings of a P/T-net use the net's place index.
+	 */
+	@Test
+	public void testPTNetPlaceIndex() throws Exception {
+		PTNet net = new PTNet();
+		net.addPlace("p1");
+		net.addPlace("p2");
+		net.addTransition("t1");
+		net.addFlowRelationPT("p1", "t1");
+		net.addFlowRelationTP("t1", "p2", 2);
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 1);
+		net.setInitialMarking(initialMarking);
+
+		assertSame(net.getPlaceIndex(), net.getMarking().getPlaceIndex());
+		assertEquals(0, net.getPlaceIndex().getIndex("p1"));
+		assertEquals(1, net.getPlaceIndex().getIndex("p2"));
+
+		PTMarking firedMarking = net.fireCheck("t1");
+		assertFalse(firedMarking.contains("p1"));
+		assertEquals(new Integer(2), firedMarking.get("p2"));
+		assertEquals(initialMarking, net.getMarking());
+	}
+
+}
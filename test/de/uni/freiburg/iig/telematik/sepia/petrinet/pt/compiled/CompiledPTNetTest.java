@@ -0,0 +1,169 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraph;
+import de.uni.freiburg.iig.telematik.sepia.mg.abstr.AbstractMarkingGraphState;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstruction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstructorCallableGenerator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ThreadedMGCalculator;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * Tests for the {@link CompiledPTNet}.
+ */
+public class CompiledPTNetTest {
+
+	private PTNet net = null;
+
+	@Before
+	public void setUp() {
+		net = new PTNet();
+		net.addPlace("p1");
+		net.addPlace("p2");
+		net.addPlace("p3");
+		net.addTransition("t1");
+		net.addTransition("t2");
+		net.addFlowRelationPT("p1", "t1");
+		net.addFlowRelationTP("t1", "p2", 2);
+		net.addFlowRelationPT("p2", "t2", 2);
+		net.addFlowRelationTP("t2", "p3");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 1);
+		net.setInitialMarking(initialMarking);
+	}
+
+	/*
+	 * Test that enabling and firing on marking vectors corresponds to firing the net.
+	 */
+	@Test
+	public void testCompiledFiring() throws Exception {
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		assertEquals(3, compiledNet.getPlaceCount());
+		assertEquals(2, compiledNet.getTransitionCount());
+
+		int t1 = compiledNet.getTransitionIndex("t1");
+		int t2 = compiledNet.getTransitionIndex("t2");
+		int[] marking = compiledNet.getInitialMarking();
+		assertTrue(compiledNet.isEnabled(marking, t1));
+		assertFalse(compiledNet.isEnabled(marking, t2));
+
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		assertEquals(1, compiledNet.getEnabledTransitions(marking, enabledTransitions));
+		assertEquals(t1, enabledTransitions[0]);
+
+		int[] newMarking = compiledNet.fire(marking, t1);
+		assertEquals(1, marking[compiledNet.getPlaceIndex("p1")]);
+		assertEquals(net.fireCheck("t1"), compiledNet.toMarking(newMarking));
+
+		compiledNet.fireInPlace(newMarking, t2);
+		assertFalse(compiledNet.hasEnabledTransitions(newMarking));
+		assertEquals(1, newMarking[compiledNet.getPlaceIndex("p3")]);
+		assertArrayEquals(newMarking, compiledNet.toVector(compiledNet.toMarking(newMarking)));
+
+		// The net itself is not affected
+		assertEquals(net.getInitialMarking(), net.getMarking());
+	}
+
+	/*
+	 * Test that capacities disable transitions, like in the net.
+	 */
+	@Test
+	public void testCompiledFiringCapacity() throws Exception {
+		net.getPlace("p2").setCapacity(1);
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		int t1 = compiledNet.getTransitionIndex("t1");
+		assertFalse(compiledNet.isEnabled(compiledNet.getInitialMarking(), t1));
+		assertFalse(compiledNet.hasEnabledTransitions(compiledNet.getInitialMarking()));
+		assertFalse(net.getTransition("t1").isEnabled());
+		try {
+			net.fire("t1");
+			fail("Exception expected: t1 is disabled");
+		} catch (PNException e) {
+			// expected
+		}
+
+		// Increasing the capacity enables t1 again
+		net.getPlace("p2").setCapacity(2);
+		assertTrue(net.getTransition("t1").isEnabled());
+		assertTrue(new CompiledPTNet<PTMarking>(net).isEnabled(compiledNet.getInitialMarking(), t1));
+	}
+
+	/*
+	 * Test that the capacity check considers tokens consumed from the same place.
+	 */
+	@Test
+	public void testCompiledFiringCapacitySelfLoop() {
+		net.addFlowRelationPT("p2", "t1");
+		net.getPlace("p2").setCapacity(2);
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 1);
+		initialMarking.set("p2", 1);
+		net.setInitialMarking(initialMarking);
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		int t1 = compiledNet.getTransitionIndex("t1");
+		assertTrue(compiledNet.isEnabled(compiledNet.getInitialMarking(), t1));
+		assertTrue(net.getTransition("t1").isEnabled());
+		int[] marking = compiledNet.fire(compiledNet.getInitialMarking(), t1);
+		assertEquals(2, marking[compiledNet.getPlaceIndex("p2")]);
+	}
+
+	/*
+	 * Test that compiled and interpreted execution build the same marking graph of a capacitated net,
+	 * in which the capacity of the buffer disables the producer.
+	 */
+	@Test
+	public void testCapacityMarkingGraph() throws Exception {
+		net = new PTNet();
+		for(String place: new String[]{"ready", "buffer", "done"}){
+			net.addPlace(place);
+		}
+		net.addTransition("produce");
+		net.addTransition("consume");
+		net.addFlowRelationPT("ready", "produce");
+		net.addFlowRelationTP("produce", "buffer");
+		net.addFlowRelationPT("buffer", "consume");
+		net.addFlowRelationTP("consume", "done");
+		net.getPlace("buffer").setCapacity(2);
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("ready", 4);
+		net.setInitialMarking(initialMarking);
+
+		AbstractMarkingGraph<PTMarking,Integer,?,?> interpreted = buildMarkingGraph(false);
+		AbstractMarkingGraph<PTMarking,Integer,?,?> compiled = buildMarkingGraph(true);
+		// (ready, buffer, done) with ready+buffer+done=4 and buffer<=2
+		assertEquals(12, interpreted.getStates().size());
+		assertEquals(interpreted.getStates().size(), compiled.getStates().size());
+		assertEquals(interpreted.getRelations().size(), compiled.getRelations().size());
+		assertEquals(getMarkings(interpreted), getMarkings(compiled));
+		for(PTMarking marking: getMarkings(interpreted)){
+			assertTrue(marking.get("buffer") == null || marking.get("buffer") <= 2);
+		}
+	}
+
+	private static Set<PTMarking> getMarkings(AbstractMarkingGraph<PTMarking,Integer,?,?> markingGraph) {
+		Set<PTMarking> markings = new HashSet<PTMarking>();
+		for(AbstractMarkingGraphState<PTMarking,Integer> state: markingGraph.getStates()){
+			markings.add(state.getElement());
+		}
+		return markings;
+	}
+
+	private AbstractMarkingGraph<PTMarking,Integer,?,?> buildMarkingGraph(boolean compiledExecution) throws Exception {
+		MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer> generator = new MGConstructorCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(net);
+		generator.setCompiledExecution(compiledExecution);
+		return MGConstruction.buildMarkingGraph(new ThreadedMGCalculator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer>(generator));
+	}
+
+}
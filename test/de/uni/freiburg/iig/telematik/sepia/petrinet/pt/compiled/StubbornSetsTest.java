@@ -0,0 +1,143 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+
+/**
+ * Tests for the {@link StubbornSets}.
+ */
+public class StubbornSetsTest {
+
+	private PTNet net = null;
+
+	/*
+	 * Two independent branches a1 -> t1 -> b1 and a2 -> t2 -> b2,
+	 * and a conflict between t3 and t4 on place c.
+	 */
+	@Before
+	public void setUp() {
+		net = new PTNet();
+		for(String place: new String[]{"a1", "b1", "a2", "b2", "c", "d"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"t1", "t2", "t3", "t4"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("a1", "t1");
+		net.addFlowRelationTP("t1", "b1");
+		net.addFlowRelationPT("a2", "t2");
+		net.addFlowRelationTP("t2", "b2");
+		net.addFlowRelationPT("c", "t3");
+		net.addFlowRelationTP("t3", "d");
+		net.addFlowRelationPT("c", "t4");
+		net.addFlowRelationTP("t4", "d");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("a1", 1);
+		initialMarking.set("a2", 1);
+		initialMarking.set("c", 1);
+		net.setInitialMarking(initialMarking);
+	}
+
+	/*
+	 * Test that one of the independent transitions is chosen.
+	 */
+	@Test
+	public void testIndependentTransitions() {
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		StubbornSets stubbornSets = new StubbornSets(compiledNet);
+		int[] marking = compiledNet.getInitialMarking();
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+		assertEquals(4, enabledCount);
+
+		assertEquals(1, stubbornSets.reduce(marking, enabledTransitions, enabledCount));
+		int chosen = enabledTransitions[0];
+		assertTrue(chosen == compiledNet.getTransitionIndex("t1") || chosen == compiledNet.getTransitionIndex("t2"));
+	}
+
+	/*
+	 * Test that conflicting transitions are kept together.
+	 */
+	@Test
+	public void testConflictingTransitions() {
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		StubbornSets stubbornSets = new StubbornSets(compiledNet);
+		int[] marking = compiledNet.getInitialMarking();
+		marking[compiledNet.getPlaceIndex("a1")] = 0;
+		marking[compiledNet.getPlaceIndex("a2")] = 0;
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+		assertEquals(2, stubbornSets.reduce(marking, enabledTransitions, enabledCount));
+	}
+
+	/*
+	 * Test that a disabled transition pulls in the transitions which produce tokens for it.
+	 */
+	@Test
+	public void testDisabledTransition() {
+		net.addTransition("t5");
+		net.addFlowRelationPT("b1", "t5");
+		net.addFlowRelationPT("a2", "t5");
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		StubbornSets stubbornSets = new StubbornSets(compiledNet);
+		int[] marking = compiledNet.getInitialMarking();
+		marking[compiledNet.getPlaceIndex("c")] = 0;
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+		assertEquals(2, enabledCount);
+
+		// t2 conflicts with the disabled t5 on a2, which waits for t1 on b1, so {t1} is the smallest stubborn set
+		assertEquals(1, stubbornSets.reduce(marking, enabledTransitions, enabledCount));
+		assertEquals(compiledNet.getTransitionIndex("t1"), enabledTransitions[0]);
+	}
+
+	/*
+	 * Test that transitions competing for the space in a place with a capacity are kept together.
+	 */
+	@Test
+	public void testCapacityConflict() {
+		net.addFlowRelationTP("t2", "b1");
+		net.getPlace("b1").setCapacity(1);
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		StubbornSets stubbornSets = new StubbornSets(compiledNet);
+		int[] marking = compiledNet.getInitialMarking();
+		marking[compiledNet.getPlaceIndex("c")] = 0;
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+		assertEquals(2, enabledCount);
+		assertEquals(2, stubbornSets.reduce(marking, enabledTransitions, enabledCount));
+	}
+
+	/*
+	 * Test that a transition disabled by a capacity pulls in the transitions which make space for it.
+	 */
+	@Test
+	public void testDisabledByCapacity() {
+		net.addTransition("t5");
+		net.addTransition("t6");
+		net.addFlowRelationPT("a2", "t5");
+		net.addFlowRelationTP("t5", "b1");
+		net.addFlowRelationPT("b1", "t6");
+		net.getPlace("b1").setCapacity(1);
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		StubbornSets stubbornSets = new StubbornSets(compiledNet);
+		int[] marking = compiledNet.getInitialMarking();
+		marking[compiledNet.getPlaceIndex("a1")] = 0;
+		marking[compiledNet.getPlaceIndex("b1")] = 1;
+		marking[compiledNet.getPlaceIndex("c")] = 0;
+		assertFalse(compiledNet.isEnabled(marking, compiledNet.getTransitionIndex("t5")));
+		int[] enabledTransitions = new int[compiledNet.getTransitionCount()];
+		int enabledCount = compiledNet.getEnabledTransitions(marking, enabledTransitions);
+		assertEquals(2, enabledCount);
+
+		// t2 conflicts with t5 on a2, which waits for t6 to make space in b1, so {t6} is the smallest stubborn set
+		assertEquals(1, stubbornSets.reduce(marking, enabledTransitions, enabledCount));
+		assertEquals(compiledNet.getTransitionIndex("t6"), enabledTransitions[0]);
+	}
+
+}
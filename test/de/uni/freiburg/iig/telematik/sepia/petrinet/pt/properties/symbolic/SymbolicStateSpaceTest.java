@@ -0,0 +1,149 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.symbolic;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNValidationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessViolationException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.soundness.SoundnessWitness;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+
+/**
+ * Tests for the {@link SymbolicStateSpace}.
+ */
+public class SymbolicStateSpaceTest {
+
+	/*
+	 * Workflow net i -> split -> (a_j -> t_j -> b_j)* -> join -> o with the given number of concurrent branches.
+	 */
+	private static PTNet createParallelNet(int branches) {
+		PTNet net = new PTNet();
+		net.addPlace("i");
+		net.addPlace("o");
+		net.addTransition("split");
+		net.addTransition("join");
+		net.addFlowRelationPT("i", "split");
+		net.addFlowRelationTP("join", "o");
+		for(int j=0; j<branches; j++){
+			net.addPlace("a" + j);
+			net.addPlace("b" + j);
+			net.addTransition("t" + j);
+			net.addFlowRelationTP("split", "a" + j);
+			net.addFlowRelationPT("a" + j, "t" + j);
+			net.addFlowRelationTP("t" + j, "b" + j);
+			net.addFlowRelationPT("b" + j, "join");
+		}
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	/*
+	 * Test the reachable markings and dead markings of a net with concurrent branches.
+	 */
+	@Test
+	public void testReachableMarkings() throws Exception {
+		SymbolicStateSpace<PTMarking> stateSpace = new SymbolicStateSpace<PTMarking>(createParallelNet(40));
+		stateSpace.explore();
+
+		// i, o and 2^40 markings of the concurrent branches
+		assertEquals(BigInteger.ONE.shiftLeft(40).add(BigInteger.valueOf(2)), stateSpace.getReachableMarkingCount());
+		assertEquals(BigInteger.ONE, stateSpace.getDeadlockCount());
+		assertTrue(stateSpace.getDeadTransitions().isEmpty());
+		assertEquals(42, stateSpace.getDeadlockSequence().size());
+
+		PTMarking finalMarking = new PTMarking();
+		finalMarking.set("o", 1);
+		assertEquals(finalMarking, stateSpace.getDeadlock());
+		assertTrue(stateSpace.isReachable(finalMarking));
+
+		PTMarking marking = new PTMarking();
+		marking.set("i", 1);
+		marking.set("o", 1);
+		assertFalse(stateSpace.isReachable(marking));
+
+		stateSpace.checkSoundness("o", false);
+	}
+
+	/*
+	 * Test that an improper dead marking is reported with a shortest firing sequence.
+	 */
+	@Test
+	public void testImproperTermination() throws Exception {
+		PTNet net = createParallelNet(2);
+		net.addTransition("skip");
+		net.addFlowRelationPT("a0", "skip");
+		net.addFlowRelationTP("skip", "o");
+		SymbolicStateSpace<PTMarking> stateSpace = new SymbolicStateSpace<PTMarking>(net);
+		stateSpace.explore();
+		assertEquals(BigInteger.valueOf(2), stateSpace.getDeadlockCount());
+
+		try {
+			stateSpace.checkSoundness("o", false);
+			fail("Improper termination not detected");
+		} catch(SoundnessViolationException e){
+			SoundnessWitness witness = e.getWitness();
+			assertEquals(SoundnessWitness.Violation.IMPROPER_TERMINATION, witness.getViolation());
+			assertEquals(3, witness.getFiringSequence().size());
+			assertEquals("split", witness.getFiringSequence().get(0));
+			assertTrue(witness.getFiringSequence().contains("skip"));
+		}
+	}
+
+	/*
+	 * Test that livelocks and dead transitions are detected.
+	 */
+	@Test
+	public void testNoOptionToComplete() throws Exception {
+		PTNet net = new PTNet();
+		for(String place: new String[]{"i", "o", "x"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"t1", "t2", "t3", "t4"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("i", "t1");
+		net.addFlowRelationTP("t1", "o");
+		net.addFlowRelationPT("i", "t2");
+		net.addFlowRelationTP("t2", "x");
+		net.addFlowRelationPT("x", "t3");
+		net.addFlowRelationTP("t3", "x");
+		net.addFlowRelationPT("x", "t4");
+		net.addFlowRelationPT("o", "t4");
+		net.addFlowRelationTP("t4", "o");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+
+		SymbolicStateSpace<PTMarking> stateSpace = new SymbolicStateSpace<PTMarking>(net);
+		stateSpace.explore();
+		assertEquals(BigInteger.valueOf(3), stateSpace.getReachableMarkingCount());
+		assertEquals(Collections.singleton("t4"), stateSpace.getDeadTransitions());
+
+		try {
+			stateSpace.checkSoundness("o", false);
+			fail("Livelock not detected");
+		} catch(SoundnessViolationException e){
+			assertEquals(SoundnessWitness.Violation.NO_OPTION_TO_COMPLETE, e.getWitness().getViolation());
+			assertEquals(Arrays.asList("t2"), e.getWitness().getFiringSequence());
+		}
+	}
+
+	/*
+	 * Test that unsafe nets are rejected.
+	 */
+	@Test(expected=PNValidationException.class)
+	public void testUnsafeNet() throws Exception {
+		PTNet net = createParallelNet(2);
+		net.addFlowRelationTP("t0", "b1");
+		new SymbolicStateSpace<PTMarking>(net).explore();
+	}
+
+}
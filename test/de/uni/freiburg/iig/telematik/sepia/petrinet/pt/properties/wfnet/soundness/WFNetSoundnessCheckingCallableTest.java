@@ -0,0 +1,145 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.soundness;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.PropertyCheckingResult;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.MGConstruction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.StateSpaceReduction;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.WFNetException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.properties.wfnet.WFNetProperties;
+
+/**
+ * Tests for the {@link WFNetSoundnessCheckingCallable}.
+ */
+public class WFNetSoundnessCheckingCallableTest {
+
+	/*
+	 * Workflow net i -> a -> p -> b -> o, in which "loop" can put arbitrarily many tokens into x.
+	 */
+	private static PTNet createUnboundedNet() {
+		PTNet net = new PTNet();
+		for(String place: new String[]{"i", "p", "x", "o"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"a", "loop", "b", "c"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("i", "a");
+		net.addFlowRelationTP("a", "p");
+		net.addFlowRelationPT("p", "loop");
+		net.addFlowRelationTP("loop", "p");
+		net.addFlowRelationTP("loop", "x");
+		net.addFlowRelationPT("x", "c");
+		net.addFlowRelationTP("c", "x");
+		net.addFlowRelationPT("p", "b");
+		net.addFlowRelationTP("b", "o");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	/*
+	 * Workflow net, in which split starts four concurrent branches p_j -> t_j -> q_j joined by join,
+	 * and skip terminates improperly by moving the token of p1 to o.
+	 */
+	private static PTNet createImproperConcurrentNet() {
+		PTNet net = new PTNet();
+		net.addPlace("i");
+		net.addPlace("o");
+		net.addTransition("split");
+		net.addTransition("join");
+		net.addTransition("skip");
+		net.addFlowRelationPT("i", "split");
+		net.addFlowRelationTP("join", "o");
+		for(int j=1; j<=4; j++){
+			net.addPlace("p" + j);
+			net.addPlace("q" + j);
+			net.addTransition("t" + j);
+			net.addFlowRelationTP("split", "p" + j);
+			net.addFlowRelationPT("p" + j, "t" + j);
+			net.addFlowRelationTP("t" + j, "q" + j);
+			net.addFlowRelationPT("q" + j, "join");
+		}
+		net.addFlowRelationPT("p1", "skip");
+		net.addFlowRelationTP("skip", "o");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+		return net;
+	}
+
+	private static WFNetSoundnessCheckingCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking> createGenerator(PTNet net) {
+		WFNetSoundnessCheckingCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking> generator = new WFNetSoundnessCheckingCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking>(net);
+		generator.setCheckCWNStructure(false);
+		generator.setOnTheFly(true);
+		return generator;
+	}
+
+	/*
+	 * Test that the on-the-fly check decides boundedness before exploring the state space.
+	 */
+	@Test
+	public void testOnTheFlyUnbounded() throws Exception {
+		try {
+			new WFNetSoundnessCheckingCallable<PTPlace,PTTransition,PTFlowRelation,PTMarking>(createGenerator(createUnboundedNet())).callRoutine();
+			fail("Unbounded net not detected");
+		} catch(WFNetException e){
+			WFNetProperties properties = e.getProperties();
+			assertEquals(PropertyCheckingResult.FALSE, properties.isBounded);
+			assertEquals(PropertyCheckingResult.FALSE, properties.isSoundWFNet);
+		}
+	}
+
+	/*
+	 * Test that an exceeded budget leaves boundedness and soundness unknown if it is not checked before.
+	 */
+	@Test
+	public void testOnTheFlyBudgetExceeded() throws Exception {
+		WFNetSoundnessCheckingCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking> generator = createGenerator(createUnboundedNet());
+		generator.setCheckBoundedness(false);
+		ExplorationBudget budget = new ExplorationBudget();
+		budget.setMaxStates(100);
+		generator.setExplorationBudget(budget);
+		try {
+			new WFNetSoundnessCheckingCallable<PTPlace,PTTransition,PTFlowRelation,PTMarking>(generator).callRoutine();
+			fail("Exceeded budget not reported");
+		} catch(WFNetException e){
+			assertEquals(PropertyCheckingResult.UNKNOWN, e.getProperties().isBounded);
+			assertEquals(PropertyCheckingResult.UNKNOWN, e.getProperties().isSoundWFNet);
+		}
+	}
+
+	/*
+	 * Test that a selected reduction is used with the default boundedness check,
+	 * i.e. the counterexample is found on the reduced marking graph.
+	 */
+	@Test
+	public void testReductionWithBoundednessCheck() throws Exception {
+		PTNet net = createImproperConcurrentNet();
+		WFNetSoundnessCheckingCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking> generator = new WFNetSoundnessCheckingCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking>(net);
+		generator.setCheckCWNStructure(false);
+		assertTrue(generator.isCheckBoundedness());
+		generator.setReduction(StateSpaceReduction.STUBBORN_SETS);
+		try {
+			new WFNetSoundnessCheckingCallable<PTPlace,PTTransition,PTFlowRelation,PTMarking>(generator).callRoutine();
+			fail("Improper termination not detected");
+		} catch(WFNetException e){
+			WFNetProperties properties = e.getProperties();
+			assertEquals(PropertyCheckingResult.TRUE, properties.isBounded);
+			assertEquals(PropertyCheckingResult.FALSE, properties.optionToCompleteAndProperCompletion);
+			assertEquals(StateSpaceReduction.STUBBORN_SETS, properties.reduction);
+			assertTrue(properties.markingGraph.getStates().size() < MGConstruction.buildMarkingGraph(net).getStates().size());
+			assertNull(generator.getMarkingGraph());
+		}
+	}
+
+}
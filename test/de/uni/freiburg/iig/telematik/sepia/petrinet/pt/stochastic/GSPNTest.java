@@ -0,0 +1,175 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.pt.stochastic;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+
+/**
+ * Tests for the {@link GSPN}, its {@link CTMC} and the {@link GSPNSimulator}.
+ */
+public class GSPNTest {
+
+	private static final double EPSILON = 1e-8;
+
+	private PTNet net = null;
+	private GSPN<PTMarking> gspn = null;
+
+	/*
+	 * Cycle p1 -> t1 -> p2 with an immediate choice between i1 (weight 1, to p3) and i2 (weight 3, to p4),
+	 * p3 -> t3 -> p1 and p4 -> t4 -> p1.
+	 */
+	@Before
+	public void setUp() {
+		net = new PTNet();
+		for(String place: new String[]{"p1", "p2", "p3", "p4"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"t1", "i1", "i2", "t3", "t4"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("p1", "t1");
+		net.addFlowRelationTP("t1", "p2");
+		net.addFlowRelationPT("p2", "i1");
+		net.addFlowRelationTP("i1", "p3");
+		net.addFlowRelationPT("p2", "i2");
+		net.addFlowRelationTP("i2", "p4");
+		net.addFlowRelationPT("p3", "t3");
+		net.addFlowRelationTP("t3", "p1");
+		net.addFlowRelationPT("p4", "t4");
+		net.addFlowRelationTP("t4", "p1");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 1);
+		net.setInitialMarking(initialMarking);
+
+		gspn = new GSPN<PTMarking>(net);
+		gspn.setRate("t1", 1.0);
+		gspn.setImmediate("i1", 1.0);
+		gspn.setImmediate("i2", 3.0);
+		gspn.setRate("t3", 2.0);
+		gspn.setRate("t4", 4.0);
+	}
+
+	/*
+	 * Test steady-state and transient probabilities against the analytical solution.
+	 */
+	@Test
+	public void testCTMC() throws Exception {
+		CTMC<PTMarking> ctmc = gspn.generateCTMC();
+		// Vanishing marking p2 is eliminated
+		assertEquals(3, ctmc.getStateCount());
+		assertEquals(4, ctmc.getTransitionCount());
+
+		// pi(p1) * 1 = 2 pi(p3) + 4 pi(p4), pi(p3) = pi(p1) / 8, pi(p4) = 3 pi(p1) / 16
+		double p1 = 1.0 / (1.0 + 0.125 + 0.1875);
+		GSPNMeasures measures = ctmc.getMeasures(ctmc.solveSteadyState());
+		assertEquals(p1, measures.getMeanTokens("p1"), EPSILON);
+		assertEquals(0.125 * p1, measures.getUtilisation("p3"), EPSILON);
+		assertEquals(0.0, measures.getMeanTokens("p2"), EPSILON);
+		assertEquals(p1, measures.getThroughput("t1"), EPSILON);
+		assertEquals(0.25 * p1, measures.getThroughput("i1"), EPSILON);
+		assertEquals(0.75 * p1, measures.getThroughput("i2"), EPSILON);
+		assertEquals(0.75 * p1, measures.getThroughput("t4"), EPSILON);
+		assertEquals(p1, measures.getEnablingProbability("t1"), EPSILON);
+
+		assertArrayEquals(ctmc.getInitialDistribution(), ctmc.solveTransient(0.0, EPSILON), EPSILON);
+		GSPNMeasures transientMeasures = ctmc.getMeasures(ctmc.solveTransient(100.0, 1e-12));
+		assertEquals(p1, transientMeasures.getMeanTokens("p1"), 1e-6);
+	}
+
+	/*
+	 * Test the steady state of a reducible chain with two closed classes and no absorbing state.
+	 * The transient cycle p0 <-> q is left by tA (rate 1) into the cycle a1 <-> a2 or by tB (rate 3) into the cycle b1 <-> b2.
+	 */
+	@Test
+	public void testReducibleCTMC() throws Exception {
+		PTNet reducibleNet = new PTNet();
+		for(String place: new String[]{"p0", "q", "a1", "a2", "b1", "b2"}){
+			reducibleNet.addPlace(place);
+		}
+		String[][] transitions = {{"tq", "p0", "q"}, {"tp", "q", "p0"}, {"tA", "p0", "a1"}, {"tB", "p0", "b1"},
+								  {"ta1", "a1", "a2"}, {"ta2", "a2", "a1"}, {"tb1", "b1", "b2"}, {"tb2", "b2", "b1"}};
+		for(String[] transition: transitions){
+			reducibleNet.addTransition(transition[0]);
+			reducibleNet.addFlowRelationPT(transition[1], transition[0]);
+			reducibleNet.addFlowRelationTP(transition[0], transition[2]);
+		}
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p0", 1);
+		reducibleNet.setInitialMarking(initialMarking);
+
+		GSPN<PTMarking> reducibleGSPN = new GSPN<PTMarking>(reducibleNet);
+		double[] rates = {2.0, 2.0, 1.0, 3.0, 1.0, 1.0, 1.0, 3.0};
+		for(int i=0; i<transitions.length; i++){
+			reducibleGSPN.setRate(transitions[i][0], rates[i]);
+		}
+		CTMC<PTMarking> ctmc = reducibleGSPN.generateCTMC();
+		assertEquals(6, ctmc.getStateCount());
+
+		// Classes are entered with probabilities 1/4 and 3/4, within b: pi(b1) * 1 = pi(b2) * 3
+		GSPNMeasures measures = ctmc.getMeasures(ctmc.solveSteadyState());
+		assertEquals(0.0, measures.getMeanTokens("p0"), EPSILON);
+		assertEquals(0.0, measures.getMeanTokens("q"), EPSILON);
+		assertEquals(0.125, measures.getMeanTokens("a1"), EPSILON);
+		assertEquals(0.125, measures.getMeanTokens("a2"), EPSILON);
+		assertEquals(0.5625, measures.getMeanTokens("b1"), EPSILON);
+		assertEquals(0.1875, measures.getMeanTokens("b2"), EPSILON);
+
+		GSPNMeasures transientMeasures = ctmc.getMeasures(ctmc.solveTransient(100.0, 1e-12));
+		assertEquals(0.5625, transientMeasures.getMeanTokens("b1"), 1e-6);
+	}
+
+	/*
+	 * Test that all probability ends in the absorbing state.
+	 */
+	@Test
+	public void testAbsorbingCTMC() throws Exception {
+		net.addPlace("done");
+		net.addTransition("finish");
+		net.addFlowRelationPT("p1", "finish");
+		net.addFlowRelationTP("finish", "done");
+		gspn = new GSPN<PTMarking>(net);
+		gspn.setRate("t1", 1.0);
+		gspn.setImmediate("i1", 1.0);
+		gspn.setImmediate("i2", 3.0);
+		gspn.setRate("t3", 2.0);
+		gspn.setRate("t4", 4.0);
+		gspn.setRate("finish", 0.5);
+		CTMC<PTMarking> ctmc = gspn.generateCTMC();
+		GSPNMeasures measures = ctmc.getMeasures(ctmc.solveSteadyState());
+		assertEquals(1.0, measures.getMeanTokens("done"), EPSILON);
+		assertEquals(0.0, measures.getMeanTokens("p1"), EPSILON);
+	}
+
+	/*
+	 * Test that simulation estimates the analytical measures.
+	 */
+	@Test
+	public void testSimulation() throws Exception {
+		double p1 = 1.0 / (1.0 + 0.125 + 0.1875);
+		GSPNMeasures measures = new GSPNSimulator(gspn, new Random(42)).simulate(100000.0);
+		assertEquals(p1, measures.getMeanTokens("p1"), 0.01);
+		assertEquals(0.75 * p1, measures.getThroughput("i2"), 0.01);
+	}
+
+	/*
+	 * Test that cycles of immediate transitions are rejected.
+	 */
+	@Test(expected = GSPNException.class)
+	public void testImmediateCycle() throws Exception {
+		net.addTransition("back");
+		net.addFlowRelationPT("p3", "back");
+		net.addFlowRelationTP("back", "p2");
+		GSPN<PTMarking> cyclicGSPN = new GSPN<PTMarking>(net);
+		cyclicGSPN.setImmediate("i1", 1.0);
+		cyclicGSPN.setImmediate("i2", 1.0);
+		cyclicGSPN.setImmediate("back", 1.0);
+		cyclicGSPN.generateCTMC();
+	}
+
+}
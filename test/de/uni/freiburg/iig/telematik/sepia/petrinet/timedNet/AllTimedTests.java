@@ -0,0 +1,15 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.AbstractTimedTransitionTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.CaseSimulatorTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.EventCalendarTest;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.WorkflowTimeMachineTest;
+
+@RunWith(Suite.class)
+@SuiteClasses({ CaseSimulatorTest.class, AbstractTimedTransitionTest.class, EventCalendarTest.class, WorkflowTimeMachineTest.class })
+public class AllTimedTests {
+}
@@ -0,0 +1,126 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IRandomized;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.ITimeBehaviour;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.ITimeContext;
+
+/**
+ * Nets and contexts for the tests of timed nets.
+ */
+public class TimedNetTestUtil {
+
+	/**
+	 * Creates a net with the given places and transitions, marking the first place with one token.
+	 * @param flowRelations pairs of source and target nodes
+	 */
+	public static TimedNet createNet(String name, String[] places, String[] transitions, String... flowRelations) {
+		TimedNet net = new TimedNet();
+		net.setName(name);
+		for(String place : places){
+			net.addPlace(place);
+		}
+		for(String transition : transitions){
+			net.addTransition(transition);
+		}
+		for(int i=0; i<flowRelations.length; i+=2){
+			if(net.containsPlace(flowRelations[i])){
+				net.addFlowRelationPT(flowRelations[i], flowRelations[i + 1]);
+			} else {
+				net.addFlowRelationTP(flowRelations[i], flowRelations[i + 1]);
+			}
+		}
+		TimedMarking marking = net.createNewMarking();
+		marking.set(places[0], 1);
+		net.setInitialMarking(marking);
+		return net;
+	}
+
+	/**
+	 * Creates the net start -&gt; a|b -&gt; middle -&gt; c -&gt; end.
+	 */
+	public static TimedNet createChoiceNet(String name) {
+		return createNet(name, new String[]{"start", "middle", "end"}, new String[]{"a", "b", "c"},
+				"start", "a", "start", "b", "a", "middle", "b", "middle", "middle", "c", "c", "end");
+	}
+
+	/**
+	 * Time context with fixed working times, activities without time are instantaneous.
+	 */
+	public static class FixedTimeContext implements ITimeContext {
+
+		private Map<String, Double> times = new HashMap<>();
+
+		public FixedTimeContext(Object... activityTimes) {
+			for(int i=0; i<activityTimes.length; i+=2){
+				times.put((String) activityTimes[i], ((Number) activityTimes[i + 1]).doubleValue());
+			}
+		}
+
+		@Override
+		public String getName() {
+			return "fixed";
+		}
+
+		@Override
+		public void setName(String name) {}
+
+		@Override
+		public double getTimeFor(String activity) {
+			return times.get(activity);
+		}
+
+		@Override
+		public ITimeBehaviour getTimeObjectFor(String activity) {
+			return null;
+		}
+
+		@Override
+		public boolean containsActivity(String activity) {
+			return times.containsKey(activity);
+		}
+
+		@Override
+		public void reset() {}
+
+		@Override
+		public double incrementTime(double inc) {
+			return 0;
+		}
+
+		@Override
+		public double getTime() {
+			return 0;
+		}
+
+	}
+
+	/**
+	 * Time context with exponentially distributed working times drawn from the generator of the simulation.
+	 */
+	public static class ExponentialTimeContext extends FixedTimeContext implements IRandomized {
+
+		private Random random = null;
+
+		public ExponentialTimeContext(Object... meanTimes) {
+			super(meanTimes);
+		}
+
+		@Override
+		public void setRandom(Random random) {
+			this.random = random;
+		}
+
+		@Override
+		public double getTimeFor(String activity) {
+			Random generator = random != null ? random : ThreadLocalRandom.current();
+			return -Math.log(1.0 - generator.nextDouble()) * super.getTimeFor(activity);
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil.FixedTimeContext;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IResource;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IResourceContext;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts.IndexedResourceContext;
+
+/**
+ * Tests for the resource checks of {@link AbstractTimedTransition}.
+ */
+public class AbstractTimedTransitionTest {
+
+	/*
+	 * Resource context which forwards to an indexed resource context, but uses the default availability check.
+	 */
+	private static class DefaultCheckResourceContext implements IResourceContext {
+
+		private IndexedResourceContext context = null;
+
+		private DefaultCheckResourceContext(IndexedResourceContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public String getName() {
+			return context.getName();
+		}
+
+		@Override
+		public void setName(String name) {
+			context.setName(name);
+		}
+
+		@Override
+		public void blockResources(List<String> resources) {
+			context.blockResources(resources);
+		}
+
+		@Override
+		public void unBlockResources(List<String> resources) {
+			context.unBlockResources(resources);
+		}
+
+		@Override
+		public List<String> getAllowedResourcesFor(String activity) {
+			return context.getAllowedResourcesFor(activity);
+		}
+
+		@Override
+		public List<String> getRandomAvailableResourceSetFor(String activity, boolean blockResources) {
+			return context.getRandomAvailableResourceSetFor(activity, blockResources);
+		}
+
+		@Override
+		public boolean isAvailable(String resourceName) {
+			return context.isAvailable(resourceName);
+		}
+
+		@Override
+		public IResource getResourceObject(String resourceName) {
+			return context.getResourceObject(resourceName);
+		}
+
+		@Override
+		public boolean containsBlockedResources() {
+			return context.containsBlockedResources();
+		}
+
+		@Override
+		public void reset() {
+			context.reset();
+		}
+
+		@Override
+		public void renameResource(String oldName, String newName) {
+			context.renameResource(oldName, newName);
+		}
+
+		@Override
+		public boolean needsResources(String activity) {
+			return context.needsResources(activity);
+		}
+
+	}
+
+	/*
+	 * Creates the net start -> a|b -> middle -> c -> end, where only c needs the resource "clerk".
+	 */
+	private static TimedNet createNet(IndexedResourceContext resourceContext, boolean defaultCheck) {
+		TimedNet net = TimedNetTestUtil.createChoiceNet("choice");
+		net.setTimeContext(new FixedTimeContext("a", 1, "b", 1, "c", 1));
+		resourceContext.addResourceSet("c", Arrays.asList("clerk"));
+		net.setResourceContext(defaultCheck ? new DefaultCheckResourceContext(resourceContext) : resourceContext);
+		return net;
+	}
+
+	private static void checkCanFire(TimedNet net, IndexedResourceContext resourceContext) {
+		// a and b need no resources
+		assertTrue(net.getTransition("a").canFire());
+		assertTrue(net.getTransition("b").canFire());
+		assertFalse(net.getTransition("c").canFire());
+
+		TimedMarking marking = net.createNewMarking();
+		marking.set("middle", 1);
+		net.setMarking(marking);
+		assertTrue(net.getTransition("c").canFire());
+		resourceContext.blockResources(Arrays.asList("clerk"));
+		assertFalse(net.getTransition("c").canFire());
+		resourceContext.unBlockResources(Arrays.asList("clerk"));
+		assertTrue(net.getTransition("c").canFire());
+	}
+
+	@Test
+	public void testCanFire() {
+		IndexedResourceContext resourceContext = new IndexedResourceContext("rc");
+		checkCanFire(createNet(resourceContext, false), resourceContext);
+	}
+
+	@Test
+	public void testCanFireDefaultAvailabilityCheck() {
+		IndexedResourceContext resourceContext = new IndexedResourceContext("rc");
+		checkCanFire(createNet(resourceContext, true), resourceContext);
+	}
+
+}
@@ -0,0 +1,79 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil.FixedTimeContext;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.StreamingStatisticListener;
+
+/**
+ * Tests for the {@link CaseSimulator}.
+ */
+public class CaseSimulatorTest {
+
+	private static final double EPSILON = 1e-9;
+
+	/*
+	 * AND-split into a fast branch to the drain place and two slow branches, 
+	 * so every case finishes while two transitions are still working.
+	 */
+	private static TimedNet createSplitNet() {
+		TimedNet net = TimedNetTestUtil.createNet("split", new String[]{"start", "p1", "p2", "p3", "q", "end"}, new String[]{"split", "fast", "slowA", "slowB", "join"},
+				"start", "split", "split", "p1", "split", "p2", "split", "p3",
+				"p1", "fast", "fast", "end",
+				"p2", "slowA", "slowA", "q", "p3", "slowB", "slowB", "q",
+				"q", "join", "join", "end");
+		net.setTimeContext(new FixedTimeContext("fast", 3, "slowA", 5, "slowB", 5, "join", 1));
+		net.setResourceContext(new IndexedResourceContext("none"));
+		return net;
+	}
+
+	@Test
+	public void testFinishedCaseWithWorkingTransitionsIsNotShared() throws PNException {
+		CaseSimulator simulator = new CaseSimulator(new Random(1), new StreamingStatisticListener());
+		// 案例在仍有两个变迁工作时结束，之后的案例在其完成事件之前和之后到达
+		simulator.addNet(createSplitNet(), ArrivalProcess.constant(1.0), 20);
+		HashMap<String, ArrayList<Double>> result = simulator.simulate();
+		assertEquals(20, result.get("split").size());
+		for(double cycleTime : result.get("split")){
+			assertEquals(3.0, cycleTime, EPSILON);
+		}
+		assertEquals(24.0, simulator.getTime(), EPSILON);
+	}
+
+	@Test
+	public void testSharedResource() throws PNException {
+		TimedNet net = TimedNetTestUtil.createChoiceNet("choice");
+		net.setTimeContext(new FixedTimeContext("a", 2, "b", 2, "c", 1));
+		IndexedResourceContext resourceContext = new IndexedResourceContext("rc");
+		for(String activity : new String[]{"a", "b", "c"}){
+			resourceContext.addResourceSet(activity, Arrays.asList("clerk"));
+		}
+		net.setResourceContext(resourceContext);
+		CaseSimulator simulator = new CaseSimulator(new Random(1), new StreamingStatisticListener());
+		simulator.addNet(net, ArrivalProcess.constant(0.0), 3);
+		ArrayList<Double> cycleTimes = simulator.simulate().get("choice");
+		// 三个案例共用一个资源，总工作时间为9
+		assertEquals(3, cycleTimes.size());
+		assertEquals(9.0, simulator.getTime(), EPSILON);
+		assertFalse(resourceContext.containsBlockedResources());
+	}
+
+	@Test
+	public void testRepeatedSimulation() throws PNException {
+		CaseSimulator simulator = new CaseSimulator(new Random(1), new StreamingStatisticListener());
+		simulator.addNet(createSplitNet(), ArrivalProcess.exponential(0.5), 50);
+		assertEquals(50, simulator.simulate().get("split").size());
+		assertEquals(50, simulator.simulate().get("split").size());
+	}
+
+}
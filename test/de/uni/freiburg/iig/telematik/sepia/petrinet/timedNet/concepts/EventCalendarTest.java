@@ -0,0 +1,108 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link EventCalendar}.
+ */
+public class EventCalendarTest {
+
+	/*
+	 * Test that events are polled in time order and events with equal time in insertion order.
+	 */
+	@Test
+	public void testPollOrder() {
+		EventCalendar<Integer> calendar = new EventCalendar<>();
+		Random random = new Random(1);
+		double[] times = new double[1000];
+		for(int i=0; i<times.length; i++){
+			times[i] = random.nextInt(20);
+			calendar.add(times[i], i);
+		}
+		double lastTime = Double.NEGATIVE_INFINITY;
+		int lastEvent = -1;
+		while(!calendar.isEmpty()){
+			double time = calendar.peekTime();
+			int event = calendar.poll();
+			assertEquals(times[event], time, 0);
+			assertTrue(time >= lastTime);
+			if(time == lastTime)
+				assertTrue(event > lastEvent);
+			lastTime = time;
+			lastEvent = event;
+		}
+	}
+
+	/*
+	 * Test that all events at the next time are returned in insertion order, also after removing events.
+	 */
+	@Test
+	public void testNextEvents() {
+		EventCalendar<String> calendar = new EventCalendar<>();
+		calendar.add(2.0, "a");
+		calendar.add(1.0, "b");
+		calendar.add(1.0, "c");
+		calendar.add(3.0, "d");
+		calendar.add(1.0, "e");
+		calendar.add(2.0, "f");
+		assertEquals(Arrays.asList("b", "c", "e"), calendar.getNextEvents());
+		assertEquals(6, calendar.size());
+
+		assertEquals("b", calendar.poll());
+		assertEquals(Arrays.asList("c", "e"), calendar.getNextEvents());
+
+		calendar.removeNextEvents();
+		assertEquals(Arrays.asList("a", "f"), calendar.getNextEvents());
+		calendar.add(2.0, "g");
+		calendar.add(0.5, "h");
+		assertEquals(Arrays.asList("h"), calendar.getNextEvents());
+		calendar.removeNextEvents();
+		assertEquals(Arrays.asList("a", "f", "g"), calendar.getNextEvents());
+
+		calendar.removeNextEvents();
+		assertEquals(Arrays.asList("d"), calendar.getNextEvents());
+		calendar.removeNextEvents();
+		assertTrue(calendar.isEmpty());
+		assertTrue(calendar.getNextEvents().isEmpty());
+	}
+
+	/*
+	 * Test many events at the same time, which are spread over the heap.
+	 */
+	@Test
+	public void testManyNextEvents() {
+		EventCalendar<Integer> calendar = new EventCalendar<>();
+		List<Integer> expected = new ArrayList<>();
+		for(int i=0; i<300; i++){
+			if(i % 3 == 0){
+				calendar.add(5.0, i);
+				expected.add(i);
+			} else {
+				calendar.add(5.0 + i, i);
+			}
+		}
+		calendar.add(1.0, -1);
+		assertEquals(Arrays.asList(-1), calendar.getNextEvents());
+		assertEquals(-1, calendar.poll().intValue());
+		for(int run=0; run<2; run++){
+			assertEquals(expected, calendar.getNextEvents());
+		}
+		calendar.removeNextEvents();
+		assertEquals(200, calendar.size());
+		assertEquals(Arrays.asList(1), calendar.getNextEvents());
+
+		calendar.clear();
+		assertTrue(calendar.isEmpty());
+		calendar.add(1.0, 1);
+		calendar.add(1.0, 2);
+		assertEquals(Arrays.asList(1, 2), calendar.getNextEvents());
+	}
+
+}
@@ -0,0 +1,156 @@
+package de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.concepts;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.exception.PNException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil.ExponentialTimeContext;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.TimedNetTestUtil.FixedTimeContext;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.timedNet.abstr.StreamingStatisticListener;
+import de.uni.freiburg.iig.telematik.sepia.util.RandomStreams;
+
+/**
+ * Tests for the {@link WorkflowTimeMachine}.
+ */
+public class WorkflowTimeMachineTest {
+
+	private static final double EPSILON = 1e-9;
+
+	/*
+	 * Sequence start -> a -> middle -> b -> end, which needs 5 time units.
+	 */
+	private static TimedNet createSequenceNet(String name, double deadline) {
+		TimedNet net = TimedNetTestUtil.createNet(name, new String[]{"start", "middle", "end"}, new String[]{"a", "b"},
+				"start", "a", "a", "middle", "middle", "b", "b", "end");
+		net.setTimeContext(new FixedTimeContext("a", 2, "b", 3));
+		net.setResourceContext(new IndexedResourceContext("none"));
+		net.setDeadline(deadline);
+		return net;
+	}
+
+	/*
+	 * Three choice nets with exponential working times, competing for the clerks of one shared resource context.
+	 */
+	private static class ChoiceNetFactory implements ITimedNetFactory {
+
+		private String[] clerks;
+
+		private ChoiceNetFactory(String... clerks) {
+			this.clerks = clerks;
+		}
+
+		@Override
+		public List<TimedNet> createNets() throws PNException {
+			IndexedResourceContext resourceContext = new IndexedResourceContext("clerks");
+			for(String activity : new String[]{"a", "b", "c"}){
+				for(String clerk : clerks){
+					resourceContext.addResourceSet(activity, Arrays.asList(clerk));
+				}
+			}
+			List<TimedNet> nets = new ArrayList<>();
+			for(String name : new String[]{"n1", "n2", "n3"}){
+				TimedNet net = TimedNetTestUtil.createChoiceNet(name);
+				net.setTimeContext(new ExponentialTimeContext("a", 2, "b", 3, "c", 1));
+				net.setResourceContext(resourceContext);
+				nets.add(net);
+			}
+			return nets;
+		}
+
+	}
+
+	private static HashMap<String, ArrayList<Double>> simulate(ITimedNetFactory factory, long seed, int steps) throws PNException {
+		WorkflowTimeMachine timeMachine = new WorkflowTimeMachine(new StreamingStatisticListener());
+		timeMachine.addAllNets(factory.createNets());
+		timeMachine.setRandomStreams(new RandomStreams(seed));
+		return timeMachine.simulateAll(steps);
+	}
+
+	/*
+	 * Test that simulations with the same random streams are identical, also if the streams are set before adding the nets.
+	 */
+	@Test
+	public void testRandomStreams() throws PNException {
+		ChoiceNetFactory factory = new ChoiceNetFactory("clerk1", "clerk2");
+		HashMap<String, ArrayList<Double>> result = simulate(factory, 7, 50);
+		assertEquals(50, result.get("n1").size());
+		assertEquals(result, simulate(factory, 7, 50));
+
+		WorkflowTimeMachine timeMachine = new WorkflowTimeMachine(new StreamingStatisticListener());
+		timeMachine.setRandomStreams(new RandomStreams(7));
+		timeMachine.addAllNets(factory.createNets());
+		assertEquals(result, timeMachine.simulateAll(50));
+
+		assertNotEquals(result, simulate(factory, 8, 50));
+	}
+
+	/*
+	 * Test that parallel replications give the same merged result as sequential replications, in the order of the replications.
+	 */
+	@Test
+	public void testSimulateReplications() throws Exception {
+		ChoiceNetFactory factory = new ChoiceNetFactory("clerk1", "clerk2");
+		HashMap<String, ArrayList<Double>> sequential = WorkflowTimeMachine.simulateReplications(factory, 30, 1, 5);
+		assertEquals(3, sequential.size());
+		assertEquals(30, sequential.get("n1").size());
+		assertEquals(sequential, WorkflowTimeMachine.simulateReplications(factory, 30, 4, 5));
+		// 多于重复次数的工作线程
+		assertEquals(sequential, WorkflowTimeMachine.simulateReplications(factory, 30, 40, 5));
+		assertNotEquals(sequential, WorkflowTimeMachine.simulateReplications(factory, 30, 4, 6));
+	}
+
+	/*
+	 * Test that the paired differences of two variants do not depend on the parallelism,
+	 * and that identical variants have no difference at all (common random numbers).
+	 */
+	@Test
+	public void testCompareReplications() throws Exception {
+		ChoiceNetFactory variant = new ChoiceNetFactory("clerk1", "clerk2");
+		ChoiceNetFactory reference = new ChoiceNetFactory("clerk1");
+		HashMap<String, OnlineStatistics> sequential = WorkflowTimeMachine.compareReplications(variant, reference, 40, 1, 11);
+		HashMap<String, OnlineStatistics> parallel = WorkflowTimeMachine.compareReplications(variant, reference, 40, 3, 11);
+		assertEquals(sequential.keySet(), parallel.keySet());
+		for(String net : new String[]{"n1", "n2", "n3"}){
+			assertEquals(40, parallel.get(net).getCount());
+			assertEquals(sequential.get(net).getMean(), parallel.get(net).getMean(), 0.0);
+			assertEquals(sequential.get(net).getVariance(), parallel.get(net).getVariance(), 0.0);
+		}
+		// 第二个职员缩短了等待时间
+		assertTrue(sequential.get("n1").getMean() + sequential.get("n2").getMean() + sequential.get("n3").getMean() < 0.0);
+
+		HashMap<String, OnlineStatistics> identical = WorkflowTimeMachine.compareReplications(reference, reference, 40, 3, 11);
+		for(OnlineStatistics differences : identical.values()){
+			assertEquals(0.0, differences.getMean(), 0.0);
+			assertEquals(0.0, differences.getVariance(), 0.0);
+		}
+	}
+
+	/*
+	 * Test that the completion of every net is reported against its deadline.
+	 */
+	@Test
+	public void testDeadlines() throws PNException {
+		StreamingStatisticListener listener = new StreamingStatisticListener();
+		WorkflowTimeMachine timeMachine = new WorkflowTimeMachine(listener);
+		timeMachine.addNet(createSequenceNet("late", 4));
+		timeMachine.addNet(createSequenceNet("inTime", 10));
+		timeMachine.addNet(createSequenceNet("noDeadline", 0));
+		timeMachine.simulateAll(3);
+
+		assertEquals(3, listener.getDeadlineTimes("late").getCount());
+		assertEquals(5.0, listener.getDeadlineTimes("late").getMean(), EPSILON);
+		assertEquals(1.0, listener.getDeadlineMissRate("late"), EPSILON);
+		assertEquals(3, listener.getDeadlineTimes("inTime").getCount());
+		assertEquals(0.0, listener.getDeadlineMissRate("inTime"), EPSILON);
+		assertNull(listener.getDeadlineTimes("noDeadline"));
+	}
+
+}
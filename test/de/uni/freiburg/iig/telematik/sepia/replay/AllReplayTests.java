@@ -0,0 +1,12 @@
+package de.uni.freiburg.iig.telematik.sepia.replay;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.ConformanceTest;
+
+@RunWith(Suite.class)
+@SuiteClasses({ ReplayCallableTest.class, ConformanceTest.class })
+public class AllReplayTests {
+}
@@ -0,0 +1,166 @@
+package de.uni.freiburg.iig.telematik.sepia.replay;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTFlowRelation;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTPlace;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.ReplayMode;
+import de.uni.freiburg.iig.telematik.sepia.replay.ReplayCallable.TerminationCriteria;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.Alignment;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.TokenReplayFitness;
+import de.uni.freiburg.iig.telematik.sewol.log.LogEntry;
+
+/**
+ * Tests for the {@link ReplayCallable}: replay of trace variants, parallel replay and conformance replay modes.
+ */
+public class ReplayCallableTest {
+
+	private PTNet net = null;
+	private List<List<String>> log = null;
+
+	/*
+	 * Workflow net i -> a -> p1 -> (b | tau) -> p2 -> c -> o, with a silent cycle p2 -> loop -> p1,
+	 * and a log with repeated fitting and deviating traces.
+	 */
+	@Before
+	public void setUp() {
+		net = new PTNet();
+		for(String place: new String[]{"i", "p1", "p2", "o"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"a", "b", "tau", "loop", "c"}){
+			net.addTransition(transition);
+		}
+		net.getTransition("tau").setSilent(true);
+		net.getTransition("loop").setSilent(true);
+		net.addFlowRelationPT("i", "a");
+		net.addFlowRelationTP("a", "p1");
+		net.addFlowRelationPT("p1", "b");
+		net.addFlowRelationTP("b", "p2");
+		net.addFlowRelationPT("p1", "tau");
+		net.addFlowRelationTP("tau", "p2");
+		net.addFlowRelationPT("p2", "loop");
+		net.addFlowRelationTP("loop", "p1");
+		net.addFlowRelationPT("p2", "c");
+		net.addFlowRelationTP("c", "o");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+
+		log = new ArrayList<List<String>>();
+		for(int i=0; i<3; i++){
+			log.add(Arrays.asList("a", "b", "c"));
+			log.add(Arrays.asList("a", "d", "c"));
+			log.add(Arrays.asList("a", "b", "b", "c"));
+			log.add(Arrays.asList("a", "c"));
+			log.add(Arrays.asList("b", "c"));
+			log.add(Arrays.asList("a", "b", "c", "c"));
+			log.add(Collections.<String>emptyList());
+		}
+	}
+
+	/*
+	 * Test that replaying every variant once yields the same per-trace results as replaying every trace on its own.
+	 */
+	@Test
+	public void testVariantsSameAsSingleTraces() throws Exception {
+		for(ReplayMode replayMode: ReplayMode.values()){
+			for(boolean compiledExecution: new boolean[]{false, true}){
+				ReplayResult<LogEntry> result = replay(log, replayMode, compiledExecution, 1);
+				List<List<String>> fittingSequences = new ArrayList<List<String>>();
+				List<List<String>> nonFittingSequences = new ArrayList<List<String>>();
+				for(int i=0; i<log.size(); i++){
+					ReplayResult<LogEntry> singleResult = replay(Collections.singletonList(log.get(i)), replayMode, compiledExecution, 1);
+					fittingSequences.addAll(singleResult.getFittingSequences());
+					nonFittingSequences.addAll(singleResult.getNonFittingSequences());
+					if(replayMode == ReplayMode.TOKEN_FITNESS)
+						assertSameFitness(singleResult.getTokenFitness().get(0), result.getTokenFitness().get(i));
+					if(replayMode == ReplayMode.ALIGNMENT)
+						assertSameAlignment(singleResult.getAlignments().get(0), result.getAlignments().get(i));
+				}
+				assertEquals(fittingSequences, new ArrayList<List<String>>(result.getFittingSequences()));
+				assertEquals(nonFittingSequences, new ArrayList<List<String>>(result.getNonFittingSequences()));
+			}
+		}
+	}
+
+	/*
+	 * Test that parallel replay yields the same per-trace results as sequential replay.
+	 */
+	@Test
+	public void testParallelSameAsSequential() throws Exception {
+		for(ReplayMode replayMode: ReplayMode.values()){
+			for(boolean compiledExecution: new boolean[]{false, true}){
+				ReplayResult<LogEntry> sequential = replay(log, replayMode, compiledExecution, 1);
+				ReplayResult<LogEntry> parallel = replay(log, replayMode, compiledExecution, 4);
+				assertEquals(new ArrayList<List<String>>(sequential.getFittingSequences()), new ArrayList<List<String>>(parallel.getFittingSequences()));
+				assertEquals(new ArrayList<List<String>>(sequential.getNonFittingSequences()), new ArrayList<List<String>>(parallel.getNonFittingSequences()));
+				for(int i=0; i<log.size(); i++){
+					if(replayMode == ReplayMode.TOKEN_FITNESS)
+						assertSameFitness(sequential.getTokenFitness().get(i), parallel.getTokenFitness().get(i));
+					if(replayMode == ReplayMode.ALIGNMENT)
+						assertSameAlignment(sequential.getAlignments().get(i), parallel.getAlignments().get(i));
+				}
+			}
+		}
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		assertEquals(initialMarking, net.getMarking());
+	}
+
+	/*
+	 * Test the classification and the alignment costs of the replay in alignment mode.
+	 * The silent cycle must not prevent the replay from terminating.
+	 */
+	@Test
+	public void testAlignmentCosts() throws Exception {
+		ReplayResult<LogEntry> result = replay(log, ReplayMode.ALIGNMENT, false, 2);
+		// a,b,c | a,d,c (log move d) | a,b,b,c (silent loop) | a,c (tau) | b,c (model move a) | a,b,c,c (log move c) | <> (model moves a,c)
+		int[] expectedCosts = new int[]{0, 1, 0, 0, 1, 1, 2};
+		assertEquals(log.size(), result.getAlignments().size());
+		for(int i=0; i<log.size(); i++){
+			assertEquals(log.get(i).toString(), expectedCosts[i % expectedCosts.length], result.getAlignments().get(i).getCost());
+		}
+		assertEquals(3 * 3, result.getFittingSequences().size());
+		assertEquals(3 * 4, result.getNonFittingSequences().size());
+		// a,d,c: 3 log moves plus the cheapest firing sequence a, tau, c of 2 visible transitions
+		assertEquals(5, result.getAlignments().get(1).getMaxCost());
+		assertEquals(0.8, result.getAlignments().get(1).getFitness(), 0.0001);
+	}
+
+	private static void assertSameFitness(TokenReplayFitness expected, TokenReplayFitness actual) {
+		assertEquals(expected.getProduced(), actual.getProduced());
+		assertEquals(expected.getConsumed(), actual.getConsumed());
+		assertEquals(expected.getMissing(), actual.getMissing());
+		assertEquals(expected.getRemaining(), actual.getRemaining());
+		assertEquals(expected.getUnknownActivities(), actual.getUnknownActivities());
+	}
+
+	private static void assertSameAlignment(Alignment expected, Alignment actual) {
+		assertEquals(expected.getCost(), actual.getCost());
+		assertEquals(expected.getMaxCost(), actual.getMaxCost());
+		assertEquals(expected.getMoves().size(), actual.getMoves().size());
+	}
+
+	private ReplayResult<LogEntry> replay(List<List<String>> sequences, ReplayMode replayMode, boolean compiledExecution, int parallelism) throws Exception {
+		ReplayCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer,LogEntry> generator = new ReplayCallableGenerator<PTPlace,PTTransition,PTFlowRelation,PTMarking,Integer,LogEntry>(net);
+		generator.setTerminationCriteria(TerminationCriteria.ESCAPABLE_WITH_SILENT_TRANSITIONS);
+		generator.setReplayMode(replayMode);
+		generator.setCompiledExecution(compiledExecution);
+		generator.setParallelism(parallelism);
+		generator.setLogSequences(sequences);
+		return Replay.replayTraces(generator);
+	}
+
+}
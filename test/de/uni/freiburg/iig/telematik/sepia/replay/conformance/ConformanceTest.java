@@ -0,0 +1,110 @@
+package de.uni.freiburg.iig.telematik.sepia.replay.conformance;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.properties.mg.ExplorationBudget;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+import de.uni.freiburg.iig.telematik.sepia.replay.Replay;
+import de.uni.freiburg.iig.telematik.sepia.replay.conformance.AlignmentMove.MoveType;
+
+/**
+ * Tests for the {@link TokenReplayer} and the {@link AlignmentSearch}.
+ */
+public class ConformanceTest {
+
+	private TokenReplayer tokenReplayer = null;
+	private AlignmentSearch alignmentSearch = null;
+
+	/*
+	 * Workflow net i -> a -> p1 -> (b | tau) -> p2 -> c -> o
+	 */
+	@Before
+	public void setUp() {
+		PTNet net = new PTNet();
+		for(String place: new String[]{"i", "p1", "p2", "o"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"a", "b", "tau", "c"}){
+			net.addTransition(transition);
+		}
+		net.getTransition("tau").setSilent(true);
+		net.addFlowRelationPT("i", "a");
+		net.addFlowRelationTP("a", "p1");
+		net.addFlowRelationPT("p1", "b");
+		net.addFlowRelationTP("b", "p2");
+		net.addFlowRelationPT("p1", "tau");
+		net.addFlowRelationTP("tau", "p2");
+		net.addFlowRelationPT("p2", "c");
+		net.addFlowRelationTP("c", "o");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("i", 1);
+		net.setInitialMarking(initialMarking);
+
+		CompiledPTNet<PTMarking> compiledNet = new CompiledPTNet<PTMarking>(net);
+		tokenReplayer = new TokenReplayer(compiledNet, Replay.getDefaultTransitionLabelRelation(net), null);
+		alignmentSearch = new AlignmentSearch(compiledNet, Replay.getDefaultTransitionLabelRelation(net), null, new ExplorationBudget());
+	}
+
+	/*
+	 * Test token counts of fitting and non-fitting sequences.
+	 */
+	@Test
+	public void testTokenReplay() throws Exception {
+		TokenReplayFitness fitness = tokenReplayer.replay(Arrays.asList("a", "b", "c"));
+		assertEquals(4, fitness.getProduced());
+		assertEquals(4, fitness.getConsumed());
+		assertTrue(fitness.isFitting());
+		assertEquals(1.0, fitness.getFitness(), 0.0001);
+
+		// c is enabled by the silent transition
+		assertTrue(tokenReplayer.replay(Arrays.asList("a", "c")).isFitting());
+
+		fitness = tokenReplayer.replay(Arrays.asList("a", "b", "b", "c"));
+		assertEquals(5, fitness.getProduced());
+		assertEquals(5, fitness.getConsumed());
+		assertEquals(1, fitness.getMissing());
+		assertEquals(1, fitness.getRemaining());
+		assertEquals(0.8, fitness.getFitness(), 0.0001);
+
+		fitness = tokenReplayer.replay(Arrays.asList("a", "x", "b", "c"));
+		assertEquals(1, fitness.getUnknownActivities());
+		assertFalse(fitness.isFitting());
+	}
+
+	/*
+	 * Test optimal alignments and their costs.
+	 */
+	@Test
+	public void testAlignment() throws Exception {
+		Alignment alignment = alignmentSearch.align(Arrays.asList("a", "c"));
+		assertEquals(0, alignment.getCost());
+		assertEquals(3, alignment.getMoves().size());
+		assertEquals(MoveType.SILENT, alignment.getMoves().get(1).getType());
+
+		alignment = alignmentSearch.align(Arrays.asList("a", "d", "c"));
+		assertEquals(1, alignment.getCost());
+		assertEquals(MoveType.LOG, alignment.getMoves().get(1).getType());
+		assertEquals("d", alignment.getMoves().get(1).getActivity());
+		// 3 activities and the cheapest firing sequence a, tau, c
+		assertEquals(5, alignment.getMaxCost());
+		assertEquals(0.8, alignment.getFitness(), 0.0001);
+
+		alignment = alignmentSearch.align(Arrays.asList("b", "c"));
+		assertEquals(1, alignment.getCost());
+		assertEquals(MoveType.MODEL, alignment.getMoves().get(0).getType());
+		assertEquals("a", alignment.getMoves().get(0).getTransition());
+
+		List<String> emptySequence = new ArrayList<String>();
+		assertEquals(0.0, alignmentSearch.align(emptySequence).getFitness(), 0.0001);
+	}
+
+}
@@ -0,0 +1,109 @@
+package de.uni.freiburg.iig.telematik.sepia.traversal;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.invation.code.toval.validate.ParameterException;
+
+/**
+ * Tests for the {@link AliasTable}.
+ */
+public class AliasTableTest {
+
+	/*
+	 * Random generator returning the given column and value, to check every column of a table.
+	 */
+	private static class FixedRandom extends Random {
+
+		private static final long serialVersionUID = 1L;
+
+		private int column;
+		private double value;
+
+		private FixedRandom(int column, double value) {
+			this.column = column;
+			this.value = value;
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return column;
+		}
+
+		@Override
+		public double nextDouble() {
+			return value;
+		}
+
+	}
+
+	private static void assertZeroWeightsNotSampled(double[] weights) {
+		AliasTable table = new AliasTable(weights);
+		for(int column=0; column<weights.length; column++){
+			for(double value : new double[]{0.0, 0.5, Math.nextDown(1.0)}){
+				int index = table.sample(new FixedRandom(column, value));
+				assertTrue("Sampled index " + index + " with weight zero", weights[index] > 0.0);
+			}
+		}
+	}
+
+	/*
+	 * Test that sampling frequencies match the weights.
+	 */
+	@Test
+	public void testFrequencies() {
+		double[] weights = {1.0, 2.0, 0.0, 3.0, 4.0};
+		AliasTable table = new AliasTable(weights);
+		assertEquals(5, table.size());
+		assertEquals(0.3, table.getProbability(3), 1e-12);
+
+		int samples = 200000;
+		int[] counts = new int[weights.length];
+		Random random = new Random(42);
+		for(int i=0; i<samples; i++){
+			counts[table.sample(random)]++;
+		}
+		for(int i=0; i<weights.length; i++){
+			assertEquals(table.getProbability(i), counts[i] / (double) samples, 0.005);
+		}
+		assertEquals(0, counts[2]);
+	}
+
+	/*
+	 * Test that indices with weight zero are never sampled, for every column of the table.
+	 */
+	@Test
+	public void testZeroWeights() {
+		assertZeroWeightsNotSampled(new double[]{0.0, 1.0});
+		assertZeroWeightsNotSampled(new double[]{0.1, 0.2, 0.7, 0.0, 0.0, 0.0});
+		assertZeroWeightsNotSampled(new double[]{0.0, 0.0, 1.0 / 3.0, 0.0, 1.0 / 3.0, 1.0 / 3.0, 0.0});
+		Random random = new Random(7);
+		for(int i=0; i<1000; i++){
+			double[] weights = new double[2 + random.nextInt(20)];
+			for(int j=0; j<weights.length; j++){
+				weights[j] = random.nextBoolean() ? 0.0 : random.nextDouble();
+			}
+			weights[random.nextInt(weights.length)] = 0.1;
+			assertZeroWeightsNotSampled(weights);
+		}
+	}
+
+	@Test(expected = ParameterException.class)
+	public void testNegativeWeight() {
+		new AliasTable(new double[]{1.0, -0.5});
+	}
+
+	@Test(expected = ParameterException.class)
+	public void testOnlyZeroWeights() {
+		new AliasTable(new double[]{0.0, 0.0});
+	}
+
+	@Test(expected = ParameterException.class)
+	public void testNoWeights() {
+		new AliasTable(new double[0]);
+	}
+
+}
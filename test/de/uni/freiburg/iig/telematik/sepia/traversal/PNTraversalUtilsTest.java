@@ -0,0 +1,110 @@
+package de.uni.freiburg.iig.telematik.sepia.traversal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.compiled.CompiledPTNet;
+
+/**
+ * Tests for the trace simulation of {@link PNTraversalUtils}.
+ */
+public class PNTraversalUtilsTest {
+
+	private static final int RUNS = 50;
+	private static final int MAX_EVENTS = 30;
+
+	private PTNet net = null;
+
+	/*
+	 * Loop p1 -> a|b -> p2 -> c -> p1, which is left by p2 -> done -> p3.
+	 */
+	@Before
+	public void setUp() {
+		net = new PTNet();
+		for(String place: new String[]{"p1", "p2", "p3"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"a", "b", "c", "done"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("p1", "a");
+		net.addFlowRelationTP("a", "p2");
+		net.addFlowRelationPT("p1", "b");
+		net.addFlowRelationTP("b", "p2");
+		net.addFlowRelationPT("p2", "c");
+		net.addFlowRelationTP("c", "p1");
+		net.addFlowRelationPT("p2", "done");
+		net.addFlowRelationTP("done", "p3");
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p1", 1);
+		net.setInitialMarking(initialMarking);
+	}
+
+	/*
+	 * Collects the traces in the order of the runs.
+	 */
+	private static class RunTraceSink implements TraceSink {
+
+		private List<List<String>> traces = new ArrayList<List<String>>(Collections.<List<String>>nCopies(RUNS, null));
+
+		@Override
+		public synchronized void addTrace(int run, List<String> trace) {
+			assertNull(traces.set(run, trace));
+		}
+
+		public synchronized List<List<String>> getTraces() {
+			return traces;
+		}
+
+	}
+
+	private List<List<String>> simulate(int parallelism, long seed) throws Exception {
+		RunTraceSink sink = new RunTraceSink();
+		PNTraversalUtils.simulateTraces(net, RUNS, MAX_EVENTS, false, parallelism, seed, sink);
+		return sink.getTraces();
+	}
+
+	private List<List<String>> simulateCompiled(int parallelism, long seed) throws Exception {
+		RunTraceSink sink = new RunTraceSink();
+		PNTraversalUtils.simulateTraces(new CompiledPTNet<PTMarking>(net), RUNS, MAX_EVENTS, false, parallelism, seed, sink);
+		return sink.getTraces();
+	}
+
+	/*
+	 * Test that every run produces the same trace for the same seed, independent of the parallelism.
+	 */
+	@Test
+	public void testSimulateTraces() throws Exception {
+		List<List<String>> traces = simulate(1, 42);
+		assertFalse(traces.contains(null));
+		assertTrue(new HashSet<List<String>>(traces).size() > 1);
+		assertEquals(traces, simulate(4, 42));
+		assertEquals(traces, simulate(RUNS + 1, 42));
+		assertNotEquals(traces, simulate(1, 43));
+		// 模拟不修改给定的网
+		assertEquals(1, net.getPlace("p1").getState().intValue());
+	}
+
+	/*
+	 * Test that every run of the compiled net produces the same trace for the same seed, independent of the parallelism.
+	 */
+	@Test
+	public void testSimulateCompiledTraces() throws Exception {
+		List<List<String>> traces = simulateCompiled(1, 42);
+		assertFalse(traces.contains(null));
+		assertTrue(new HashSet<List<String>>(traces).size() > 1);
+		assertEquals(traces, simulateCompiled(4, 42));
+		assertNotEquals(traces, simulateCompiled(1, 43));
+		assertEquals(traces, new ArrayList<List<String>>(PNTraversalUtils.testTraces(new CompiledPTNet<PTMarking>(net), RUNS, MAX_EVENTS, false, false, 42)));
+	}
+
+}
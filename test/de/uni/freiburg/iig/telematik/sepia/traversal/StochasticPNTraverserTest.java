@@ -0,0 +1,132 @@
+package de.uni.freiburg.iig.telematik.sepia.traversal;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.invation.code.toval.validate.InconsistencyException;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTMarking;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTNet;
+import de.uni.freiburg.iig.telematik.sepia.petrinet.pt.PTTransition;
+
+/**
+ * Tests for the {@link StochasticPNTraverser}.
+ */
+public class StochasticPNTraverserTest {
+
+	private static final int SAMPLES = 20000;
+
+	private PTNet net = null;
+	private StochasticPNTraverser<PTTransition> traverser = null;
+
+	/*
+	 * p0 -> t -> p1, followed by t1 (probability 0.3, also needs p4), t2 (probability 0.7, needs p3) and t3 (probability 0), all to p2.
+	 */
+	@Before
+	public void setUp() {
+		net = new PTNet();
+		for(String place: new String[]{"p0", "p1", "p2", "p3", "p4"}){
+			net.addPlace(place);
+		}
+		for(String transition: new String[]{"t", "t1", "t2", "t3"}){
+			net.addTransition(transition);
+		}
+		net.addFlowRelationPT("p0", "t");
+		net.addFlowRelationTP("t", "p1");
+		net.addFlowRelationPT("p1", "t1");
+		net.addFlowRelationPT("p4", "t1");
+		net.addFlowRelationTP("t1", "p2");
+		net.addFlowRelationPT("p1", "t2");
+		net.addFlowRelationPT("p3", "t2");
+		net.addFlowRelationTP("t2", "p2");
+		net.addFlowRelationPT("p1", "t3");
+		net.addFlowRelationTP("t3", "p2");
+
+		traverser = new StochasticPNTraverser<PTTransition>(net);
+		traverser.setRandom(new Random(42));
+		traverser.addFlowProbability("t", "t1", 0.3);
+		traverser.addFlowProbability("t", "t2", 0.7);
+		traverser.addFlowProbability("t", "t3", 0.0);
+	}
+
+	/*
+	 * Fires t in the given initial marking and counts the choices of t1, t2 and t3.
+	 */
+	private int[] countChoices(String... markedPlaces) throws Exception {
+		PTMarking initialMarking = new PTMarking();
+		initialMarking.set("p0", 1);
+		for(String place: markedPlaces){
+			initialMarking.set(place, 1);
+		}
+		net.setInitialMarking(initialMarking);
+		net.reset();
+		net.fire("t");
+		int[] counts = new int[3];
+		for(int i=0; i<SAMPLES; i++){
+			PTTransition transition = traverser.chooseNextTransition(net.getEnabledTransitions());
+			counts[Integer.parseInt(transition.getName().substring(1)) - 1]++;
+		}
+		return counts;
+	}
+
+	/*
+	 * Test that successors are chosen according to their probabilities and successors with probability 0 are never chosen.
+	 */
+	@Test
+	public void testFrequencies() throws Exception {
+		assertTrue(traverser.isValid());
+		int[] counts = countChoices("p3", "p4");
+		assertEquals(0.3, counts[0] / (double) SAMPLES, 0.02);
+		assertEquals(0.7, counts[1] / (double) SAMPLES, 0.02);
+		assertEquals(0, counts[2]);
+	}
+
+	/*
+	 * Test that a disabled successor is renormalised away instead of being returned or causing an exception.
+	 */
+	@Test
+	public void testDisabledSuccessor() throws Exception {
+		assertArrayEquals(new int[]{SAMPLES, 0, 0}, countChoices("p4"));
+		assertArrayEquals(new int[]{0, SAMPLES, 0}, countChoices("p3"));
+	}
+
+	/*
+	 * Test that the next transition is chosen among all enabled transitions if no successor with positive probability is enabled.
+	 */
+	@Test
+	public void testNoEnabledSuccessor() throws Exception {
+		assertArrayEquals(new int[]{0, 0, SAMPLES}, countChoices());
+	}
+
+	/*
+	 * Test that probabilities which do not sum up to 1 (e.g. all 0) make the traverser invalid,
+	 * also for the choice of the first transition.
+	 */
+	@Test
+	public void testInvalidProbabilities() throws Exception {
+		traverser.addFlowProbability("t1", "t3", 0.0);
+		assertFalse(traverser.isValid());
+		net.reset();
+		try {
+			traverser.chooseNextTransition(net.getEnabledTransitions());
+			fail("Exception expected: invalid probabilities");
+		} catch (InconsistencyException e) {
+			// expected
+		}
+		try {
+			countChoices("p3", "p4");
+			fail("Exception expected: invalid probabilities");
+		} catch (InconsistencyException e) {
+			// expected
+		}
+
+		traverser.addFlowProbability("t1", "t3", 0.5);
+		assertFalse(traverser.isValid());
+		traverser.addFlowProbability("t1", "t3", 1.0);
+		assertTrue(traverser.isValid());
+	}
+
+}
@@ -0,0 +1,85 @@
+package de.uni.freiburg.iig.telematik.sepia.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.invation.code.toval.validate.ParameterException;
+
+/**
+ * Tests for the {@link RandomStreams}.
+ */
+public class RandomStreamsTest {
+
+	private static long[] draw(Random random, int count) {
+		long[] values = new long[count];
+		for(int i=0; i<count; i++){
+			values[i] = random.nextLong();
+		}
+		return values;
+	}
+
+	/*
+	 * Test that the same seed gives the same streams and different seeds or names give different streams.
+	 */
+	@Test
+	public void testSameSeed() {
+		long[] transitions = draw(new RandomStreams(42).getStream(RandomStreams.TRANSITIONS), 10);
+		assertArrayEquals(transitions, draw(new RandomStreams(42).getStream(RandomStreams.TRANSITIONS), 10));
+		assertFalse(Arrays.equals(transitions, draw(new RandomStreams(43).getStream(RandomStreams.TRANSITIONS), 10)));
+		assertFalse(Arrays.equals(transitions, draw(new RandomStreams(42).getStream(RandomStreams.DURATIONS), 10)));
+	}
+
+	/*
+	 * Test that draws from one stream do not shift the numbers of another stream.
+	 */
+	@Test
+	public void testIndependentStreams() {
+		RandomStreams streams = new RandomStreams(42);
+		assertSame(streams.getStream(RandomStreams.DURATIONS), streams.getStream(RandomStreams.DURATIONS));
+		draw(streams.getStream(RandomStreams.DURATIONS), 100);
+		assertArrayEquals(draw(new RandomStreams(42).getStream(RandomStreams.TRANSITIONS), 10), draw(streams.getStream(RandomStreams.TRANSITIONS), 10));
+	}
+
+	/*
+	 * Test that the streams of a replication do not depend on the order in which replications are created and used.
+	 */
+	@Test
+	public void testReplicationOrder() {
+		int replications = 5;
+		RandomStreams forward = new RandomStreams(42);
+		long[][] forwardValues = new long[replications][];
+		for(int i=0; i<replications; i++){
+			forwardValues[i] = draw(forward.forReplication(i).getStream(RandomStreams.ARRIVALS), 10);
+		}
+		RandomStreams backward = new RandomStreams(42);
+		draw(backward.getStream(RandomStreams.ARRIVALS), 10);
+		for(int i=replications-1; i>=0; i--){
+			assertArrayEquals(forwardValues[i], draw(backward.forReplication(i).getStream(RandomStreams.ARRIVALS), 10));
+		}
+		assertFalse(Arrays.equals(forwardValues[0], forwardValues[1]));
+		assertEquals(new RandomStreams(42).forReplication(3).getSeed(), forward.forReplication(3).getSeed());
+	}
+
+	/*
+	 * Test that setSeed restarts a generator, including the cached gaussian value.
+	 */
+	@Test
+	public void testSetSeed() {
+		Random random = RandomStreams.createRandom(7);
+		double gaussian = random.nextGaussian();
+		long[] values = draw(random, 10);
+		random.setSeed(7);
+		assertEquals(gaussian, random.nextGaussian(), 0.0);
+		assertArrayEquals(values, draw(random, 10));
+	}
+
+	@Test(expected = ParameterException.class)
+	public void testNegativeReplication() {
+		new RandomStreams(42).forReplication(-1);
+	}
+
+}